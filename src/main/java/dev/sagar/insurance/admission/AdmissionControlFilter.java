@@ -0,0 +1,76 @@
+package dev.sagar.insurance.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "insurance.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionLimiters limiters;
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitGroup group = LimitGroup.classify(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            limiters.recordRejection(group);
+            reject(request, response, group);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // A streaming response runs on long after this thread returns. Holding the permit would let a few streams
+            // fill the group, and their durations would drag the limit down for ordinary requests.
+            if (request.isAsyncStarted()) {
+                limiter.releaseUnsampled();
+            } else {
+                limiter.release(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, LimitGroup group) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "Too many concurrent " + group.name().toLowerCase() + " requests, retry later");
+        body.put("path", "uri=" + request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.retryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
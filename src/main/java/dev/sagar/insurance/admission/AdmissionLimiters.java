@@ -0,0 +1,38 @@
+package dev.sagar.insurance.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class AdmissionLimiters {
+
+    private final Map<LimitGroup, GradientLimiter> limiters = new EnumMap<>(LimitGroup.class);
+    private final Map<LimitGroup, Counter> rejections = new EnumMap<>(LimitGroup.class);
+
+    public AdmissionLimiters(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        for (LimitGroup group : LimitGroup.values()) {
+            AdmissionProperties.GroupLimits limits = properties.limitsFor(group);
+            GradientLimiter limiter = new GradientLimiter(limits.initialLimit(), limits.minLimit(), limits.maxLimit(),
+                    properties.tolerance(), properties.smoothing());
+            limiters.put(group, limiter);
+
+            String tag = group.name().toLowerCase();
+            Gauge.builder("insurance.admission.limit", limiter, GradientLimiter::getLimit).tag("group", tag).register(meterRegistry);
+            Gauge.builder("insurance.admission.inflight", limiter, GradientLimiter::getInflight).tag("group", tag).register(meterRegistry);
+            rejections.put(group, Counter.builder("insurance.admission.rejected").tag("group", tag).register(meterRegistry));
+        }
+    }
+
+    public GradientLimiter get(LimitGroup group) {
+        return limiters.get(group);
+    }
+
+    public void recordRejection(LimitGroup group) {
+        rejections.get(group).increment();
+    }
+}
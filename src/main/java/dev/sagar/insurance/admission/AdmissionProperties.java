@@ -0,0 +1,39 @@
+package dev.sagar.insurance.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "insurance.admission")
+public record AdmissionProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("1s")
+        Duration retryAfter,
+
+        // How far the latency may rise above the no-load baseline before the limit starts to shrink
+        @DefaultValue("1.5")
+        double tolerance,
+
+        // Weight of each new limit estimate, between 0.0 and 1.0
+        @DefaultValue("0.2")
+        double smoothing,
+
+        Map<LimitGroup, GroupLimits> groups
+) {
+
+    private static final GroupLimits DEFAULT_LIMITS = new GroupLimits(20, 2, 200);
+
+    public GroupLimits limitsFor(LimitGroup group) {
+        Map<LimitGroup, GroupLimits> configured = groups != null ? groups : new EnumMap<>(LimitGroup.class);
+        return configured.getOrDefault(group, DEFAULT_LIMITS);
+    }
+
+    public record GroupLimits(int initialLimit, int minLimit, int maxLimit) {
+    }
+}
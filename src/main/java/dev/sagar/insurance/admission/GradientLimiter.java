@@ -0,0 +1,102 @@
+package dev.sagar.insurance.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient-style limiter: the limit follows the ratio between the long-term latency baseline and the latency of
+// the most recent sample window. Rising latency means requests are queueing somewhere, so the limit shrinks;
+// a small sqrt(limit) headroom lets it probe upwards again once latency settles.
+public class GradientLimiter {
+
+    private static final int WINDOW_SIZE = 10;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private long windowStartNanos = System.nanoTime();
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int inflightAtRelease = inflight.getAndDecrement();
+        onSample(rttNanos, inflightAtRelease);
+    }
+
+    // Frees the slot without a latency sample, for requests whose duration says nothing about capacity
+    public void releaseUnsampled() {
+        inflight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtRelease) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtRelease);
+
+        long now = System.nanoTime();
+        if (windowCount < WINDOW_SIZE && now - windowStartNanos < WINDOW_NANOS) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+        windowStartNanos = now;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) / LONG_WINDOW;
+        }
+        // Let the baseline recover quickly after a sustained slowdown has passed
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // An app-limited window says nothing about capacity, so it may not grow the limit
+        if (maxInflight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
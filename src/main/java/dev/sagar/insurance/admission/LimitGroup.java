@@ -0,0 +1,41 @@
+package dev.sagar.insurance.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+public enum LimitGroup {
+
+    // Single-entity lookups such as GET /api/claims/{id}
+    READ,
+
+    // POST, PUT and DELETE requests
+    WRITE,
+
+    // List, search and export requests that scan many rows
+    HEAVY;
+
+    // The claim status event stream stays open for as long as the client listens
+    private static final String EVENT_STREAM_PATH = "/api/claims/stream";
+
+    // Returns null for requests outside /api and for the event stream, which are never limited. The exemption is keyed
+    // on method and path only, never on headers a client could add to any request.
+    public static LimitGroup classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        boolean get = HttpMethod.GET.matches(request.getMethod());
+        if (get && path.equals(EVENT_STREAM_PATH)) {
+            return null;
+        }
+        if (!get) {
+            return WRITE;
+        }
+        String[] segments = path.split("/");
+        return segments.length == 4 && isNumeric(segments[3]) ? READ : HEAVY;
+    }
+
+    private static boolean isNumeric(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+}
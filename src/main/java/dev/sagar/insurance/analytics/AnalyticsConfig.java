@@ -0,0 +1,30 @@
+package dev.sagar.insurance.analytics;
+
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.List;
+
+// Loads the snapshot from every shard when sharding is enabled, otherwise from the application data source. The first
+// load starts right away in the background; queries answer 503 until it completes.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsConfig {
+
+    @Bean
+    public PortfolioAnalytics portfolioAnalytics(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources,
+                                                 AnalyticsProperties properties, TaskScheduler taskScheduler) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> dataSources = shards == null ? List.of(dataSource) : shards.pools();
+        PolicySnapshotLoader loader = new PolicySnapshotLoader(dataSources, properties.fetchSize(), Clock.systemUTC());
+        PortfolioAnalytics analytics = new PortfolioAnalytics(loader, properties.chunkSize());
+        taskScheduler.scheduleWithFixedDelay(analytics::refreshQuietly, properties.refreshInterval());
+        return analytics;
+    }
+}
@@ -0,0 +1,59 @@
+package dev.sagar.insurance.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Aggregates over the in-memory policy snapshot, e.g.
+// GET /api/analytics/policies?groupBy=type,ageBand&activeOn=2024-06-30&term=7-12m
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(prefix = "insurance.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final PortfolioAnalytics analytics;
+
+    @GetMapping("/policies")
+    public ResponseEntity<AnalyticsResult> aggregatePolicies(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate activeOn,
+            @RequestParam(required = false) Set<String> type,
+            @RequestParam(required = false) Set<String> term,
+            @RequestParam(required = false) Set<String> ageBand,
+            @RequestParam(required = false) Set<String> startYear) {
+        List<Dimension> dimensions = groupBy == null ? List.of() : groupBy.stream().map(Dimension::fromParameter).toList();
+        Map<Dimension, Set<String>> filters = new EnumMap<>(Dimension.class);
+        putFilter(filters, Dimension.TYPE, type);
+        putFilter(filters, Dimension.TERM, term);
+        putFilter(filters, Dimension.AGE_BAND, ageBand);
+        putFilter(filters, Dimension.START_YEAR, startYear);
+        return analytics.query(new AnalyticsQuery(dimensions, filters, activeOn))
+                .map(result -> new ResponseEntity<>(result, HttpStatus.OK))
+                // The first snapshot is still loading
+                .orElseGet(() -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set(HttpHeaders.RETRY_AFTER, "5");
+                    return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+                });
+    }
+
+    private static void putFilter(Map<Dimension, Set<String>> filters, Dimension dimension, Set<String> labels) {
+        if (labels != null) {
+            filters.put(dimension, labels);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package dev.sagar.insurance.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "analytics")
+@ConditionalOnProperty(prefix = "insurance.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsEndpoint {
+
+    private final PortfolioAnalytics analytics;
+
+    @ReadOperation
+    public Map<String, Object> snapshot() {
+        return analytics.getSnapshot().map(AnalyticsEndpoint::describe).orElseGet(Map::of);
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        return describe(analytics.refresh());
+    }
+
+    private static Map<String, Object> describe(PolicySnapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("asOf", snapshot.asOf());
+        description.put("builtAt", snapshot.builtAt());
+        description.put("buildTimeMs", snapshot.buildTime().toMillis());
+        description.put("policies", snapshot.size());
+        description.put("columnBytes", snapshot.columnBytes());
+        return description;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.sagar.insurance.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.analytics")
+public record AnalyticsProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // How often the policy snapshot is rebuilt; queries always see the last complete snapshot
+        @DefaultValue("5m")
+        Duration refreshInterval,
+
+        @DefaultValue("10000")
+        int fetchSize,
+
+        // Rows aggregated per parallel task
+        @DefaultValue("65536")
+        int chunkSize
+) {
+}
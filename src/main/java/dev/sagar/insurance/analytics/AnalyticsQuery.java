@@ -0,0 +1,18 @@
+package dev.sagar.insurance.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// groupBy may be empty for portfolio totals; filters keep policies whose label is in the given set for each dimension
+public record AnalyticsQuery(List<Dimension> groupBy, Map<Dimension, Set<String>> filters, LocalDate activeOn) {
+
+    public AnalyticsQuery {
+        if (groupBy.size() != Set.copyOf(groupBy).size()) {
+            throw new InvalidAnalyticsQueryException("groupBy lists a dimension twice");
+        }
+        groupBy = List.copyOf(groupBy);
+        filters = Map.copyOf(filters);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.insurance.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record AnalyticsResult(LocalDate asOf, Instant snapshotBuiltAt, int policies, long matched,
+                              List<Group> groups, long elapsedMicros) {
+
+    public record Group(Map<String, String> key, long policies, BigDecimal totalCoverage, BigDecimal totalPremium,
+                        BigDecimal averageCoverage, BigDecimal averagePremium) {
+    }
+}
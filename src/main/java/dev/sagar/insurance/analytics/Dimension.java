@@ -0,0 +1,42 @@
+package dev.sagar.insurance.analytics;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Attributes policies can be grouped and filtered by. Every dimension is dictionary-encoded into one byte per policy
+// when the snapshot is built.
+public enum Dimension {
+
+    TYPE("type"),
+
+    // Policy term, from start to end date
+    TERM("term"),
+
+    // Client age on the snapshot date
+    AGE_BAND("ageBand"),
+
+    START_YEAR("startYear");
+
+    private final String parameter;
+
+    Dimension(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public static Dimension fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.parameter.equalsIgnoreCase(parameter.trim()))
+                .findFirst()
+                .orElseThrow(() -> new InvalidAnalyticsQueryException("Unknown dimension '" + parameter + "'; allowed: "
+                        + Arrays.stream(values()).map(Dimension::parameter).toList()));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
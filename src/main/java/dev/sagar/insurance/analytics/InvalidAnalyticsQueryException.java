@@ -0,0 +1,8 @@
+package dev.sagar.insurance.analytics;
+
+public class InvalidAnalyticsQueryException extends RuntimeException {
+
+    public InvalidAnalyticsQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,224 @@
+package dev.sagar.insurance.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable column store of the policy portfolio. Row i of every array describes the same policy: money is held in
+// minor units (cents), dates as epoch days, and every Dimension as a short code into a sorted dictionary of labels.
+public final class PolicySnapshot {
+
+    static final List<String> TERM_LABELS = List.of("0-6m", "7-12m", "13-24m", "25m+", "unknown");
+    static final List<String> AGE_BAND_LABELS = List.of("<25", "25-34", "35-44", "45-54", "55-64", "65+", "unknown");
+    private static final int[] TERM_LIMITS = {6, 12, 24};
+    private static final int[] AGE_BAND_LIMITS = {25, 35, 45, 55, 65};
+
+    private final LocalDate asOf;
+    private final Instant builtAt;
+    private final Duration buildTime;
+    private final int size;
+    private final long[] coverage;
+    private final long[] premium;
+    private final int[] startDay;
+    private final int[] endDay;
+    private final short[][] codes;
+    private final List<List<String>> labels;
+
+    private PolicySnapshot(Builder builder, Instant builtAt, Duration buildTime) {
+        this.asOf = builder.asOf;
+        this.builtAt = builtAt;
+        this.buildTime = buildTime;
+        this.size = builder.size;
+        this.coverage = Arrays.copyOf(builder.coverage, size);
+        this.premium = Arrays.copyOf(builder.premium, size);
+        this.startDay = Arrays.copyOf(builder.startDay, size);
+        this.endDay = Arrays.copyOf(builder.endDay, size);
+        this.codes = new short[Dimension.values().length][];
+        this.labels = new ArrayList<>(Collections.nCopies(Dimension.values().length, null));
+        for (Dimension dimension : Dimension.values()) {
+            short[] column = Arrays.copyOf(builder.codes[dimension.ordinal()], size);
+            Dictionary dictionary = builder.dictionaries[dimension.ordinal()];
+            labels.set(dimension.ordinal(), dictionary == null ? fixedLabels(dimension) : dictionary.sortInto(column));
+            codes[dimension.ordinal()] = column;
+        }
+    }
+
+    public static Builder builder(LocalDate asOf) {
+        return new Builder(asOf);
+    }
+
+    public LocalDate asOf() {
+        return asOf;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public Duration buildTime() {
+        return buildTime;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<String> labels(Dimension dimension) {
+        return labels.get(dimension.ordinal());
+    }
+
+    // Approximate heap held by the columns
+    public long columnBytes() {
+        return (long) size * (Long.BYTES * 2 + Integer.BYTES * 2 + Short.BYTES * Dimension.values().length);
+    }
+
+    long[] coverage() {
+        return coverage;
+    }
+
+    long[] premium() {
+        return premium;
+    }
+
+    int[] startDay() {
+        return startDay;
+    }
+
+    int[] endDay() {
+        return endDay;
+    }
+
+    short[] codes(Dimension dimension) {
+        return codes[dimension.ordinal()];
+    }
+
+    private static List<String> fixedLabels(Dimension dimension) {
+        return switch (dimension) {
+            case TERM -> TERM_LABELS;
+            case AGE_BAND -> AGE_BAND_LABELS;
+            default -> throw new IllegalStateException("No dictionary for " + dimension);
+        };
+    }
+
+    public static final class Builder {
+
+        private final LocalDate asOf;
+        // Birth dates on or before ageThresholds[i] mean the client is at least AGE_BAND_LIMITS[i] on asOf
+        private final int[] ageThresholds;
+        private final Dictionary[] dictionaries = new Dictionary[Dimension.values().length];
+        private int size;
+        private long[] coverage = new long[1024];
+        private long[] premium = new long[1024];
+        private int[] startDay = new int[1024];
+        private int[] endDay = new int[1024];
+        private short[][] codes = new short[Dimension.values().length][1024];
+
+        private Builder(LocalDate asOf) {
+            this.asOf = asOf;
+            this.ageThresholds = Arrays.stream(AGE_BAND_LIMITS).map(years -> (int) asOf.minusYears(years).toEpochDay()).toArray();
+            dictionaries[Dimension.TYPE.ordinal()] = new Dictionary();
+            dictionaries[Dimension.START_YEAR.ordinal()] = new Dictionary();
+        }
+
+        public Builder add(String type, BigDecimal coverageAmount, BigDecimal premiumAmount, LocalDate start, LocalDate end,
+                           LocalDate clientDateOfBirth) {
+            if (size == coverage.length) {
+                grow();
+            }
+            coverage[size] = minorUnits(coverageAmount);
+            premium[size] = minorUnits(premiumAmount);
+            // Policies with an open start or end never match an activeOn filter
+            startDay[size] = start == null ? Integer.MAX_VALUE : (int) start.toEpochDay();
+            endDay[size] = end == null ? Integer.MIN_VALUE : (int) end.toEpochDay();
+            codes[Dimension.TYPE.ordinal()][size] = dictionaries[Dimension.TYPE.ordinal()].code(type == null ? "unknown" : type);
+            codes[Dimension.START_YEAR.ordinal()][size] = dictionaries[Dimension.START_YEAR.ordinal()]
+                    .code(start == null ? "unknown" : Integer.toString(start.getYear()));
+            codes[Dimension.TERM.ordinal()][size] = termCode(start, end);
+            codes[Dimension.AGE_BAND.ordinal()][size] = ageBandCode(clientDateOfBirth);
+            size++;
+            return this;
+        }
+
+        public PolicySnapshot build(Instant builtAt, Duration buildTime) {
+            return new PolicySnapshot(this, builtAt, buildTime);
+        }
+
+        private short termCode(LocalDate start, LocalDate end) {
+            if (start == null || end == null) {
+                return (short) (TERM_LIMITS.length + 1);
+            }
+            long months = ChronoUnit.MONTHS.between(start, end);
+            short code = 0;
+            while (code < TERM_LIMITS.length && months > TERM_LIMITS[code]) {
+                code++;
+            }
+            return code;
+        }
+
+        private short ageBandCode(LocalDate dateOfBirth) {
+            if (dateOfBirth == null) {
+                return (short) (AGE_BAND_LIMITS.length + 1);
+            }
+            long birthDay = dateOfBirth.toEpochDay();
+            short code = 0;
+            while (code < ageThresholds.length && birthDay <= ageThresholds[code]) {
+                code++;
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = coverage.length * 2;
+            coverage = Arrays.copyOf(coverage, capacity);
+            premium = Arrays.copyOf(premium, capacity);
+            startDay = Arrays.copyOf(startDay, capacity);
+            endDay = Arrays.copyOf(endDay, capacity);
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = Arrays.copyOf(codes[i], capacity);
+            }
+        }
+
+        private static long minorUnits(BigDecimal amount) {
+            return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+    }
+
+    // Assigns codes in first-seen order while loading, then renumbers them so codes follow label order
+    private static final class Dictionary {
+
+        private final Map<String, Short> codes = new HashMap<>();
+
+        short code(String label) {
+            Short code = codes.get(label);
+            if (code == null) {
+                if (codes.size() == Short.MAX_VALUE) {
+                    throw new IllegalStateException("More than " + Short.MAX_VALUE + " distinct values");
+                }
+                code = (short) codes.size();
+                codes.put(label, code);
+            }
+            return code;
+        }
+
+        List<String> sortInto(short[] column) {
+            List<String> sorted = codes.keySet().stream().sorted().toList();
+            short[] remap = new short[codes.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                remap[codes.get(sorted.get(i))] = (short) i;
+            }
+            for (int i = 0; i < column.length; i++) {
+                column[i] = remap[column[i]];
+            }
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.sagar.insurance.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// Streams the policy table, joined to the owning client for age bands, into a new snapshot
+@Slf4j
+public class PolicySnapshotLoader {
+
+    private static final String SELECT_POLICIES =
+            "SELECT p.type, p.coverage_amount, p.premium, p.start_date, p.end_date, c.date_of_birth "
+                    + "FROM policy p JOIN client c ON c.id = p.client_id";
+
+    private final List<? extends DataSource> dataSources;
+    private final int fetchSize;
+    private final Clock clock;
+
+    public PolicySnapshotLoader(List<? extends DataSource> dataSources, int fetchSize, Clock clock) {
+        this.dataSources = dataSources;
+        this.fetchSize = fetchSize;
+        this.clock = clock;
+    }
+
+    public PolicySnapshot load() {
+        Instant started = clock.instant();
+        PolicySnapshot.Builder builder = PolicySnapshot.builder(LocalDate.ofInstant(started, clock.getZone()));
+        try {
+            for (DataSource dataSource : dataSources) {
+                load(dataSource, builder);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load policy snapshot", e);
+        }
+        PolicySnapshot snapshot = builder.build(started, Duration.between(started, clock.instant()));
+        log.info("Loaded analytics snapshot of {} policies ({} KB) in {} ms", snapshot.size(),
+                snapshot.columnBytes() / 1024, snapshot.buildTime().toMillis());
+        return snapshot;
+    }
+
+    private void load(DataSource dataSource, PolicySnapshot.Builder builder) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_POLICIES)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    builder.add(rows.getString(1), rows.getBigDecimal(2), rows.getBigDecimal(3),
+                            localDate(rows.getDate(4)), localDate(rows.getDate(5)), localDate(rows.getDate(6)));
+                }
+            }
+        }
+    }
+
+    private static LocalDate localDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
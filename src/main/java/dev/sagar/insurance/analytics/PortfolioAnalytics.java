@@ -0,0 +1,176 @@
+package dev.sagar.insurance.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// Answers group-by/filter aggregations over the latest policy snapshot. Rows are scanned in chunks on the common
+// fork-join pool; each chunk sums into dense per-group arrays which are then added together.
+@Slf4j
+public class PortfolioAnalytics {
+
+    // Upper bound on the dense group array a single query may allocate per chunk
+    static final int MAX_GROUPS = 1 << 16;
+
+    private final PolicySnapshotLoader loader;
+    private final int chunkSize;
+    private volatile PolicySnapshot snapshot;
+
+    public PortfolioAnalytics(PolicySnapshotLoader loader, int chunkSize) {
+        this.loader = loader;
+        this.chunkSize = chunkSize;
+    }
+
+    public Optional<PolicySnapshot> getSnapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    public synchronized PolicySnapshot refresh() {
+        snapshot = loader.load();
+        return snapshot;
+    }
+
+    // Scheduled refreshes keep serving the previous snapshot if a load fails
+    public void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Analytics snapshot refresh failed", e);
+        }
+    }
+
+    public Optional<AnalyticsResult> query(AnalyticsQuery query) {
+        PolicySnapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(query(current, query, chunkSize));
+    }
+
+    static AnalyticsResult query(PolicySnapshot snapshot, AnalyticsQuery query, int chunkSize) {
+        long started = System.nanoTime();
+        List<Dimension> groupBy = query.groupBy();
+        short[][] groupColumns = new short[groupBy.size()][];
+        int[] strides = new int[groupBy.size()];
+        int groups = 1;
+        for (int d = groupBy.size() - 1; d >= 0; d--) {
+            groupColumns[d] = snapshot.codes(groupBy.get(d));
+            strides[d] = groups;
+            groups *= snapshot.labels(groupBy.get(d)).size();
+            if (groups > MAX_GROUPS) {
+                throw new InvalidAnalyticsQueryException("groupBy " + groupBy + " yields more than " + MAX_GROUPS + " groups");
+            }
+        }
+
+        List<short[]> filterColumns = new ArrayList<>();
+        List<boolean[]> allowed = new ArrayList<>();
+        query.filters().forEach((dimension, labels) -> {
+            filterColumns.add(snapshot.codes(dimension));
+            allowed.add(allowedCodes(snapshot, dimension, labels));
+        });
+
+        Scan scan = new Scan(snapshot, groupColumns, strides, filterColumns.toArray(short[][]::new),
+                allowed.toArray(boolean[][]::new), query.activeOn() == null ? null : (int) query.activeOn().toEpochDay(), groups);
+        int chunks = (snapshot.size() + chunkSize - 1) / chunkSize;
+        Totals totals = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> scan.run(chunk * chunkSize, Math.min(snapshot.size(), (chunk + 1) * chunkSize)))
+                .reduce(Totals::add)
+                .orElseGet(() -> new Totals(scan.groups));
+
+        List<AnalyticsResult.Group> result = new ArrayList<>();
+        long matched = 0;
+        for (int group = 0; group < scan.groups; group++) {
+            long count = totals.count[group];
+            if (count == 0) {
+                continue;
+            }
+            matched += count;
+            Map<String, String> key = new LinkedHashMap<>();
+            for (int d = 0; d < groupBy.size(); d++) {
+                key.put(groupBy.get(d).parameter(), snapshot.labels(groupBy.get(d)).get(group / strides[d] % snapshot.labels(groupBy.get(d)).size()));
+            }
+            result.add(new AnalyticsResult.Group(key, count, money(totals.coverage[group]), money(totals.premium[group]),
+                    average(totals.coverage[group], count), average(totals.premium[group], count)));
+        }
+        return new AnalyticsResult(snapshot.asOf(), snapshot.builtAt(), snapshot.size(), matched, result,
+                (System.nanoTime() - started) / 1_000);
+    }
+
+    // Labels missing from a dictionary simply match nothing, but the fixed bands reject unknown labels
+    private static boolean[] allowedCodes(PolicySnapshot snapshot, Dimension dimension, Set<String> labels) {
+        List<String> dictionary = snapshot.labels(dimension);
+        boolean[] allowed = new boolean[dictionary.size()];
+        for (String label : labels) {
+            int code = dictionary.indexOf(label);
+            if (code >= 0) {
+                allowed[code] = true;
+            } else if (dimension == Dimension.TERM || dimension == Dimension.AGE_BAND) {
+                throw new InvalidAnalyticsQueryException("Unknown " + dimension.parameter() + " '" + label + "'; allowed: " + dictionary);
+            }
+        }
+        return allowed;
+    }
+
+    private static BigDecimal money(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    private static BigDecimal average(long minorUnits, long count) {
+        return money(minorUnits).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private record Scan(PolicySnapshot snapshot, short[][] groupColumns, int[] strides, short[][] filterColumns,
+                        boolean[][] allowed, Integer activeOn, int groups) {
+
+        Totals run(int from, int to) {
+            Totals totals = new Totals(groups);
+            long[] coverage = snapshot.coverage();
+            long[] premium = snapshot.premium();
+            int[] startDay = snapshot.startDay();
+            int[] endDay = snapshot.endDay();
+            boolean checkActive = activeOn != null;
+            int day = checkActive ? activeOn : 0;
+            rows:
+            for (int row = from; row < to; row++) {
+                if (checkActive && (startDay[row] > day || endDay[row] < day)) {
+                    continue;
+                }
+                for (int f = 0; f < filterColumns.length; f++) {
+                    if (!allowed[f][filterColumns[f][row]]) {
+                        continue rows;
+                    }
+                }
+                int group = 0;
+                for (int d = 0; d < groupColumns.length; d++) {
+                    group += groupColumns[d][row] * strides[d];
+                }
+                totals.count[group]++;
+                totals.coverage[group] += coverage[row];
+                totals.premium[group] += premium[row];
+            }
+            return totals;
+        }
+    }
+
+    private record Totals(long[] count, long[] coverage, long[] premium) {
+
+        Totals(int groups) {
+            this(new long[groups], new long[groups], new long[groups]);
+        }
+
+        Totals add(Totals other) {
+            for (int group = 0; group < count.length; group++) {
+                count[group] += other.count[group];
+                coverage[group] += other.coverage[group];
+                premium[group] += other.premium[group];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.sagar.insurance.archive;
+
+import dev.sagar.insurance.sharding.ShardRebalancer;
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+// Archives on every shard when sharding is enabled, otherwise on the application data source (the primary when
+// read replicas are enabled, since archiving writes)
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.archive", name = "enabled", havingValue = "true")
+public class ArchiveConfig {
+
+    @Bean
+    public Archiver archiver(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources,
+                             ObjectProvider<ShardRebalancer> shardRebalancer, ArchiveProperties properties,
+                             TaskScheduler taskScheduler) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> dataSources = shards == null ? List.of(dataSource) : shards.pools();
+        Archiver archiver = new Archiver(dataSources, properties, shardRebalancer.getIfAvailable(), Clock.systemUTC());
+        taskScheduler.scheduleWithFixedDelay(archiver::archiveQuietly, Instant.now().plus(properties.interval()), properties.interval());
+        return archiver;
+    }
+}
@@ -0,0 +1,33 @@
+package dev.sagar.insurance.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "archive")
+@ConditionalOnProperty(prefix = "insurance.archive", name = "enabled", havingValue = "true")
+public class ArchiveEndpoint {
+
+    private final Archiver archiver;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rows", archiver.tableSizes());
+        status.put("lastRun", archiver.getLastRun().orElse(null));
+        return status;
+    }
+
+    @WriteOperation
+    public ArchiveResult archive() {
+        return archiver.archive();
+    }
+}
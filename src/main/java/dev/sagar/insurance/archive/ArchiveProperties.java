@@ -0,0 +1,33 @@
+package dev.sagar.insurance.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "insurance.archive")
+public record ArchiveProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // Claims in these statuses are final and become archivable once untouched for claimRetention
+        @DefaultValue({"CLOSED", "REJECTED"})
+        List<String> claimStatuses,
+
+        @DefaultValue("365d")
+        Duration claimRetention,
+
+        // Policies become archivable this long after their end date, once none of their claims are left in the hot table
+        @DefaultValue("365d")
+        Duration policyRetention,
+
+        // Rows moved per transaction
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("1h")
+        Duration interval
+) {
+}
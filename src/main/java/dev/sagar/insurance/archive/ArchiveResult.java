@@ -0,0 +1,7 @@
+package dev.sagar.insurance.archive;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record ArchiveResult(Instant startedAt, long archivedClaims, long archivedPolicies, int batches, Duration duration) {
+}
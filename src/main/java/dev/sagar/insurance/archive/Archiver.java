@@ -0,0 +1,191 @@
+package dev.sagar.insurance.archive;
+
+import dev.sagar.insurance.sharding.ShardRebalancer;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Moves claims in a final status and long-expired policies from the hot tables into claim_archive and policy_archive.
+// Each batch locks its rows, copies them and deletes them in one transaction, so a run can stop at any point and the
+// next run picks up whatever is still eligible. Claims go first because a policy is only archived once none of its
+// claims are left in the hot table.
+@Slf4j
+public class Archiver {
+
+    private static final String CLAIM_COLUMNS = "id, claim_number, description, claim_date, status, claimed_amount, reserved_amount, paid_amount, policy_id, created_at, updated_at";
+    private static final String POLICY_COLUMNS =
+            "id, policy_number, type, coverage_amount, premium, start_date, end_date, client_id, created_at, updated_at";
+
+    private static final String SELECT_CLAIMS = "SELECT id FROM claim WHERE id > ? AND status = ANY(?) AND updated_at < ?"
+            + " ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String SELECT_POLICIES = "SELECT id FROM policy p WHERE id > ? AND end_date < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM claim c WHERE c.policy_id = p.id) ORDER BY id LIMIT ? FOR UPDATE";
+
+    private final List<? extends DataSource> dataSources;
+    private final ArchiveProperties properties;
+    private final ShardRebalancer rebalancer;
+    private final Clock clock;
+    private volatile ArchiveResult lastRun;
+
+    // The rebalancer is null when sharding is disabled; otherwise passes never overlap a bucket move
+    public Archiver(List<? extends DataSource> dataSources, ArchiveProperties properties, ShardRebalancer rebalancer, Clock clock) {
+        this.dataSources = dataSources;
+        this.properties = properties;
+        this.rebalancer = rebalancer;
+        this.clock = clock;
+    }
+
+    public synchronized ArchiveResult archive() {
+        Instant startedAt = clock.instant();
+        long started = System.nanoTime();
+        Instant claimCutoff = startedAt.minus(properties.claimRetention());
+        LocalDate policyCutoff = LocalDate.ofInstant(startedAt.minus(properties.policyRetention()), ZoneOffset.UTC);
+
+        long claims = 0;
+        long policies = 0;
+        int batches = 0;
+        for (DataSource dataSource : dataSources) {
+            long[] moved = rebalancer == null
+                    ? archive(dataSource, claimCutoff, policyCutoff, startedAt)
+                    : rebalancer.exclusive(() -> archive(dataSource, claimCutoff, policyCutoff, startedAt));
+            claims += moved[0];
+            policies += moved[1];
+            batches += (int) moved[2];
+        }
+
+        ArchiveResult result = new ArchiveResult(startedAt, claims, policies, batches, Duration.ofNanos(System.nanoTime() - started));
+        lastRun = result;
+        log.info("Archived {} claims and {} policies in {} batches ({} ms)", claims, policies, batches, result.duration().toMillis());
+        return result;
+    }
+
+    // Scheduled entry point; a failed run is logged and retried on the next tick
+    public void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Archive run failed", e);
+        }
+    }
+
+    public Optional<ArchiveResult> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    // Row counts of the hot and archive tables, summed over all data sources
+    public Map<String, Long> tableSizes() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        for (String table : List.of("claim", "claim_archive", "policy", "policy_archive")) {
+            long rows = 0;
+            for (DataSource dataSource : dataSources) {
+                try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    resultSet.next();
+                    rows += resultSet.getLong(1);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to count " + table, e);
+                }
+            }
+            sizes.put(table, rows);
+        }
+        return sizes;
+    }
+
+    private long[] archive(DataSource dataSource, Instant claimCutoff, LocalDate policyCutoff, Instant archivedAt) {
+        long[] moved = new long[3];
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Array statuses = connection.createArrayOf("VARCHAR", properties.claimStatuses().toArray());
+                long lastId = 0;
+                List<Long> ids;
+                while (!(ids = selectClaims(connection, lastId, statuses, claimCutoff)).isEmpty()) {
+                    moved[0] += move(connection, "claim", CLAIM_COLUMNS, ids, archivedAt);
+                    moved[2]++;
+                    lastId = ids.getLast();
+                }
+                lastId = 0;
+                while (!(ids = selectPolicies(connection, lastId, policyCutoff)).isEmpty()) {
+                    moved[1] += move(connection, "policy", POLICY_COLUMNS, ids, archivedAt);
+                    moved[2]++;
+                    lastId = ids.getLast();
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Archiving failed", e);
+        }
+        return moved;
+    }
+
+    private List<Long> selectClaims(Connection connection, long afterId, Array statuses, Instant cutoff) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CLAIMS)) {
+            statement.setLong(1, afterId);
+            statement.setArray(2, statuses);
+            statement.setObject(3, OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+            statement.setInt(4, properties.batchSize());
+            return ids(statement);
+        }
+    }
+
+    private List<Long> selectPolicies(Connection connection, long afterId, LocalDate cutoff) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_POLICIES)) {
+            statement.setLong(1, afterId);
+            statement.setDate(2, Date.valueOf(cutoff));
+            statement.setInt(3, properties.batchSize());
+            return ids(statement);
+        }
+    }
+
+    private static List<Long> ids(PreparedStatement statement) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    // Copy and delete commit together; the rows are still locked by the select, so nothing changes in between
+    private static int move(Connection connection, String table, String columns, List<Long> ids, Instant archivedAt) throws SQLException {
+        Array idArray = connection.createArrayOf("BIGINT", ids.toArray());
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + "_archive (" + columns + ", archived_at)"
+                + " SELECT " + columns + ", ? FROM " + table + " WHERE id = ANY(?)");
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE id = ANY(?)")) {
+            insert.setObject(1, OffsetDateTime.ofInstant(archivedAt, ZoneOffset.UTC));
+            insert.setArray(2, idArray);
+            int copied = insert.executeUpdate();
+            delete.setArray(1, idArray);
+            int deleted = delete.executeUpdate();
+            if (copied != deleted) {
+                throw new SQLException("Copied " + copied + " " + table + " rows but deleted " + deleted);
+            }
+            connection.commit();
+            return deleted;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+}
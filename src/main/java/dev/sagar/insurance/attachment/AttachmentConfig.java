@@ -0,0 +1,15 @@
+package dev.sagar.insurance.attachment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AttachmentConfig {
+
+    @Bean
+    public AttachmentStore attachmentStore(AttachmentProperties properties, MeterRegistry meterRegistry) {
+        return new AttachmentStore(properties.directory(), properties.maxSize().toBytes(),
+                Math.toIntExact(properties.bufferSize().toBytes()), properties.largeFileThreshold().toBytes(), meterRegistry);
+    }
+}
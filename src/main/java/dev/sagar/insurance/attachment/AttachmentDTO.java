@@ -0,0 +1,19 @@
+package dev.sagar.insurance.attachment;
+
+import java.time.Instant;
+
+public record AttachmentDTO(
+        Long id,
+        Long claimId,
+        String fileName,
+        String contentType,
+        long size,
+        String sha256,
+        Instant createdAt
+) {
+
+    static AttachmentDTO of(ClaimAttachment attachment) {
+        return new AttachmentDTO(attachment.getId(), attachment.getClaimId(), attachment.getFileName(), attachment.getContentType(),
+                attachment.getSize(), attachment.getSha256(), attachment.getCreatedAt());
+    }
+}
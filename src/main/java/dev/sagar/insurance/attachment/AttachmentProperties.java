@@ -0,0 +1,32 @@
+package dev.sagar.insurance.attachment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "insurance.attachments")
+public record AttachmentProperties(
+
+        // Content-addressed store: <directory>/ab/cd/<sha256>, plus a tmp directory for uploads in progress
+        @DefaultValue("data/attachments")
+        Path directory,
+
+        @DefaultValue("100MB")
+        DataSize maxSize,
+
+        // Uploads are copied through one buffer of this size, never the whole file
+        @DefaultValue("64KB")
+        DataSize bufferSize,
+
+        // Transfers at least this big are recorded in insurance.attachments.throughput
+        @DefaultValue("1MB")
+        DataSize largeFileThreshold,
+
+        // Let Tomcat send downloads straight from the file to the socket; otherwise FileChannel.transferTo copies
+        // them into the response stream
+        @DefaultValue("true")
+        boolean sendfile
+) {
+}
@@ -0,0 +1,177 @@
+package dev.sagar.insurance.attachment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Local file store addressed by SHA-256. Uploads are copied through a single direct buffer into a temporary file while
+// the digest is computed, then renamed to ab/cd/<sha256>; a file whose content is already stored is dropped, so
+// identical uploads share one copy. Downloads go from the file channel to the response with
+// FileChannel.transferTo, so neither direction holds a whole file in the heap.
+public class AttachmentStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxSize;
+    private final int bufferSize;
+    private final long largeFileThreshold;
+    private final Counter uploadedBytes;
+    private final Counter downloadedBytes;
+    private final Timer uploads;
+    private final Timer downloads;
+    private final DistributionSummary uploadThroughput;
+    private final DistributionSummary downloadThroughput;
+
+    public record StoredContent(String sha256, long size) {
+    }
+
+    public AttachmentStore(Path root, long maxSize, int bufferSize, long largeFileThreshold, MeterRegistry meterRegistry) {
+        this.root = root.toAbsolutePath();
+        this.tmp = this.root.resolve("tmp");
+        this.maxSize = maxSize;
+        this.bufferSize = bufferSize;
+        this.largeFileThreshold = largeFileThreshold;
+        this.uploadedBytes = bytes("upload", meterRegistry);
+        this.downloadedBytes = bytes("download", meterRegistry);
+        this.uploads = transfers("upload", meterRegistry);
+        this.downloads = transfers("download", meterRegistry);
+        this.uploadThroughput = throughput("upload", meterRegistry);
+        this.downloadThroughput = throughput("download", meterRegistry);
+    }
+
+    // expectedSha256 is the client's digest, if it sent one; a mismatch leaves nothing behind
+    public StoredContent store(InputStream content, String expectedSha256) throws IOException {
+        Files.createDirectories(tmp);
+        Path upload = Files.createTempFile(tmp, "upload-", ".part");
+        long started = System.nanoTime();
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            ReadableByteChannel in = Channels.newChannel(content);
+            try (FileChannel out = FileChannel.open(upload, StandardOpenOption.WRITE)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException("Attachment exceeds the limit of " + maxSize + " bytes");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(true);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+                throw new ChecksumMismatchException("Attachment SHA-256 is " + sha256 + ", not " + expectedSha256.toLowerCase());
+            }
+            Path target = path(sha256);
+            if (Files.exists(target)) {
+                Files.delete(upload);
+            } else {
+                Files.createDirectories(target.getParent());
+                // Two uploads of the same bytes may race here; either rename leaves the same content in place
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            record(uploadedBytes, uploads, uploadThroughput, size, System.nanoTime() - started);
+            return new StoredContent(sha256, size);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Copies length bytes from position; transferTo may move fewer bytes per call than asked
+    public void transfer(String sha256, long position, long length, WritableByteChannel target) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel file = FileChannel.open(path(sha256), StandardOpenOption.READ)) {
+            long sent = 0;
+            while (sent < length) {
+                long count = file.transferTo(position + sent, length - sent, target);
+                if (count <= 0) {
+                    throw new IOException("Attachment " + sha256 + " ended after " + (position + sent) + " bytes");
+                }
+                sent += count;
+            }
+        }
+        record(downloadedBytes, downloads, downloadThroughput, length, System.nanoTime() - started);
+    }
+
+    // Bytes handed to the container to send itself; they are counted but cannot be timed from here
+    public void recordSendfile(long length) {
+        downloadedBytes.increment(length);
+    }
+
+    public String digest(String sha256) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        try (FileChannel file = FileChannel.open(path(sha256), StandardOpenOption.READ)) {
+            while (file.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Path path(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 digest: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private void record(Counter bytes, Timer timer, DistributionSummary throughput, long size, long nanos) {
+        bytes.increment(size);
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        if (size >= largeFileThreshold && nanos > 0) {
+            throughput.record(size * 1e9 / nanos);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter bytes(String direction, MeterRegistry meterRegistry) {
+        return Counter.builder("insurance.attachments.bytes").baseUnit("bytes").tag("direction", direction).register(meterRegistry);
+    }
+
+    private static Timer transfers(String direction, MeterRegistry meterRegistry) {
+        return Timer.builder("insurance.attachments.transfers").tag("direction", direction).register(meterRegistry);
+    }
+
+    // Bytes per second of each transfer of at least large-file-threshold bytes
+    private static DistributionSummary throughput(String direction, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("insurance.attachments.throughput").baseUnit("bytes/s").tag("direction", direction)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.attachment;
+
+public class AttachmentTooLargeException extends RuntimeException {
+
+    public AttachmentTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,5 @@
+package dev.sagar.insurance.attachment;
+
+// Result of re-reading an attachment's stored bytes and comparing their SHA-256 with the one recorded at upload
+public record AttachmentVerification(Long id, String sha256, String actualSha256, boolean valid) {
+}
@@ -0,0 +1,60 @@
+package dev.sagar.insurance.attachment;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A single byte range of a representation, end inclusive as in Content-Range
+record ByteRange(long start, long end) {
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    static final class NotSatisfiableException extends RuntimeException {
+
+        NotSatisfiableException(String range) {
+            super("Range not satisfiable: " + range);
+        }
+    }
+
+    long length() {
+        return end - start + 1;
+    }
+
+    String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    static ByteRange full(long size) {
+        return new ByteRange(0, size - 1);
+    }
+
+    // The range a Range header asks for, or null when the whole representation should be sent: no header, a syntax we
+    // do not understand, or several ranges, which RFC 9110 lets a server answer with the full content.
+    static ByteRange parse(String header, long size) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                // bytes=-n: the last n bytes
+                long suffix = Long.parseLong(matcher.group(2));
+                if (suffix == 0 || size == 0) {
+                    throw new NotSatisfiableException(header);
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(matcher.group(1));
+            long end = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+            if (start >= size) {
+                throw new NotSatisfiableException(header);
+            }
+            return start > end ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            // Too long to be a position in any file we hold
+            throw new NotSatisfiableException(header);
+        }
+    }
+}
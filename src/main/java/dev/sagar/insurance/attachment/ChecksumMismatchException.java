@@ -0,0 +1,8 @@
+package dev.sagar.insurance.attachment;
+
+public class ChecksumMismatchException extends RuntimeException {
+
+    public ChecksumMismatchException(String message) {
+        super(message);
+    }
+}
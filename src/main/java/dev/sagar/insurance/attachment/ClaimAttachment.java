@@ -0,0 +1,45 @@
+package dev.sagar.insurance.attachment;
+
+import dev.sagar.insurance.sharding.AssignableIdentity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+// Metadata only; the bytes live in the AttachmentStore under their SHA-256, so identical files are stored once
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "claim_attachment", indexes = @Index(name = "idx_claim_attachment_claim", columnList = "claim_id, id"))
+public class ClaimAttachment {
+
+    @Id
+    @AssignableIdentity
+    @Column(columnDefinition = "bigint generated by default as identity")
+    private Long id;
+
+    // Not a foreign key: attachments stay readable after their claim is archived
+    @Column(name = "claim_id", nullable = false)
+    private Long claimId;
+
+    private String fileName;
+    private String contentType;
+    private long size;
+
+    @Column(length = 64, nullable = false)
+    private String sha256;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,146 @@
+package dev.sagar.insurance.attachment;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/claims/{claimId}/attachments")
+public class ClaimAttachmentController {
+
+    // Request attributes through which Tomcat offers, and is handed, a sendfile response
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ClaimAttachmentService attachmentService;
+    private final AttachmentStore attachmentStore;
+    private final AttachmentProperties properties;
+
+    // A multipart file part; Tomcat spools parts to disk and deletes them after the request, and the part is read from
+    // there as a stream
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentDTO> uploadPart(@PathVariable Long claimId, @RequestPart("file") Part file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            AttachmentDTO attachment = attachmentService.upload(claimId, file.getSubmittedFileName(), file.getContentType(), content,
+                    ContentDigest.sha256Hex(file.getHeader(ContentDigest.CONTENT_DIGEST)));
+            return new ResponseEntity<>(attachment, HttpStatus.CREATED);
+        }
+    }
+
+    // Any other body is the file itself, read straight from the request stream. Form bodies are refused before any
+    // parameter is read, since the container would consume them as parameters.
+    @PostMapping
+    public ResponseEntity<AttachmentDTO> upload(@PathVariable Long claimId,
+                                                @RequestHeader(value = ContentDigest.CONTENT_DIGEST, required = false) String digest,
+                                                HttpServletRequest request) throws IOException, HttpMediaTypeNotSupportedException {
+        if (request.getContentType() != null
+                && MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))) {
+            throw new HttpMediaTypeNotSupportedException("Form bodies cannot be attachments; send the file as the body or as a multipart part");
+        }
+        String fileName = request.getParameter("fileName");
+        if (fileName == null && request.getHeader(HttpHeaders.CONTENT_DISPOSITION) != null) {
+            fileName = ContentDisposition.parse(request.getHeader(HttpHeaders.CONTENT_DISPOSITION)).getFilename();
+        }
+        AttachmentDTO attachment = attachmentService.upload(claimId, fileName, request.getContentType(), request.getInputStream(),
+                ContentDigest.sha256Hex(digest));
+        return new ResponseEntity<>(attachment, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AttachmentDTO>> getAttachments(@PathVariable Long claimId) {
+        return new ResponseEntity<>(attachmentService.getAttachments(claimId), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AttachmentDTO> getAttachment(@PathVariable Long claimId, @PathVariable Long id) {
+        return new ResponseEntity<>(attachmentService.getAttachment(claimId, id), HttpStatus.OK);
+    }
+
+    // Re-reads the stored bytes and compares their digest with the one recorded at upload
+    @PostMapping("/{id}/verify")
+    public ResponseEntity<AttachmentVerification> verify(@PathVariable Long claimId, @PathVariable Long id) throws IOException {
+        return new ResponseEntity<>(attachmentService.verify(claimId, id), HttpStatus.OK);
+    }
+
+    // Single byte ranges are honoured, multiple ranges get the whole file. The bytes never pass through the heap: Tomcat
+    // sends them from the file itself when it can, otherwise they go through FileChannel.transferTo.
+    @GetMapping("/{id}/content")
+    public void download(@PathVariable Long claimId, @PathVariable Long id, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        AttachmentDTO attachment = attachmentService.getAttachment(claimId, id);
+        String etag = "\"" + attachment.sha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(ContentDigest.REPR_DIGEST, ContentDigest.field(attachment.sha256()));
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long size = attachment.size();
+        ByteRange range = null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.equals(etag)) {
+            try {
+                range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+            } catch (ByteRange.NotSatisfiableException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+        }
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+        } else {
+            range = ByteRange.full(size);
+        }
+        response.setContentType(attachment.contentType());
+        if (attachment.fileName() != null) {
+            // filename* only when the name needs it
+            ContentDisposition.Builder disposition = ContentDisposition.attachment();
+            if (StandardCharsets.US_ASCII.newEncoder().canEncode(attachment.fileName())) {
+                disposition.filename(attachment.fileName());
+            } else {
+                disposition.filename(attachment.fileName(), StandardCharsets.UTF_8);
+            }
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+        }
+        response.setContentLengthLong(range.length());
+        if (range.length() == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (properties.sendfile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, attachmentStore.path(attachment.sha256()).toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            attachmentStore.recordSendfile(range.length());
+            return;
+        }
+        attachmentStore.transfer(attachment.sha256(), range.start(), range.length(), Channels.newChannel(response.getOutputStream()));
+    }
+}
@@ -0,0 +1,13 @@
+package dev.sagar.insurance.attachment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ClaimAttachmentRepository extends JpaRepository<ClaimAttachment, Long> {
+
+    List<ClaimAttachment> findByClaimIdOrderById(Long claimId);
+
+    Optional<ClaimAttachment> findByIdAndClaimId(Long id, Long claimId);
+}
@@ -0,0 +1,86 @@
+package dev.sagar.insurance.attachment;
+
+import dev.sagar.insurance.claim.ClaimService;
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.sharding.ShardRouter;
+import dev.sagar.insurance.sharding.ShardedEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Objects;
+
+// Attachments live on their claim's shard. Bytes are streamed to the store before the metadata transaction starts, so
+// a slow upload never holds a connection.
+@Service
+public class ClaimAttachmentService {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final ClaimAttachmentRepository attachmentRepository;
+    private final ClaimService claimService;
+    private final AttachmentStore attachmentStore;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readTransaction;
+
+    public ClaimAttachmentService(ClaimAttachmentRepository attachmentRepository, ClaimService claimService,
+                                  AttachmentStore attachmentStore, ShardRouter shardRouter,
+                                  PlatformTransactionManager transactionManager) {
+        this.attachmentRepository = attachmentRepository;
+        this.claimService = claimService;
+        this.attachmentStore = attachmentStore;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public AttachmentDTO upload(Long claimId, String fileName, String contentType, InputStream content, String expectedSha256)
+            throws IOException {
+        // Fails with 404 before a single byte is read
+        claimService.getClaimById(claimId);
+        AttachmentStore.StoredContent stored = attachmentStore.store(content, expectedSha256);
+        return transaction.execute(status -> {
+            shardRouter.routeWrite(claimId);
+            ClaimAttachment attachment = new ClaimAttachment();
+            attachment.setId(shardRouter.newChildId(ShardedEntity.CLAIM_ATTACHMENT, claimId));
+            attachment.setClaimId(claimId);
+            attachment.setFileName(fileName);
+            attachment.setContentType(Objects.requireNonNullElse(contentType, DEFAULT_CONTENT_TYPE));
+            attachment.setSize(stored.size());
+            attachment.setSha256(stored.sha256());
+            return AttachmentDTO.of(attachmentRepository.saveAndFlush(attachment));
+        });
+    }
+
+    public List<AttachmentDTO> getAttachments(Long claimId) {
+        claimService.getClaimById(claimId);
+        return readTransaction.execute(status -> {
+            shardRouter.routeRead(claimId);
+            return attachmentRepository.findByClaimIdOrderById(claimId).stream().map(AttachmentDTO::of).toList();
+        });
+    }
+
+    public AttachmentDTO getAttachment(Long claimId, Long id) {
+        return readTransaction.execute(status -> {
+            shardRouter.routeRead(claimId);
+            return attachmentRepository.findByIdAndClaimId(id, claimId).map(AttachmentDTO::of)
+                    .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with id: " + id + " on claim " + claimId));
+        });
+    }
+
+    public AttachmentVerification verify(Long claimId, Long id) throws IOException {
+        AttachmentDTO attachment = getAttachment(claimId, id);
+        try {
+            String actual = attachmentStore.digest(attachment.sha256());
+            return new AttachmentVerification(id, attachment.sha256(), actual, actual.equals(attachment.sha256()));
+        } catch (NoSuchFileException e) {
+            return new AttachmentVerification(id, attachment.sha256(), null, false);
+        }
+    }
+}
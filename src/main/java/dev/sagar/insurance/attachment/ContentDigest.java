@@ -0,0 +1,42 @@
+package dev.sagar.insurance.attachment;
+
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// RFC 9530 digest fields: sha-256=:<base64>: in Content-Digest on uploads and Repr-Digest on downloads
+final class ContentDigest {
+
+    static final String CONTENT_DIGEST = "Content-Digest";
+    static final String REPR_DIGEST = "Repr-Digest";
+
+    private static final Pattern SHA256 = Pattern.compile("(?:^|,)\\s*sha-256\\s*=\\s*:([^:]*):", Pattern.CASE_INSENSITIVE);
+
+    private ContentDigest() {
+    }
+
+    // The hex SHA-256 a field carries, or null when it has no sha-256 entry; other algorithms are ignored
+    static String sha256Hex(String field) {
+        if (field == null) {
+            return null;
+        }
+        Matcher matcher = SHA256.matcher(field);
+        if (!matcher.find()) {
+            return null;
+        }
+        try {
+            byte[] digest = Base64.getDecoder().decode(matcher.group(1).trim());
+            if (digest.length != 32) {
+                throw new ChecksumMismatchException("Content-Digest sha-256 must be 32 bytes, got " + digest.length);
+            }
+            return HexFormat.of().formatHex(digest);
+        } catch (IllegalArgumentException e) {
+            throw new ChecksumMismatchException("Content-Digest sha-256 is not valid base64");
+        }
+    }
+
+    static String field(String sha256Hex) {
+        return "sha-256=:" + Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256Hex)) + ":";
+    }
+}
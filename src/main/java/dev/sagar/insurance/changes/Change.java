@@ -0,0 +1,30 @@
+package dev.sagar.insurance.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+public record Change<T>(
+
+        ChangeType type,
+
+        Long id,
+
+        Instant changedAt,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        T data
+) {
+
+    public static <T> Change<T> upsert(Long id, Instant changedAt, T data) {
+        return new Change<>(ChangeType.UPSERT, id, changedAt, data);
+    }
+
+    public static <T> Change<T> delete(Long id, Instant changedAt) {
+        return new Change<>(ChangeType.DELETE, id, changedAt, null);
+    }
+
+    ChangeToken token() {
+        return new ChangeToken(changedAt, id);
+    }
+}
@@ -0,0 +1,71 @@
+package dev.sagar.insurance.changes;
+
+import dev.sagar.insurance.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Builds a page of a resource's change feed by merging updated rows with tombstones, both read from the token
+// onwards with a keyset query, so a sync reads only what changed since its last token.
+@Component
+public class ChangeFeed {
+
+    private static final Comparator<Change<?>> ORDER = Comparator.<Change<?>, Instant>comparing(Change::changedAt)
+            .thenComparing(Change::id);
+
+    private final TombstoneRepository tombstoneRepository;
+    private final ShardRouter shardRouter;
+    private final ChangeFeedProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public ChangeFeed(TombstoneRepository tombstoneRepository, ShardRouter shardRouter, ChangeFeedProperties properties) {
+        this(tombstoneRepository, shardRouter, properties, Clock.systemUTC());
+    }
+
+    ChangeFeed(TombstoneRepository tombstoneRepository, ShardRouter shardRouter, ChangeFeedProperties properties, Clock clock) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public <T> ChangePage<T> read(Class<? extends ChangeTracked> entity, String since, Integer limit, UpsertQuery<T> upserts) {
+        ChangeToken after = ChangeToken.decode(since);
+        int pageSize = properties.pageSize(limit);
+        Instant until = clock.instant().minus(properties.settleWindow());
+        String entityType = entityType(entity);
+
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Change<T>> changes = shardRouter.gather(() -> {
+            List<Change<T>> shardChanges = new ArrayList<>(upserts.find(after, until, fetch));
+            tombstoneRepository.findDeletedSince(entityType, after.changedAt(), after.id(), until, fetch)
+                    .forEach(tombstone -> shardChanges.add(Change.delete(tombstone.getEntityId(), tombstone.getDeletedAt())));
+            shardChanges.sort(ORDER);
+            return shardChanges;
+        }, ORDER, pageSize + 1);
+
+        boolean hasMore = changes.size() > pageSize;
+        List<Change<T>> page = hasMore ? changes.subList(0, pageSize) : changes;
+        ChangeToken next = page.isEmpty() ? after : page.get(page.size() - 1).token();
+        return new ChangePage<>(List.copyOf(page), next.encode(), hasMore);
+    }
+
+    static String entityType(Class<?> entity) {
+        return entity.getSimpleName();
+    }
+
+    // Reads created or updated rows after the token and no later than until, ordered by (updatedAt, id)
+    @FunctionalInterface
+    public interface UpsertQuery<T> {
+
+        List<Change<T>> find(ChangeToken after, Instant until, Limit limit);
+    }
+}
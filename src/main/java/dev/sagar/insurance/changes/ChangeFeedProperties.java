@@ -0,0 +1,27 @@
+package dev.sagar.insurance.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.changes")
+public record ChangeFeedProperties(
+
+        // Changes per page when the caller does not pass limit
+        @DefaultValue("500")
+        int pageSize,
+
+        @DefaultValue("5000")
+        int maxPageSize,
+
+        // Changes newer than this are held back so a transaction that stamped its rows earlier but commits later
+        // cannot land behind a token that was already handed out
+        @DefaultValue("2s")
+        Duration settleWindow
+) {
+
+    int pageSize(Integer requested) {
+        return requested == null ? pageSize : Math.max(1, Math.min(requested, maxPageSize));
+    }
+}
@@ -0,0 +1,7 @@
+package dev.sagar.insurance.changes;
+
+import java.util.List;
+
+// nextToken resumes after the last change; it equals the request token when nothing has changed since
+public record ChangePage<T>(List<Change<T>> changes, String nextToken, boolean hasMore) {
+}
@@ -0,0 +1,31 @@
+package dev.sagar.insurance.changes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in a change feed: the change time and id of the last change returned. Changes are ordered by
+// (changedAt, id), so the token is a keyset cursor and resuming costs an index seek however old it is.
+public record ChangeToken(Instant changedAt, long id) {
+
+    static final ChangeToken START = new ChangeToken(Instant.EPOCH, 0);
+
+    public String encode() {
+        String raw = changedAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new ChangeToken(Instant.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidChangeTokenException("Invalid change token: " + token);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.sagar.insurance.changes;
+
+import java.time.Instant;
+
+// Implemented by entities that appear in a change feed
+public interface ChangeTracked {
+
+    Long getId();
+
+    Instant getUpdatedAt();
+}
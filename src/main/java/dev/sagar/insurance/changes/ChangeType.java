@@ -0,0 +1,10 @@
+package dev.sagar.insurance.changes;
+
+public enum ChangeType {
+
+    // Created or updated; the change carries the current state
+    UPSERT,
+
+    // Deleted; the change carries only the id
+    DELETE
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.changes;
+
+public class InvalidChangeTokenException extends RuntimeException {
+
+    public InvalidChangeTokenException(String message) {
+        super(message);
+    }
+}
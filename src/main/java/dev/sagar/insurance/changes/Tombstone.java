@@ -0,0 +1,30 @@
+package dev.sagar.insurance.changes;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Marks a deleted client, policy or claim so change feeds can report the delete after the row is gone
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_tombstone_entity_deleted_at", columnList = "entity_type, deleted_at, entity_id"))
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String entityType;
+    private Long entityId;
+    private Instant deletedAt;
+}
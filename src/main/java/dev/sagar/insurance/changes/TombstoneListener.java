@@ -0,0 +1,29 @@
+package dev.sagar.insurance.changes;
+
+import jakarta.persistence.PostRemove;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+// Writes a tombstone for every removed entity, including cascaded removes. The insert runs through JDBC on the
+// transaction's connection because JPA callbacks must not touch the persistence context during flush.
+public class TombstoneListener {
+
+    private static final String INSERT_TOMBSTONE = "INSERT INTO tombstone (entity_type, entity_id, deleted_at) VALUES (?, ?, ?)";
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    public TombstoneListener(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostRemove
+    public void recordDelete(Object entity) {
+        if (entity instanceof ChangeTracked tracked) {
+            jdbcTemplate.getObject().update(INSERT_TOMBSTONE, ChangeFeed.entityType(Hibernate.getClass(entity)), tracked.getId(), OffsetDateTime.now(ZoneOffset.UTC));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.sagar.insurance.changes;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("select t from Tombstone t where t.entityType = :entityType"
+            + " and (t.deletedAt > :since or (t.deletedAt = :since and t.entityId > :afterId)) and t.deletedAt <= :until"
+            + " order by t.deletedAt, t.entityId")
+    List<Tombstone> findDeletedSince(String entityType, Instant since, Long afterId, Instant until, Limit limit);
+}
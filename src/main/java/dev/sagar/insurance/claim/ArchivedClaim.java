@@ -0,0 +1,41 @@
+package dev.sagar.insurance.claim;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A claim moved out of the hot claim table by the archiver; read-only
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "claim_archive")
+public class ArchivedClaim {
+
+    @Id
+    private Long id;
+
+    private String claimNumber;
+    private String description;
+    private LocalDate claimDate;
+
+    @Enumerated(EnumType.STRING)
+    private ClaimStatus status;
+
+    private BigDecimal claimedAmount;
+    private BigDecimal reservedAmount;
+    private BigDecimal paidAmount;
+    private Long policyId;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant archivedAt;
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.claim;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedClaimRepository extends JpaRepository<ArchivedClaim, Long> {
+}
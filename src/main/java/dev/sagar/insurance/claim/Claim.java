@@ -1,17 +1,33 @@
 package dev.sagar.insurance.claim;
 
+import dev.sagar.insurance.changes.ChangeTracked;
+import dev.sagar.insurance.coalescing.CoalescingListener;
+import dev.sagar.insurance.changes.TombstoneListener;
+import dev.sagar.insurance.lossratio.ClaimAmounts;
+import dev.sagar.insurance.lossratio.LossRatioListener;
 import dev.sagar.insurance.policy.Policy;
+import dev.sagar.insurance.search.ClaimSearchListener;
+import dev.sagar.insurance.sharding.AssignableIdentity;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Getter
@@ -19,18 +35,42 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-public class Claim {
+@Table(indexes = {
+        @Index(name = "idx_claim_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_claim_policy_id", columnList = "policy_id, id")
+})
+@EntityListeners({TombstoneListener.class, LossRatioListener.class, ClaimSearchListener.class, CoalescingListener.class})
+public class Claim implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
+    @Column(columnDefinition = "bigint generated by default as identity")
     private Long id;
 
     private String claimNumber;
     private String description;
     private LocalDate claimDate;
-    private String status;
+
+    @Enumerated(EnumType.STRING)
+    private ClaimStatus status;
+
+    private BigDecimal claimedAmount;
+    private BigDecimal reservedAmount;
+    private BigDecimal paidAmount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
 
     @ManyToOne
     @JoinColumn(name = "policy_id")
     private Policy policy;
+
+    // Amounts as last loaded or written, for loss ratio deltas
+    @Transient
+    private ClaimAmounts recordedAmounts;
 }
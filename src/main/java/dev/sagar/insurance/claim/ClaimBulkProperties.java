@@ -0,0 +1,13 @@
+package dev.sagar.insurance.claim;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "insurance.claims.bulk")
+public record ClaimBulkProperties(
+
+        // Claims locked and updated per transaction by POST /api/claims/status
+        @DefaultValue("1000")
+        int chunkSize
+) {
+}
@@ -0,0 +1,45 @@
+package dev.sagar.insurance.claim;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Moves either the listed claims or every claim matching the filter to the target status. from works as for a single
+// transition: claims no longer in that status are reported as conflicts instead of being moved.
+public record ClaimBulkTransitionDTO(
+
+        @Size(max = ClaimBulkTransitionDTO.MAX_CLAIMS, message = "At most " + ClaimBulkTransitionDTO.MAX_CLAIMS + " claims per request")
+        List<@NotNull Long> ids,
+
+        @Valid
+        Filter filter,
+
+        ClaimStatus from,
+
+        @NotNull(message = "Target status is mandatory")
+        ClaimStatus to
+) {
+
+    public static final int MAX_CLAIMS = 100_000;
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of ids or filter is required")
+    public boolean isTargetValid() {
+        return (ids == null) != (filter == null);
+    }
+
+    // Criteria are combined with AND; a filter without any would match every claim
+    public record Filter(ClaimStatus status, Long policyId, LocalDate claimDateBefore) {
+
+        @JsonIgnore
+        @AssertTrue(message = "Filter needs at least one of status, policyId or claimDateBefore")
+        public boolean isRestricted() {
+            return status != null || policyId != null || claimDateBefore != null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.sagar.insurance.claim;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+// truncated means a filter matched more than MAX_CLAIMS claims; sending the same request again continues with the rest
+public record ClaimBulkTransitionResult(
+        ClaimStatus to,
+        Instant changedAt,
+        int transitioned,
+        int unchanged,
+        int conflicts,
+        int notFound,
+        int chunks,
+        boolean truncated,
+        List<Outcome> outcomes
+) {
+
+    public enum Result {
+        TRANSITIONED,
+        // Already in the target status
+        UNCHANGED,
+        // Not in the expected status, or not allowed to move to the target
+        CONFLICT,
+        NOT_FOUND
+    }
+
+    // status is the claim's status before the request
+    public record Outcome(
+            Long claimId,
+            Result result,
+            ClaimStatus status,
+            @JsonInclude(JsonInclude.Include.NON_NULL)
+            String message
+    ) {
+    }
+}
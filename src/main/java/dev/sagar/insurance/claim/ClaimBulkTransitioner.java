@@ -0,0 +1,132 @@
+package dev.sagar.insurance.claim;
+
+import dev.sagar.insurance.claim.ClaimBulkTransitionResult.Outcome;
+import dev.sagar.insurance.claim.ClaimBulkTransitionResult.Result;
+import dev.sagar.insurance.coalescing.Coalesced;
+import dev.sagar.insurance.coalescing.RequestCoalescer;
+import dev.sagar.insurance.sharding.ShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Applies one target status to many claims. Claims are processed in chunks of insurance.claims.bulk.chunk-size, each
+// in its own transaction: one locking read of the chunk's statuses, then one UPDATE per distinct source status. A
+// failed chunk rolls back alone and leaves the chunks before it committed.
+@Component
+public class ClaimBulkTransitioner {
+
+    private final ClaimRepository claimRepository;
+    private final ClaimStatusPublisher claimStatusPublisher;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final ObjectProvider<RequestCoalescer> requestCoalescer;
+    private final int chunkSize;
+
+    public ClaimBulkTransitioner(ClaimRepository claimRepository, ClaimStatusPublisher claimStatusPublisher,
+                                 ShardRouter shardRouter, PlatformTransactionManager transactionManager,
+                                 ClaimBulkProperties properties, ObjectProvider<RequestCoalescer> requestCoalescer) {
+        this.claimRepository = claimRepository;
+        this.claimStatusPublisher = claimStatusPublisher;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = properties.chunkSize();
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    public ClaimBulkTransitionResult transition(ClaimBulkTransitionDTO request) {
+        Instant changedAt = Instant.now();
+        List<Outcome> outcomes = new ArrayList<>();
+        int chunks = 0;
+        boolean truncated = false;
+
+        if (request.ids() != null) {
+            // A transaction is bound to one shard, so chunks never mix shards
+            Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+            for (Long id : new LinkedHashSet<>(request.ids())) {
+                idsByShard.computeIfAbsent(shardRouter.shardOf(id), shard -> new ArrayList<>()).add(id);
+            }
+            for (List<Long> ids : idsByShard.values()) {
+                for (int start = 0; start < ids.size(); start += chunkSize) {
+                    outcomes.addAll(transitionChunk(ids.subList(start, Math.min(start + chunkSize, ids.size())),
+                            request.from(), request.to(), changedAt));
+                    chunks++;
+                }
+            }
+        } else {
+            ClaimBulkTransitionDTO.Filter filter = request.filter();
+            // A claim that left the filtered status between the lookup and its chunk is a conflict, not a match
+            ClaimStatus expected = request.from() != null ? request.from() : filter.status();
+            for (int shard : shardRouter.shards()) {
+                long afterId = 0;
+                while (outcomes.size() < ClaimBulkTransitionDTO.MAX_CLAIMS) {
+                    long after = afterId;
+                    int limit = Math.min(chunkSize, ClaimBulkTransitionDTO.MAX_CLAIMS - outcomes.size());
+                    List<Long> ids = shardRouter.readOnShard(shard, () -> claimRepository.findIdsMatching(
+                            after, filter.status(), filter.policyId(), filter.claimDateBefore(), Limit.of(limit)));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    outcomes.addAll(transitionChunk(ids, expected, request.to(), changedAt));
+                    chunks++;
+                    afterId = ids.getLast();
+                }
+            }
+            truncated = outcomes.size() >= ClaimBulkTransitionDTO.MAX_CLAIMS;
+        }
+
+        int[] counts = new int[Result.values().length];
+        outcomes.forEach(outcome -> counts[outcome.result().ordinal()]++);
+        return new ClaimBulkTransitionResult(request.to(), changedAt, counts[Result.TRANSITIONED.ordinal()],
+                counts[Result.UNCHANGED.ordinal()], counts[Result.CONFLICT.ordinal()], counts[Result.NOT_FOUND.ordinal()],
+                chunks, truncated, outcomes);
+    }
+
+    List<Outcome> transitionChunk(List<Long> ids, ClaimStatus expected, ClaimStatus to, Instant changedAt) {
+        boolean publish = claimStatusPublisher.getSubscriberCount() > 0;
+        List<ClaimStatusEvent> events = new ArrayList<>();
+        List<Outcome> outcomes = transaction.execute(status -> {
+            ids.forEach(shardRouter::routeWrite);
+            Map<Long, ClaimStatusView> claims = new HashMap<>();
+            claimRepository.lockStatusViews(ids).forEach(claim -> claims.put(claim.id(), claim));
+
+            List<Outcome> result = new ArrayList<>(ids.size());
+            Map<ClaimStatus, List<Long>> movable = new EnumMap<>(ClaimStatus.class);
+            for (Long id : ids) {
+                ClaimStatusView claim = claims.get(id);
+                if (claim == null) {
+                    result.add(new Outcome(id, Result.NOT_FOUND, null, "Claim not found with id: " + id));
+                } else if (expected != null && claim.status() != expected) {
+                    result.add(new Outcome(id, Result.CONFLICT, claim.status(), "Claim " + id + " is " + claim.status() + ", not " + expected));
+                } else if (claim.status() == to) {
+                    result.add(new Outcome(id, Result.UNCHANGED, claim.status(), null));
+                } else if (claim.status() == null || !claim.status().canTransitionTo(to)) {
+                    result.add(new Outcome(id, Result.CONFLICT, claim.status(), "Claim " + id + " cannot move from " + claim.status() + " to " + to));
+                } else {
+                    movable.computeIfAbsent(claim.status(), from -> new ArrayList<>()).add(id);
+                    result.add(new Outcome(id, Result.TRANSITIONED, claim.status(), null));
+                    if (publish) {
+                        events.add(new ClaimStatusEvent(id, claim.policyId(), claim.claimNumber(), claim.status(), to, changedAt));
+                    }
+                }
+            }
+            // The rows are locked, so every claim read in a status is still in it
+            movable.forEach((from, group) -> claimRepository.transitionAll(group, from, to, changedAt));
+            requestCoalescer.ifAvailable(c -> movable.values().forEach(group -> group.forEach(id -> c.invalidate(Coalesced.CLAIM, id))));
+            return result;
+        });
+        // Subscribers only hear about committed chunks
+        events.forEach(claimStatusPublisher::publish);
+        return outcomes;
+    }
+}
@@ -1,8 +1,11 @@
 package dev.sagar.insurance.claim;
 
+import dev.sagar.insurance.changes.ChangePage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,9 +14,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,20 +27,48 @@ import java.util.List;
 public class ClaimController {
 
     private final ClaimService claimService;
+    private final ClaimStatusPublisher claimStatusPublisher;
+    private final ClaimBulkTransitioner claimBulkTransitioner;
+    private final ObjectProvider<ClaimGroupCommitter> claimGroupCommitter;
 
     @GetMapping
     public ResponseEntity<List<ClaimDTO>> getAllClaims() {
         return new ResponseEntity<>(claimService.getAllClaims(), HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllClaims(@RequestParam String fields) {
+        return new ResponseEntity<>(claimService.getAllClaims(fields), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClaimDTO> getClaimById(@PathVariable Long id) {
         return new ResponseEntity<>(claimService.getClaimById(id), HttpStatus.OK);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getClaimById(@PathVariable Long id, @RequestParam String fields) {
+        return new ResponseEntity<>(claimService.getClaimById(id, fields), HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<ClaimDTO>> getClaimChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(claimService.getClaimChanges(since, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamClaimStatus(@RequestParam(required = false) Long claimId,
+                                        @RequestParam(required = false) Long policyId,
+                                        @RequestParam(required = false) ClaimStatus status) {
+        return claimStatusPublisher.subscribe(claimId, policyId, status);
+    }
+
     @PostMapping
     public ResponseEntity<ClaimDTO> createClaim(@Valid @RequestBody ClaimDTO claimDTO) {
-        return new ResponseEntity<>(claimService.createClaim(claimDTO), HttpStatus.CREATED);
+        ClaimGroupCommitter groupCommitter = claimGroupCommitter.getIfAvailable();
+        ClaimDTO created = groupCommitter == null ? claimService.createClaim(claimDTO) : groupCommitter.createClaim(claimDTO);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
@@ -42,6 +76,19 @@ public class ClaimController {
         return new ResponseEntity<>(claimService.updateClaim(id, claimDTO), HttpStatus.OK);
     }
 
+    // 409 when the transition is not allowed or the claim is no longer in the expected status
+    @PostMapping("/{id}/status")
+    public ResponseEntity<ClaimTransitionResult> transitionClaim(@PathVariable Long id,
+                                                                 @Valid @RequestBody ClaimTransitionDTO transition) {
+        return new ResponseEntity<>(claimService.transitionClaim(id, transition), HttpStatus.OK);
+    }
+
+    // Per-claim outcomes; conflicts in one claim do not stop the others
+    @PostMapping("/status")
+    public ResponseEntity<ClaimBulkTransitionResult> transitionClaims(@Valid @RequestBody ClaimBulkTransitionDTO transition) {
+        return new ResponseEntity<>(claimBulkTransitioner.transition(transition), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteClaim(@PathVariable Long id) {
         claimService.deleteClaim(id);
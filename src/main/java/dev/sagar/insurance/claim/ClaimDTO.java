@@ -1,9 +1,11 @@
 package dev.sagar.insurance.claim;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public record ClaimDTO(
@@ -20,7 +22,18 @@ public record ClaimDTO(
         @PastOrPresent(message = "Claim Date must be in the past or present")
         LocalDate claimDate,
 
-        String status,
+        // Defaults to OPEN on create, and may not be anything else there
+        ClaimStatus status,
+
+        // Amounts default to zero when omitted
+        @DecimalMin(value = "0.00", message = "Claimed Amount must not be negative")
+        BigDecimal claimedAmount,
+
+        @DecimalMin(value = "0.00", message = "Reserved Amount must not be negative")
+        BigDecimal reservedAmount,
+
+        @DecimalMin(value = "0.00", message = "Paid Amount must not be negative")
+        BigDecimal paidAmount,
 
         @NotNull(message = "Policy ID is mandatory")
         Long policyId
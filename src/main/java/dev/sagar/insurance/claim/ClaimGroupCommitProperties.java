@@ -0,0 +1,30 @@
+package dev.sagar.insurance.claim;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.claims.group-commit")
+public record ClaimGroupCommitProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // Claims written per transaction at most
+        @DefaultValue("100")
+        int maxBatchSize,
+
+        // How long the first claim of a batch waits for company; 0 writes whatever queued up during the previous commit
+        @DefaultValue("2ms")
+        Duration maxDelay,
+
+        // Creates beyond this take the per-request path instead of queueing
+        @DefaultValue("10000")
+        int queueCapacity,
+
+        // A caller whose claim is still queued after this long takes it back and writes it through ClaimService
+        @DefaultValue("5s")
+        Duration maxWait
+) {
+}
@@ -0,0 +1,293 @@
+package dev.sagar.insurance.claim;
+
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.policy.Policy;
+import dev.sagar.insurance.policy.PolicyRepository;
+import dev.sagar.insurance.sharding.ShardRouter;
+import dev.sagar.insurance.sharding.ShardedEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Creates claims in micro-batches: callers queue their claim and wait, a single writer thread gathers up to
+// max-batch-size claims or whatever arrived within max-delay of the first one, and inserts them in one transaction per
+// shard. Each caller still gets its own claim or its own error. When a batch fails as a whole, its claims are retried
+// one by one through ClaimService, so only the offending claims fail. A caller never waits on the writer indefinitely:
+// a claim still queued after max-wait is taken back and written through ClaimService instead.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "insurance.claims.group-commit", name = "enabled", havingValue = "true")
+public class ClaimGroupCommitter {
+
+    private final ClaimRepository claimRepository;
+    private final PolicyRepository policyRepository;
+    private final ClaimMapper claimMapper;
+    private final ClaimService claimService;
+    private final ClaimStatusPublisher claimStatusPublisher;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transaction;
+    private final BlockingQueue<PendingClaim> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long maxWaitNanos;
+    private final DistributionSummary batchSizes;
+    private final Counter stopped;
+    private final Counter queueFull;
+    private final Counter batchFailures;
+    private final Counter waitTimeouts;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ClaimGroupCommitter(ClaimRepository claimRepository, PolicyRepository policyRepository, ClaimMapper claimMapper,
+                               ClaimService claimService, ClaimStatusPublisher claimStatusPublisher, ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager, ClaimGroupCommitProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.claimRepository = claimRepository;
+        this.policyRepository = policyRepository;
+        this.claimMapper = claimMapper;
+        this.claimService = claimService;
+        this.claimStatusPublisher = claimStatusPublisher;
+        this.shardRouter = shardRouter;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.maxBatchSize = properties.maxBatchSize();
+        this.maxDelayNanos = properties.maxDelay().toNanos();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.batchSizes = DistributionSummary.builder("insurance.claims.group-commit.batch-size").register(meterRegistry);
+        this.stopped = Counter.builder("insurance.claims.group-commit.fallbacks").tag("reason", "stopped").register(meterRegistry);
+        this.queueFull = Counter.builder("insurance.claims.group-commit.fallbacks").tag("reason", "queue-full").register(meterRegistry);
+        this.batchFailures = Counter.builder("insurance.claims.group-commit.fallbacks").tag("reason", "batch-failed").register(meterRegistry);
+        this.waitTimeouts = Counter.builder("insurance.claims.group-commit.fallbacks").tag("reason", "wait-timeout").register(meterRegistry);
+        Gauge.builder("insurance.claims.group-commit.queued", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("claim-group-commit").daemon().start(this::writeBatches);
+    }
+
+    public ClaimDTO createClaim(ClaimDTO claimDTO) {
+        // Checked before queueing so the batch insert, which maps the claim directly, never sees another status
+        ClaimService.requireInitialStatus(claimDTO);
+        PendingClaim pending = new PendingClaim(claimDTO);
+        if (!running) {
+            stopped.increment();
+            return claimService.createClaim(claimDTO);
+        }
+        if (!queue.offer(pending)) {
+            queueFull.increment();
+            return claimService.createClaim(claimDTO);
+        }
+        try {
+            return pending.result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A claim the writer has taken is completed by it whatever happens; only an untaken one is written here
+            if (pending.take()) {
+                queue.remove(pending);
+                waitTimeouts.increment();
+                log.warn("Claim {} waited too long for group commit, writing it alone", claimDTO.claimNumber());
+                return claimService.createClaim(claimDTO);
+            }
+            return await(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.take()) {
+                queue.remove(pending);
+                throw new IllegalStateException("Interrupted while waiting for group commit", e);
+            }
+            return await(pending);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static ClaimDTO await(PendingClaim pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    private void writeBatches() {
+        List<PendingClaim> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingClaim first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    gather(batch);
+                    // Callers that gave up waiting have taken their claims back
+                    batch.removeIf(pending -> !pending.take());
+                    if (!batch.isEmpty()) {
+                        write(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.stream().filter(PendingClaim::take).forEach(this::createAlone);
+                    return;
+                } catch (Throwable e) {
+                    // Errors included: a dead writer would leave every later caller queueing until max-wait
+                    log.error("Claim group commit failed", e);
+                    batch.forEach(pending -> pending.result.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // New claims take the per-request path from here on
+            running = false;
+        }
+    }
+
+    private void gather(List<PendingClaim> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingClaim next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    void write(List<PendingClaim> batch) {
+        batchSizes.record(batch.size());
+        // A transaction is bound to one shard, and claims live on their policy's shard
+        Map<Integer, List<PendingClaim>> byShard = new TreeMap<>();
+        for (PendingClaim pending : batch) {
+            byShard.computeIfAbsent(shardRouter.shardOf(pending.claim.policyId()), shard -> new ArrayList<>()).add(pending);
+        }
+        byShard.values().forEach(this::writeShard);
+    }
+
+    private void writeShard(List<PendingClaim> claims) {
+        List<ClaimDTO> created;
+        try {
+            created = transaction.execute(status -> insert(claims));
+        } catch (RuntimeException e) {
+            batchFailures.increment();
+            log.warn("Group commit of {} claims failed, retrying them one at a time: {}", claims.size(), e.getMessage());
+            claims.stream().filter(pending -> !pending.result.isDone()).forEach(this::createAlone);
+            return;
+        }
+        boolean publish = claimStatusPublisher.getSubscriberCount() > 0;
+        for (int i = 0; i < claims.size(); i++) {
+            ClaimDTO claim = created.get(i);
+            if (claim == null) {
+                continue;
+            }
+            claims.get(i).result.complete(claim);
+            if (publish) {
+                claimStatusPublisher.publish(new ClaimStatusEvent(claim.id(), claim.policyId(), claim.claimNumber(), null,
+                        claim.status(), Instant.now()));
+            }
+        }
+    }
+
+    // One read for all the batch's policies, then the inserts. Hibernate never batches inserts into an identity column,
+    // so the saving is in the transactions and commits, not the statements.
+    private List<ClaimDTO> insert(List<PendingClaim> claims) {
+        Map<Long, Policy> policies = new HashMap<>();
+        claims.forEach(pending -> shardRouter.routeWrite(pending.claim.policyId()));
+        policyRepository.findAllById(claims.stream().map(pending -> pending.claim.policyId()).distinct().toList())
+                .forEach(policy -> policies.put(policy.getId(), policy));
+
+        List<Claim> entities = new ArrayList<>(claims.size());
+        for (PendingClaim pending : claims) {
+            Policy policy = policies.get(pending.claim.policyId());
+            if (policy == null) {
+                pending.result.completeExceptionally(new ResourceNotFoundException("Policy not found with ID: " + pending.claim.policyId()));
+                entities.add(null);
+                continue;
+            }
+            Claim claim = claimMapper.toEntity(pending.claim, policy);
+            claim.setId(shardRouter.newChildId(ShardedEntity.CLAIM, pending.claim.policyId()));
+            entities.add(claim);
+        }
+        claimRepository.saveAll(entities.stream().filter(Objects::nonNull).toList());
+        return entities.stream().map(claim -> claim == null ? null : claimMapper.toDto(claim)).toList();
+    }
+
+    private void createAlone(PendingClaim pending) {
+        try {
+            pending.result.complete(claimService.createClaim(pending.claim));
+        } catch (Throwable e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    // Claims still queued are written before the writer stops
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything that slipped in as the writer stopped
+        List<PendingClaim> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.stream().filter(PendingClaim::take).forEach(this::createAlone);
+    }
+
+    static final class PendingClaim {
+
+        private final ClaimDTO claim;
+        private final CompletableFuture<ClaimDTO> result = new CompletableFuture<>();
+        // Set by whichever of the writer and the waiting caller writes the claim, so it is written once
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        PendingClaim(ClaimDTO claim) {
+            this.claim = claim;
+        }
+
+        CompletableFuture<ClaimDTO> result() {
+            return result;
+        }
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -6,6 +6,9 @@ import dev.sagar.insurance.policy.PolicyRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.Objects;
+
 @Component
 @RequiredArgsConstructor
 public class ClaimMapper {
@@ -19,23 +22,51 @@ public class ClaimMapper {
                 claim.getDescription(),
                 claim.getClaimDate(),
                 claim.getStatus(),
+                claim.getClaimedAmount(),
+                claim.getReservedAmount(),
+                claim.getPaidAmount(),
                 claim.getPolicy().getId()
         );
     }
 
+    public ClaimDTO toDto(ArchivedClaim claim) {
+        return new ClaimDTO(
+                claim.getId(),
+                claim.getClaimNumber(),
+                claim.getDescription(),
+                claim.getClaimDate(),
+                claim.getStatus(),
+                claim.getClaimedAmount(),
+                claim.getReservedAmount(),
+                claim.getPaidAmount(),
+                claim.getPolicyId()
+        );
+    }
+
     public Claim toEntity(ClaimDTO claimDTO) {
+        // Fetch the associated Policy entity
+        Policy policy = policyRepository.findById(claimDTO.policyId())
+                .orElseThrow(() -> new ResourceNotFoundException("Policy not found with ID: " + claimDTO.policyId()));
+        return toEntity(claimDTO, policy);
+    }
+
+    // For callers that already loaded the policy, such as the group commit path
+    public Claim toEntity(ClaimDTO claimDTO, Policy policy) {
         Claim claim = new Claim();
         claim.setId(claimDTO.id());
         claim.setClaimNumber(claimDTO.claimNumber());
         claim.setDescription(claimDTO.description());
         claim.setClaimDate(claimDTO.claimDate());
-        claim.setStatus(claimDTO.status());
-
-        // Fetch the associated Policy entity
-        Policy policy = policyRepository.findById(claimDTO.policyId())
-                .orElseThrow(() -> new ResourceNotFoundException("Policy not found with ID: " + claimDTO.policyId()));
+        claim.setStatus(Objects.requireNonNullElse(claimDTO.status(), ClaimStatus.OPEN));
+        claim.setClaimedAmount(amount(claimDTO.claimedAmount()));
+        claim.setReservedAmount(amount(claimDTO.reservedAmount()));
+        claim.setPaidAmount(amount(claimDTO.paidAmount()));
         claim.setPolicy(policy);
 
         return claim;
     }
+
+    public static BigDecimal amount(BigDecimal amount) {
+        return Objects.requireNonNullElse(amount, BigDecimal.ZERO);
+    }
 }
\ No newline at end of file
@@ -1,8 +1,46 @@
 package dev.sagar.insurance.claim;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
+
+    @Query("select c from Claim c where (c.updatedAt > :since or (c.updatedAt = :since and c.id > :afterId))"
+            + " and c.updatedAt <= :until order by c.updatedAt, c.id")
+    List<Claim> findChangedSince(Instant since, Long afterId, Instant until, Limit limit);
+
+    @Query("select new dev.sagar.insurance.claim.ClaimStatusView(c.id, c.policy.id, c.claimNumber, c.status) from Claim c where c.id = :id")
+    Optional<ClaimStatusView> findStatusViewById(Long id);
+
+    // Compare-and-set: changes nothing and returns 0 unless the claim is still in the expected status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Claim c set c.status = :to, c.updatedAt = :changedAt where c.id = :id and c.status = :from")
+    int transition(Long id, ClaimStatus from, ClaimStatus to, Instant changedAt);
+
+    // Locks the claims of a bulk transition chunk until its transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new dev.sagar.insurance.claim.ClaimStatusView(c.id, c.policy.id, c.claimNumber, c.status) from Claim c where c.id in :ids")
+    List<ClaimStatusView> lockStatusViews(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Claim c set c.status = :to, c.updatedAt = :changedAt where c.id in :ids and c.status = :from")
+    int transitionAll(Collection<Long> ids, ClaimStatus from, ClaimStatus to, Instant changedAt);
+
+    // Keyset page of the claims a bulk transition filter matches; null criteria are ignored
+    @Query("select c.id from Claim c where c.id > :afterId and (:status is null or c.status = :status)"
+            + " and (:policyId is null or c.policy.id = :policyId)"
+            + " and (cast(:claimDateBefore as LocalDate) is null or c.claimDate < :claimDateBefore) order by c.id")
+    List<Long> findIdsMatching(Long afterId, ClaimStatus status, Long policyId, LocalDate claimDateBefore, Limit limit);
 }
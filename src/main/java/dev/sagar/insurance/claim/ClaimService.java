@@ -1,46 +1,198 @@
 package dev.sagar.insurance.claim;
 
+import dev.sagar.insurance.changes.Change;
+import dev.sagar.insurance.changes.ChangeFeed;
+import dev.sagar.insurance.changes.ChangePage;
+import dev.sagar.insurance.coalescing.Coalesced;
+import dev.sagar.insurance.coalescing.RequestCoalescer;
+import dev.sagar.insurance.exception.ConflictException;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.FieldProjector;
+import dev.sagar.insurance.projection.FieldSet;
+import dev.sagar.insurance.sharding.ShardRouter;
+import dev.sagar.insurance.sharding.ShardedEntity;
+import dev.sagar.insurance.transaction.AfterCommit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClaimService {
 
+    private static final FieldSet FIELDS = FieldSet.of("claim", ClaimDTO.class, Claim.class, Map.of("policyId", "policy.id"));
+    private static final FieldSet ARCHIVED_FIELDS = FieldSet.of("claim", ClaimDTO.class, ArchivedClaim.class, Map.of());
+
     private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archivedClaimRepository;
     private final ClaimMapper claimMapper;
+    private final ClaimStatusPublisher claimStatusPublisher;
+    private final ShardRouter shardRouter;
+    private final FieldProjector fieldProjector;
+    private final ChangeFeed changeFeed;
+    private final ObjectProvider<RequestCoalescer> requestCoalescer;
 
+    @Transactional(readOnly = true)
     public List<ClaimDTO> getAllClaims() {
-        return claimRepository.findAll().stream().map(claimMapper::toDto).toList();
+        return shardRouter.gather(() -> claimRepository.findAll(Sort.by("id")).stream().map(claimMapper::toDto).toList(),
+                Comparator.comparing(ClaimDTO::id));
     }
 
+    @Coalesced(Coalesced.CLAIM)
+    @Transactional(readOnly = true)
     public ClaimDTO getClaimById(Long id) {
-        Claim claim = claimRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
-        return claimMapper.toDto(claim);
+        shardRouter.routeRead(id);
+        // Archived claims are no longer in the hot table but stay readable by id
+        return claimRepository.findById(id).map(claimMapper::toDto)
+                .or(() -> archivedClaimRepository.findById(id).map(claimMapper::toDto))
+                .orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
+    }
+
+    // The claims among ids that exist, hot or archived, keyed by id. One read per shard instead of one per claim.
+    public Map<Long, ClaimDTO> getClaimsById(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = ids.stream().distinct().collect(Collectors.groupingBy(shardRouter::shardOf));
+        Map<Long, ClaimDTO> claims = new HashMap<>();
+        idsByShard.forEach((shard, shardIds) -> shardRouter.readOnShard(shard, () -> {
+            claimRepository.findAllById(shardIds).forEach(claim -> claims.put(claim.getId(), claimMapper.toDto(claim)));
+            List<Long> missing = shardIds.stream().filter(id -> !claims.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                archivedClaimRepository.findAllById(missing).forEach(claim -> claims.put(claim.getId(), claimMapper.toDto(claim)));
+            }
+            return null;
+        }));
+        return claims;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllClaims(String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        return shardRouter.gather(() -> fieldProjector.findAll(FIELDS, selected), Comparator.comparing(FieldProjector::id)).stream()
+                .map(row -> FieldProjector.strip(row, selected))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getClaimById(Long id, String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        shardRouter.routeRead(id);
+        return fieldProjector.findById(FIELDS, selected, id)
+                .or(() -> fieldProjector.findById(ARCHIVED_FIELDS, selected, id))
+                .orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangePage<ClaimDTO> getClaimChanges(String since, Integer limit) {
+        return changeFeed.read(Claim.class, since, limit, (after, until, max) ->
+                claimRepository.findChangedSince(after.changedAt(), after.id(), until, max).stream()
+                        .map(c -> Change.upsert(c.getId(), c.getUpdatedAt(), claimMapper.toDto(c)))
+                        .toList());
     }
 
+    @Transactional
     public ClaimDTO createClaim(ClaimDTO claimDTO) {
+        requireInitialStatus(claimDTO);
+        // Claims live on their policy's shard
+        shardRouter.routeWrite(claimDTO.policyId());
         Claim claim = claimMapper.toEntity(claimDTO);
-        return claimMapper.toDto(claimRepository.save(claim));
+        claim.setId(shardRouter.newChildId(ShardedEntity.CLAIM, claimDTO.policyId()));
+        ClaimDTO created = claimMapper.toDto(claimRepository.save(claim));
+        publishStatusChange(created, null);
+        return created;
     }
 
+    @Transactional
     public ClaimDTO updateClaim(Long id, ClaimDTO claimDTO) {
+        shardRouter.routeWrite(id);
         Claim existingClaim = claimRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
+        ClaimStatus previousStatus = existingClaim.getStatus();
+        // A claim stored without a status has not left the initial state
+        ClaimStatus from = Objects.requireNonNullElse(previousStatus, ClaimStatus.OPEN);
+        ClaimStatus status = Objects.requireNonNullElse(claimDTO.status(), from);
+        if (status != from && !from.canTransitionTo(status)) {
+            throw new ConflictException("Claim " + id + " cannot move from " + from + " to " + status);
+        }
 
         existingClaim.setClaimNumber(claimDTO.claimNumber());
         existingClaim.setDescription(claimDTO.description());
         existingClaim.setClaimDate(claimDTO.claimDate());
-        existingClaim.setStatus(claimDTO.status());
+        existingClaim.setStatus(status);
+        existingClaim.setClaimedAmount(ClaimMapper.amount(claimDTO.claimedAmount()));
+        existingClaim.setReservedAmount(ClaimMapper.amount(claimDTO.reservedAmount()));
+        existingClaim.setPaidAmount(ClaimMapper.amount(claimDTO.paidAmount()));
 
-        return claimMapper.toDto(claimRepository.save(existingClaim));
+        ClaimDTO updated = claimMapper.toDto(claimRepository.save(existingClaim));
+        if (!Objects.equals(previousStatus, updated.status())) {
+            publishStatusChange(updated, previousStatus);
+        }
+        return updated;
     }
 
 
+    // A single conditional UPDATE; the read only happens when the caller did not say which status it expects, or to
+    // explain a failed write
+    @Transactional
+    public ClaimTransitionResult transitionClaim(Long id, ClaimTransitionDTO transition) {
+        shardRouter.routeWrite(id);
+        ClaimStatusView current = transition.from() == null ? findStatusView(id) : null;
+        ClaimStatus from = current == null ? transition.from() : current.status();
+        ClaimStatus to = transition.to();
+        if (from == null || !from.canTransitionTo(to)) {
+            throw new ConflictException("Claim " + id + " cannot move from " + from + " to " + to);
+        }
+        Instant changedAt = Instant.now();
+        if (claimRepository.transition(id, from, to, changedAt) == 0) {
+            throw new ConflictException("Claim " + id + " is " + findStatusView(id).status() + ", not " + from);
+        }
+        // The UPDATE bypasses JPA, so the coalescing listener never sees it
+        requestCoalescer.ifAvailable(c -> c.invalidate(Coalesced.CLAIM, id));
+        // Only pay for the claim's policy and number when someone is listening; the event waits for the commit
+        if (claimStatusPublisher.getSubscriberCount() > 0) {
+            ClaimStatusView claim = current == null ? findStatusView(id) : current;
+            ClaimStatusEvent event = new ClaimStatusEvent(id, claim.policyId(), claim.claimNumber(), from, to, changedAt);
+            AfterCommit.run(() -> claimStatusPublisher.publish(event));
+        }
+        return new ClaimTransitionResult(id, from, to, changedAt);
+    }
+
+    @Transactional
     public void deleteClaim(Long id) {
+        shardRouter.routeWrite(id);
         Claim claim = claimRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
         claimRepository.delete(claim);
     }
+
+    // New claims enter the lifecycle at OPEN; starting anywhere else would skip the transitions that lead there
+    static void requireInitialStatus(ClaimDTO claimDTO) {
+        if (claimDTO.status() != null && claimDTO.status() != ClaimStatus.OPEN) {
+            throw new ConflictException("New claims must start " + ClaimStatus.OPEN + ", not " + claimDTO.status());
+        }
+    }
+
+    private ClaimStatusView findStatusView(Long id) {
+        return claimRepository.findStatusViewById(id).orElseThrow(() -> new ResourceNotFoundException("Claim not found with id: " + id));
+    }
+
+    // Sent after commit, so subscribers never hear of a change that rolls back or that a read cannot see yet
+    private void publishStatusChange(ClaimDTO claim, ClaimStatus previousStatus) {
+        ClaimStatusEvent event = new ClaimStatusEvent(
+                claim.id(),
+                claim.policyId(),
+                claim.claimNumber(),
+                previousStatus,
+                claim.status(),
+                Instant.now()
+        );
+        AfterCommit.run(() -> claimStatusPublisher.publish(event));
+    }
 }
\ No newline at end of file
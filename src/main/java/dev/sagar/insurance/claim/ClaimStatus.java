@@ -0,0 +1,34 @@
+package dev.sagar.insurance.claim;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Claim lifecycle. CLOSED is terminal; a REJECTED claim can be reopened for review on appeal.
+public enum ClaimStatus {
+
+    OPEN,
+    UNDER_REVIEW,
+    APPROVED,
+    REJECTED,
+    PAID,
+    CLOSED;
+
+    static {
+        OPEN.next = EnumSet.of(UNDER_REVIEW, REJECTED, CLOSED);
+        UNDER_REVIEW.next = EnumSet.of(OPEN, APPROVED, REJECTED);
+        APPROVED.next = EnumSet.of(PAID, CLOSED);
+        REJECTED.next = EnumSet.of(UNDER_REVIEW, CLOSED);
+        PAID.next = EnumSet.of(CLOSED);
+        CLOSED.next = EnumSet.noneOf(ClaimStatus.class);
+    }
+
+    private Set<ClaimStatus> next;
+
+    public boolean canTransitionTo(ClaimStatus target) {
+        return next.contains(target);
+    }
+
+    public Set<ClaimStatus> next() {
+        return Set.copyOf(next);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.sagar.insurance.claim;
+
+import java.time.Instant;
+
+public record ClaimStatusEvent(
+        Long claimId,
+        Long policyId,
+        String claimNumber,
+        ClaimStatus previousStatus,
+        ClaimStatus status,
+        Instant occurredAt
+) {
+}
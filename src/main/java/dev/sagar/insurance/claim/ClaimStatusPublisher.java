@@ -0,0 +1,80 @@
+package dev.sagar.insurance.claim;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Component
+public class ClaimStatusPublisher {
+
+    private final ClaimStreamProperties properties;
+    private final Set<ClaimStatusSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter publishedEvents;
+    private final Counter evictedSubscribers;
+
+    public ClaimStatusPublisher(ClaimStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.publishedEvents = Counter.builder("insurance.claims.stream.events").register(meterRegistry);
+        this.evictedSubscribers = Counter.builder("insurance.claims.stream.evictions").register(meterRegistry);
+        Gauge.builder("insurance.claims.stream.subscribers", subscriptions, Set::size).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long claimId, Long policyId, ClaimStatus status) {
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        ClaimStatusSubscription subscription = new ClaimStatusSubscription(claimId, policyId, status, emitter, properties.bufferSize());
+        register(subscription);
+        executor.execute(() -> subscription.drain(properties.heartbeatInterval().toMillis()));
+        return emitter;
+    }
+
+    void register(ClaimStatusSubscription subscription) {
+        SseEmitter emitter = subscription.emitter();
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        subscriptions.add(subscription);
+    }
+
+    public void publish(ClaimStatusEvent event) {
+        publishedEvents.increment();
+        for (ClaimStatusSubscription subscription : subscriptions) {
+            if (subscription.matches(event) && !subscription.offer(event)) {
+                evict(subscription);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void evict(ClaimStatusSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            evictedSubscribers.increment();
+            log.warn("Evicting slow claim status subscriber after {} buffered events", properties.bufferSize());
+            subscription.close();
+        }
+    }
+
+    private void remove(ClaimStatusSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(this::remove);
+        executor.shutdownNow();
+    }
+}
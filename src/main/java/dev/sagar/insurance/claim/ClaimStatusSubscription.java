@@ -0,0 +1,75 @@
+package dev.sagar.insurance.claim;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ClaimStatusSubscription {
+
+    private final Long claimId;
+    private final Long policyId;
+    private final ClaimStatus status;
+    private final SseEmitter emitter;
+    private final BlockingQueue<ClaimStatusEvent> buffer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ClaimStatusSubscription(Long claimId, Long policyId, ClaimStatus status, SseEmitter emitter, int bufferSize) {
+        this.claimId = claimId;
+        this.policyId = policyId;
+        this.status = status;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean matches(ClaimStatusEvent event) {
+        return (claimId == null || claimId.equals(event.claimId()))
+                && (policyId == null || policyId.equals(event.policyId()))
+                && (status == null || status == event.status());
+    }
+
+    // Never blocks the publisher; a full buffer means the consumer is not keeping up
+    boolean offer(ClaimStatusEvent event) {
+        return !closed.get() && buffer.offer(event);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    // Runs on a dedicated virtual thread for the lifetime of the connection
+    void drain(long heartbeatMillis) {
+        try {
+            while (!closed.get()) {
+                ClaimStatusEvent event = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(event.claimId() + "-" + event.occurredAt().toEpochMilli())
+                            .name("claim-status")
+                            .data(event));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        } catch (IOException | IllegalStateException e) {
+            close();
+        }
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
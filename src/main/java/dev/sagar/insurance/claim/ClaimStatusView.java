@@ -0,0 +1,5 @@
+package dev.sagar.insurance.claim;
+
+// The few claim columns a status transition needs, read without loading the entity
+public record ClaimStatusView(Long id, Long policyId, String claimNumber, ClaimStatus status) {
+}
@@ -0,0 +1,21 @@
+package dev.sagar.insurance.claim;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.claims.stream")
+public record ClaimStreamProperties(
+
+        // Events buffered per subscriber before it is considered too slow and evicted
+        @DefaultValue("256")
+        int bufferSize,
+
+        @DefaultValue("30m")
+        Duration timeout,
+
+        @DefaultValue("15s")
+        Duration heartbeatInterval
+) {
+}
@@ -0,0 +1,14 @@
+package dev.sagar.insurance.claim;
+
+import jakarta.validation.constraints.NotNull;
+
+// from is the status the caller last saw; when omitted the current status is read first. Either way the write only
+// succeeds if the claim is still in that status.
+public record ClaimTransitionDTO(
+
+        ClaimStatus from,
+
+        @NotNull(message = "Target status is mandatory")
+        ClaimStatus to
+) {
+}
@@ -0,0 +1,6 @@
+package dev.sagar.insurance.claim;
+
+import java.time.Instant;
+
+public record ClaimTransitionResult(Long claimId, ClaimStatus from, ClaimStatus to, Instant changedAt) {
+}
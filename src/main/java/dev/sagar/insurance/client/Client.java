@@ -1,17 +1,27 @@
 package dev.sagar.insurance.client;
 
+import dev.sagar.insurance.changes.ChangeTracked;
+import dev.sagar.insurance.changes.TombstoneListener;
+import dev.sagar.insurance.clientsearch.ClientSearchListener;
+import dev.sagar.insurance.coalescing.CoalescingListener;
 import dev.sagar.insurance.policy.Policy;
+import dev.sagar.insurance.sharding.AssignableIdentity;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -20,10 +30,13 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-public class Client {
+@Table(indexes = @Index(name = "idx_client_updated_at", columnList = "updated_at, id"))
+@EntityListeners({TombstoneListener.class, ClientSearchListener.class, CoalescingListener.class})
+public class Client implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
+    @Column(columnDefinition = "bigint generated by default as identity")
     private Long id;
 
     private String name;
@@ -31,6 +44,14 @@ public class Client {
     private String address;
     private String contactInformation;
 
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL)
     private List<Policy> policies;
 }
@@ -1,7 +1,9 @@
 package dev.sagar.insurance.client;
 
+import dev.sagar.insurance.changes.ChangePage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,15 +13,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/clients")
 public class ClientController {
 
+    // Comma-separated ids of existing clients that the created one may duplicate
+    static final String POSSIBLE_DUPLICATES = "X-Possible-Duplicates";
+
     private final ClientService clientService;
 
     @GetMapping
@@ -27,14 +35,37 @@ public class ClientController {
         return new ResponseEntity<>(clientService.getAllClients(), HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllClients(@RequestParam String fields) {
+        return new ResponseEntity<>(clientService.getAllClients(fields), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClientDTO> getClientById(@PathVariable Long id) {
         return new ResponseEntity<>(clientService.getClientById(id), HttpStatus.OK);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getClientById(@PathVariable Long id, @RequestParam String fields) {
+        return new ResponseEntity<>(clientService.getClientById(id, fields), HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<ClientDTO>> getClientChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(clientService.getClientChanges(since, limit), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<ClientDTO> createClient(@Valid @RequestBody ClientDTO clientDTO) {
-        return new ResponseEntity<>(clientService.createClient(clientDTO), HttpStatus.CREATED);
+        CreatedClient created = clientService.createClient(clientDTO);
+        HttpHeaders headers = new HttpHeaders();
+        if (!created.possibleDuplicates().isEmpty()) {
+            headers.set(POSSIBLE_DUPLICATES, created.possibleDuplicates().stream()
+                    .map(match -> String.valueOf(match.id()))
+                    .collect(Collectors.joining(",")));
+        }
+        return new ResponseEntity<>(created.client(), headers, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
@@ -1,8 +1,17 @@
 package dev.sagar.insurance.client;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
+
+    @Query("select c from Client c where (c.updatedAt > :since or (c.updatedAt = :since and c.id > :afterId))"
+            + " and c.updatedAt <= :until order by c.updatedAt, c.id")
+    List<Client> findChangedSince(Instant since, Long afterId, Instant until, Limit limit);
 }
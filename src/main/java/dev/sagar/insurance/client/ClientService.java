@@ -1,34 +1,97 @@
 package dev.sagar.insurance.client;
 
+import dev.sagar.insurance.changes.Change;
+import dev.sagar.insurance.changes.ChangeFeed;
+import dev.sagar.insurance.changes.ChangePage;
+import dev.sagar.insurance.clientsearch.ClientMatch;
+import dev.sagar.insurance.clientsearch.ClientSearchIndex;
+import dev.sagar.insurance.coalescing.Coalesced;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.FieldProjector;
+import dev.sagar.insurance.projection.FieldSet;
+import dev.sagar.insurance.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ClientService {
 
+    private static final int MAX_POSSIBLE_DUPLICATES = 5;
+
+    private static final FieldSet FIELDS = FieldSet.of("client", ClientDTO.class, Client.class, Map.of());
+
     private final ClientRepository clientRepository;
     private final ClientMapper clientMapper;
+    private final ShardRouter shardRouter;
+    private final FieldProjector fieldProjector;
+    private final ChangeFeed changeFeed;
+    private final ObjectProvider<ClientSearchIndex> clientSearchIndex;
 
+    @Transactional(readOnly = true)
     public List<ClientDTO> getAllClients() {
-        return clientRepository.findAll().stream().map(clientMapper::toDto).toList();
+        return shardRouter.gather(() -> clientRepository.findAll(Sort.by("id")).stream().map(clientMapper::toDto).toList(),
+                Comparator.comparing(ClientDTO::id));
     }
 
+    @Coalesced(Coalesced.CLIENT)
+    @Transactional(readOnly = true)
     public ClientDTO getClientById(Long id) {
+        shardRouter.routeRead(id);
         Client client = clientRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
         return clientMapper.toDto(client);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllClients(String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        return shardRouter.gather(() -> fieldProjector.findAll(FIELDS, selected), Comparator.comparing(FieldProjector::id)).stream()
+                .map(row -> FieldProjector.strip(row, selected))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getClientById(Long id, String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        shardRouter.routeRead(id);
+        return fieldProjector.findById(FIELDS, selected, id).orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangePage<ClientDTO> getClientChanges(String since, Integer limit) {
+        return changeFeed.read(Client.class, since, limit, (after, until, max) ->
+                clientRepository.findChangedSince(after.changedAt(), after.id(), until, max).stream()
+                        .map(c -> Change.upsert(c.getId(), c.getUpdatedAt(), clientMapper.toDto(c)))
+                        .toList());
+    }
+
 
-    public ClientDTO createClient(ClientDTO clientDTO) {
+    // Creates the client even when it looks like one that exists already; the likely duplicates are only reported
+    @Transactional
+    public CreatedClient createClient(ClientDTO clientDTO) {
+        List<ClientMatch> possibleDuplicates = findPossibleDuplicates(clientDTO);
         Client client = clientMapper.toEntity(clientDTO);
-        return clientMapper.toDto(clientRepository.save(client));
+        client.setId(shardRouter.newClientId());
+        shardRouter.routeWrite(client.getId());
+        ClientDTO created = clientMapper.toDto(clientRepository.save(client));
+        if (!possibleDuplicates.isEmpty()) {
+            log.info("Client {} may duplicate client(s) {}", created.id(), possibleDuplicates.stream().map(ClientMatch::id).toList());
+        }
+        return new CreatedClient(created, possibleDuplicates);
     }
 
+    @Transactional
     public ClientDTO updateClient(Long id, ClientDTO clientDTO) {
+        shardRouter.routeWrite(id);
         Client existingClient = clientRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
 
         existingClient.setName(clientDTO.name());
@@ -39,8 +102,19 @@ public class ClientService {
         return clientMapper.toDto(clientRepository.save(existingClient));
     }
 
+    @Transactional
     public void deleteClient(Long id) {
+        shardRouter.routeWrite(id);
         Client client = clientRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
         clientRepository.delete(client);
     }
+
+    // Empty when client search is disabled or its first build has not finished
+    private List<ClientMatch> findPossibleDuplicates(ClientDTO clientDTO) {
+        ClientSearchIndex index = clientSearchIndex.getIfAvailable();
+        if (index == null) {
+            return List.of();
+        }
+        return index.findDuplicates(clientDTO.name(), clientDTO.dateOfBirth(), MAX_POSSIBLE_DUPLICATES).orElse(List.of());
+    }
 }
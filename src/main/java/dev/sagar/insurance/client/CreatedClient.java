@@ -0,0 +1,9 @@
+package dev.sagar.insurance.client;
+
+import dev.sagar.insurance.clientsearch.ClientMatch;
+
+import java.util.List;
+
+// possibleDuplicates are existing clients with a similar name and the same or a close birth date, best first
+public record CreatedClient(ClientDTO client, List<ClientMatch> possibleDuplicates) {
+}
@@ -0,0 +1,9 @@
+package dev.sagar.insurance.clientsearch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+// score is only set for duplicate candidates: 0.8 for the name similarity and 0.2 for the birth date
+public record ClientMatch(long id, String name, LocalDate dateOfBirth, @JsonInclude(JsonInclude.Include.NON_NULL) Double score) {
+}
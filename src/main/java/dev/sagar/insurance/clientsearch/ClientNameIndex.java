@@ -0,0 +1,453 @@
+package dev.sagar.insurance.clientsearch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Client names for prefix lookups and duplicate detection. Not thread-safe; ClientSearchIndex guards it.
+// Every client version gets an append-only ordinal; an update appends a new ordinal and marks the old one deleted.
+// Prefix lookups binary-search a sorted long[] with one ordinal << 8 | offset entry per name token,
+// ordered by the normalized name from that token on, so "smi" finds "John Smith" through its "smith" entry. Duplicate
+// candidates come from a sorted long[] of blockingKey << 26 | ordinal, where a blocking key is the
+// birth date plus the phonetic code of one name token, or the birth year plus the codes of the first and last token.
+// New entries go to small unsorted deltas that are scanned linearly and merged in once they hold 4096 entries; a
+// bulkLoad sorts everything once at the end instead.
+final class ClientNameIndex {
+
+    static final int MAX_ORDINALS = 1 << 26;
+
+    private static final int ORDINAL_BITS = 26;
+    private static final int OFFSET_BITS = 8;
+    private static final int MAX_OFFSET = (1 << OFFSET_BITS) - 1;
+    private static final int MAX_DELTA = 4096;
+    // Entries looked at when no contiguous prefix fills the page and the query tokens have to be matched one by one
+    private static final int MAX_TOKEN_SCAN = 10_000;
+    private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+    // Birth dates between 1665 and 2382 fit the 18 bits of a blocking key
+    private static final int DAY_OFFSET = 1 << 17;
+    private static final long YEAR_KEY = 1L << 36;
+    private static final double NAME_WEIGHT = 0.8;
+    private static final double BIRTH_DATE_WEIGHT = 0.2;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private String[] normalized = new String[1024];
+    private int[] birthDays = new int[1024];
+    private int size;
+    private int deletedCount;
+
+    private long[] prefixes = new long[0];
+    private int prefixCount;
+    private long[] prefixDelta = new long[MAX_DELTA];
+    private int prefixDeltaCount;
+    private long[] blocks = new long[0];
+    private int blockCount;
+    private long[] blockDelta = new long[MAX_DELTA];
+    private int blockDeltaCount;
+    private boolean loading;
+
+    // For filling an index nobody reads yet: merges are deferred until load returns
+    void bulkLoad(Runnable load) {
+        loading = true;
+        try {
+            load.run();
+        } finally {
+            loading = false;
+            mergePrefixes();
+            mergeBlocks();
+        }
+    }
+
+    void put(long id, String name, LocalDate dateOfBirth) {
+        int birthDay = dateOfBirth == null ? NO_BIRTH_DATE : (int) dateOfBirth.toEpochDay();
+        Integer existing = ordinals.get(id);
+        if (existing != null) {
+            if (Objects.equals(names[existing], name) && birthDays[existing] == birthDay) {
+                return;
+            }
+            markDeleted(existing);
+        }
+        if (size == MAX_ORDINALS) {
+            compact();
+            if (size == MAX_ORDINALS) {
+                throw new IllegalStateException("Client name index is full");
+            }
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            normalized = Arrays.copyOf(normalized, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+        }
+        int ordinal = size++;
+        String normalizedName = NameNormalizer.normalize(name);
+        ids[ordinal] = id;
+        names[ordinal] = name;
+        normalized[ordinal] = normalizedName;
+        birthDays[ordinal] = birthDay;
+        ordinals.put(id, ordinal);
+
+        for (int offset = 0; offset >= 0 && offset <= MAX_OFFSET && offset < normalizedName.length(); ) {
+            addPrefix((long) ordinal << OFFSET_BITS | offset);
+            int space = normalizedName.indexOf(' ', offset);
+            offset = space < 0 ? -1 : space + 1;
+        }
+        for (long key : blockingKeys(NameNormalizer.tokens(normalizedName), birthDay)) {
+            addBlock(key << ORDINAL_BITS | ordinal);
+        }
+    }
+
+    void remove(long id) {
+        Integer existing = ordinals.remove(id);
+        if (existing != null) {
+            markDeleted(existing);
+        }
+    }
+
+    // Clients whose name has a token starting with the query, or with every query token as a token prefix
+    List<ClientMatch> prefix(String query, int limit) {
+        String normalizedQuery = NameNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        // Fast path: the query as typed is the start of a name token sequence, e.g. "john sm"
+        collectOrdered(matching(normalizedQuery, limit, Integer.MAX_VALUE, null), found, limit);
+
+        String[] queryTokens = NameNormalizer.tokens(normalizedQuery);
+        if (found.size() < limit && queryTokens.length > 1) {
+            // "jo smi": look up the longest token and check the others against each candidate's tokens
+            String longest = Arrays.stream(queryTokens).max(Comparator.comparingInt(String::length)).orElseThrow();
+            collectOrdered(matching(longest, limit, MAX_TOKEN_SCAN, queryTokens), found, limit);
+        }
+        List<ClientMatch> matches = new ArrayList<>(found.size());
+        for (int ordinal : found) {
+            matches.add(match(ordinal, null));
+        }
+        return matches;
+    }
+
+    // Live clients sharing a blocking key with the given name and birth date, scored 0-1 and best first
+    List<ClientMatch> duplicates(String name, LocalDate dateOfBirth, double threshold, int limit) {
+        if (dateOfBirth == null || limit <= 0) {
+            return List.of();
+        }
+        int birthDay = (int) dateOfBirth.toEpochDay();
+        String[] tokens = NameNormalizer.tokens(NameNormalizer.normalize(name));
+        Set<Integer> candidates = new HashSet<>();
+        for (long key : blockingKeys(tokens, birthDay)) {
+            long first = key << ORDINAL_BITS;
+            for (int i = lowerBound(blocks, blockCount, first); i < blockCount && blocks[i] >>> ORDINAL_BITS == key; i++) {
+                candidates.add((int) (blocks[i] & (MAX_ORDINALS - 1)));
+            }
+            for (int i = 0; i < blockDeltaCount; i++) {
+                if (blockDelta[i] >>> ORDINAL_BITS == key) {
+                    candidates.add((int) (blockDelta[i] & (MAX_ORDINALS - 1)));
+                }
+            }
+        }
+
+        List<ClientMatch> matches = new ArrayList<>();
+        for (int ordinal : candidates) {
+            if (deleted.get(ordinal)) {
+                continue;
+            }
+            double nameScore = NameSimilarity.of(tokens, NameNormalizer.tokens(normalized[ordinal]));
+            double dateScore = birthDays[ordinal] == birthDay ? 1
+                    : LocalDate.ofEpochDay(birthDays[ordinal]).getYear() == dateOfBirth.getYear() ? 0.5 : 0;
+            double score = NAME_WEIGHT * nameScore + BIRTH_DATE_WEIGHT * dateScore;
+            if (score >= threshold) {
+                matches.add(match(ordinal, Math.round(score * 1000) / 1000.0));
+            }
+        }
+        matches.sort(Comparator.comparing(ClientMatch::score).reversed().thenComparing(ClientMatch::id));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    int deletedClients() {
+        return deletedCount;
+    }
+
+    int prefixEntries() {
+        return prefixCount + prefixDeltaCount;
+    }
+
+    int blockEntries() {
+        return blockCount + blockDeltaCount;
+    }
+
+    boolean needsCompaction() {
+        return deletedCount >= 1024 && deletedCount > ordinals.size() / 4;
+    }
+
+    // Drops deleted ordinals. Renumbering keeps the relative order of live ordinals, so both sorted arrays stay sorted.
+    void compact() {
+        mergePrefixes();
+        mergeBlocks();
+        int[] remap = new int[size];
+        int live = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = live;
+            ids[live] = ids[ordinal];
+            names[live] = names[ordinal];
+            normalized[live] = normalized[ordinal];
+            birthDays[live] = birthDays[ordinal];
+            ordinals.put(ids[live], live);
+            live++;
+        }
+        Arrays.fill(names, live, size, null);
+        Arrays.fill(normalized, live, size, null);
+        for (int i = 0; i < prefixCount; i++) {
+            prefixes[i] = (long) remap[(int) (prefixes[i] >>> OFFSET_BITS)] << OFFSET_BITS | prefixes[i] & MAX_OFFSET;
+        }
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = blocks[i] >>> ORDINAL_BITS << ORDINAL_BITS | remap[(int) (blocks[i] & (MAX_ORDINALS - 1))];
+        }
+        size = live;
+        deleted.clear();
+        deletedCount = 0;
+    }
+
+    private ClientMatch match(int ordinal, Double score) {
+        LocalDate dateOfBirth = birthDays[ordinal] == NO_BIRTH_DATE ? null : LocalDate.ofEpochDay(birthDays[ordinal]);
+        return new ClientMatch(ids[ordinal], names[ordinal], dateOfBirth, score);
+    }
+
+    // Live entries starting with prefix whose name has every one of tokens (if any) as a token prefix
+    private List<Long> matching(String prefix, int maxOrdinals, int maxScanned, String[] tokens) {
+        List<Long> entries = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        int scanned = 0;
+        for (int i = lowerBound(prefix); i < prefixCount && scanned < maxScanned && seen.size() < maxOrdinals; i++, scanned++) {
+            if (!startsWith(prefixes[i], prefix)) {
+                break;
+            }
+            if (accept(prefixes[i], tokens)) {
+                entries.add(prefixes[i]);
+                seen.add(ordinalOf(prefixes[i]));
+            }
+        }
+        for (int i = 0; i < prefixDeltaCount; i++) {
+            if (startsWith(prefixDelta[i], prefix) && accept(prefixDelta[i], tokens)) {
+                entries.add(prefixDelta[i]);
+            }
+        }
+        return entries;
+    }
+
+    private boolean accept(long entry, String[] tokens) {
+        int ordinal = ordinalOf(entry);
+        if (deleted.get(ordinal)) {
+            return false;
+        }
+        if (tokens == null) {
+            return true;
+        }
+        String name = normalized[ordinal];
+        for (String token : tokens) {
+            if (!hasTokenStartingWith(name, token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasTokenStartingWith(String name, String prefix) {
+        for (int offset = 0; offset >= 0; ) {
+            if (name.startsWith(prefix, offset)) {
+                return true;
+            }
+            int space = name.indexOf(' ', offset);
+            offset = space < 0 ? -1 : space + 1;
+        }
+        return false;
+    }
+
+    private void collectOrdered(List<Long> entries, Set<Integer> found, int limit) {
+        entries.sort(this::compareEntries);
+        for (int i = 0; i < entries.size() && found.size() < limit; i++) {
+            found.add(ordinalOf(entries.get(i)));
+        }
+    }
+
+    private void markDeleted(int ordinal) {
+        deleted.set(ordinal);
+        deletedCount++;
+    }
+
+    private void addPrefix(long entry) {
+        if (prefixDeltaCount == prefixDelta.length) {
+            prefixDelta = Arrays.copyOf(prefixDelta, prefixDeltaCount * 2);
+        }
+        prefixDelta[prefixDeltaCount++] = entry;
+        if (prefixDeltaCount >= MAX_DELTA && !loading) {
+            mergePrefixes();
+        }
+    }
+
+    private void addBlock(long entry) {
+        if (blockDeltaCount == blockDelta.length) {
+            blockDelta = Arrays.copyOf(blockDelta, blockDeltaCount * 2);
+        }
+        blockDelta[blockDeltaCount++] = entry;
+        if (blockDeltaCount >= MAX_DELTA && !loading) {
+            mergeBlocks();
+        }
+    }
+
+    // Sorts the delta and merges it into the sorted entries, dropping those of deleted ordinals on the way
+    private void mergePrefixes() {
+        sort(prefixDelta, prefixDeltaCount);
+        long[] merged = new long[prefixCount + prefixDeltaCount];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < prefixCount || j < prefixDeltaCount) {
+            long next = j == prefixDeltaCount || i < prefixCount && compareEntries(prefixes[i], prefixDelta[j]) < 0
+                    ? prefixes[i++] : prefixDelta[j++];
+            if (!deleted.get(ordinalOf(next))) {
+                merged[count++] = next;
+            }
+        }
+        prefixes = merged;
+        prefixCount = count;
+        prefixDeltaCount = 0;
+    }
+
+    private void mergeBlocks() {
+        Arrays.sort(blockDelta, 0, blockDeltaCount);
+        long[] merged = new long[blockCount + blockDeltaCount];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < blockCount || j < blockDeltaCount) {
+            long next = j == blockDeltaCount || i < blockCount && blocks[i] < blockDelta[j] ? blocks[i++] : blockDelta[j++];
+            if (!deleted.get((int) (next & (MAX_ORDINALS - 1)))) {
+                merged[count++] = next;
+            }
+        }
+        blocks = merged;
+        blockCount = count;
+        blockDeltaCount = 0;
+    }
+
+    // Bottom-up merge sort, as the entries order by the names they point to rather than by value
+    private void sort(long[] entries, int count) {
+        long[] source = entries;
+        long[] target = new long[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int start = 0; start < count; start += 2 * width) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + 2 * width, count);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    target[k] = j == end || i < middle && compareEntries(source[i], source[j]) <= 0 ? source[i++] : source[j++];
+                }
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != entries) {
+            System.arraycopy(source, 0, entries, 0, count);
+        }
+    }
+
+    private int compareEntries(long left, long right) {
+        String leftName = normalized[ordinalOf(left)];
+        String rightName = normalized[ordinalOf(right)];
+        int i = (int) (left & MAX_OFFSET);
+        int j = (int) (right & MAX_OFFSET);
+        while (i < leftName.length() && j < rightName.length()) {
+            int diff = leftName.charAt(i++) - rightName.charAt(j++);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        int diff = (leftName.length() - i) - (rightName.length() - j);
+        return diff != 0 ? diff : Integer.compare(ordinalOf(left), ordinalOf(right));
+    }
+
+    // First sorted entry whose suffix is not below prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = prefixCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            String name = normalized[ordinalOf(prefixes[middle])];
+            int offset = (int) (prefixes[middle] & MAX_OFFSET);
+            if (compareSuffix(name, offset, prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(long[] sorted, int count, long value) {
+        int index = Arrays.binarySearch(sorted, 0, count, value);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    private static int compareSuffix(String name, int offset, String prefix) {
+        int length = Math.min(name.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = name.charAt(offset + i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (name.length() - offset) - prefix.length();
+    }
+
+    private boolean startsWith(long entry, String prefix) {
+        return normalized[ordinalOf(entry)].startsWith(prefix, (int) (entry & MAX_OFFSET));
+    }
+
+    private static int ordinalOf(long prefixEntry) {
+        return (int) (prefixEntry >>> OFFSET_BITS);
+    }
+
+    private static long[] blockingKeys(String[] tokens, int birthDay) {
+        if (tokens.length == 0 || birthDay == NO_BIRTH_DATE || birthDay + DAY_OFFSET < 0 || birthDay + DAY_OFFSET >= 2 * DAY_OFFSET) {
+            return new long[0];
+        }
+        int[] codes = Arrays.stream(tokens).mapToInt(PhoneticCode::of).distinct().toArray();
+        long[] keys = new long[codes.length + (tokens.length > 1 ? 1 : 0)];
+        // Birth date and the sound of any one token catches misspellings, reordered and missing names
+        for (int i = 0; i < codes.length; i++) {
+            keys[i] = (long) (birthDay + DAY_OFFSET) << PhoneticCode.BITS | codes[i];
+        }
+        // Birth year and the sound of the first and last token catches a mistyped day or month
+        if (tokens.length > 1) {
+            int first = PhoneticCode.of(tokens[0]);
+            int last = PhoneticCode.of(tokens[tokens.length - 1]);
+            long year = LocalDate.ofEpochDay(birthDay).getYear() & 0x7FF;
+            keys[codes.length] = YEAR_KEY | year << 2 * PhoneticCode.BITS
+                    | (long) Math.min(first, last) << PhoneticCode.BITS | Math.max(first, last);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Indexes every shard when sharding is enabled, otherwise the application data source. Like claim search, the first
+// build starts once the application is ready; lookups answer 503 and createClient skips the duplicate check until then.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.client-search", name = "enabled", havingValue = "true")
+public class ClientSearchConfig {
+
+    @Bean
+    public ClientSearchIndex clientSearchIndex(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources,
+                                               ClientSearchProperties properties, MeterRegistry meterRegistry) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> dataSources = shards == null ? List.of(dataSource) : shards.pools();
+        return new ClientSearchIndex(new ClientSearchLoader(dataSources, properties.fetchSize()),
+                properties.duplicateThreshold(), meterRegistry);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> clientSearchIndexBuilder(ClientSearchIndex index, ClientSearchProperties properties,
+                                                                             TaskScheduler taskScheduler) {
+        return event -> taskScheduler.scheduleWithFixedDelay(index::rebuildQuietly, properties.rebuildInterval());
+    }
+}
@@ -0,0 +1,58 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.search.InvalidSearchQueryException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// Name lookups answered from memory: GET /api/clients/search?q=smi for clients with a name token starting with "smi",
+// GET /api/clients/search?name=Jon Smith&dateOfBirth=1980-04-02 for likely duplicates of a client, best first
+@RestController
+@RequestMapping("/api/clients")
+@ConditionalOnProperty(prefix = "insurance.client-search", name = "enabled", havingValue = "true")
+public class ClientSearchController {
+
+    private final ClientSearchIndex index;
+    private final int maxResults;
+
+    public ClientSearchController(ClientSearchIndex index, ClientSearchProperties properties) {
+        this.index = index;
+        this.maxResults = properties.maxResults();
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ClientMatch>> searchClients(@RequestParam(required = false) String q,
+                                                           @RequestParam(required = false) String name,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth,
+                                                           @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new InvalidSearchQueryException("limit must be between 1 and " + maxResults);
+        }
+        Optional<List<ClientMatch>> matches;
+        if (q != null && name == null && dateOfBirth == null) {
+            matches = index.findByPrefix(q, limit);
+        } else if (q == null && name != null && dateOfBirth != null) {
+            matches = index.findDuplicates(name, dateOfBirth, limit);
+        } else {
+            throw new InvalidSearchQueryException("Search by q, or by name and dateOfBirth");
+        }
+        return matches
+                .map(found -> new ResponseEntity<>(found, HttpStatus.OK))
+                // The first build is still running
+                .orElseGet(() -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set(HttpHeaders.RETRY_AFTER, "5");
+                    return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+                });
+    }
+}
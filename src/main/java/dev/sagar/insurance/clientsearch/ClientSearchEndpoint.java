@@ -0,0 +1,32 @@
+package dev.sagar.insurance.clientsearch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "clientsearch")
+@ConditionalOnProperty(prefix = "insurance.client-search", name = "enabled", havingValue = "true")
+public class ClientSearchEndpoint {
+
+    private final ClientSearchIndex index;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>(index.stats());
+        status.put("lastRebuild", index.getLastRebuild().orElse(null));
+        return status;
+    }
+
+    @WriteOperation
+    public ClientSearchRebuild rebuild() {
+        return index.rebuild();
+    }
+}
@@ -0,0 +1,173 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.transaction.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Guards the ClientNameIndex the same way ClaimSearchIndex guards the claim index: lookups share a
+// read lock, committed changes take the write lock, and a rebuild replays the changes committed during its scan
+// before it is swapped in.
+@Slf4j
+public class ClientSearchIndex {
+
+    private final ClientSearchLoader loader;
+    private final double duplicateThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer prefixTimer;
+    private final Timer duplicateTimer;
+    // Both guarded by lock; index is null until the first build, replay is only set while a rebuild scans
+    private ClientNameIndex index;
+    private List<Consumer<ClientNameIndex>> replay;
+    private volatile ClientSearchRebuild lastRebuild;
+
+    public ClientSearchIndex(ClientSearchLoader loader, double duplicateThreshold, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.duplicateThreshold = duplicateThreshold;
+        this.prefixTimer = queryTimer("prefix", meterRegistry);
+        this.duplicateTimer = queryTimer("duplicates", meterRegistry);
+        Gauge.builder("insurance.client-search.clients", this, search -> search.stats().getOrDefault("clients", 0).doubleValue())
+                .register(meterRegistry);
+    }
+
+    public void clientIndexed(long clientId, String name, LocalDate dateOfBirth) {
+        AfterCommit.run(() -> apply(index -> index.put(clientId, name, dateOfBirth)));
+    }
+
+    public void clientRemoved(long clientId) {
+        AfterCommit.run(() -> apply(index -> index.remove(clientId)));
+    }
+
+    // Empty until the first build completes
+    public Optional<List<ClientMatch>> findByPrefix(String query, int limit) {
+        return read(prefixTimer, index -> index.prefix(query, limit));
+    }
+
+    public Optional<List<ClientMatch>> findDuplicates(String name, LocalDate dateOfBirth, int limit) {
+        return read(duplicateTimer, index -> index.duplicates(name, dateOfBirth, duplicateThreshold, limit));
+    }
+
+    public synchronized ClientSearchRebuild rebuild() {
+        long started = System.nanoTime();
+        ClientNameIndex rebuilt = new ClientNameIndex();
+        List<Consumer<ClientNameIndex>> committed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            replay = committed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            rebuilt.bulkLoad(() -> loader.load(rebuilt::put));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            // Changes that commit from here on go straight to the new index
+            replay = null;
+            replayed = committed.size();
+            committed.forEach(change -> change.accept(rebuilt));
+            if (rebuilt.needsCompaction()) {
+                rebuilt.compact();
+            }
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ClientSearchRebuild result = new ClientSearchRebuild(Instant.now(), rebuilt.size(), rebuilt.prefixEntries(),
+                rebuilt.blockEntries(), replayed, Duration.ofNanos(System.nanoTime() - started));
+        lastRebuild = result;
+        log.info("Indexed {} client names in {} ms", result.clients(), result.duration().toMillis());
+        return result;
+    }
+
+    // Scheduled entry point; a failed build is logged and retried on the next tick
+    public void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Client search index rebuild failed", e);
+        }
+    }
+
+    public Optional<ClientSearchRebuild> getLastRebuild() {
+        return Optional.ofNullable(lastRebuild);
+    }
+
+    public Map<String, Number> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Number> stats = new LinkedHashMap<>();
+            if (index != null) {
+                stats.put("clients", index.size());
+                stats.put("deletedClients", index.deletedClients());
+                stats.put("prefixEntries", index.prefixEntries());
+                stats.put("blockEntries", index.blockEntries());
+            }
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Timer queryTimer(String type, MeterRegistry meterRegistry) {
+        return Timer.builder("insurance.client-search.queries")
+                .description("Client name lookups")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private <T> Optional<T> read(Timer timer, Function<ClientNameIndex, T> query) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return Optional.empty();
+            }
+            return Optional.of(timer.record(() -> query.apply(index)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<ClientNameIndex> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+                if (index.needsCompaction()) {
+                    index.compact();
+                }
+            }
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.client.Client;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Feeds every client written through JPA into the name index. Does nothing when client search is disabled.
+public class ClientSearchListener {
+
+    private final ObjectProvider<ClientSearchIndex> index;
+
+    public ClientSearchListener(ObjectProvider<ClientSearchIndex> index) {
+        this.index = index;
+    }
+
+    // Updates that leave name and birth date alone are recognised and skipped by the index
+    @PostPersist
+    @PostUpdate
+    public void clientWritten(Client client) {
+        index.ifAvailable(i -> i.clientIndexed(client.getId(), client.getName(), client.getDateOfBirth()));
+    }
+
+    @PostRemove
+    public void clientRemoved(Client client) {
+        index.ifAvailable(i -> i.clientRemoved(client.getId()));
+    }
+}
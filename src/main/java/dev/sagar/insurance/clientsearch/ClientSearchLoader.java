@@ -0,0 +1,48 @@
+package dev.sagar.insurance.clientsearch;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+// Streams the id, name and birth date of every client
+public class ClientSearchLoader {
+
+    private static final String SELECT_NAMES = "SELECT id, name, date_of_birth FROM client";
+
+    private final List<? extends DataSource> dataSources;
+    private final int fetchSize;
+
+    public ClientSearchLoader(List<? extends DataSource> dataSources, int fetchSize) {
+        this.dataSources = dataSources;
+        this.fetchSize = fetchSize;
+    }
+
+    public void load(ClientConsumer consumer) {
+        try {
+            for (DataSource dataSource : dataSources) {
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(SELECT_NAMES)) {
+                    statement.setFetchSize(fetchSize);
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            Date dateOfBirth = rows.getDate(3);
+                            consumer.accept(rows.getLong(1), rows.getString(2), dateOfBirth == null ? null : dateOfBirth.toLocalDate());
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load client names", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ClientConsumer {
+        void accept(long id, String name, LocalDate dateOfBirth);
+    }
+}
@@ -0,0 +1,28 @@
+package dev.sagar.insurance.clientsearch;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.client-search")
+public record ClientSearchProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // The first build runs once the application is ready; later ones pick up rows written outside JPA
+        @DefaultValue("1h")
+        Duration rebuildInterval,
+
+        @DefaultValue("10000")
+        int fetchSize,
+
+        // Lowest score reported as a likely duplicate, see ClientMatch
+        @DefaultValue("0.9")
+        double duplicateThreshold,
+
+        @DefaultValue("50")
+        int maxResults
+) {
+}
@@ -0,0 +1,9 @@
+package dev.sagar.insurance.clientsearch;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// replayed counts the changes committed while the clients were being scanned
+public record ClientSearchRebuild(Instant finishedAt, int clients, int prefixEntries, int blockEntries, int replayed,
+                                  Duration duration) {
+}
@@ -0,0 +1,68 @@
+package dev.sagar.insurance.clientsearch;
+
+// Token-wise Jaro-Winkler: every token of the shorter name is paired with its best match in the other name and the
+// weakest pair counts, so word order and an extra middle name do not matter but one different first name does
+final class NameSimilarity {
+
+    private NameSimilarity() {
+    }
+
+    static double of(String[] left, String[] right) {
+        if (left.length == 0 || right.length == 0) {
+            return 0;
+        }
+        String[] shorter = left.length <= right.length ? left : right;
+        String[] longer = shorter == left ? right : left;
+        double weakest = 1;
+        for (String token : shorter) {
+            double best = 0;
+            for (String candidate : longer) {
+                best = Math.max(best, jaroWinkler(token, candidate));
+            }
+            weakest = Math.min(weakest, best);
+        }
+        return weakest;
+    }
+
+    static double jaroWinkler(String left, String right) {
+        if (left.equals(right)) {
+            return 1;
+        }
+        int window = Math.max(0, Math.max(left.length(), right.length()) / 2 - 1);
+        boolean[] leftMatched = new boolean[left.length()];
+        boolean[] rightMatched = new boolean[right.length()];
+        int matches = 0;
+        for (int i = 0; i < left.length(); i++) {
+            for (int j = Math.max(0, i - window); j < Math.min(right.length(), i + window + 1); j++) {
+                if (!rightMatched[j] && left.charAt(i) == right.charAt(j)) {
+                    leftMatched[i] = true;
+                    rightMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < left.length(); i++) {
+            if (leftMatched[i]) {
+                while (!rightMatched[j]) {
+                    j++;
+                }
+                if (left.charAt(i) != right.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / left.length() + m / right.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(left.length(), right.length())) && left.charAt(prefix) == right.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
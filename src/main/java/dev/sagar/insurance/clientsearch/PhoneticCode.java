@@ -0,0 +1,45 @@
+package dev.sagar.insurance.clientsearch;
+
+// Soundex, except that the first letter is coded like the others instead of kept, so names that only differ in a
+// sound-alike first letter (Catherine, Katherine) share a code. The four digits 0-6 are packed base 7 into an int
+// below 2401, small enough to be part of a blocking key.
+final class PhoneticCode {
+
+    static final int BITS = 12;
+
+    //                                   a  b  c  d  e  f  g  h  i  j  k  l  m  n  o  p  q  r  s  t  u  v  w  x  y  z
+    private static final int[] GROUPS = {0, 1, 2, 3, 0, 1, 2, 7, 0, 2, 2, 4, 5, 5, 0, 1, 2, 6, 2, 3, 0, 1, 7, 2, 0, 2};
+
+    private PhoneticCode() {
+    }
+
+    static int of(String token) {
+        int code = 0;
+        int digits = 0;
+        int previous = -1;
+        for (int i = 0; i < token.length() && digits < 4; i++) {
+            char c = token.charAt(i);
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            int group = GROUPS[c - 'a'];
+            if (group == 7) {
+                // h and w neither code nor separate equal consonants
+                continue;
+            }
+            if (digits == 0) {
+                code = group;
+                digits = 1;
+            } else if (group != 0 && group != previous) {
+                code = code * 7 + group;
+                digits++;
+            }
+            previous = group;
+        }
+        while (digits < 4) {
+            code *= 7;
+            digits++;
+        }
+        return code;
+    }
+}
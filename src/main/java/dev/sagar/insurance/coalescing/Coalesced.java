@@ -0,0 +1,19 @@
+package dev.sagar.insurance.coalescing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a read by id whose concurrent calls may share one load. The first argument is the id, the value names the entity
+// and must match what writes pass to RequestCoalescer.invalidate.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    String CLIENT = "client";
+    String POLICY = "policy";
+    String CLAIM = "claim";
+
+    String value();
+}
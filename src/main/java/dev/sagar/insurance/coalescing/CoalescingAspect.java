@@ -0,0 +1,43 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.routing.ReadYourWritesTracker;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Runs outside the transaction interceptor, so a caller that joins another's load never opens a transaction or borrows
+// a connection.
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class CoalescingAspect {
+
+    private final RequestCoalescer coalescer;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWrites;
+
+    public CoalescingAspect(RequestCoalescer coalescer, ObjectProvider<ReadYourWritesTracker> readYourWrites) {
+        this.coalescer = coalescer;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (mustReadAlone()) {
+            return joinPoint.proceed();
+        }
+        return coalescer.load(coalesced.value(), joinPoint.getArgs()[0], joinPoint::proceed);
+    }
+
+    // A caller inside its own transaction may have uncommitted writes to the entity, and a client pinned to the primary
+    // after a write must not share a load that went to a replica
+    private boolean mustReadAlone() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return true;
+        }
+        ReadYourWritesTracker tracker = readYourWrites.getIfAvailable();
+        return tracker != null && tracker.isSticky(ReadYourWritesTracker.currentClient());
+    }
+}
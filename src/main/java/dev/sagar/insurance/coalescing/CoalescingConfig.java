@@ -0,0 +1,23 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.routing.ReadYourWritesTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescingConfig {
+
+    @Bean
+    public RequestCoalescer requestCoalescer(MeterRegistry meterRegistry) {
+        return new RequestCoalescer(meterRegistry);
+    }
+
+    @Bean
+    public CoalescingAspect coalescingAspect(RequestCoalescer requestCoalescer, ObjectProvider<ReadYourWritesTracker> readYourWrites) {
+        return new CoalescingAspect(requestCoalescer, readYourWrites);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.client.Client;
+import dev.sagar.insurance.policy.Policy;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Tells the coalescer about every client, policy and claim written through JPA. Writes that bypass JPA, like
+// the claim status UPDATEs, invalidate explicitly.
+public class CoalescingListener {
+
+    private final ObjectProvider<RequestCoalescer> coalescer;
+
+    public CoalescingListener(ObjectProvider<RequestCoalescer> coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    // Creates count too: a load that found nothing may still be in flight when the new row commits
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityWritten(Object entity) {
+        if (entity instanceof Client client) {
+            coalescer.ifAvailable(c -> c.invalidate(Coalesced.CLIENT, client.getId()));
+        } else if (entity instanceof Policy policy) {
+            coalescer.ifAvailable(c -> c.invalidate(Coalesced.POLICY, policy.getId()));
+        } else if (entity instanceof Claim claim) {
+            coalescer.ifAvailable(c -> c.invalidate(Coalesced.CLAIM, claim.getId()));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dev.sagar.insurance.coalescing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "insurance.coalescing")
+public record CoalescingProperties(
+
+        @DefaultValue("true")
+        boolean enabled
+) {
+}
@@ -0,0 +1,127 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lets concurrent reads of the same entity share one load. The first caller for a key runs the load; callers arriving
+// while it is in flight wait for its result, or its exception, instead of running their own. An uncontended read costs
+// one map insert and one remove.
+// A caller only joins a load that started after the last committed write to its key, so it never sees data older than a
+// write that finished before it arrived. Writes are tracked as generations in a fixed array of stripes; two keys sharing
+// a stripe only cost each other a missed chance to coalesce.
+public class RequestCoalescer {
+
+    private static final int STRIPES = 4096;
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("insurance.coalescing.in-flight", flights, Map::size).register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String entity, Object id, Loader<T> loader) throws Throwable {
+        Key key = new Key(entity, id);
+        Flight flight = new Flight(generations.get(stripe(key)));
+        while (true) {
+            Flight running = flights.putIfAbsent(key, flight);
+            if (running == null) {
+                break;
+            }
+            if (running.generation == flight.generation) {
+                meters(entity).joined.increment();
+                return (T) await(running);
+            }
+            // Started before a write this caller must see; later callers get the new flight, the old one finishes alone
+            if (flights.replace(key, running, flight)) {
+                break;
+            }
+        }
+        meters(entity).loaded.increment();
+        try {
+            T value = loader.load();
+            flight.result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    // Called for every write to the entity; takes effect when the surrounding transaction commits
+    public void invalidate(String entity, Object id) {
+        Key key = new Key(entity, id);
+        AfterCommit.run(() -> generations.incrementAndGet(stripe(key)));
+    }
+
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private static Object await(Flight flight) throws Throwable {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static int stripe(Key key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private Meters meters(String entity) {
+        return meters.computeIfAbsent(entity, this::register);
+    }
+
+    // loaded + joined is every read; joined / (loaded + joined) is the coalescing ratio
+    private Meters register(String entity) {
+        Counter loaded = Counter.builder("insurance.coalescing.requests").tag("entity", entity).tag("outcome", "loaded")
+                .register(meterRegistry);
+        Counter joined = Counter.builder("insurance.coalescing.requests").tag("entity", entity).tag("outcome", "joined")
+                .register(meterRegistry);
+        Gauge.builder("insurance.coalescing.ratio", () -> {
+                    double total = loaded.count() + joined.count();
+                    return total == 0 ? 0 : joined.count() / total;
+                })
+                .tag("entity", entity)
+                .register(meterRegistry);
+        return new Meters(loaded, joined);
+    }
+
+    private record Key(String entity, Object id) {
+    }
+
+    private record Meters(Counter loaded, Counter joined) {
+    }
+
+    private static final class Flight {
+
+        private final long generation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+}
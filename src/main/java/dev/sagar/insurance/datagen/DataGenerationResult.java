@@ -0,0 +1,13 @@
+package dev.sagar.insurance.datagen;
+
+public record DataGenerationResult(
+        long clients,
+        long policies,
+        long claims,
+        long durationMillis
+) {
+
+    public long rowsPerSecond() {
+        return durationMillis == 0 ? 0 : (clients + policies + claims) * 1000 / durationMillis;
+    }
+}
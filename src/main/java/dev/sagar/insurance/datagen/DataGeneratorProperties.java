@@ -0,0 +1,48 @@
+package dev.sagar.insurance.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.LocalDate;
+
+@ConfigurationProperties(prefix = "insurance.datagen")
+public record DataGeneratorProperties(
+
+        @DefaultValue("100000")
+        int clients,
+
+        // Averages of the per-client and per-policy distributions, not fixed counts
+        @DefaultValue("2.0")
+        double policiesPerClient,
+
+        @DefaultValue("1.5")
+        double claimsPerPolicy,
+
+        @DefaultValue("42")
+        long seed,
+
+        // Clients generated and committed as one unit of parallel work
+        @DefaultValue("2000")
+        int chunkSize,
+
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("0")
+        int threads,
+
+        @DefaultValue("false")
+        boolean exitOnCompletion,
+
+        // Dates are generated relative to this day; pin it together with the seed for identical datasets
+        LocalDate asOf
+) {
+
+    public LocalDate effectiveAsOf() {
+        return asOf != null ? asOf : LocalDate.now();
+    }
+
+    public int effectiveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,31 @@
+package dev.sagar.insurance.datagen;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runs after a snapshot load so generated rows are appended to whatever was restored
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private final SyntheticDataGenerator generator;
+    private final DataGeneratorProperties properties;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate();
+        if (properties.exitOnCompletion()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dev.sagar.insurance.datagen;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+enum PolicyProfile {
+
+    AUTO(0.40, 25_000, 0.045, new int[]{6, 12}, new String[]{
+            "Rear-end collision at intersection", "Windshield cracked by road debris", "Vehicle stolen from parking lot",
+            "Hail damage to roof and hood", "Side mirror broken in parking garage", "Flood water damage to engine"}),
+    HOME(0.25, 300_000, 0.004, new int[]{12}, new String[]{
+            "Water damage in basement after pipe burst", "Roof damaged by fallen tree during storm",
+            "Kitchen fire damaged cabinets and ceiling", "Burglary with stolen electronics and jewelry",
+            "Water damage basement flooding after heavy rain", "Wind damage to siding and windows"}),
+    HEALTH(0.15, 100_000, 0.03, new int[]{12}, new String[]{
+            "Emergency room visit for fractured wrist", "Outpatient knee surgery", "Hospital stay for pneumonia",
+            "Physical therapy sessions after back injury", "Prescription medication coverage"}),
+    LIFE(0.12, 250_000, 0.002, new int[]{120, 240}, new String[]{
+            "Death benefit claim filed by beneficiary", "Accelerated benefit for terminal illness",
+            "Accidental death benefit claim"}),
+    TRAVEL(0.08, 10_000, 0.02, new int[]{1, 3}, new String[]{
+            "Trip cancelled due to illness", "Lost luggage on connecting flight", "Medical treatment abroad",
+            "Flight delay with missed connection"});
+
+    private static final PolicyProfile[] VALUES = values();
+
+    private final double weight;
+    private final double medianCoverage;
+    private final double premiumRate;
+    private final int[] termMonths;
+    private final String[] descriptions;
+
+    PolicyProfile(double weight, double medianCoverage, double premiumRate, int[] termMonths, String[] descriptions) {
+        this.weight = weight;
+        this.medianCoverage = medianCoverage;
+        this.premiumRate = premiumRate;
+        this.termMonths = termMonths;
+        this.descriptions = descriptions;
+    }
+
+    static PolicyProfile sample(SplittableRandom random) {
+        double roll = random.nextDouble();
+        for (PolicyProfile type : VALUES) {
+            roll -= type.weight;
+            if (roll < 0) {
+                return type;
+            }
+        }
+        return VALUES[VALUES.length - 1];
+    }
+
+    // Log-normal around the type's median, rounded to whole thousands like real sums insured
+    BigDecimal sampleCoverage(SplittableRandom random) {
+        double coverage = medianCoverage * Math.exp(0.5 * gaussian(random));
+        return BigDecimal.valueOf(Math.max(1_000, Math.round(coverage / 1_000) * 1_000)).setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    BigDecimal samplePremium(SplittableRandom random, BigDecimal coverage) {
+        double premium = coverage.doubleValue() * premiumRate * (0.8 + 0.4 * random.nextDouble());
+        return BigDecimal.valueOf(Math.max(100, premium)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Log-normal around half the premium, never more than the coverage; with the sampled claim counts and
+    // settlements the book runs at a loss ratio of roughly 65%
+    static BigDecimal sampleClaimedAmount(SplittableRandom random, BigDecimal coverage, BigDecimal premium) {
+        double claimed = premium.doubleValue() * 0.5 * Math.exp(0.75 * gaussian(random));
+        return BigDecimal.valueOf(Math.min(coverage.doubleValue(), Math.max(50, claimed))).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    int sampleTermMonths(SplittableRandom random) {
+        return termMonths[random.nextInt(termMonths.length)];
+    }
+
+    String sampleDescription(SplittableRandom random) {
+        return SyntheticDataGenerator.pick(random, descriptions);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+}
@@ -0,0 +1,320 @@
+package dev.sagar.insurance.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+public class SyntheticDataGenerator {
+
+    private static final String INSERT_CLIENT =
+            "INSERT INTO client (id, name, date_of_birth, address, contact_information, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_POLICY =
+            "INSERT INTO policy (id, policy_number, type, coverage_amount, premium, start_date, end_date, client_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLAIM =
+            "INSERT INTO claim (id, claim_number, description, claim_date, status, claimed_amount, reserved_amount, paid_amount, policy_id, created_at, updated_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_POLICIES_PER_CLIENT = 10;
+    private static final int MAX_CLAIMS_PER_POLICY = 20;
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Priya", "Wei",
+            "Carlos", "Fatima", "Hiroshi", "Olga", "Ahmed", "Sofia", "Raj", "Amara", "Lucas", "Ingrid"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Patel", "Nguyen", "Kim", "Chen", "Singh", "Müller", "Rossi", "Tanaka", "Okafor"
+    };
+    private static final String[] STREETS = {"Maple", "Oak", "Pine", "Cedar", "Elm", "Main", "Park", "Lake", "Hill", "River"};
+    private static final String[] CITIES = {"Springfield", "Riverside", "Franklin", "Greenville", "Fairview", "Madison", "Georgetown"};
+
+    private final DataSource dataSource;
+    private final DataGeneratorProperties properties;
+
+    public DataGenerationResult generate() {
+        long start = System.nanoTime();
+        LocalDate asOf = properties.effectiveAsOf();
+        // Every generated row counts as created now, so change feeds start from a single point
+        OffsetDateTime generatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        int chunks = (properties.clients() + properties.chunkSize() - 1) / properties.chunkSize();
+
+        // First pass only replays the count streams, so every chunk knows its dense ID range before any row is written
+        long[] startIds = currentMaxIds();
+        long[][] chunkBases = new long[chunks][];
+        long policies = 0;
+        long claims = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            chunkBases[chunk] = new long[]{
+                    startIds[0] + (long) chunk * properties.chunkSize(),
+                    startIds[1] + policies,
+                    startIds[2] + claims
+            };
+            long[] counts = countChunk(chunk);
+            policies += counts[0];
+            claims += counts[1];
+        }
+
+        log.info("Generating {} clients, {} policies and {} claims with seed {} on {} threads",
+                properties.clients(), policies, claims, properties.seed(), properties.effectiveThreads());
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.effectiveThreads());
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int index = chunk;
+                tasks.add(() -> {
+                    writeChunk(index, chunkBases[index], asOf, generatedAt);
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        restartIdentities(startIds[0] + properties.clients(), startIds[1] + policies, startIds[2] + claims);
+
+        DataGenerationResult result = new DataGenerationResult(properties.clients(), policies, claims,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Generated {} rows in {} ms ({} rows/s)",
+                result.clients() + result.policies() + result.claims(), result.durationMillis(), result.rowsPerSecond());
+        return result;
+    }
+
+    private long[] countChunk(int chunk) {
+        SplittableRandom policyCounts = random(chunk, 0);
+        SplittableRandom claimCounts = random(chunk, 1);
+        long policies = 0;
+        long claims = 0;
+        for (int i = 0; i < clientsInChunk(chunk); i++) {
+            int policyCount = policyCount(policyCounts);
+            policies += policyCount;
+            for (int p = 0; p < policyCount; p++) {
+                claims += claimCount(claimCounts);
+            }
+        }
+        return new long[]{policies, claims};
+    }
+
+    private void writeChunk(int chunk, long[] bases, LocalDate asOf, OffsetDateTime generatedAt) throws SQLException {
+        int clients = clientsInChunk(chunk);
+        SplittableRandom policyCounts = random(chunk, 0);
+        SplittableRandom claimCounts = random(chunk, 1);
+        SplittableRandom values = random(chunk, 2);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            // Clients, then policies, then claims, so foreign keys always point at rows already sent
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CLIENT)) {
+                for (int i = 0; i < clients; i++) {
+                    long id = bases[0] + i + 1;
+                    statement.setLong(1, id);
+                    statement.setString(2, pick(values, FIRST_NAMES) + " " + pick(values, LAST_NAMES));
+                    statement.setDate(3, Date.valueOf(asOf.minusDays(values.nextInt(18 * 365, 85 * 365))));
+                    statement.setString(4, values.nextInt(1, 9999) + " " + pick(values, STREETS) + " St, " + pick(values, CITIES));
+                    statement.setString(5, String.valueOf(values.nextLong(2_000_000_000L, 9_999_999_999L)));
+                    statement.setObject(6, generatedAt);
+                    statement.setObject(7, generatedAt);
+                    addBatch(statement, i + 1);
+                }
+                statement.executeBatch();
+            }
+
+            List<PolicyProfile> policyProfiles = new ArrayList<>();
+            List<LocalDate[]> policyTerms = new ArrayList<>();
+            List<BigDecimal[]> policyAmounts = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_POLICY)) {
+                long policyId = bases[1];
+                for (int i = 0; i < clients; i++) {
+                    int policyCount = policyCount(policyCounts);
+                    for (int p = 0; p < policyCount; p++) {
+                        policyId++;
+                        PolicyProfile type = PolicyProfile.sample(values);
+                        BigDecimal coverage = type.sampleCoverage(values);
+                        LocalDate startDate = asOf.minusDays(values.nextInt(0, 5 * 365));
+                        LocalDate endDate = startDate.plusMonths(type.sampleTermMonths(values));
+
+                        statement.setLong(1, policyId);
+                        statement.setString(2, "POL" + policyId);
+                        statement.setString(3, type.name());
+                        statement.setBigDecimal(4, coverage);
+                        BigDecimal premium = type.samplePremium(values, coverage);
+                        statement.setBigDecimal(5, premium);
+                        statement.setDate(6, Date.valueOf(startDate));
+                        statement.setDate(7, Date.valueOf(endDate));
+                        statement.setLong(8, bases[0] + i + 1);
+                        statement.setObject(9, generatedAt);
+                        statement.setObject(10, generatedAt);
+                        addBatch(statement, policyProfiles.size() + 1);
+
+                        policyProfiles.add(type);
+                        policyTerms.add(new LocalDate[]{startDate, endDate});
+                        policyAmounts.add(new BigDecimal[]{coverage, premium});
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CLAIM)) {
+                long claimId = bases[2];
+                int batched = 0;
+                for (int p = 0; p < policyProfiles.size(); p++) {
+                    int claimCount = claimCount(claimCounts);
+                    LocalDate startDate = policyTerms.get(p)[0];
+                    LocalDate lastDate = policyTerms.get(p)[1].isBefore(asOf) ? policyTerms.get(p)[1] : asOf;
+                    long span = Math.max(1, lastDate.toEpochDay() - startDate.toEpochDay());
+                    for (int c = 0; c < claimCount; c++) {
+                        claimId++;
+                        LocalDate claimDate = startDate.plusDays(values.nextLong(span));
+                        statement.setLong(1, claimId);
+                        statement.setString(2, "CLM" + claimId);
+                        statement.setString(3, policyProfiles.get(p).sampleDescription(values));
+                        statement.setDate(4, Date.valueOf(claimDate));
+                        String status = sampleStatus(values, asOf.toEpochDay() - claimDate.toEpochDay());
+                        BigDecimal claimed = PolicyProfile.sampleClaimedAmount(values, policyAmounts.get(p)[0], policyAmounts.get(p)[1]);
+                        BigDecimal[] reservedAndPaid = settle(values, status, claimed);
+                        statement.setString(5, status);
+                        statement.setBigDecimal(6, claimed);
+                        statement.setBigDecimal(7, reservedAndPaid[0]);
+                        statement.setBigDecimal(8, reservedAndPaid[1]);
+                        statement.setLong(9, bases[1] + p + 1);
+                        statement.setObject(10, generatedAt);
+                        statement.setObject(11, generatedAt);
+                        addBatch(statement, ++batched);
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            connection.commit();
+        }
+    }
+
+    private void addBatch(PreparedStatement statement, int count) throws SQLException {
+        statement.addBatch();
+        if (count % properties.batchSize() == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private long[] currentMaxIds() {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            long[] ids = new long[3];
+            String[] tables = {"client", "policy", "claim"};
+            for (int i = 0; i < tables.length; i++) {
+                try (var resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tables[i])) {
+                    resultSet.next();
+                    ids[i] = resultSet.getLong(1);
+                }
+            }
+            return ids;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read current identity values", e);
+        }
+    }
+
+    // Rows were inserted with explicit IDs, so move the identity columns past them for regular API inserts
+    private void restartIdentities(long clientId, long policyId, long claimId) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE client ALTER COLUMN id RESTART WITH " + (clientId + 1));
+            statement.execute("ALTER TABLE policy ALTER COLUMN id RESTART WITH " + (policyId + 1));
+            statement.execute("ALTER TABLE claim ALTER COLUMN id RESTART WITH " + (claimId + 1));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to restart identity columns", e);
+        }
+    }
+
+    private int clientsInChunk(int chunk) {
+        return Math.min(properties.chunkSize(), properties.clients() - chunk * properties.chunkSize());
+    }
+
+    private int policyCount(SplittableRandom random) {
+        return Math.min(MAX_POLICIES_PER_CLIENT, 1 + poisson(random, Math.max(0, properties.policiesPerClient() - 1)));
+    }
+
+    private int claimCount(SplittableRandom random) {
+        return Math.min(MAX_CLAIMS_PER_POLICY, poisson(random, properties.claimsPerPolicy()));
+    }
+
+    // Each chunk owns independent streams, so output does not depend on thread count or scheduling
+    private SplittableRandom random(int chunk, int stream) {
+        long z = properties.seed() + 0x9E3779B97F4A7C15L * (chunk * 4L + stream + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String sampleStatus(SplittableRandom random, long ageInDays) {
+        double roll = random.nextDouble();
+        if (ageInDays < 30) {
+            return roll < 0.6 ? "OPEN" : "UNDER_REVIEW";
+        }
+        if (ageInDays < 180) {
+            return roll < 0.15 ? "OPEN" : roll < 0.4 ? "UNDER_REVIEW" : roll < 0.65 ? "APPROVED" : roll < 0.85 ? "PAID" : "REJECTED";
+        }
+        return roll < 0.05 ? "APPROVED" : roll < 0.3 ? "PAID" : roll < 0.45 ? "REJECTED" : "CLOSED";
+    }
+
+    // Open claims carry a reserve, settled claims a payment of up to the claimed amount, rejected claims neither
+    private static BigDecimal[] settle(SplittableRandom random, String status, BigDecimal claimed) {
+        BigDecimal share = BigDecimal.valueOf(0.6 + 0.4 * random.nextDouble());
+        BigDecimal settled = claimed.multiply(share).setScale(2, RoundingMode.HALF_UP);
+        return switch (status) {
+            case "OPEN", "UNDER_REVIEW" -> new BigDecimal[]{settled, BigDecimal.ZERO};
+            case "APPROVED" -> new BigDecimal[]{claimed, BigDecimal.ZERO};
+            case "PAID", "CLOSED" -> new BigDecimal[]{BigDecimal.ZERO, settled};
+            default -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO};
+        };
+    }
+
+    static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
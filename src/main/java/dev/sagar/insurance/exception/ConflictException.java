@@ -0,0 +1,8 @@
+package dev.sagar.insurance.exception;
+
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,188 @@
+package dev.sagar.insurance.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Stored responses by idempotency key, plus the attempts still running. A request whose key is in flight waits for
+// that attempt instead of racing it. When the attempt leaves nothing to replay, for example after a server error,
+// one of the waiting retries runs the request itself.
+@Slf4j
+public class IdempotencyCache {
+
+    private final InMemoryIdempotencyStore memory;
+    // Null when keys only live in memory
+    private final IdempotencyStore persistent;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Attempt> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter inProgress;
+
+    public IdempotencyCache(InMemoryIdempotencyStore memory, IdempotencyStore persistent, Duration ttl, Clock clock,
+                            MeterRegistry meterRegistry) {
+        this.memory = memory;
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.executed = outcomeCounter("executed", meterRegistry);
+        this.replayed = outcomeCounter("replayed", meterRegistry);
+        this.mismatched = outcomeCounter("mismatched", meterRegistry);
+        this.inProgress = outcomeCounter("in_progress", meterRegistry);
+        Gauge.builder("insurance.idempotency.entries", memory, InMemoryIdempotencyStore::size).register(meterRegistry);
+        Gauge.builder("insurance.idempotency.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public sealed interface Decision {
+    }
+
+    // The caller runs the request and must hand the outcome to complete
+    public record Execute(Attempt attempt) implements Decision {
+    }
+
+    public record Replay(IdempotentResponse response) implements Decision {
+    }
+
+    // The key was first used with a different request body
+    public record Mismatch() implements Decision {
+    }
+
+    // The first attempt is still running after the wait timeout
+    public record InProgress() implements Decision {
+    }
+
+    public static final class Attempt {
+
+        private final String key;
+        private final String fingerprint;
+        // Completed with the stored response, or with null when there is nothing to replay
+        private final CompletableFuture<IdempotentResponse> result = new CompletableFuture<>();
+
+        private Attempt(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        public String fingerprint() {
+            return fingerprint;
+        }
+    }
+
+    public Decision begin(String key, String fingerprint, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Optional<IdempotentResponse> stored = find(key);
+            if (stored.isPresent()) {
+                return replay(stored.get(), fingerprint);
+            }
+            Attempt attempt = new Attempt(key, fingerprint);
+            Attempt running = inFlight.putIfAbsent(key, attempt);
+            if (running == null) {
+                // The previous attempt may have finished between the lookup and claiming the key
+                stored = find(key);
+                if (stored.isPresent()) {
+                    inFlight.remove(key, attempt);
+                    attempt.result.complete(null);
+                    return replay(stored.get(), fingerprint);
+                }
+                executed.increment();
+                return new Execute(attempt);
+            }
+            if (!running.fingerprint.equals(fingerprint)) {
+                mismatched.increment();
+                return new Mismatch();
+            }
+            try {
+                IdempotentResponse response = running.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    replayed.increment();
+                    return new Replay(response);
+                }
+                // Nothing to replay, so this retry gets its turn
+            } catch (TimeoutException e) {
+                inProgress.increment();
+                return new InProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                inProgress.increment();
+                return new InProgress();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Stores the response, if any, before releasing the key so a retry arriving now finds it
+    public void complete(Attempt attempt, IdempotentResponse response) {
+        try {
+            if (response != null) {
+                memory.save(attempt.key, response);
+                if (persistent != null) {
+                    persistent.save(attempt.key, response);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist the response for idempotency key {}", attempt.key, e);
+        } finally {
+            inFlight.remove(attempt.key, attempt);
+            attempt.result.complete(response);
+        }
+    }
+
+    public IdempotentResponse response(String fingerprint, int status, Map<String, List<String>> headers, byte[] body) {
+        return new IdempotentResponse(fingerprint, status, headers, body, clock.instant().plus(ttl));
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        memory.purgeExpired(now);
+        if (persistent != null) {
+            try {
+                persistent.purgeExpired(now);
+            } catch (RuntimeException e) {
+                log.warn("Failed to purge expired idempotency keys", e);
+            }
+        }
+    }
+
+    private Optional<IdempotentResponse> find(String key) {
+        Instant now = clock.instant();
+        Optional<IdempotentResponse> stored = memory.find(key, now);
+        if (stored.isEmpty() && persistent != null) {
+            // Written before a restart or by another instance
+            stored = persistent.find(key, now);
+            stored.ifPresent(response -> memory.save(key, response));
+        }
+        return stored;
+    }
+
+    private Decision replay(IdempotentResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            return new Mismatch();
+        }
+        replayed.increment();
+        return new Replay(stored);
+    }
+
+    private static Counter outcomeCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("insurance.idempotency.requests").tag("outcome", outcome).register(meterRegistry);
+    }
+}
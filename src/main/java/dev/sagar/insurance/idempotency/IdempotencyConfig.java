@@ -0,0 +1,31 @@
+package dev.sagar.insurance.idempotency;
+
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    // Like the shard directory, the records live on the first shard when sharding is enabled
+    @Bean
+    @ConditionalOnProperty(prefix = "insurance.idempotency", name = "store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        return new JdbcIdempotencyStore(shards == null ? dataSource : shards.pools().getFirst());
+    }
+
+    @Bean
+    public IdempotencyCache idempotencyCache(IdempotencyProperties properties, ObjectProvider<IdempotencyStore> persistentStore,
+                                             MeterRegistry meterRegistry) {
+        return new IdempotencyCache(new InMemoryIdempotencyStore(properties.maxEntries()), persistentStore.getIfAvailable(),
+                properties.ttl(), Clock.systemUTC(), meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package dev.sagar.insurance.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.insurance.timing.ServerTimingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Runs after rate limiting, so replays count against the quota, and ahead of admission control, so a retry waiting
+// for the first attempt never holds a concurrency slot
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+@ConditionalOnProperty(prefix = "insurance.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyCache cache;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(properties.header());
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (key == null || !HttpMethod.POST.matches(request.getMethod()) || !properties.paths().contains(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST, properties.header() + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // The body is held in memory to fingerprint it, so it gets the same bound as a stored response. A declared
+        // length is checked up front; a chunked body is read one byte past the bound to tell whether it fits.
+        if (request.getContentLengthLong() > properties.maxBodyBytes()) {
+            rejectTooLarge(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(properties.maxBodyBytes() + 1);
+        if (body.length > properties.maxBodyBytes()) {
+            rejectTooLarge(request, response);
+            return;
+        }
+        String fingerprint = sha256(body);
+        String scopedKey = clientOf(request) + " " + path + " " + key;
+        switch (cache.begin(scopedKey, fingerprint, properties.waitTimeout())) {
+            case IdempotencyCache.Execute execute -> execute(new CachedBodyRequest(request, body), response, filterChain, execute.attempt());
+            case IdempotencyCache.Replay replay -> replay(replay.response(), response);
+            case IdempotencyCache.Mismatch mismatch -> reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    properties.header() + " was already used with a different request body");
+            case IdempotencyCache.InProgress inProgress -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                reject(request, response, HttpStatus.CONFLICT, "A request with this " + properties.header() + " is still being processed");
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyCache.Attempt attempt) throws ServletException, IOException {
+        // Headers set by the filters in front of this one describe this request, not the stored response
+        Set<String> outerHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        outerHeaders.addAll(response.getHeaderNames());
+        outerHeaders.add(ServerTimingFilter.SERVER_TIMING_HEADER);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        IdempotentResponse stored = null;
+        try {
+            filterChain.doFilter(request, wrapper);
+            stored = toStored(attempt.fingerprint(), wrapper, outerHeaders);
+        } finally {
+            cache.complete(attempt, stored);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Server errors and oversized bodies are not stored; a retry runs the request again
+    private IdempotentResponse toStored(String fingerprint, ContentCachingResponseWrapper response, Set<String> outerHeaders) {
+        byte[] body = response.getContentAsByteArray();
+        if (response.getStatus() >= 500 || body.length > properties.maxBodyBytes()) {
+            return null;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        }
+        for (String name : response.getHeaderNames()) {
+            if (!outerHeaders.contains(name) && !headers.containsKey(name)) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        return cache.response(fingerprint, response.getStatus(), headers, body);
+    }
+
+    private void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(properties.clientHeader());
+        return client != null && !client.isBlank() ? client : "ip:" + request.getRemoteAddr();
+    }
+
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Request bodies sent with " + properties.header() + " must not exceed " + properties.maxBodyBytes() + " bytes");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", "uri=" + request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body was read to fingerprint it, so the rest of the chain reads this copy
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dev.sagar.insurance.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "insurance.idempotency")
+public record IdempotencyProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("Idempotency-Key")
+        String header,
+
+        // Keys are scoped per client so two partners cannot collide; requests without it are keyed by remote address
+        @DefaultValue("X-API-Key")
+        String clientHeader,
+
+        // POST requests to exactly these paths honour the header
+        @DefaultValue({"/api/clients", "/api/policies", "/api/claims"})
+        List<String> paths,
+
+        // How long a stored response is replayed for
+        @DefaultValue("24h")
+        Duration ttl,
+
+        // Upper bound on responses held in memory; the oldest go first
+        @DefaultValue("10000")
+        int maxEntries,
+
+        // Requests with a larger body are rejected with 413; responses with a larger body are not stored, and a retry
+        // runs the request again
+        @DefaultValue("65536")
+        int maxBodyBytes,
+
+        // A retry waits this long for an attempt with the same key to finish before it is answered with 409
+        @DefaultValue("10s")
+        Duration waitTimeout,
+
+        // MEMORY keeps keys until restart; JDBC also writes them to the idempotency_record table
+        @DefaultValue("MEMORY")
+        Store store
+) {
+
+    public enum Store {
+        MEMORY, JDBC
+    }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.insurance.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// Where stored responses are kept. IdempotencyCache always holds recent responses in memory; declaring a
+// bean of this type adds a persistent store behind it, so keys survive restarts and are shared between instances.
+public interface IdempotencyStore {
+
+    // Empty for unknown and expired keys
+    Optional<IdempotentResponse> find(String key, Instant now);
+
+    // Keeps the first response saved for a key
+    void save(String key, IdempotentResponse response);
+
+    int purgeExpired(Instant now);
+}
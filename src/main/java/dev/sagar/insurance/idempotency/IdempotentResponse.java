@@ -0,0 +1,10 @@
+package dev.sagar.insurance.idempotency;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// fingerprint is the SHA-256 of the request body that produced the response
+public record IdempotentResponse(String fingerprint, int status, Map<String, List<String>> headers, byte[] body,
+                                 Instant expiresAt) {
+}
@@ -0,0 +1,58 @@
+package dev.sagar.insurance.idempotency;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Insertion-ordered, so with one TTL for every entry the eldest entry is (nearly always) the next to expire and a purge
+// can stop at the first live one; stragglers are dropped when found or pushed out by the size bound
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, IdempotentResponse> responses = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key, Instant now) {
+        IdempotentResponse response = responses.get(key);
+        if (response == null) {
+            return Optional.empty();
+        }
+        if (!response.expiresAt().isAfter(now)) {
+            responses.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    @Override
+    public synchronized void save(String key, IdempotentResponse response) {
+        if (responses.putIfAbsent(key, response) == null && responses.size() > maxEntries) {
+            Iterator<String> eldest = responses.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized int purgeExpired(Instant now) {
+        int purged = 0;
+        for (Iterator<Map.Entry<String, IdempotentResponse>> entries = responses.entrySet().iterator(); entries.hasNext(); ) {
+            if (entries.next().getValue().expiresAt().isAfter(now)) {
+                break;
+            }
+            entries.remove();
+            purged++;
+        }
+        return purged;
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+}
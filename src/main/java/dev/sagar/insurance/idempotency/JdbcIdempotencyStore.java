@@ -0,0 +1,79 @@
+package dev.sagar.insurance.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Stored responses in the idempotency_record table of the first shard, or of the application database when sharding
+// is disabled. Headers are kept as "name: value" lines.
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_record (idempotency_key VARCHAR(1024) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, status INT NOT NULL, headers VARCHAR(8192) NOT NULL, body VARBINARY, "
+                + "expires_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_idempotency_record_expires_at ON idempotency_record (expires_at)");
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key, Instant now) {
+        return jdbcTemplate.query("SELECT fingerprint, status, headers, body, expires_at FROM idempotency_record "
+                        + "WHERE idempotency_key = ? AND expires_at > ?",
+                (row, rowNum) -> new IdempotentResponse(row.getString(1), row.getInt(2), parseHeaders(row.getString(3)),
+                        row.getBytes(4), row.getTimestamp(5).toInstant()),
+                key, Timestamp.from(now)).stream().findFirst();
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        try {
+            insert(key, response);
+        } catch (DuplicateKeyException e) {
+            // Either another instance got there first, whose response stands, or an expired record is in the way
+            if (jdbcTemplate.update("DELETE FROM idempotency_record WHERE idempotency_key = ? AND expires_at <= ?",
+                    key, Timestamp.from(Instant.now())) > 0) {
+                insert(key, response);
+            }
+        }
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_record WHERE expires_at <= ?", Timestamp.from(now));
+    }
+
+    private void insert(String key, IdempotentResponse response) {
+        jdbcTemplate.update("INSERT INTO idempotency_record (idempotency_key, fingerprint, status, headers, body, expires_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                key, response.fingerprint(), response.status(), formatHeaders(response.headers()), response.body(),
+                Timestamp.from(response.expiresAt()));
+    }
+
+    static String formatHeaders(Map<String, List<String>> headers) {
+        StringBuilder formatted = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value -> formatted.append(name).append(": ").append(value).append('\n')));
+        return formatted.toString();
+    }
+
+    static Map<String, List<String>> parseHeaders(String formatted) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String line : formatted.split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                headers.computeIfAbsent(line.substring(0, colon), name -> new ArrayList<>()).add(line.substring(colon + 2));
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,28 @@
+package dev.sagar.insurance.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Only the primary "dataSource" bean is wrapped, so statements are never counted twice through nested pools
+@Component
+@ConditionalOnProperty(prefix = "insurance.jdbc.monitoring", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcMonitoringPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<JdbcStatementRecorder> recorder;
+
+    public JdbcMonitoringPostProcessor(ObjectProvider<JdbcStatementRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return MonitoringProxies.dataSource(dataSource, recorder.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,24 @@
+package dev.sagar.insurance.jdbc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.jdbc.monitoring")
+public record JdbcMonitoringProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("200ms")
+        Duration slowThreshold,
+
+        // Distinct statement shapes tracked before new ones are folded into a single "other" entry
+        @DefaultValue("500")
+        int maxShapes,
+
+        @DefaultValue("20")
+        int topSize
+) {
+}
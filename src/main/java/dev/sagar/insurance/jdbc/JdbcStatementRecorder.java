@@ -0,0 +1,111 @@
+package dev.sagar.insurance.jdbc;
+
+import dev.sagar.insurance.timing.ServerTiming;
+import dev.sagar.insurance.timing.TimingPhase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+@Slf4j
+@Component
+public class JdbcStatementRecorder {
+
+    static final String OTHER_SHAPE = "other";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String APPLICATION_PACKAGE = "dev.sagar.insurance.";
+    // Cross-cutting code that sits on the call path of every statement and would otherwise be reported as the origin
+    private static final List<String> INFRASTRUCTURE_PACKAGES = List.of(
+            JdbcStatementRecorder.class.getPackageName() + ".",
+            ServerTiming.class.getPackageName() + "."
+    );
+
+    private final JdbcMonitoringProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final Map<String, String> shapesBySql = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> statsByShape = new ConcurrentHashMap<>();
+
+    public JdbcStatementRecorder(JdbcMonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+    }
+
+    public void record(String sql, long nanos, String parameterShape, int batchSize) {
+        String shape = shapeOf(sql);
+        statsFor(shape).record(nanos);
+
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.record(TimingPhase.JDBC, nanos);
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            log.warn("Slow JDBC statement took {} ms (batch={}, params={}, origin={}): {}",
+                    nanos / 1_000_000, batchSize, parameterShape, origin(), shape);
+        }
+    }
+
+    public List<StatementSummary> top(String orderBy) {
+        ToDoubleFunction<StatementSummary> key = switch (orderBy) {
+            case "total" -> StatementSummary::totalMillis;
+            case "mean" -> StatementSummary::meanMillis;
+            case "count" -> StatementSummary::executions;
+            default -> StatementSummary::maxMillis;
+        };
+        return statsByShape.values().stream()
+                .map(StatementStats::summarize)
+                .sorted(Comparator.comparingDouble(key).reversed())
+                .limit(properties.topSize())
+                .toList();
+    }
+
+    String shapeOf(String sql) {
+        String shape = shapesBySql.get(sql);
+        if (shape == null) {
+            shape = StatementShapes.normalize(sql);
+            // Raw SQL with inlined literals is unbounded, so stop caching once the cache outgrows the shape budget
+            if (shapesBySql.size() < properties.maxShapes() * 4) {
+                shapesBySql.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private StatementStats statsFor(String shape) {
+        StatementStats stats = statsByShape.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statsByShape.size() < properties.maxShapes() ? shape : OTHER_SHAPE;
+        return statsByShape.computeIfAbsent(key, this::newStats);
+    }
+
+    private StatementStats newStats(String shape) {
+        String id = OTHER_SHAPE.equals(shape) ? OTHER_SHAPE : StatementShapes.id(shape);
+        Timer timer = Timer.builder("insurance.jdbc.statements")
+                .tag("shape", id)
+                .tag("operation", OTHER_SHAPE.equals(shape) ? OTHER_SHAPE : StatementShapes.operation(shape))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new StatementStats(id, shape, timer);
+    }
+
+    private static String origin() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && INFRASTRUCTURE_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+}
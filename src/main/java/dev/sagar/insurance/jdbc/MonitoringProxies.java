@@ -0,0 +1,121 @@
+package dev.sagar.insurance.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// JDK proxies over the JDBC interfaces: every execute* call on a statement is timed and handed to the recorder
+final class MonitoringProxies {
+
+    private MonitoringProxies() {
+    }
+
+    static DataSource dataSource(DataSource target, JdbcStatementRecorder recorder) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection, recorder) : result;
+        });
+    }
+
+    static Connection connection(Connection target, JdbcStatementRecorder recorder) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareCall" -> proxy(CallableStatement.class, result, new StatementHandler((Statement) result, (String) args[0], recorder));
+                case "prepareStatement" -> proxy(PreparedStatement.class, result, new StatementHandler((Statement) result, (String) args[0], recorder));
+                case "createStatement" -> proxy(Statement.class, result, new StatementHandler((Statement) result, null, recorder));
+                default -> result;
+            };
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MonitoringProxies.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final JdbcStatementRecorder recorder;
+        private final List<String> parameterTypes = new ArrayList<>();
+        private String batchSql;
+        private int batchSize;
+
+        private StatementHandler(Statement target, String sql, JdbcStatementRecorder recorder) {
+            this.target = target;
+            this.sql = sql;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return timed(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordParameter(index, name, args[1]);
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && batchSql == null) {
+                    batchSql = (String) args[0];
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql = null;
+            } else if (name.equals("clearParameters")) {
+                parameterTypes.clear();
+            }
+            return MonitoringProxies.invoke(target, method, args);
+        }
+
+        private Object timed(Method method, Object[] args) throws Throwable {
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            boolean batch = method.getName().contains("Batch");
+            if (batch && statementSql == null) {
+                statementSql = batchSql;
+            }
+            long start = System.nanoTime();
+            try {
+                return MonitoringProxies.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (statementSql != null) {
+                    recorder.record(statementSql, elapsed, parameterTypes.toString(), batch ? batchSize : 1);
+                }
+                if (batch) {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+            }
+        }
+
+        // Only the types are kept, never the values, so the log cannot leak personal data
+        private void recordParameter(int index, String setter, Object value) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            String type = setter.equals("setNull") || value == null ? "null"
+                    : setter.equals("setObject") ? value.getClass().getSimpleName()
+                    : setter.substring(3);
+            parameterTypes.set(index - 1, type);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dev.sagar.insurance.jdbc;
+
+import java.util.regex.Pattern;
+
+// Reduces SQL text to a shape shared by all executions that differ only in literal values or IN-list length
+final class StatementShapes {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private StatementShapes() {
+    }
+
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    static String operation(String shape) {
+        int end = shape.indexOf(' ');
+        return (end > 0 ? shape.substring(0, end) : shape).toLowerCase();
+    }
+
+    static String id(String shape) {
+        return String.format("%08x", shape.hashCode());
+    }
+}
@@ -0,0 +1,43 @@
+package dev.sagar.insurance.jdbc;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+class StatementStats {
+
+    private final String id;
+    private final String shape;
+    private final Timer timer;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    StatementStats(String id, String shape, Timer timer) {
+        this.id = id;
+        this.shape = shape;
+        this.timer = timer;
+    }
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    StatementSummary summarize() {
+        long executions = count.sum();
+        long total = totalNanos.sum();
+        return new StatementSummary(
+                id,
+                shape,
+                executions,
+                total / 1_000_000.0,
+                executions == 0 ? 0 : total / (double) executions / 1_000_000.0,
+                maxNanos.get() / 1_000_000.0
+        );
+    }
+}
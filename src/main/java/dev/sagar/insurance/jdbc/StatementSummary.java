@@ -0,0 +1,11 @@
+package dev.sagar.insurance.jdbc;
+
+public record StatementSummary(
+        String id,
+        String shape,
+        long executions,
+        double totalMillis,
+        double meanMillis,
+        double maxMillis
+) {
+}
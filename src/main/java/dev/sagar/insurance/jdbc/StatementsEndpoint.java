@@ -0,0 +1,23 @@
+package dev.sagar.insurance.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "statements")
+public class StatementsEndpoint {
+
+    private final JdbcStatementRecorder recorder;
+
+    // orderBy is one of max (default), total, mean or count
+    @ReadOperation
+    public List<StatementSummary> top(@Nullable String orderBy) {
+        return recorder.top(orderBy != null ? orderBy : "max");
+    }
+}
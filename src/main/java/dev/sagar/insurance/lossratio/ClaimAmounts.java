@@ -0,0 +1,19 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.claim.Claim;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// What one claim contributes to its policy's ledger, in cents
+public record ClaimAmounts(Long policyId, long claimed, long reserved, long paid) {
+
+    public static ClaimAmounts of(Claim claim) {
+        return new ClaimAmounts(claim.getPolicy() == null ? null : claim.getPolicy().getId(), cents(claim.getClaimedAmount()),
+                cents(claim.getReservedAmount()), cents(claim.getPaidAmount()));
+    }
+
+    static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
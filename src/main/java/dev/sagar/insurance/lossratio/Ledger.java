@@ -0,0 +1,79 @@
+package dev.sagar.insurance.lossratio;
+
+import java.util.Objects;
+
+// Running totals behind one loss ratio. Amounts are in cents. Not thread-safe; the engine guards all ledgers.
+class Ledger {
+
+    long policies;
+    long claims;
+    long premium;
+    long claimed;
+    long reserved;
+    long paid;
+
+    void add(Ledger other, int sign) {
+        policies += sign * other.policies;
+        claims += sign * other.claims;
+        premium += sign * other.premium;
+        claimed += sign * other.claimed;
+        reserved += sign * other.reserved;
+        paid += sign * other.paid;
+    }
+
+    void addClaim(ClaimAmounts amounts, int sign) {
+        claims += sign;
+        claimed += sign * amounts.claimed();
+        reserved += sign * amounts.reserved();
+        paid += sign * amounts.paid();
+    }
+
+    void clear() {
+        policies = 0;
+        claims = 0;
+        premium = 0;
+        claimed = 0;
+        reserved = 0;
+        paid = 0;
+    }
+
+    boolean isEmpty() {
+        return policies == 0 && claims == 0 && premium == 0 && claimed == 0 && reserved == 0 && paid == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Ledger other && policies == other.policies && claims == other.claims && premium == other.premium
+                && claimed == other.claimed && reserved == other.reserved && paid == other.paid;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(policies, claims, premium, claimed, reserved, paid);
+    }
+
+    // A single policy together with the keys it rolls up into
+    static final class PolicyLedger extends Ledger {
+
+        Long clientId;
+        String type;
+
+        PolicyLedger(PolicyTerms terms) {
+            this.policies = 1;
+            this.clientId = terms.clientId();
+            this.type = terms.type();
+            this.premium = terms.premium();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return super.equals(o) && o instanceof PolicyLedger other && Objects.equals(clientId, other.clientId)
+                    && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), clientId, type);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.lossratio.Ledger.PolicyLedger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recomputes every policy ledger from the hot and archive tables. Archived rows still count: archiving moves rows
+// through JDBC without touching the accumulators.
+public class LedgerScanner {
+
+    private static final String SELECT_POLICIES = "SELECT id, client_id, type, premium FROM policy"
+            + " UNION ALL SELECT id, client_id, type, premium FROM policy_archive";
+    private static final String SELECT_CLAIM_TOTALS = "SELECT policy_id, COUNT(*), COALESCE(SUM(claimed_amount), 0),"
+            + " COALESCE(SUM(reserved_amount), 0), COALESCE(SUM(paid_amount), 0) FROM ("
+            + "SELECT policy_id, claimed_amount, reserved_amount, paid_amount FROM claim"
+            + " UNION ALL SELECT policy_id, claimed_amount, reserved_amount, paid_amount FROM claim_archive"
+            + ") c GROUP BY policy_id";
+
+    private final List<? extends DataSource> dataSources;
+
+    public LedgerScanner(List<? extends DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    Map<Long, PolicyLedger> scan() {
+        Map<Long, PolicyLedger> policies = new HashMap<>();
+        try {
+            for (DataSource dataSource : dataSources) {
+                scan(dataSource, policies);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to scan loss ratio ledgers", e);
+        }
+        return policies;
+    }
+
+    private void scan(DataSource dataSource, Map<Long, PolicyLedger> policies) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet rows = statement.executeQuery(SELECT_POLICIES)) {
+                while (rows.next()) {
+                    long id = rows.getLong(1);
+                    Long clientId = rows.getObject(2) == null ? null : rows.getLong(2);
+                    policies.put(id, new PolicyLedger(new PolicyTerms(id, clientId, rows.getString(3),
+                            ClaimAmounts.cents(rows.getBigDecimal(4)))));
+                }
+            }
+            try (ResultSet rows = statement.executeQuery(SELECT_CLAIM_TOTALS)) {
+                while (rows.next()) {
+                    PolicyLedger ledger = policies.get(rows.getLong(1));
+                    if (ledger != null) {
+                        ledger.claims += rows.getLong(2);
+                        ledger.claimed += ClaimAmounts.cents(rows.getBigDecimal(3));
+                        ledger.reserved += ClaimAmounts.cents(rows.getBigDecimal(4));
+                        ledger.paid += ClaimAmounts.cents(rows.getBigDecimal(5));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.sagar.insurance.lossratio;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// paidLossRatio = paid / premium, incurredLossRatio = (paid + reserved) / premium; both null without premium
+public record LossRatio(String key, long policies, long claims, BigDecimal premium, BigDecimal claimed,
+                        BigDecimal reserved, BigDecimal paid, BigDecimal paidLossRatio, BigDecimal incurredLossRatio) {
+
+    static LossRatio of(String key, Ledger ledger) {
+        return new LossRatio(key, ledger.policies, ledger.claims, money(ledger.premium), money(ledger.claimed),
+                money(ledger.reserved), money(ledger.paid), ratio(ledger.paid, ledger.premium),
+                ratio(ledger.paid + ledger.reserved, ledger.premium));
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static BigDecimal ratio(long losses, long premium) {
+        return premium == 0 ? null : BigDecimal.valueOf(losses).divide(BigDecimal.valueOf(premium), 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.List;
+
+// Reconciles against every shard when sharding is enabled, otherwise against the application data source. The first
+// run starts right away and fills the empty accumulators.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.loss-ratio", name = "enabled", havingValue = "true")
+public class LossRatioConfig {
+
+    @Bean
+    public LossRatioEngine lossRatioEngine(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources,
+                                           LossRatioProperties properties, TaskScheduler taskScheduler) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> dataSources = shards == null ? List.of(dataSource) : shards.pools();
+        LossRatioEngine engine = new LossRatioEngine(new LedgerScanner(dataSources), properties.repair(), Clock.systemUTC());
+        taskScheduler.scheduleWithFixedDelay(engine::reconcileQuietly, properties.reconcileInterval());
+        return engine;
+    }
+}
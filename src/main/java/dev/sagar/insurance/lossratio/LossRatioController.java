@@ -0,0 +1,54 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Current loss ratios, read straight from the accumulators
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/loss-ratios")
+@ConditionalOnProperty(prefix = "insurance.loss-ratio", name = "enabled", havingValue = "true")
+public class LossRatioController {
+
+    private final LossRatioEngine engine;
+
+    @GetMapping
+    public ResponseEntity<LossRatio> getPortfolioLossRatio() {
+        return new ResponseEntity<>(engine.forPortfolio(), HttpStatus.OK);
+    }
+
+    @GetMapping("/policies/{id}")
+    public ResponseEntity<LossRatio> getPolicyLossRatio(@PathVariable Long id) {
+        LossRatio lossRatio = engine.forPolicy(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No loss ratio for policy with id: " + id));
+        return new ResponseEntity<>(lossRatio, HttpStatus.OK);
+    }
+
+    @GetMapping("/clients/{id}")
+    public ResponseEntity<LossRatio> getClientLossRatio(@PathVariable Long id) {
+        LossRatio lossRatio = engine.forClient(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No loss ratio for client with id: " + id));
+        return new ResponseEntity<>(lossRatio, HttpStatus.OK);
+    }
+
+    @GetMapping("/types")
+    public ResponseEntity<List<LossRatio>> getLossRatiosByType() {
+        return new ResponseEntity<>(engine.byType(), HttpStatus.OK);
+    }
+
+    @GetMapping("/types/{type}")
+    public ResponseEntity<LossRatio> getTypeLossRatio(@PathVariable String type) {
+        LossRatio lossRatio = engine.forType(type)
+                .orElseThrow(() -> new ResourceNotFoundException("No loss ratio for policy type: " + type));
+        return new ResponseEntity<>(lossRatio, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,33 @@
+package dev.sagar.insurance.lossratio;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "lossratios")
+@ConditionalOnProperty(prefix = "insurance.loss-ratio", name = "enabled", havingValue = "true")
+public class LossRatioEndpoint {
+
+    private final LossRatioEngine engine;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("portfolio", engine.forPortfolio());
+        status.put("lastReconciliation", engine.getLastReconciliation().orElse(null));
+        return status;
+    }
+
+    @WriteOperation
+    public ReconciliationResult reconcile() {
+        return engine.reconcile();
+    }
+}
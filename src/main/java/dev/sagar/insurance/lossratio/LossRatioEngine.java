@@ -0,0 +1,217 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.lossratio.Ledger.PolicyLedger;
+import dev.sagar.insurance.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+// Keeps premium and claim totals per policy, client, policy type and for the whole portfolio. Every policy or claim
+// change is turned into a delta on one policy ledger and the client, type and portfolio ledgers it rolls up into, so
+// both updates and reads are constant time. Deltas are held until their transaction commits; a rolled back
+// transaction leaves the totals untouched. Changes made outside JPA, such as generated data, are picked up by
+// reconcile().
+@Slf4j
+public class LossRatioEngine {
+
+    private static final int MAX_SAMPLES = 10;
+
+    private final LedgerScanner scanner;
+    private final boolean repair;
+    private final Clock clock;
+    private final Map<Long, PolicyLedger> policies = new HashMap<>();
+    private final Map<Long, Ledger> clients = new HashMap<>();
+    private final Map<String, Ledger> types = new HashMap<>();
+    private final Ledger portfolio = new Ledger();
+    // Counts applied deltas so a reconciliation can tell whether the tables moved under its scan
+    private long version;
+    private volatile ReconciliationResult lastReconciliation;
+
+    public LossRatioEngine(LedgerScanner scanner, boolean repair, Clock clock) {
+        this.scanner = scanner;
+        this.repair = repair;
+        this.clock = clock;
+    }
+
+    // Either side is null for inserts and deletes
+    public void policyChanged(PolicyTerms before, PolicyTerms after) {
+        AfterCommit.run(() -> applyPolicy(before, after));
+    }
+
+    public void claimChanged(ClaimAmounts before, ClaimAmounts after) {
+        AfterCommit.run(() -> applyClaim(before, after));
+    }
+
+    public synchronized Optional<LossRatio> forPolicy(long policyId) {
+        return Optional.ofNullable(policies.get(policyId)).map(ledger -> LossRatio.of(Long.toString(policyId), ledger));
+    }
+
+    public synchronized Optional<LossRatio> forClient(long clientId) {
+        return Optional.ofNullable(clients.get(clientId)).map(ledger -> LossRatio.of(Long.toString(clientId), ledger));
+    }
+
+    public synchronized Optional<LossRatio> forType(String type) {
+        return Optional.ofNullable(types.get(type)).map(ledger -> LossRatio.of(type, ledger));
+    }
+
+    public synchronized List<LossRatio> byType() {
+        return types.entrySet().stream()
+                .map(entry -> LossRatio.of(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(LossRatio::key))
+                .toList();
+    }
+
+    public synchronized LossRatio forPortfolio() {
+        return LossRatio.of("portfolio", portfolio);
+    }
+
+    public Optional<ReconciliationResult> getLastReconciliation() {
+        return Optional.ofNullable(lastReconciliation);
+    }
+
+    // Compares the accumulators with a full scan. The scan runs outside the lock, so writes keep flowing meanwhile.
+    public ReconciliationResult reconcile() {
+        Instant started = clock.instant();
+        long versionBeforeScan;
+        synchronized (this) {
+            versionBeforeScan = version;
+        }
+        Map<Long, PolicyLedger> scanned = scanner.scan();
+        Map<Long, Ledger> scannedClients = new HashMap<>();
+        Map<String, Ledger> scannedTypes = new HashMap<>();
+        Ledger scannedPortfolio = new Ledger();
+        scanned.values().forEach(ledger -> rollUp(ledger, 1, scannedClients, scannedTypes, scannedPortfolio));
+
+        synchronized (this) {
+            List<String> samples = new ArrayList<>();
+            int mismatchedPolicies = compare("policy", policies, scanned, samples);
+            int mismatchedClients = compare("client", clients, scannedClients, samples);
+            int mismatchedTypes = compare("type", types, scannedTypes, samples);
+            boolean concurrentChanges = version != versionBeforeScan;
+            boolean mismatched = mismatchedPolicies + mismatchedClients + mismatchedTypes > 0;
+            boolean repaired = mismatched && repair && !concurrentChanges;
+            if (repaired) {
+                policies.clear();
+                policies.putAll(scanned);
+                clients.clear();
+                clients.putAll(scannedClients);
+                types.clear();
+                types.putAll(scannedTypes);
+                portfolio.clear();
+                portfolio.add(scannedPortfolio, 1);
+            }
+            lastReconciliation = new ReconciliationResult(started, Duration.between(started, clock.instant()), scanned.size(),
+                    mismatchedPolicies, mismatchedClients, mismatchedTypes, concurrentChanges, repaired, samples);
+        }
+        if (!lastReconciliation.consistent()) {
+            log.warn("Loss ratio reconciliation found {} policy, {} client and {} type mismatches (repaired: {}), e.g. {}",
+                    lastReconciliation.mismatchedPolicies(), lastReconciliation.mismatchedClients(),
+                    lastReconciliation.mismatchedTypes(), lastReconciliation.repaired(), lastReconciliation.samples());
+        }
+        return lastReconciliation;
+    }
+
+    public void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Loss ratio reconciliation failed", e);
+        }
+    }
+
+    synchronized void applyPolicy(PolicyTerms before, PolicyTerms after) {
+        version++;
+        Long id = after != null ? after.policyId() : before.policyId();
+        PolicyLedger ledger = policies.get(id);
+        if (ledger != null) {
+            rollUp(ledger, -1, clients, types, portfolio);
+        }
+        if (after == null) {
+            // Claims removed together with their policy are already gone or are ignored below
+            policies.remove(id);
+            return;
+        }
+        if (ledger == null) {
+            ledger = new PolicyLedger(after);
+            policies.put(id, ledger);
+        } else {
+            ledger.clientId = after.clientId();
+            ledger.type = after.type();
+            ledger.premium = after.premium();
+        }
+        rollUp(ledger, 1, clients, types, portfolio);
+    }
+
+    synchronized void applyClaim(ClaimAmounts before, ClaimAmounts after) {
+        version++;
+        if (before != null) {
+            applyClaim(before, -1);
+        }
+        if (after != null) {
+            applyClaim(after, 1);
+        }
+    }
+
+    private void applyClaim(ClaimAmounts amounts, int sign) {
+        PolicyLedger ledger = amounts.policyId() == null ? null : policies.get(amounts.policyId());
+        if (ledger == null) {
+            return;
+        }
+        ledger.addClaim(amounts, sign);
+        ledger(clients, ledger.clientId).addClaim(amounts, sign);
+        ledger(types, ledger.type).addClaim(amounts, sign);
+        portfolio.addClaim(amounts, sign);
+        prune(clients, ledger.clientId);
+        prune(types, ledger.type);
+    }
+
+    private static void rollUp(PolicyLedger ledger, int sign, Map<Long, Ledger> clients, Map<String, Ledger> types, Ledger portfolio) {
+        ledger(clients, ledger.clientId).add(ledger, sign);
+        ledger(types, ledger.type).add(ledger, sign);
+        portfolio.add(ledger, sign);
+        prune(clients, ledger.clientId);
+        prune(types, ledger.type);
+    }
+
+    private static <K> Ledger ledger(Map<K, Ledger> ledgers, K key) {
+        return ledgers.computeIfAbsent(key, k -> new Ledger());
+    }
+
+    private static <K> void prune(Map<K, Ledger> ledgers, K key) {
+        Ledger ledger = ledgers.get(key);
+        if (ledger != null && ledger.isEmpty()) {
+            ledgers.remove(key);
+        }
+    }
+
+    private static <K, L extends Ledger> int compare(String scope, Map<K, L> current, Map<K, L> scanned, List<String> samples) {
+        Set<K> keys = new HashSet<>(current.keySet());
+        keys.addAll(scanned.keySet());
+        Function<L, String> describe = ledger -> ledger == null ? "missing"
+                : "premium=" + ledger.premium + ",claims=" + ledger.claims + ",paid=" + ledger.paid + ",reserved=" + ledger.reserved;
+        int mismatches = 0;
+        for (K key : keys) {
+            L expected = scanned.get(key);
+            L actual = current.get(key);
+            if (!Objects.equals(expected, actual)) {
+                mismatches++;
+                if (samples.size() < MAX_SAMPLES) {
+                    samples.add(scope + " " + key + ": expected " + describe.apply(expected) + ", was " + describe.apply(actual));
+                }
+            }
+        }
+        return mismatches;
+    }
+}
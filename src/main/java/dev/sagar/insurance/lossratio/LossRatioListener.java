@@ -0,0 +1,63 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.policy.Policy;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Objects;
+
+// Feeds policy and claim changes, including cascaded removes, into the LossRatioEngine. The state each entity
+// was loaded or last written with is kept on the entity, so an update can be turned into a before/after delta.
+// Does nothing when the engine is disabled.
+public class LossRatioListener {
+
+    private final ObjectProvider<LossRatioEngine> engine;
+
+    public LossRatioListener(ObjectProvider<LossRatioEngine> engine) {
+        this.engine = engine;
+    }
+
+    @PostLoad
+    public void recordLoaded(Object entity) {
+        if (entity instanceof Claim claim) {
+            claim.setRecordedAmounts(ClaimAmounts.of(claim));
+        } else if (entity instanceof Policy policy) {
+            policy.setRecordedTerms(PolicyTerms.of(policy));
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void recordWritten(Object entity) {
+        if (entity instanceof Claim claim) {
+            ClaimAmounts before = claim.getRecordedAmounts();
+            ClaimAmounts after = ClaimAmounts.of(claim);
+            if (!Objects.equals(before, after)) {
+                engine.ifAvailable(e -> e.claimChanged(before, after));
+            }
+            claim.setRecordedAmounts(after);
+        } else if (entity instanceof Policy policy) {
+            PolicyTerms before = policy.getRecordedTerms();
+            PolicyTerms after = PolicyTerms.of(policy);
+            if (!Objects.equals(before, after)) {
+                engine.ifAvailable(e -> e.policyChanged(before, after));
+            }
+            policy.setRecordedTerms(after);
+        }
+    }
+
+    @PostRemove
+    public void recordRemoved(Object entity) {
+        if (entity instanceof Claim claim) {
+            ClaimAmounts before = Objects.requireNonNullElseGet(claim.getRecordedAmounts(), () -> ClaimAmounts.of(claim));
+            engine.ifAvailable(e -> e.claimChanged(before, null));
+        } else if (entity instanceof Policy policy) {
+            PolicyTerms before = Objects.requireNonNullElseGet(policy.getRecordedTerms(), () -> PolicyTerms.of(policy));
+            engine.ifAvailable(e -> e.policyChanged(before, null));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package dev.sagar.insurance.lossratio;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.loss-ratio")
+public record LossRatioProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // The first reconciliation runs at startup and fills the accumulators
+        @DefaultValue("1h")
+        Duration reconcileInterval,
+
+        // Replace the accumulators with the scan results when they disagree
+        @DefaultValue("true")
+        boolean repair
+) {
+}
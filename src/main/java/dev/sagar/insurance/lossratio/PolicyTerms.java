@@ -0,0 +1,12 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.policy.Policy;
+
+// The policy attributes the loss ratio accumulators are keyed and weighted by; premium in cents
+public record PolicyTerms(Long policyId, Long clientId, String type, long premium) {
+
+    public static PolicyTerms of(Policy policy) {
+        return new PolicyTerms(policy.getId(), policy.getClient() == null ? null : policy.getClient().getId(), policy.getType(),
+                ClaimAmounts.cents(policy.getPremium()));
+    }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.insurance.lossratio;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// concurrentChanges means deltas were applied while the scan ran, so mismatches may be transient and nothing was repaired
+public record ReconciliationResult(Instant startedAt, Duration duration, int policies, int mismatchedPolicies,
+                                   int mismatchedClients, int mismatchedTypes, boolean concurrentChanges, boolean repaired,
+                                   List<String> samples) {
+
+    public boolean consistent() {
+        return mismatchedPolicies == 0 && mismatchedClients == 0 && mismatchedTypes == 0;
+    }
+}
@@ -0,0 +1,35 @@
+package dev.sagar.insurance.policy;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A policy moved out of the hot policy table by the archiver; read-only
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "policy_archive")
+public class ArchivedPolicy {
+
+    @Id
+    private Long id;
+
+    private String policyNumber;
+    private String type;
+    private BigDecimal coverageAmount;
+    private BigDecimal premium;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long clientId;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant archivedAt;
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.policy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedPolicyRepository extends JpaRepository<ArchivedPolicy, Long> {
+}
@@ -1,21 +1,33 @@
 package dev.sagar.insurance.policy;
 
+import dev.sagar.insurance.changes.ChangeTracked;
+import dev.sagar.insurance.changes.TombstoneListener;
 import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.coalescing.CoalescingListener;
 import dev.sagar.insurance.client.Client;
+import dev.sagar.insurance.lossratio.LossRatioListener;
+import dev.sagar.insurance.lossratio.PolicyTerms;
+import dev.sagar.insurance.sharding.AssignableIdentity;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -24,10 +36,16 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-public class Policy {
+@Table(indexes = {
+        @Index(name = "idx_policy_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_policy_client_id", columnList = "client_id, id")
+})
+@EntityListeners({TombstoneListener.class, LossRatioListener.class, CoalescingListener.class})
+public class Policy implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
+    @Column(columnDefinition = "bigint generated by default as identity")
     private Long id;
 
     private String policyNumber;
@@ -37,10 +55,22 @@ public class Policy {
     private LocalDate startDate;
     private LocalDate endDate;
 
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private Client client;
 
     @OneToMany(mappedBy = "policy", cascade = CascadeType.ALL)
     private List<Claim> claims;
+
+    // Terms as last loaded or written, for loss ratio deltas
+    @Transient
+    private PolicyTerms recordedTerms;
 }
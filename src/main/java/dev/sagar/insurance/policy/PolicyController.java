@@ -1,5 +1,6 @@
 package dev.sagar.insurance.policy;
 
+import dev.sagar.insurance.changes.ChangePage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -11,9 +12,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -27,11 +30,27 @@ public class PolicyController {
         return new ResponseEntity<>(policyService.getAllPolicies(), HttpStatus.OK);
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPolicies(@RequestParam String fields) {
+        return new ResponseEntity<>(policyService.getAllPolicies(fields), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PolicyDTO> getPolicyById(@PathVariable Long id) {
         return new ResponseEntity<>(policyService.getPolicyById(id), HttpStatus.OK);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getPolicyById(@PathVariable Long id, @RequestParam String fields) {
+        return new ResponseEntity<>(policyService.getPolicyById(id, fields), HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<PolicyDTO>> getPolicyChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(policyService.getPolicyChanges(since, limit), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<PolicyDTO> createPolicy(@Valid @RequestBody PolicyDTO policyDTO) {
         return new ResponseEntity<>(policyService.createPolicy(policyDTO), HttpStatus.CREATED);
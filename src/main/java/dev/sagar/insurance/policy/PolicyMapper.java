@@ -25,6 +25,19 @@ public class PolicyMapper {
         );
     }
 
+    public PolicyDTO toDto(ArchivedPolicy policy) {
+        return new PolicyDTO(
+                policy.getId(),
+                policy.getPolicyNumber(),
+                policy.getType(),
+                policy.getCoverageAmount(),
+                policy.getPremium(),
+                policy.getStartDate(),
+                policy.getEndDate(),
+                policy.getClientId()
+        );
+    }
+
     public Policy toEntity(PolicyDTO policyDTO) {
         Policy policy = new Policy();
         policy.setId(policyDTO.id());
@@ -1,8 +1,17 @@
 package dev.sagar.insurance.policy;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+
 @Repository
 public interface PolicyRepository extends JpaRepository<Policy, Long> {
+
+    @Query("select p from Policy p where (p.updatedAt > :since or (p.updatedAt = :since and p.id > :afterId))"
+            + " and p.updatedAt <= :until order by p.updatedAt, p.id")
+    List<Policy> findChangedSince(Instant since, Long afterId, Instant until, Limit limit);
 }
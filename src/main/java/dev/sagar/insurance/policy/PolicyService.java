@@ -1,34 +1,91 @@
 package dev.sagar.insurance.policy;
 
+import dev.sagar.insurance.changes.Change;
+import dev.sagar.insurance.changes.ChangeFeed;
+import dev.sagar.insurance.changes.ChangePage;
+import dev.sagar.insurance.coalescing.Coalesced;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.FieldProjector;
+import dev.sagar.insurance.projection.FieldSet;
+import dev.sagar.insurance.sharding.ShardRouter;
+import dev.sagar.insurance.sharding.ShardedEntity;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class PolicyService {
 
+    private static final FieldSet FIELDS = FieldSet.of("policy", PolicyDTO.class, Policy.class, Map.of("clientId", "client.id"));
+    private static final FieldSet ARCHIVED_FIELDS = FieldSet.of("policy", PolicyDTO.class, ArchivedPolicy.class, Map.of());
+
     private final PolicyRepository policyRepository;
+    private final ArchivedPolicyRepository archivedPolicyRepository;
     private final PolicyMapper policyMapper;
+    private final ShardRouter shardRouter;
+    private final FieldProjector fieldProjector;
+    private final ChangeFeed changeFeed;
 
+    @Transactional(readOnly = true)
     public List<PolicyDTO> getAllPolicies() {
-        return policyRepository.findAll().stream().map(policyMapper::toDto).toList();
+        return shardRouter.gather(() -> policyRepository.findAll(Sort.by("id")).stream().map(policyMapper::toDto).toList(),
+                Comparator.comparing(PolicyDTO::id));
     }
 
+    @Coalesced(Coalesced.POLICY)
+    @Transactional(readOnly = true)
     public PolicyDTO getPolicyById(Long id) {
-        Policy policy = policyRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
-        return policyMapper.toDto(policy);
+        shardRouter.routeRead(id);
+        // Archived policies are no longer in the hot table but stay readable by id
+        return policyRepository.findById(id).map(policyMapper::toDto)
+                .or(() -> archivedPolicyRepository.findById(id).map(policyMapper::toDto))
+                .orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllPolicies(String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        return shardRouter.gather(() -> fieldProjector.findAll(FIELDS, selected), Comparator.comparing(FieldProjector::id)).stream()
+                .map(row -> FieldProjector.strip(row, selected))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPolicyById(Long id, String fields) {
+        List<String> selected = FIELDS.parse(fields);
+        shardRouter.routeRead(id);
+        return fieldProjector.findById(FIELDS, selected, id)
+                .or(() -> fieldProjector.findById(ARCHIVED_FIELDS, selected, id))
+                .orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangePage<PolicyDTO> getPolicyChanges(String since, Integer limit) {
+        return changeFeed.read(Policy.class, since, limit, (after, until, max) ->
+                policyRepository.findChangedSince(after.changedAt(), after.id(), until, max).stream()
+                        .map(p -> Change.upsert(p.getId(), p.getUpdatedAt(), policyMapper.toDto(p)))
+                        .toList());
     }
 
 
+    @Transactional
     public PolicyDTO createPolicy(PolicyDTO policyDTO) {
+        // Policies live on their client's shard
+        shardRouter.routeWrite(policyDTO.clientId());
         Policy policy = policyMapper.toEntity(policyDTO);
+        policy.setId(shardRouter.newChildId(ShardedEntity.POLICY, policyDTO.clientId()));
         return policyMapper.toDto(policyRepository.save(policy));
     }
 
+    @Transactional
     public PolicyDTO updatePolicy(Long id, PolicyDTO policyDTO) {
+        shardRouter.routeWrite(id);
         Policy existingPolicy = policyRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
 
         existingPolicy.setPolicyNumber(policyDTO.policyNumber());
@@ -41,7 +98,9 @@ public class PolicyService {
         return policyMapper.toDto(policyRepository.save(existingPolicy));
     }
 
+    @Transactional
     public void deletePolicy(Long id) {
+        shardRouter.routeWrite(id);
         Policy policy = policyRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Policy not found with id: " + id));
         policyRepository.delete(policy);
     }
@@ -0,0 +1,68 @@
+package dev.sagar.insurance.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Runs a JPQL query that selects only the requested fields, so the row read from the database is as narrow as the
+// response. Rows come back as ordered maps that serialize to just those fields.
+@Component
+@RequiredArgsConstructor
+public class FieldProjector {
+
+    private final EntityManager entityManager;
+
+    // The id is always selected so sharded results can be merged in order; it is dropped again by strip()
+    public List<Map<String, Object>> findAll(FieldSet fieldSet, List<String> fields) {
+        String jpql = select(fieldSet, fields) + " order by e.id";
+        return entityManager.createQuery(jpql, Tuple.class).getResultList().stream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList();
+    }
+
+    public Optional<Map<String, Object>> findById(FieldSet fieldSet, List<String> fields, Long id) {
+        String jpql = select(fieldSet, fields) + " where e.id = :id";
+        return entityManager.createQuery(jpql, Tuple.class).setParameter("id", id).getResultStream()
+                .findFirst()
+                .map(tuple -> strip(toRow(tuple, fields), fields));
+    }
+
+    public static Map<String, Object> strip(Map<String, Object> row, List<String> fields) {
+        if (!fields.contains(FieldSet.ID)) {
+            row.remove(FieldSet.ID);
+        }
+        return row;
+    }
+
+    public static Long id(Map<String, Object> row) {
+        return (Long) row.get(FieldSet.ID);
+    }
+
+    private static String select(FieldSet fieldSet, List<String> fields) {
+        StringBuilder jpql = new StringBuilder("select e.id");
+        for (String field : fields) {
+            if (!field.equals(FieldSet.ID)) {
+                jpql.append(", e.").append(fieldSet.path(field));
+            }
+        }
+        return jpql.append(" from ").append(fieldSet.entity()).append(" e").toString();
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put(FieldSet.ID, tuple.get(0));
+        int column = 1;
+        for (String field : fields) {
+            if (!field.equals(FieldSet.ID)) {
+                row.put(field, tuple.get(column++));
+            }
+        }
+        return row;
+    }
+}
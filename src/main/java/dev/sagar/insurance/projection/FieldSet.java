@@ -0,0 +1,69 @@
+package dev.sagar.insurance.projection;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The fields a client may pick with fields= for one resource. Field names are the DTO's record components;
+// each maps to the entity path it is selected from.
+public final class FieldSet {
+
+    static final String ID = "id";
+
+    private final String resource;
+    private final String entity;
+    private final Map<String, String> paths;
+
+    private FieldSet(String resource, String entity, Map<String, String> paths) {
+        this.resource = resource;
+        this.entity = entity;
+        this.paths = paths;
+    }
+
+    // Fields default to the entity attribute of the same name; overrides map DTO fields such as foreign key ids
+    public static FieldSet of(String resource, Class<? extends Record> dto, Class<?> entity, Map<String, String> overrides) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (RecordComponent component : dto.getRecordComponents()) {
+            paths.put(component.getName(), overrides.getOrDefault(component.getName(), component.getName()));
+        }
+        if (!paths.containsKey(ID)) {
+            throw new IllegalArgumentException(dto.getSimpleName() + " has no id field");
+        }
+        return new FieldSet(resource, entity.getSimpleName(), Collections.unmodifiableMap(paths));
+    }
+
+    public List<String> parse(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        Set<String> unknown = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            (paths.containsKey(name) ? selected : unknown).add(name);
+        }
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException("Unknown " + resource + " field(s) " + unknown + "; allowed: " + names());
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("fields must name at least one of: " + names());
+        }
+        return List.copyOf(selected);
+    }
+
+    public List<String> names() {
+        return List.copyOf(paths.keySet());
+    }
+
+    String entity() {
+        return entity;
+    }
+
+    String path(String field) {
+        return paths.get(field);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.projection;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package dev.sagar.insurance.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.insurance.admission.LimitGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Runs ahead of admission control so a tenant over its quota never takes a concurrency slot
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "insurance.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final TenantRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitGroup group = LimitGroup.classify(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String tenant = tenantOf(request);
+        long now = System.nanoTime();
+        TokenBucket bucket = rateLimiter.bucket(tenant, group, now);
+        long remaining = bucket.tryConsume(now);
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(rateLimiter.quota(tenant, group).capacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(Math.max(0, remaining)));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(bucket.nanosUntilFull(now))));
+
+        if (remaining < 0) {
+            rateLimiter.recordRejection();
+            reject(request, response, Math.max(1, toSeconds(bucket.nanosUntilNextToken(now))));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String tenantOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.apiKeyHeader());
+        return apiKey != null && !apiKey.isBlank() ? apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Request quota exceeded, retry after " + retryAfterSeconds + " seconds");
+        body.put("path", "uri=" + request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
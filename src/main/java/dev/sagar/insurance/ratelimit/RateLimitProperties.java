@@ -0,0 +1,51 @@
+package dev.sagar.insurance.ratelimit;
+
+import dev.sagar.insurance.admission.LimitGroup;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "insurance.rate-limit")
+public record RateLimitProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("X-API-Key")
+        String apiKeyHeader,
+
+        // Upper bound on tracked tenants; beyond it new tenants share a single overflow bucket
+        @DefaultValue("100000")
+        int maxTenants,
+
+        // Buckets untouched for this long are dropped by a periodic sweep and start full on the next request
+        @DefaultValue("10m")
+        Duration idleTimeout,
+
+        // Read by @Scheduled as well, which only accepts ISO-8601 durations (PT30S) or milliseconds
+        @DefaultValue("PT30S")
+        Duration sweepInterval,
+
+        Map<LimitGroup, Quota> quotas,
+
+        // Per-tenant overrides of the group quotas, keyed by API key
+        Map<String, Map<LimitGroup, Quota>> tenants
+) {
+
+    private static final Quota DEFAULT_QUOTA = new Quota(100, 50);
+
+    public Quota quotaFor(String tenant, LimitGroup group) {
+        if (tenants != null) {
+            Map<LimitGroup, Quota> overrides = tenants.get(tenant);
+            if (overrides != null && overrides.containsKey(group)) {
+                return overrides.get(group);
+            }
+        }
+        return quotas != null ? quotas.getOrDefault(group, DEFAULT_QUOTA) : DEFAULT_QUOTA;
+    }
+
+    public record Quota(long capacity, double refillPerSecond) {
+    }
+}
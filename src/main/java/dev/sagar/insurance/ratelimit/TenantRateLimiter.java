@@ -0,0 +1,91 @@
+package dev.sagar.insurance.ratelimit;
+
+import dev.sagar.insurance.admission.LimitGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TenantRateLimiter {
+
+    static final String OVERFLOW_TENANT = "overflow";
+
+    private static final LimitGroup[] GROUPS = LimitGroup.values();
+    // Access times are only refreshed at this resolution so hot tenants do not write a shared cache line per request
+    private static final long ACCESS_RESOLUTION_NANOS = 1_000_000_000L;
+
+    private final RateLimitProperties properties;
+    private final Map<String, TenantBuckets> buckets = new ConcurrentHashMap<>();
+    private final TenantBuckets overflow;
+    private final Counter rejections;
+
+    public TenantRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.overflow = newBuckets(OVERFLOW_TENANT, System.nanoTime());
+        this.rejections = Counter.builder("insurance.rate-limit.rejected").register(meterRegistry);
+        Gauge.builder("insurance.rate-limit.tenants", buckets, Map::size).register(meterRegistry);
+    }
+
+    public TokenBucket bucket(String tenant, LimitGroup group, long nowNanos) {
+        TenantBuckets tenantBuckets = buckets.get(tenant);
+        if (tenantBuckets == null) {
+            // Once the map is full, unseen tenants share one bucket until idle tenants are swept, which also caps
+            // the damage of clients rotating API keys
+            if (buckets.size() >= properties.maxTenants()) {
+                return overflow.buckets[group.ordinal()];
+            }
+            tenantBuckets = buckets.computeIfAbsent(tenant, key -> newBuckets(key, nowNanos));
+        }
+        if (nowNanos - tenantBuckets.lastAccessNanos > ACCESS_RESOLUTION_NANOS) {
+            tenantBuckets.lastAccessNanos = nowNanos;
+        }
+        return tenantBuckets.buckets[group.ordinal()];
+    }
+
+    public RateLimitProperties.Quota quota(String tenant, LimitGroup group) {
+        return buckets.containsKey(tenant) ? properties.quotaFor(tenant, group) : properties.quotaFor(OVERFLOW_TENANT, group);
+    }
+
+    public void recordRejection() {
+        rejections.increment();
+    }
+
+    public int trackedTenants() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.rate-limit.sweep-interval:PT30S}")
+    public void evictIdleTenants() {
+        evictIdleTenants(System.nanoTime());
+    }
+
+    void evictIdleTenants(long nowNanos) {
+        long idleNanos = properties.idleTimeout().toNanos();
+        buckets.values().removeIf(tenantBuckets -> nowNanos - tenantBuckets.lastAccessNanos > idleNanos);
+    }
+
+    private TenantBuckets newBuckets(String tenant, long nowNanos) {
+        TokenBucket[] tenantBuckets = new TokenBucket[GROUPS.length];
+        for (LimitGroup group : GROUPS) {
+            RateLimitProperties.Quota quota = properties.quotaFor(tenant, group);
+            tenantBuckets[group.ordinal()] = new TokenBucket(quota.capacity(), quota.refillPerSecond(), nowNanos);
+        }
+        return new TenantBuckets(tenantBuckets, nowNanos);
+    }
+
+    private static final class TenantBuckets {
+
+        private final TokenBucket[] buckets;
+        private volatile long lastAccessNanos;
+
+        private TenantBuckets(TokenBucket[] buckets, long lastAccessNanos) {
+            this.buckets = buckets;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dev.sagar.insurance.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket expressed as GCRA: the whole state is one "theoretical arrival time", so taking a token is a single
+// CAS with no lock and no background refill. A full bucket is a TAT at or before now; each token pushes it forward
+// by one emission interval, and a request is allowed while the TAT stays within capacity intervals of now.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(long capacity, double tokensPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // Returns the tokens left after taking one, or -1 when the bucket is empty
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long debt = newTat - nowNanos;
+            if (debt > burstNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return (burstNanos - debt) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    public long nanosUntilNextToken(long nowNanos) {
+        return Math.max(0, theoreticalArrivalTime.get() + emissionIntervalNanos - burstNanos - nowNanos);
+    }
+
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0, theoreticalArrivalTime.get() - nowNanos);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.sagar.insurance.reactive;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.function.ToLongFunction;
+
+// A query of the form "... WHERE id > ? ORDER BY id LIMIT ?" and how to read the id back from a mapped row
+public record KeysetQuery<T>(
+        String sql,
+        RowMapper<T> rowMapper,
+        ToLongFunction<T> key
+) {
+}
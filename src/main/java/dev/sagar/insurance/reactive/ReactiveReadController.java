@@ -0,0 +1,39 @@
+package dev.sagar.insurance.reactive;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+// Newline-delimited JSON streams of the list endpoints. Pass the last id received as afterId to resume a stream.
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private final KeysetStreamReader reader;
+
+    @GetMapping(value = "/claims", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ClaimDTO> streamClaims(@RequestParam(defaultValue = "0") long afterId,
+                                       @RequestParam(defaultValue = "0") long limit) {
+        return reader.stream(ReadQueries.CLAIMS, afterId, limit);
+    }
+
+    @GetMapping(value = "/policies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PolicyDTO> streamPolicies(@RequestParam(defaultValue = "0") long afterId,
+                                          @RequestParam(defaultValue = "0") long limit) {
+        return reader.stream(ReadQueries.POLICIES, afterId, limit);
+    }
+
+    @GetMapping(value = "/clients", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ClientDTO> streamClients(@RequestParam(defaultValue = "0") long afterId,
+                                         @RequestParam(defaultValue = "0") long limit) {
+        return reader.stream(ReadQueries.CLIENTS, afterId, limit);
+    }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.insurance.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "insurance.reactive")
+public record ReactiveReadProperties(
+
+        // Rows fetched per keyset query; a stream holds a connection only while one page is being read
+        @DefaultValue("500")
+        int pageSize,
+
+        // Pages buffered ahead of the slowest consumer, per shard
+        @DefaultValue("1")
+        int prefetchPages
+) {
+}
@@ -0,0 +1,58 @@
+package dev.sagar.insurance.reactive;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimStatus;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+
+import java.time.LocalDate;
+
+// Map rows straight to the API records; streaming never materialises entities or a persistence context
+final class ReadQueries {
+
+    static final KeysetQuery<ClaimDTO> CLAIMS = new KeysetQuery<>(
+            "SELECT id, claim_number, description, claim_date, status, claimed_amount, reserved_amount, paid_amount, policy_id FROM claim WHERE id > ? ORDER BY id LIMIT ?",
+            (resultSet, rowNum) -> new ClaimDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getString("claim_number"),
+                    resultSet.getString("description"),
+                    resultSet.getObject("claim_date", LocalDate.class),
+                    resultSet.getString("status") == null ? null : ClaimStatus.valueOf(resultSet.getString("status")),
+                    resultSet.getBigDecimal("claimed_amount"),
+                    resultSet.getBigDecimal("reserved_amount"),
+                    resultSet.getBigDecimal("paid_amount"),
+                    resultSet.getLong("policy_id")
+            ),
+            ClaimDTO::id
+    );
+
+    static final KeysetQuery<PolicyDTO> POLICIES = new KeysetQuery<>(
+            "SELECT id, policy_number, type, coverage_amount, premium, start_date, end_date, client_id FROM policy WHERE id > ? ORDER BY id LIMIT ?",
+            (resultSet, rowNum) -> new PolicyDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getString("policy_number"),
+                    resultSet.getString("type"),
+                    resultSet.getBigDecimal("coverage_amount"),
+                    resultSet.getBigDecimal("premium"),
+                    resultSet.getObject("start_date", LocalDate.class),
+                    resultSet.getObject("end_date", LocalDate.class),
+                    resultSet.getLong("client_id")
+            ),
+            PolicyDTO::id
+    );
+
+    static final KeysetQuery<ClientDTO> CLIENTS = new KeysetQuery<>(
+            "SELECT id, name, date_of_birth, address, contact_information FROM client WHERE id > ? ORDER BY id LIMIT ?",
+            (resultSet, rowNum) -> new ClientDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getString("name"),
+                    resultSet.getObject("date_of_birth", LocalDate.class),
+                    resultSet.getString("address"),
+                    resultSet.getString("contact_information")
+            ),
+            ClientDTO::id
+    );
+
+    private ReadQueries() {
+    }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.routing;
+
+public enum DataSourceRoute {
+
+    PRIMARY,
+
+    REPLICA
+}
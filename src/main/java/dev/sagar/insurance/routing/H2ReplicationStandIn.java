@@ -0,0 +1,168 @@
+package dev.sagar.insurance.routing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Copies every table of the primary H2 database into the replica inside one replica transaction, so readers see
+// either the previous or the new copy. Not a real replication stream: it exists to exercise routing and lag locally.
+@Slf4j
+public class H2ReplicationStandIn {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagTracker lagTracker;
+    private final Clock clock;
+
+    public H2ReplicationStandIn(DataSource primary, DataSource replica, ReplicaLagTracker lagTracker, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagTracker = lagTracker;
+        this.clock = clock;
+    }
+
+    public void replicate() {
+        try {
+            replicateOnce();
+        } catch (SQLException e) {
+            log.warn("Replica refresh failed, lag keeps growing: {}", e.getMessage());
+        }
+    }
+
+    public void replicateOnce() throws SQLException {
+        // Everything committed on the primary before the snapshot starts ends up on the replica
+        Instant snapshotStart = clock.instant();
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            source.setReadOnly(true);
+            source.setAutoCommit(false);
+            source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            List<String> tables = tables(source);
+            if (!tables(target).containsAll(tables)) {
+                applySchema(source, target);
+            }
+
+            target.setAutoCommit(false);
+            try {
+                try (Statement statement = target.createStatement()) {
+                    // Children first so deletes never trip a constraint, even if the replica schema carries one
+                    for (String table : tables.reversed()) {
+                        statement.executeUpdate("DELETE FROM " + quote(table));
+                    }
+                }
+                for (String table : tables) {
+                    copyTable(source, target, table);
+                }
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                source.rollback();
+            }
+        }
+        lagTracker.caughtUp(snapshotStart);
+    }
+
+    // Table and index definitions without data or foreign keys; the primary has already enforced integrity
+    private void applySchema(Connection source, Connection target) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet resultSet = statement.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+            while (resultSet.next()) {
+                String sql = resultSet.getString(1);
+                if ((sql.startsWith("CREATE") && !sql.startsWith("CREATE USER")) && !sql.contains("FOREIGN KEY")) {
+                    ddl.add(sql.replaceFirst("^CREATE (CACHED |MEMORY )?TABLE ", "CREATE $1TABLE IF NOT EXISTS ")
+                            .replaceFirst("^CREATE (UNIQUE )?INDEX ", "CREATE $1INDEX IF NOT EXISTS "));
+                }
+            }
+        }
+        try (Statement statement = target.createStatement()) {
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    // Parents before children, ordered by foreign key dependencies
+    private List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        List<String[]> references = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME")) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("""
+                    SELECT fk.TABLE_NAME, pk.TABLE_NAME
+                    FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc
+                    JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS fk ON fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME AND fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA
+                    JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS pk ON pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME AND pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA
+                    WHERE rc.CONSTRAINT_SCHEMA = 'PUBLIC'""")) {
+                while (resultSet.next()) {
+                    references.add(new String[]{resultSet.getString(1), resultSet.getString(2)});
+                }
+            }
+        }
+
+        List<String> ordered = new ArrayList<>();
+        while (!tables.isEmpty()) {
+            String next = tables.stream()
+                    .filter(table -> references.stream().noneMatch(reference -> reference[0].equals(table)
+                            && !reference[1].equals(table) && tables.contains(reference[1])))
+                    .findFirst()
+                    .orElse(tables.getFirst());
+            ordered.add(next);
+            tables.remove(next);
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    private void copyTable(Connection source, Connection target, String table) throws SQLException {
+        try (Statement select = source.createStatement(); ResultSet rows = select.executeQuery("SELECT * FROM " + quote(table))) {
+            ResultSetMetaData metaData = rows.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            List<String> columns = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                columns.add(quote(metaData.getColumnName(i)));
+            }
+            String insert = "INSERT INTO " + quote(table) + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+
+            try (PreparedStatement statement = target.prepareStatement(insert)) {
+                int pending = 0;
+                while (rows.next()) {
+                    for (int i = 1; i <= columnCount; i++) {
+                        statement.setObject(i, rows.getObject(i));
+                    }
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,96 @@
+package dev.sagar.insurance.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+// Writes and read-write transactions use the primary pool. Read-only transactions get their connection lazily from the
+// replica-aware data source, which is why the application data source is a LazyConnectionDataSourceProxy: the
+// read-only flag is only known once the transaction has started.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(RoutingProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.replica().url());
+        dataSource.setUsername(properties.replica().username());
+        dataSource.setPassword(properties.replica().password());
+        dataSource.setMaximumPoolSize(properties.replica().maximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagTracker replicaLagTracker(MeterRegistry meterRegistry) {
+        ReplicaLagTracker lagTracker = new ReplicaLagTracker(Clock.systemUTC());
+        Gauge.builder("insurance.datasource.replica.lag", lagTracker, ReplicaLagTracker::lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return lagTracker;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties properties, MeterRegistry meterRegistry) {
+        // A shorter window would hand a client back to a replica the data source still allows to lag behind its write
+        if (properties.stickyWindow().compareTo(properties.maxLag()) < 0) {
+            throw new IllegalStateException("insurance.routing.sticky-window must be at least insurance.routing.max-lag");
+        }
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties.stickyWindow().toNanos(), System::nanoTime);
+        Gauge.builder("insurance.datasource.sticky-clients", tracker, ReadYourWritesTracker::trackedClients).register(meterRegistry);
+        return tracker;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagTracker replicaLagTracker, ReadYourWritesTracker readYourWritesTracker,
+                                 RoutingProperties properties, MeterRegistry meterRegistry) {
+        ReplicaAwareDataSource readOnlyDataSource = new ReplicaAwareDataSource(primaryDataSource, replicaDataSource,
+                replicaLagTracker, readYourWritesTracker, properties.maxLag(), meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker,
+                                                                            RoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker, properties.clientHeader()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "insurance.routing.replication", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public H2ReplicationStandIn h2ReplicationStandIn(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                                     ReplicaLagTracker replicaLagTracker, RoutingProperties properties,
+                                                     TaskScheduler taskScheduler) {
+        H2ReplicationStandIn replication = new H2ReplicationStandIn(primaryDataSource, replicaDataSource, replicaLagTracker,
+                Clock.systemUTC());
+        taskScheduler.scheduleWithFixedDelay(replication::replicate, properties.replication().interval());
+        return replication;
+    }
+}
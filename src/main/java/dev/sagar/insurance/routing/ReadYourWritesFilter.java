@@ -0,0 +1,56 @@
+package dev.sagar.insurance.routing;
+
+import dev.sagar.insurance.admission.LimitGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Binds the calling client to the request thread and remembers its writes, so the routing data source can keep the
+// client's reads on the primary until the replica has caught up with them
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+    private final String clientHeader;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker, String clientHeader) {
+        this.tracker = tracker;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitGroup group = LimitGroup.classify(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientOf(request);
+        // A write marks the client before the chain runs: the response can be committed before the chain returns,
+        // and the client's next read must not race the mark. Marking again afterwards starts the window when the
+        // write has finished, not when it arrived.
+        boolean write = group == LimitGroup.WRITE;
+        if (write) {
+            tracker.recordWrite(client);
+        }
+        ReadYourWritesTracker.bind(client);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.unbind();
+            if (write) {
+                tracker.recordWrite(client);
+            }
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : "ip:" + request.getRemoteAddr();
+    }
+}
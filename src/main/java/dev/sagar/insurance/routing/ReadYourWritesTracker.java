@@ -0,0 +1,56 @@
+package dev.sagar.insurance.routing;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    public ReadYourWritesTracker(long windowNanos, LongSupplier nanoClock) {
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public static void bind(String client) {
+        CURRENT_CLIENT.set(client);
+    }
+
+    public static void unbind() {
+        CURRENT_CLIENT.remove();
+    }
+
+    public static String currentClient() {
+        return CURRENT_CLIENT.get();
+    }
+
+    public void recordWrite(String client) {
+        lastWrites.put(client, nanoClock.getAsLong());
+    }
+
+    public boolean isSticky(String client) {
+        if (client == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(client);
+        return lastWrite != null && nanoClock.getAsLong() - lastWrite < windowNanos;
+    }
+
+    public int trackedClients() {
+        return lastWrites.size();
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.SECONDS)
+    public void evictExpired() {
+        long now = nanoClock.getAsLong();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.sagar.insurance.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Target for read-only connections: serves them from the replica unless it is lagging or the client just wrote
+public class ReplicaAwareDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagTracker lagTracker;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Duration maxLag;
+    private final Counter replicaReads;
+    private final Counter laggingFallbacks;
+    private final Counter stickyFallbacks;
+
+    public ReplicaAwareDataSource(DataSource primary, DataSource replica, ReplicaLagTracker lagTracker,
+                                  ReadYourWritesTracker readYourWrites, Duration maxLag, MeterRegistry meterRegistry) {
+        this.lagTracker = lagTracker;
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+        this.replicaReads = routed(meterRegistry, DataSourceRoute.REPLICA, "replica");
+        this.laggingFallbacks = routed(meterRegistry, DataSourceRoute.PRIMARY, "replica-lag");
+        this.stickyFallbacks = routed(meterRegistry, DataSourceRoute.PRIMARY, "read-your-writes");
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readYourWrites.isSticky(ReadYourWritesTracker.currentClient())) {
+            stickyFallbacks.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        if (lagTracker.lag().compareTo(maxLag) > 0) {
+            laggingFallbacks.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        replicaReads.increment();
+        return DataSourceRoute.REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, DataSourceRoute route, String reason) {
+        return Counter.builder("insurance.datasource.read-only.routed")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package dev.sagar.insurance.routing;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+public class ReplicaLagTracker {
+
+    private static final Duration UNKNOWN = Duration.ofSeconds(Long.MAX_VALUE);
+
+    private final Clock clock;
+    private volatile Instant caughtUpTo;
+
+    public ReplicaLagTracker(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Called once every primary commit up to the given instant is visible on the replica
+    public void caughtUp(Instant instant) {
+        Instant current = caughtUpTo;
+        if (current == null || instant.isAfter(current)) {
+            caughtUpTo = instant;
+        }
+    }
+
+    // Unknown until the first successful replication, which keeps reads on the primary until then
+    public Duration lag() {
+        Instant current = caughtUpTo;
+        return current == null ? UNKNOWN : Duration.between(current, clock.instant());
+    }
+
+    public double lagSeconds() {
+        Instant current = caughtUpTo;
+        return current == null ? Double.NaN : Duration.between(current, clock.instant()).toNanos() / 1e9;
+    }
+}
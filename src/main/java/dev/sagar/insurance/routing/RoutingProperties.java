@@ -0,0 +1,59 @@
+package dev.sagar.insurance.routing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.routing")
+public record RoutingProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue
+        Replica replica,
+
+        // Read-only transactions fall back to the primary while the replica is further behind than this
+        @DefaultValue("5s")
+        Duration maxLag,
+
+        // Reads from a client stay on the primary for this long after its last write
+        @DefaultValue("5s")
+        Duration stickyWindow,
+
+        // Identifies the client for read-your-writes; requests without it are keyed by remote address
+        @DefaultValue("X-API-Key")
+        String clientHeader,
+
+        @DefaultValue
+        Replication replication
+) {
+
+    public record Replica(
+
+            @DefaultValue("jdbc:h2:mem:insurance-replica;DB_CLOSE_DELAY=-1")
+            String url,
+
+            @DefaultValue("sa")
+            String username,
+
+            @DefaultValue("password")
+            String password,
+
+            @DefaultValue("10")
+            int maximumPoolSize
+    ) {
+    }
+
+    // Local stand-in for streaming replication: copies the primary H2 database into the replica on a fixed delay
+    public record Replication(
+
+            @DefaultValue("true")
+            boolean enabled,
+
+            @DefaultValue("1s")
+            Duration interval
+    ) {
+    }
+}
@@ -0,0 +1,63 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Ranked search over claim descriptions, e.g. GET /api/claims/search?q="water damage" basement -roof&page=0&size=20
+@RestController
+@RequestMapping("/api/claims")
+@ConditionalOnProperty(prefix = "insurance.search", name = "enabled", havingValue = "true")
+public class ClaimSearchController {
+
+    private final ClaimSearchIndex index;
+    private final ClaimService claimService;
+    private final int maxPageSize;
+
+    public ClaimSearchController(ClaimSearchIndex index, ClaimService claimService, SearchProperties properties) {
+        this.index = index;
+        this.claimService = claimService;
+        this.maxPageSize = properties.maxPageSize();
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ClaimSearchResult> searchClaims(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new InvalidSearchQueryException("page must be at least 0 and size between 1 and " + maxPageSize);
+        }
+        long started = System.nanoTime();
+        return index.search(q, Math.multiplyExact(page, size), size)
+                .map(result -> {
+                    Map<Long, ClaimDTO> claims = claimService.getClaimsById(result.hits().stream().map(SearchHit::claimId).toList());
+                    List<ClaimSearchResult.Hit> hits = new ArrayList<>(result.hits().size());
+                    for (SearchHit hit : result.hits()) {
+                        // Missing when deleted after the search ran
+                        ClaimDTO claim = claims.get(hit.claimId());
+                        if (claim != null) {
+                            hits.add(new ClaimSearchResult.Hit(hit.score(), claim));
+                        }
+                    }
+                    double tookMillis = (System.nanoTime() - started) / 1_000_000.0;
+                    return new ResponseEntity<>(new ClaimSearchResult(q, result.total(), page, size, tookMillis, hits), HttpStatus.OK);
+                })
+                // The first build is still running
+                .orElseGet(() -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set(HttpHeaders.RETRY_AFTER, "5");
+                    return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+                });
+    }
+}
@@ -0,0 +1,156 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.transaction.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Guards the InvertedIndex: searches share a read lock, changes take the write lock. Changes are held until
+// their transaction commits. A rebuild scans the tables into a fresh index while the current one keeps serving, then
+// replays every change committed during the scan onto it before swapping it in, so no write is lost either way.
+@Slf4j
+public class ClaimSearchIndex {
+
+    private final ClaimSearchLoader loader;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer queryTimer;
+    // Both guarded by lock; index is null until the first build, replay is only set while a rebuild scans
+    private InvertedIndex index;
+    private List<Consumer<InvertedIndex>> replay;
+    private volatile RebuildResult lastRebuild;
+
+    public ClaimSearchIndex(ClaimSearchLoader loader, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.queryTimer = Timer.builder("insurance.search.queries")
+                .description("Claim description searches, excluding loading the matched claims")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("insurance.search.documents", this, search -> search.stats().getOrDefault("documents", 0).doubleValue())
+                .register(meterRegistry);
+    }
+
+    public void claimIndexed(long claimId, String description) {
+        AfterCommit.run(() -> apply(index -> index.put(claimId, description)));
+    }
+
+    public void claimRemoved(long claimId) {
+        AfterCommit.run(() -> apply(index -> index.remove(claimId)));
+    }
+
+    // Empty until the first build completes
+    public Optional<SearchPage> search(String query, int offset, int limit) {
+        SearchQuery parsed = SearchQueryParser.parse(query);
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return Optional.empty();
+            }
+            return Optional.of(queryTimer.record(() -> index.search(parsed, offset, limit)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized RebuildResult rebuild() {
+        long started = System.nanoTime();
+        InvertedIndex rebuilt = new InvertedIndex();
+        List<Consumer<InvertedIndex>> committed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            replay = committed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            loader.load(rebuilt::put);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            // Changes that commit from here on go straight to the new index
+            replay = null;
+            replayed = committed.size();
+            committed.forEach(change -> change.accept(rebuilt));
+            if (rebuilt.needsCompaction()) {
+                rebuilt.compact();
+            }
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RebuildResult result = new RebuildResult(Instant.now(), rebuilt.size(), rebuilt.terms(), rebuilt.bytes(), replayed,
+                Duration.ofNanos(System.nanoTime() - started));
+        lastRebuild = result;
+        log.info("Indexed {} claim descriptions ({} terms, {} KB) in {} ms", result.documents(), result.terms(),
+                result.bytes() / 1024, result.duration().toMillis());
+        return result;
+    }
+
+    // Scheduled entry point; a failed build is logged and retried on the next tick
+    public void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Claim search index rebuild failed", e);
+        }
+    }
+
+    public Optional<RebuildResult> getLastRebuild() {
+        return Optional.ofNullable(lastRebuild);
+    }
+
+    public Map<String, Number> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Number> stats = new LinkedHashMap<>();
+            if (index != null) {
+                stats.put("documents", index.size());
+                stats.put("deletedDocuments", index.deletedDocuments());
+                stats.put("terms", index.terms());
+                stats.put("bytes", index.bytes());
+            }
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+                if (index.needsCompaction()) {
+                    index.compact();
+                }
+            }
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
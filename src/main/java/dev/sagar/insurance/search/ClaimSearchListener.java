@@ -0,0 +1,30 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.claim.Claim;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Feeds every claim written through JPA, including claims removed with their policy or client, into the search
+// index. Does nothing when search is disabled.
+public class ClaimSearchListener {
+
+    private final ObjectProvider<ClaimSearchIndex> index;
+
+    public ClaimSearchListener(ObjectProvider<ClaimSearchIndex> index) {
+        this.index = index;
+    }
+
+    // Updates that leave the description alone are recognised and skipped by the index
+    @PostPersist
+    @PostUpdate
+    public void claimWritten(Claim claim) {
+        index.ifAvailable(i -> i.claimIndexed(claim.getId(), claim.getDescription()));
+    }
+
+    @PostRemove
+    public void claimRemoved(Claim claim) {
+        index.ifAvailable(i -> i.claimRemoved(claim.getId()));
+    }
+}
@@ -0,0 +1,42 @@
+package dev.sagar.insurance.search;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+// Streams the id and description of every claim, hot or archived, so archived claims stay searchable
+public class ClaimSearchLoader {
+
+    private static final String SELECT_DESCRIPTIONS =
+            "SELECT id, description FROM claim UNION ALL SELECT id, description FROM claim_archive";
+
+    private final List<? extends DataSource> dataSources;
+    private final int fetchSize;
+
+    public ClaimSearchLoader(List<? extends DataSource> dataSources, int fetchSize) {
+        this.dataSources = dataSources;
+        this.fetchSize = fetchSize;
+    }
+
+    public void load(BiConsumer<Long, String> consumer) {
+        try {
+            for (DataSource dataSource : dataSources) {
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(SELECT_DESCRIPTIONS)) {
+                    statement.setFetchSize(fetchSize);
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            consumer.accept(rows.getLong(1), rows.getString(2));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load claim descriptions", e);
+        }
+    }
+}
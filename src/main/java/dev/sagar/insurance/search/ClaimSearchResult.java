@@ -0,0 +1,12 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+
+import java.util.List;
+
+// total counts every matching claim; hits holds the requested page, best match first
+public record ClaimSearchResult(String query, int total, int page, int size, double tookMillis, List<Hit> hits) {
+
+    public record Hit(double score, ClaimDTO claim) {
+    }
+}
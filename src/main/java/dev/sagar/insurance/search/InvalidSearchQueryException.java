@@ -0,0 +1,8 @@
+package dev.sagar.insurance.search;
+
+public class InvalidSearchQueryException extends RuntimeException {
+
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
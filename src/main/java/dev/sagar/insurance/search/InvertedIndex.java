@@ -0,0 +1,364 @@
+package dev.sagar.insurance.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Positional inverted index over claim descriptions, ranked with BM25. Each indexed description gets the next
+// document ordinal, so postings are only ever appended in order. Re-indexing or removing a claim marks its old
+// ordinal deleted; deleted ordinals are skipped at query time, still count towards document frequencies until
+// compact() drops them, as Lucene does between merges. Not thread-safe, see ClaimSearchIndex.
+final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] claimIds = new long[16];
+    private long[] textHashes = new long[16];
+    private int[] lengths = new int[16];
+    private int documents;
+    private long liveLength;
+
+    int size() {
+        return ordinals.size();
+    }
+
+    int terms() {
+        return postings.size();
+    }
+
+    int deletedDocuments() {
+        return documents - ordinals.size();
+    }
+
+    long bytes() {
+        long bytes = 20L * claimIds.length + deleted.size() / 8;
+        for (PostingList list : postings.values()) {
+            bytes += list.bytes();
+        }
+        return bytes;
+    }
+
+    // Returns false when the claim is already indexed with the same description
+    boolean put(long claimId, String text) {
+        long hash = hash(text);
+        Integer existing = ordinals.get(claimId);
+        if (existing != null) {
+            if (textHashes[existing] == hash) {
+                return false;
+            }
+            delete(existing);
+        }
+
+        List<String> tokens = Tokenizer.tokenize(text);
+        Map<String, int[]> positionsByTerm = new LinkedHashMap<>();
+        for (int position = 0; position < tokens.size(); position++) {
+            // Slot 0 counts the positions that follow it
+            int[] positions = positionsByTerm.computeIfAbsent(tokens.get(position), term -> new int[4]);
+            if (positions[0] + 1 == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+                positionsByTerm.put(tokens.get(position), positions);
+            }
+            positions[++positions[0]] = position;
+        }
+
+        int doc = documents++;
+        if (doc == claimIds.length) {
+            int capacity = doc + (doc >> 1);
+            claimIds = Arrays.copyOf(claimIds, capacity);
+            textHashes = Arrays.copyOf(textHashes, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        claimIds[doc] = claimId;
+        textHashes[doc] = hash;
+        lengths[doc] = tokens.size();
+        liveLength += tokens.size();
+        ordinals.put(claimId, doc);
+        positionsByTerm.forEach((term, positions) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(doc, Arrays.copyOfRange(positions, 1, positions[0] + 1), positions[0]));
+        return true;
+    }
+
+    boolean remove(long claimId) {
+        Integer doc = ordinals.remove(claimId);
+        if (doc == null) {
+            return false;
+        }
+        delete(doc);
+        return true;
+    }
+
+    private void delete(int doc) {
+        deleted.set(doc);
+        liveLength -= lengths[doc];
+    }
+
+    // Worth rewriting the postings once a quarter of the ordinals are dead
+    boolean needsCompaction() {
+        int dead = deletedDocuments();
+        return dead >= 1024 && dead > ordinals.size() / 4;
+    }
+
+    void compact() {
+        int[] remap = new int[documents];
+        int live = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                claimIds[live] = claimIds[doc];
+                textHashes[live] = textHashes[doc];
+                lengths[live] = lengths[doc];
+                ordinals.put(claimIds[live], live);
+                live++;
+            }
+        }
+        postings.replaceAll((term, list) -> list.compact(remap));
+        postings.values().removeIf(list -> list.size() == 0);
+        deleted.clear();
+        documents = live;
+    }
+
+    // Total number of matches and the requested page of them, best first; ties go to the lower claim id
+    SearchPage search(SearchQuery query, int offset, int limit) {
+        Matches matches = evaluate(query);
+        int wanted = (int) Math.min((long) offset + limit, matches.size);
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, wanted), (left, right) -> compare(matches, right, left));
+        for (int i = 0; i < matches.size && wanted > 0; i++) {
+            if (top.size() < wanted) {
+                top.add(i);
+            } else if (compare(matches, i, top.peek()) < 0) {
+                top.poll();
+                top.add(i);
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int i = top.poll();
+            hits.add(new SearchHit(claimIds[matches.docs[i]], matches.scores[i]));
+        }
+        // The heap pops the worst hit first
+        List<SearchHit> ranked = hits.reversed();
+        return new SearchPage(matches.size, ranked.subList(Math.min(offset, ranked.size()), ranked.size()));
+    }
+
+    // Negative when the match at left ranks before the one at right
+    private int compare(Matches matches, int left, int right) {
+        int byScore = Double.compare(matches.scores[right], matches.scores[left]);
+        return byScore != 0 ? byScore : Long.compare(claimIds[matches.docs[left]], claimIds[matches.docs[right]]);
+    }
+
+    private Matches evaluate(SearchQuery query) {
+        return switch (query) {
+            case SearchQuery.Term term -> term(term.term());
+            case SearchQuery.Phrase phrase -> phrase(phrase.terms());
+            case SearchQuery.Or or -> or.clauses().stream().map(this::evaluate).reduce(Matches::union).orElseThrow();
+            case SearchQuery.And and -> {
+                // Cheapest clause first, so every later intersection is bounded by it
+                List<Matches> positive = new ArrayList<>(and.positive().stream().map(this::evaluate).toList());
+                positive.sort((left, right) -> Integer.compare(left.size, right.size));
+                Matches result = positive.getFirst();
+                for (int i = 1; i < positive.size() && result.size > 0; i++) {
+                    result = result.intersect(positive.get(i));
+                }
+                for (SearchQuery negative : and.negative()) {
+                    if (result.size == 0) {
+                        break;
+                    }
+                    result = result.subtract(evaluate(negative));
+                }
+                yield result;
+            }
+        };
+    }
+
+    private Matches term(String term) {
+        PostingList list = postings.get(term);
+        if (list == null) {
+            return Matches.EMPTY;
+        }
+        double idf = idf(list);
+        double averageLength = averageLength();
+        Matches matches = new Matches(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            int doc = list.doc(i);
+            if (!deleted.get(doc)) {
+                matches.add(doc, idf * tf(list.freq(i), lengths[doc], averageLength));
+            }
+        }
+        return matches;
+    }
+
+    // Walks the term lists in step to documents holding all of them, then checks their positions line up. The phrase
+    // is scored like one term occurring as often as the phrase does, weighted by the summed idf of its terms.
+    private Matches phrase(List<String> terms) {
+        PostingList[] lists = new PostingList[terms.size()];
+        double idf = 0;
+        for (int t = 0; t < lists.length; t++) {
+            lists[t] = postings.get(terms.get(t));
+            if (lists[t] == null) {
+                return Matches.EMPTY;
+            }
+            idf += idf(lists[t]);
+        }
+        double averageLength = averageLength();
+        int[] cursors = new int[lists.length];
+        int[][] positions = new int[lists.length][];
+        Matches matches = new Matches(16);
+
+        int doc = lists[0].size() > 0 ? lists[0].doc(0) : Integer.MAX_VALUE;
+        while (doc != Integer.MAX_VALUE) {
+            boolean aligned = true;
+            for (int t = 0; t < lists.length; t++) {
+                cursors[t] = lists[t].advance(cursors[t], doc);
+                if (cursors[t] == lists[t].size()) {
+                    return matches;
+                }
+                int found = lists[t].doc(cursors[t]);
+                if (found != doc) {
+                    doc = found;
+                    aligned = false;
+                    break;
+                }
+            }
+            if (!aligned) {
+                continue;
+            }
+            if (!deleted.get(doc)) {
+                int frequency = phraseFrequency(lists, cursors, positions);
+                if (frequency > 0) {
+                    matches.add(doc, idf * tf(frequency, lengths[doc], averageLength));
+                }
+            }
+            cursors[0]++;
+            doc = cursors[0] < lists[0].size() ? lists[0].doc(cursors[0]) : Integer.MAX_VALUE;
+        }
+        return matches;
+    }
+
+    private static int phraseFrequency(PostingList[] lists, int[] cursors, int[][] positions) {
+        for (int t = 0; t < lists.length; t++) {
+            int freq = lists[t].freq(cursors[t]);
+            if (positions[t] == null || positions[t].length < freq) {
+                positions[t] = new int[Math.max(freq, 8)];
+            }
+            lists[t].positions(cursors[t], positions[t]);
+        }
+        int frequency = 0;
+        for (int i = 0; i < lists[0].freq(cursors[0]); i++) {
+            int start = positions[0][i];
+            boolean match = true;
+            for (int t = 1; t < lists.length && match; t++) {
+                match = Arrays.binarySearch(positions[t], 0, lists[t].freq(cursors[t]), start + t) >= 0;
+            }
+            if (match) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    private double idf(PostingList list) {
+        return Math.log(1 + (documents - list.size() + 0.5) / (list.size() + 0.5));
+    }
+
+    private double averageLength() {
+        return ordinals.isEmpty() ? 1 : Math.max(1, (double) liveLength / ordinals.size());
+    }
+
+    private static double tf(int frequency, int length, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // 64-bit FNV-1a, so an unchanged description can be recognised without keeping the text
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    // Matching document ordinals in ascending order with their scores
+    private static final class Matches {
+
+        static final Matches EMPTY = new Matches(0);
+
+        int[] docs;
+        double[] scores;
+        int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void add(int doc, double score) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    result.add(docs[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        Matches union(Matches other) {
+            Matches result = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    result.add(docs[i], scores[i++]);
+                } else if (i == size || docs[i] > other.docs[j]) {
+                    result.add(other.docs[j], other.scores[j++]);
+                } else {
+                    result.add(docs[i], scores[i++] + other.scores[j++]);
+                }
+            }
+            return result;
+        }
+
+        Matches subtract(Matches other) {
+            Matches result = new Matches(size);
+            for (int i = 0, j = 0; i < size; i++) {
+                while (j < other.size && other.docs[j] < docs[i]) {
+                    j++;
+                }
+                if (j == other.size || other.docs[j] != docs[i]) {
+                    result.add(docs[i], scores[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.sagar.insurance.search;
+
+import java.util.Arrays;
+
+// Postings of one term in ascending document order. Documents and term frequencies are parallel int arrays; the
+// positions of every posting are delta-encoded as varints in one shared byte array, located by positionStarts.
+final class PostingList {
+
+    private int[] docs = new int[2];
+    private int[] freqs = new int[2];
+    private int[] positionStarts = new int[2];
+    private byte[] positions = new byte[4];
+    private int size;
+    private int positionBytes;
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int freq(int index) {
+        return freqs[index];
+    }
+
+    // Documents are only ever appended with an ordinal higher than any already present
+    void add(int doc, int[] termPositions, int count) {
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+            positionStarts = Arrays.copyOf(positionStarts, capacity);
+        }
+        docs[size] = doc;
+        freqs[size] = count;
+        positionStarts[size] = positionBytes;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(termPositions[i] - previous);
+            previous = termPositions[i];
+        }
+        size++;
+    }
+
+    // Decodes the positions of the posting at index into target, which must hold freq(index) values
+    void positions(int index, int[] target) {
+        int offset = positionStarts[index];
+        int position = 0;
+        for (int i = 0; i < freqs[index]; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = positions[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            position += value;
+            target[i] = position;
+        }
+    }
+
+    // Smallest index at or after from whose document is at least doc, or size() if there is none. Gallops ahead
+    // before the binary search, so walking two lists in step costs little more than the shorter one.
+    int advance(int from, int doc) {
+        int bound = 1;
+        int low = from;
+        while (from + bound < size && docs[from + bound] < doc) {
+            low = from + bound;
+            bound <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, low, Math.min(from + bound + 1, size), doc);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Drops deleted documents and renumbers the rest; remap holds -1 for deleted ordinals
+    PostingList compact(int[] remap) {
+        PostingList compacted = new PostingList();
+        int[] buffer = new int[16];
+        for (int i = 0; i < size; i++) {
+            int doc = remap[docs[i]];
+            if (doc < 0) {
+                continue;
+            }
+            if (buffer.length < freqs[i]) {
+                buffer = new int[freqs[i]];
+            }
+            positions(i, buffer);
+            compacted.add(doc, buffer, freqs[i]);
+        }
+        return compacted;
+    }
+
+    long bytes() {
+        return 12L * docs.length + positions.length;
+    }
+
+    private void writeVarint(int value) {
+        if (positionBytes + 5 > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(positions.length * 2, positionBytes + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            positions[positionBytes++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        positions[positionBytes++] = (byte) value;
+    }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.search;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// replayed counts the changes committed while the claims were being scanned
+public record RebuildResult(Instant finishedAt, int documents, int terms, long bytes, int replayed, Duration duration) {
+}
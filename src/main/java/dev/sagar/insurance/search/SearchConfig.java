@@ -0,0 +1,36 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.sharding.ShardingConfig.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Indexes every shard when sharding is enabled, otherwise the application data source. The first build starts in the
+// background once the application is ready, after snapshot loads and generated data; searches answer 503 until it
+// completes.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.search", name = "enabled", havingValue = "true")
+public class SearchConfig {
+
+    @Bean
+    public ClaimSearchIndex claimSearchIndex(DataSource dataSource, ObjectProvider<ShardDataSources> shardDataSources,
+                                             SearchProperties properties, MeterRegistry meterRegistry) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        List<? extends DataSource> dataSources = shards == null ? List.of(dataSource) : shards.pools();
+        return new ClaimSearchIndex(new ClaimSearchLoader(dataSources, properties.fetchSize()), meterRegistry);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> claimSearchIndexBuilder(ClaimSearchIndex index, SearchProperties properties,
+                                                                            TaskScheduler taskScheduler) {
+        return event -> taskScheduler.scheduleWithFixedDelay(index::rebuildQuietly, properties.rebuildInterval());
+    }
+}
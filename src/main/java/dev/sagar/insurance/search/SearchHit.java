@@ -0,0 +1,4 @@
+package dev.sagar.insurance.search;
+
+public record SearchHit(long claimId, double score) {
+}
@@ -0,0 +1,6 @@
+package dev.sagar.insurance.search;
+
+import java.util.List;
+
+public record SearchPage(int total, List<SearchHit> hits) {
+}
@@ -0,0 +1,24 @@
+package dev.sagar.insurance.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "insurance.search")
+public record SearchProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // The first build runs at startup; later ones pick up rows written outside JPA, such as generated data
+        @DefaultValue("1h")
+        Duration rebuildInterval,
+
+        @DefaultValue("10000")
+        int fetchSize,
+
+        @DefaultValue("100")
+        int maxPageSize
+) {
+}
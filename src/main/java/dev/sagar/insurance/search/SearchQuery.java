@@ -0,0 +1,21 @@
+package dev.sagar.insurance.search;
+
+import java.util.List;
+
+// Parsed form of a search string, see SearchQueryParser
+sealed interface SearchQuery {
+
+    record Term(String term) implements SearchQuery {
+    }
+
+    // Terms that must appear at consecutive positions
+    record Phrase(List<String> terms) implements SearchQuery {
+    }
+
+    // Every positive clause must match and no negative one may; only positive clauses add to the score
+    record And(List<SearchQuery> positive, List<SearchQuery> negative) implements SearchQuery {
+    }
+
+    record Or(List<SearchQuery> clauses) implements SearchQuery {
+    }
+}
@@ -0,0 +1,140 @@
+package dev.sagar.insurance.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Parses the search syntax:
+//   water damage          both terms (AND is implied between clauses)
+//   "water damage"        phrase
+//   fire OR flood         either
+//   theft -vehicle        theft but not vehicle (NOT vehicle is the same)
+//   (fire OR flood) roof  grouping
+// Terms are tokenized like descriptions, so a term with punctuation becomes a phrase. AND, OR and NOT are only
+// operators in upper case.
+final class SearchQueryParser {
+
+    private static final int MAX_CLAUSES = 64;
+
+    private final String input;
+    private int position;
+    private int clauses;
+
+    private SearchQueryParser(String input) {
+        this.input = input;
+    }
+
+    static SearchQuery parse(String input) {
+        if (input == null || input.isBlank()) {
+            throw new InvalidSearchQueryException("Search query must not be empty");
+        }
+        SearchQueryParser parser = new SearchQueryParser(input);
+        SearchQuery query = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < input.length()) {
+            throw new InvalidSearchQueryException("Unexpected '" + input.charAt(parser.position) + "' at position " + parser.position);
+        }
+        return query;
+    }
+
+    private SearchQuery parseOr() {
+        List<SearchQuery> alternatives = new ArrayList<>();
+        alternatives.add(parseAnd());
+        while (consumeKeyword("OR")) {
+            alternatives.add(parseAnd());
+        }
+        return alternatives.size() == 1 ? alternatives.getFirst() : new SearchQuery.Or(alternatives);
+    }
+
+    private SearchQuery parseAnd() {
+        List<SearchQuery> positive = new ArrayList<>();
+        List<SearchQuery> negative = new ArrayList<>();
+        do {
+            consumeKeyword("AND");
+            if (consume('-') || consumeKeyword("NOT")) {
+                negative.add(parsePrimary());
+            } else {
+                positive.add(parsePrimary());
+            }
+        } while (startsClause());
+        if (positive.isEmpty()) {
+            throw new InvalidSearchQueryException("A query cannot only exclude terms");
+        }
+        return positive.size() == 1 && negative.isEmpty() ? positive.getFirst() : new SearchQuery.And(positive, negative);
+    }
+
+    private SearchQuery parsePrimary() {
+        if (++clauses > MAX_CLAUSES) {
+            throw new InvalidSearchQueryException("A query may have at most " + MAX_CLAUSES + " clauses");
+        }
+        skipWhitespace();
+        if (consume('(')) {
+            SearchQuery group = parseOr();
+            if (!consume(')')) {
+                throw new InvalidSearchQueryException("Missing ')' at position " + position);
+            }
+            return group;
+        }
+        if (consume('"')) {
+            int end = input.indexOf('"', position);
+            if (end < 0) {
+                throw new InvalidSearchQueryException("Missing closing quote at position " + position);
+            }
+            String text = input.substring(position, end);
+            position = end + 1;
+            return terms(text);
+        }
+        int start = position;
+        while (position < input.length() && !Character.isWhitespace(input.charAt(position)) && "()\"".indexOf(input.charAt(position)) < 0) {
+            position++;
+        }
+        if (start == position) {
+            throw new InvalidSearchQueryException(position < input.length()
+                    ? "Unexpected '" + input.charAt(position) + "' at position " + position
+                    : "Query ends where a term was expected");
+        }
+        return terms(input.substring(start, position));
+    }
+
+    private static SearchQuery terms(String text) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            throw new InvalidSearchQueryException("'" + text + "' contains no searchable terms");
+        }
+        return tokens.size() == 1 ? new SearchQuery.Term(tokens.getFirst()) : new SearchQuery.Phrase(tokens);
+    }
+
+    private boolean startsClause() {
+        skipWhitespace();
+        return position < input.length() && input.charAt(position) != ')' && !peekKeyword("OR");
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (position < input.length() && input.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consumeKeyword(String keyword) {
+        if (peekKeyword(keyword)) {
+            position += keyword.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean peekKeyword(String keyword) {
+        skipWhitespace();
+        int end = position + keyword.length();
+        return input.startsWith(keyword, position)
+                && (end == input.length() || Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(' || input.charAt(end) == '"');
+    }
+
+    private void skipWhitespace() {
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.sagar.insurance.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Identity column that also accepts ids assigned by the application, as the shard router does when sharding is on.
+// Schema generation only recognises the built-in identity strategy, so the column also needs an identity definition.
+@IdGeneratorType(AssignableIdentityGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AssignableIdentity {
+}
@@ -0,0 +1,40 @@
+package dev.sagar.insurance.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+
+import java.util.EnumSet;
+
+public class AssignableIdentityGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution(Object entity, SharedSessionContractImplementor session) {
+        return currentId(entity, session) == null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentId(owner, session);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    private static Object currentId(Object entity, SharedSessionContractImplementor session) {
+        return session.getEntityPersister(null, entity).getIdentifier(entity, session);
+    }
+}
@@ -0,0 +1,11 @@
+package dev.sagar.insurance.sharding;
+
+import java.time.Duration;
+
+public record RebalanceResult(
+        int shard,
+        int movedBuckets,
+        long movedRows,
+        Duration duration
+) {
+}
@@ -0,0 +1,22 @@
+package dev.sagar.insurance.sharding;
+
+// The shard the current thread's connections are taken from; unbound threads use the directory shard
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,136 @@
+package dev.sagar.insurance.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Bucket -> shard map, persisted in the SHARDING schema of the first shard. Writes to a bucket are counted so a
+// bucket move can block new writes and wait for the running ones before copying rows.
+public class ShardDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shardCount;
+    private final int virtualBuckets;
+    private final AtomicIntegerArray owners;
+    private final AtomicIntegerArray writers;
+    private final AtomicIntegerArray moving;
+
+    public ShardDirectory(DataSource directoryShard, int shardCount, int virtualBuckets, int initialShards) {
+        this.jdbcTemplate = new JdbcTemplate(directoryShard);
+        this.shardCount = shardCount;
+        this.virtualBuckets = virtualBuckets;
+        this.owners = new AtomicIntegerArray(virtualBuckets);
+        this.writers = new AtomicIntegerArray(virtualBuckets);
+        this.moving = new AtomicIntegerArray(virtualBuckets);
+        load(initialShards);
+    }
+
+    private void load(int initialShards) {
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS sharding");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sharding.bucket_owner (bucket INT PRIMARY KEY, shard INT NOT NULL)");
+
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sharding.bucket_owner", Integer.class);
+        if (existing == null || existing == 0) {
+            List<Object[]> rows = new ArrayList<>(virtualBuckets);
+            for (int bucket = 0; bucket < virtualBuckets; bucket++) {
+                rows.add(new Object[]{bucket, bucket % initialShards});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO sharding.bucket_owner (bucket, shard) VALUES (?, ?)", rows);
+        } else if (existing != virtualBuckets) {
+            throw new IllegalStateException("Shard directory has " + existing + " buckets but " + virtualBuckets + " are configured");
+        }
+
+        jdbcTemplate.query("SELECT bucket, shard FROM sharding.bucket_owner", resultSet -> {
+            int shard = resultSet.getInt(2);
+            if (shard >= shardCount) {
+                throw new IllegalStateException("Bucket " + resultSet.getInt(1) + " belongs to unconfigured shard " + shard);
+            }
+            owners.set(resultSet.getInt(1), shard);
+        });
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int virtualBuckets() {
+        return virtualBuckets;
+    }
+
+    public int shardOf(int bucket) {
+        return owners.get(bucket);
+    }
+
+    public int shardOfId(long id) {
+        return owners.get(ShardIds.bucketOf(id, virtualBuckets));
+    }
+
+    public Map<Integer, Integer> bucketsPerShard() {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            counts.put(shard, 0);
+        }
+        for (int bucket = 0; bucket < virtualBuckets; bucket++) {
+            counts.merge(owners.get(bucket), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public List<Integer> activeShards() {
+        return bucketsPerShard().entrySet().stream().filter(entry -> entry.getValue() > 0).map(Map.Entry::getKey).toList();
+    }
+
+    public List<Integer> bucketsOf(int shard) {
+        List<Integer> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < virtualBuckets; bucket++) {
+            if (owners.get(bucket) == shard) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+
+    void beginWrite(int bucket) {
+        writers.incrementAndGet(bucket);
+        if (moving.get(bucket) == 1) {
+            writers.decrementAndGet(bucket);
+            throw new ShardUnavailableException("Bucket " + bucket + " is being moved to another shard, retry shortly");
+        }
+    }
+
+    void endWrite(int bucket) {
+        writers.decrementAndGet(bucket);
+    }
+
+    // Blocks new writes to the bucket and waits until the running ones have completed
+    void beginMove(int bucket, Duration drainTimeout) {
+        if (!moving.compareAndSet(bucket, 0, 1)) {
+            throw new IllegalStateException("Bucket " + bucket + " is already being moved");
+        }
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (writers.get(bucket) > 0) {
+            if (System.nanoTime() > deadline) {
+                moving.set(bucket, 0);
+                throw new ShardUnavailableException("Writes to bucket " + bucket + " did not drain within " + drainTimeout);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    void assign(int bucket, int shard) {
+        jdbcTemplate.update("UPDATE sharding.bucket_owner SET shard = ? WHERE bucket = ?", shard, bucket);
+        owners.set(bucket, shard);
+    }
+
+    void endMove(int bucket) {
+        moving.set(bucket, 0);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.sagar.insurance.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Hands out sharded ids from per-entity sequences on the directory shard, one block of sequence values at a time
+public class ShardIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int virtualBuckets;
+    private final int blockSize;
+    private final Map<ShardedEntity, Block> blocks = new EnumMap<>(ShardedEntity.class);
+
+    public ShardIdAllocator(DataSource directoryShard, int virtualBuckets, int blockSize) {
+        this.jdbcTemplate = new JdbcTemplate(directoryShard);
+        this.virtualBuckets = virtualBuckets;
+        this.blockSize = blockSize;
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS sharding");
+        for (ShardedEntity entity : ShardedEntity.values()) {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS sharding." + entity.sequence() + " START WITH 1 INCREMENT BY " + blockSize);
+            blocks.put(entity, new Block());
+        }
+    }
+
+    public long newClientId() {
+        long sequence = nextSequence(ShardedEntity.CLIENT);
+        return ShardIds.compose(sequence, ShardIds.clientBucket(sequence, virtualBuckets), virtualBuckets);
+    }
+
+    // Children are co-located with their parent: same bucket, fresh sequence
+    public long newChildId(ShardedEntity entity, long parentId) {
+        return ShardIds.compose(nextSequence(entity), ShardIds.bucketOf(parentId, virtualBuckets), virtualBuckets);
+    }
+
+    private long nextSequence(ShardedEntity entity) {
+        Block block = blocks.get(entity);
+        synchronized (block) {
+            if (block.next == block.limit) {
+                Long start = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR sharding." + entity.sequence(), Long.class);
+                block.next = start;
+                block.limit = start + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,31 @@
+package dev.sagar.insurance.sharding;
+
+// Sharded ids are sequence * virtualBuckets + bucket. Clients hash their sequence into a bucket; policies and claims
+// reuse the bucket of their client, so any id routes to the shard that holds the whole client aggregate.
+public final class ShardIds {
+
+    private ShardIds() {
+    }
+
+    public static int bucketOf(long id, int virtualBuckets) {
+        return (int) Math.floorMod(id, (long) virtualBuckets);
+    }
+
+    public static long compose(long sequence, int bucket, int virtualBuckets) {
+        return Math.multiplyExact(sequence, (long) virtualBuckets) + bucket;
+    }
+
+    public static int clientBucket(long sequence, int virtualBuckets) {
+        return (int) Math.floorMod(mix(sequence), (long) virtualBuckets);
+    }
+
+    // MurmurHash3 finalizer, so consecutive client sequences land in unrelated buckets
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,155 @@
+package dev.sagar.insurance.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Brings an empty, already configured shard into service by moving whole buckets onto it until every shard owns
+// about the same number. Each move blocks writes to the one bucket, copies the bucket's clients, policies and claims
+// in a single transaction, flips the directory entry and then deletes the rows from the old shard. Archived policies
+// and claims carry the same ids and move with their bucket.
+@Slf4j
+public class ShardRebalancer {
+
+    private static final List<String> ARCHIVE_TABLES = List.of("policy_archive", "claim_archive");
+
+    private final List<? extends DataSource> shards;
+    private final ShardDirectory directory;
+    private final Duration drainTimeout;
+
+    public ShardRebalancer(List<? extends DataSource> shards, ShardDirectory directory, Duration drainTimeout) {
+        this.shards = shards;
+        this.directory = directory;
+        this.drainTimeout = drainTimeout;
+    }
+
+    public synchronized RebalanceResult addShard(int shard) {
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("Shard " + shard + " is not configured, configured shards: " + shards.size());
+        }
+        Map<Integer, Integer> bucketsPerShard = directory.bucketsPerShard();
+        if (bucketsPerShard.get(shard) > 0) {
+            throw new IllegalArgumentException("Shard " + shard + " already owns " + bucketsPerShard.get(shard) + " buckets");
+        }
+
+        long started = System.nanoTime();
+        int target = directory.virtualBuckets() / (directory.activeShards().size() + 1);
+        long movedRows = 0;
+        for (int moved = 0; moved < target; moved++) {
+            int donor = bucketsPerShard.entrySet().stream()
+                    .filter(entry -> entry.getKey() != shard)
+                    .max(Map.Entry.comparingByValue())
+                    .orElseThrow()
+                    .getKey();
+            int bucket = directory.bucketsOf(donor).getLast();
+            movedRows += moveBucket(bucket, donor, shard);
+            bucketsPerShard.merge(donor, -1, Integer::sum);
+            bucketsPerShard.merge(shard, 1, Integer::sum);
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Moved {} buckets ({} rows) to shard {} in {} ms", target, movedRows, shard, duration.toMillis());
+        return new RebalanceResult(shard, target, movedRows, duration);
+    }
+
+    // Runs other bulk maintenance on the shards, such as archiving, so that it never overlaps a rebalance
+    public synchronized <T> T exclusive(Supplier<T> action) {
+        return action.get();
+    }
+
+    long moveBucket(int bucket, int from, int to) {
+        directory.beginMove(bucket, drainTimeout);
+        try {
+            long rows = copyBucket(bucket, from, to);
+            directory.assign(bucket, to);
+            deleteBucket(bucket, from);
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Moving bucket " + bucket + " from shard " + from + " to shard " + to + " failed", e);
+        } finally {
+            directory.endMove(bucket);
+        }
+    }
+
+    private long copyBucket(int bucket, int from, int to) throws SQLException {
+        long rows = 0;
+        try (Connection source = shards.get(from).getConnection(); Connection target = shards.get(to).getConnection()) {
+            target.setAutoCommit(false);
+            try {
+                for (ShardedEntity entity : ShardedEntity.values()) {
+                    rows += copyTable(source, target, entity.table(), bucket);
+                }
+                for (String table : ARCHIVE_TABLES) {
+                    rows += copyTable(source, target, table, bucket);
+                }
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            }
+        }
+        return rows;
+    }
+
+    private long copyTable(Connection source, Connection target, String table, int bucket) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement select = source.prepareStatement("SELECT * FROM " + table + " WHERE MOD(id, ?) = ?")) {
+            select.setInt(1, directory.virtualBuckets());
+            select.setInt(2, bucket);
+            try (ResultSet resultSet = select.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                List<String> columns = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+                String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+                try (PreparedStatement statement = target.prepareStatement(insert)) {
+                    while (resultSet.next()) {
+                        for (int i = 1; i <= columnCount; i++) {
+                            statement.setObject(i, resultSet.getObject(i));
+                        }
+                        statement.addBatch();
+                        rows++;
+                    }
+                    statement.executeBatch();
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Children first, so the old shard's foreign keys are never violated
+    private void deleteBucket(int bucket, int from) throws SQLException {
+        try (Connection source = shards.get(from).getConnection()) {
+            source.setAutoCommit(false);
+            try {
+                List<String> tables = new ArrayList<>(ARCHIVE_TABLES);
+                List.of(ShardedEntity.values()).reversed().forEach(entity -> tables.add(entity.table()));
+                for (String table : tables) {
+                    try (PreparedStatement delete = source.prepareStatement("DELETE FROM " + table + " WHERE MOD(id, ?) = ?")) {
+                        delete.setInt(1, directory.virtualBuckets());
+                        delete.setInt(2, bucket);
+                        delete.executeUpdate();
+                    }
+                }
+                source.commit();
+            } catch (SQLException e) {
+                source.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package dev.sagar.insurance.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Entry point for the services. With sharding disabled every method is a pass-through, so the services read the same
+// either way: route by id inside the transaction before the first query, and gather list queries.
+@Component
+public class ShardRouter {
+
+    private final ShardDirectory directory;
+    private final ShardIdAllocator idAllocator;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration scatterTimeout;
+    private final ExecutorService executor;
+
+    @Autowired
+    public ShardRouter(ObjectProvider<ShardDirectory> directory, ObjectProvider<ShardIdAllocator> idAllocator,
+                       ObjectProvider<PlatformTransactionManager> transactionManager, ShardingProperties properties) {
+        this(directory.getIfAvailable(), idAllocator.getIfAvailable(), transactionManager.getIfAvailable(), properties.scatterTimeout());
+    }
+
+    ShardRouter(ShardDirectory directory, ShardIdAllocator idAllocator, PlatformTransactionManager transactionManager,
+                Duration scatterTimeout) {
+        this.directory = directory;
+        this.idAllocator = idAllocator;
+        this.scatterTimeout = scatterTimeout;
+        if (transactionManager != null) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+        } else {
+            this.readOnlyTransaction = null;
+        }
+        this.executor = directory != null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public static ShardRouter unsharded() {
+        return new ShardRouter(null, null, null, Duration.ZERO);
+    }
+
+    public boolean isSharded() {
+        return directory != null;
+    }
+
+    // Null when sharding is disabled and the database assigns ids
+    public Long newClientId() {
+        return idAllocator == null ? null : idAllocator.newClientId();
+    }
+
+    public Long newChildId(ShardedEntity entity, Long parentId) {
+        return idAllocator == null || parentId == null ? null : idAllocator.newChildId(entity, parentId);
+    }
+
+    public void routeRead(Long id) {
+        route(id, false);
+    }
+
+    // Also registers the write with the directory, so a bucket move waits for it to commit
+    public void routeWrite(Long id) {
+        route(id, true);
+    }
+
+    private void route(Long id, boolean write) {
+        if (directory == null || id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard routing requires an active transaction");
+        }
+        int bucket = ShardIds.bucketOf(id, directory.virtualBuckets());
+        int shard = directory.shardOf(bucket);
+        Integer bound = ShardContext.current();
+        if (bound != null && bound != shard) {
+            throw new IllegalStateException("Transaction is bound to shard " + bound + " and cannot also use shard " + shard);
+        }
+        if (bound != null && !write) {
+            return;
+        }
+
+        if (write) {
+            directory.beginWrite(bucket);
+        }
+        if (bound == null) {
+            ShardContext.bind(shard);
+        }
+        boolean unbind = bound == null;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (write) {
+                    directory.endWrite(bucket);
+                }
+                if (unbind) {
+                    ShardContext.unbind();
+                }
+            }
+        });
+    }
+
+    public <T> List<T> gather(Supplier<List<T>> query, Comparator<? super T> order) {
+        return gather(query, order, Integer.MAX_VALUE);
+    }
+
+    // Runs the query on every shard that owns buckets, each in its own read-only transaction, and merges the
+    // per-shard results, which must already be sorted by the given order
+    public <T> List<T> gather(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        if (directory == null) {
+            List<T> result = query.get();
+            return result.size() > limit ? result.subList(0, limit) : result;
+        }
+
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (int shard : directory.activeShards()) {
+            futures.add(executor.submit(() -> onShard(shard, query)));
+        }
+
+        List<List<T>> results = new ArrayList<>(futures.size());
+        long deadline = System.nanoTime() + scatterTimeout.toNanos();
+        try {
+            for (Future<List<T>> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new ShardUnavailableException("Scatter query did not complete within " + scatterTimeout);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ShardUnavailableException("Interrupted while waiting for shards");
+        }
+        return merge(results, order, limit);
+    }
+
+    // The shard that currently owns the id's bucket; 0 when sharding is disabled
+    public int shardOf(Long id) {
+        return directory == null ? 0 : directory.shardOf(ShardIds.bucketOf(id, directory.virtualBuckets()));
+    }
+
+    // Shards that own at least one bucket; a single shard 0 when sharding is disabled
+    public List<Integer> shards() {
+        return directory == null ? List.of(0) : directory.activeShards();
+    }
+
+    // Runs the query in its own read-only transaction on the given shard, for callers that walk shards themselves
+    public <T> T readOnShard(int shard, Supplier<T> query) {
+        if (directory == null) {
+            return readOnlyTransaction == null ? query.get() : readOnlyTransaction.execute(status -> query.get());
+        }
+        return onShard(shard, query);
+    }
+
+    private <T> T onShard(int shard, Supplier<T> query) {
+        ShardContext.bind(shard);
+        try {
+            return readOnlyTransaction.execute(status -> query.get());
+        } finally {
+            ShardContext.unbind();
+        }
+    }
+
+    // k-way merge; rows that compare equal to the previous one are dropped, which hides a bucket that is briefly
+    // visible on both shards while it is being moved
+    static <T> List<T> merge(List<List<T>> sortedResults, Comparator<? super T> order, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((left, right) -> order.compare(left.head(), right.head()));
+        for (List<T> result : sortedResults) {
+            if (!result.isEmpty()) {
+                heads.add(new Cursor<>(result));
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        T previous = null;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            T head = cursor.head();
+            if (previous == null || order.compare(previous, head) != 0) {
+                merged.add(head);
+                previous = head;
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Cursor<T> {
+
+        private final List<T> rows;
+        private int position;
+
+        private Cursor(List<T> rows) {
+            this.rows = rows;
+        }
+
+        private T head() {
+            return rows.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < rows.size();
+        }
+    }
+}
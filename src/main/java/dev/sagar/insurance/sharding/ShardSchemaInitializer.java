@@ -0,0 +1,38 @@
+package dev.sagar.insurance.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Hibernate only creates the schema on the first shard; empty shards get a copy of its PUBLIC schema before the
+// application starts serving requests
+@Slf4j
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private final List<? extends DataSource> shards;
+
+    public ShardSchemaInitializer(List<? extends DataSource> shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> ddl = new JdbcTemplate(shards.getFirst())
+                .queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS SCHEMA PUBLIC", String.class).stream()
+                .filter(sql -> !sql.startsWith("CREATE USER") && !sql.startsWith("--"))
+                .toList();
+
+        for (int shard = 1; shard < shards.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            Integer tables = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'", Integer.class);
+            if (tables != null && tables == 0) {
+                ddl.forEach(jdbcTemplate::execute);
+                log.info("Created schema on shard {}", shard);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.insurance.sharding;
+
+public class ShardUnavailableException extends RuntimeException {
+
+    public ShardUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.sagar.insurance.sharding;
+
+// Tables of the client aggregate, parents first
+public enum ShardedEntity {
+
+    CLIENT("client", "client_id_seq"),
+
+    POLICY("policy", "policy_id_seq"),
+
+    CLAIM("claim", "claim_id_seq"),
+
+    CLAIM_ATTACHMENT("claim_attachment", "claim_attachment_id_seq");
+
+    private final String table;
+    private final String sequence;
+
+    ShardedEntity(String table, String sequence) {
+        this.table = table;
+        this.sequence = sequence;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String sequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,82 @@
+package dev.sagar.insurance.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// The application data source routes every connection to the shard bound by ShardRouter. It is lazy so the services
+// can bind the shard inside their transaction, once they know which client the request is about.
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(ShardingProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        if (environment.getProperty("insurance.routing.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("insurance.sharding and insurance.routing cannot be enabled together");
+        }
+        if (properties.shards().isEmpty()) {
+            throw new IllegalStateException("insurance.sharding.shards must list at least one shard");
+        }
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.shards().size(); i++) {
+            ShardingProperties.Shard shard = properties.shards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(shard.url());
+            pool.setUsername(shard.username());
+            pool.setPassword(shard.password());
+            pool.setMaximumPoolSize(shard.maximumPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.pools()));
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardDataSources shardDataSources, ShardingProperties properties) {
+        return new ShardDirectory(shardDataSources.pools().getFirst(), shardDataSources.pools().size(),
+                properties.virtualBuckets(), properties.effectiveInitialShards());
+    }
+
+    @Bean
+    public ShardIdAllocator shardIdAllocator(ShardDataSources shardDataSources, ShardingProperties properties) {
+        return new ShardIdAllocator(shardDataSources.pools().getFirst(), properties.virtualBuckets(), properties.idBlockSize());
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardDataSources shardDataSources) {
+        return new ShardSchemaInitializer(shardDataSources.pools());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardDataSources shardDataSources, ShardDirectory shardDirectory,
+                                           ShardingProperties properties) {
+        return new ShardRebalancer(shardDataSources.pools(), shardDirectory, properties.drainTimeout());
+    }
+
+    public record ShardDataSources(List<HikariDataSource> pools) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dev.sagar.insurance.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "insurance.sharding")
+public record ShardingProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        // Fixed for the lifetime of the data: every id carries its bucket, and buckets are the unit of rebalancing
+        @DefaultValue("1024")
+        int virtualBuckets,
+
+        // Buckets are spread over the first initial-shards entries when the directory is created; the remaining
+        // shards stay empty until they are added with the rebalancer
+        @DefaultValue("0")
+        int initialShards,
+
+        // Ids are reserved from the directory shard in blocks of this size
+        @DefaultValue("100")
+        int idBlockSize,
+
+        @DefaultValue("10s")
+        Duration scatterTimeout,
+
+        // How long a bucket move waits for in-flight writes to the bucket to finish
+        @DefaultValue("30s")
+        Duration drainTimeout,
+
+        List<Shard> shards
+) {
+
+    public List<Shard> shards() {
+        return shards == null ? List.of() : shards;
+    }
+
+    public int effectiveInitialShards() {
+        return initialShards > 0 ? Math.min(initialShards, shards().size()) : shards().size();
+    }
+
+    public record Shard(
+
+            String url,
+
+            @DefaultValue("sa")
+            String username,
+
+            @DefaultValue("password")
+            String password,
+
+            @DefaultValue("10")
+            int maximumPoolSize
+    ) {
+    }
+}
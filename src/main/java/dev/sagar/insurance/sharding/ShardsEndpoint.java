@@ -0,0 +1,34 @@
+package dev.sagar.insurance.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "shards")
+@ConditionalOnProperty(prefix = "insurance.sharding", name = "enabled", havingValue = "true")
+public class ShardsEndpoint {
+
+    private final ShardDirectory directory;
+    private final ShardRebalancer rebalancer;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("virtualBuckets", directory.virtualBuckets());
+        status.put("bucketsPerShard", directory.bucketsPerShard());
+        return status;
+    }
+
+    @WriteOperation
+    public RebalanceResult addShard(int shard) {
+        return rebalancer.addShard(shard);
+    }
+}
@@ -0,0 +1,36 @@
+package dev.sagar.insurance.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runners complete before ApplicationReadyEvent, so readiness stays REFUSING_TRAFFIC until the load is done.
+// The save hooks ContextClosedEvent because it fires before Hibernate's create-drop removes the schema.
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "insurance.snapshot", name = "enabled", havingValue = "true")
+public class DatabaseSnapshotLifecycle implements ApplicationRunner {
+
+    private final DatabaseSnapshotService snapshotService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (snapshotService.getProperties().loadOnStartup()) {
+            snapshotService.load();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (snapshotService.getProperties().saveOnShutdown()) {
+            snapshotService.save();
+        }
+    }
+}
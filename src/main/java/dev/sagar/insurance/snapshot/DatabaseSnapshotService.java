@@ -0,0 +1,98 @@
+package dev.sagar.insurance.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "insurance.snapshot", name = "enabled", havingValue = "true")
+public class DatabaseSnapshotService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnapshotProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<SnapshotResult> lastSave = new AtomicReference<>();
+    private final AtomicReference<SnapshotResult> lastLoad = new AtomicReference<>();
+
+    public DatabaseSnapshotService(JdbcTemplate jdbcTemplate, SnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // H2 writes the script itself, so rows never pass through the ORM; the temp file keeps a crash from
+    // leaving a truncated snapshot behind
+    public synchronized SnapshotResult save() {
+        Path target = properties.file().toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(target.getParent());
+            jdbcTemplate.execute("SCRIPT NOPASSWORDS DROP TO " + quote(temp) + " COMPRESSION GZIP");
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            SnapshotResult result = record("save", target, start);
+            lastSave.set(result);
+            log.info("Saved database snapshot to {} ({} bytes) in {} ms", target, result.sizeBytes(), result.durationMillis());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save database snapshot to " + target, e);
+        }
+    }
+
+    public synchronized Optional<SnapshotResult> load() {
+        Path source = properties.file().toAbsolutePath();
+        if (!Files.isRegularFile(source)) {
+            log.info("No database snapshot found at {}, starting with an empty database", source);
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.execute("RUNSCRIPT FROM " + quote(source) + " COMPRESSION GZIP");
+        SnapshotResult result = record("load", source, start);
+        lastLoad.set(result);
+        log.info("Loaded database snapshot from {} ({} bytes) in {} ms", source, result.sizeBytes(), result.durationMillis());
+        return Optional.of(result);
+    }
+
+    public SnapshotProperties getProperties() {
+        return properties;
+    }
+
+    public Optional<SnapshotResult> getLastSave() {
+        return Optional.ofNullable(lastSave.get());
+    }
+
+    public Optional<SnapshotResult> getLastLoad() {
+        return Optional.ofNullable(lastLoad.get());
+    }
+
+    private SnapshotResult record(String operation, Path file, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("insurance.snapshot.duration")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        try {
+            return new SnapshotResult(operation, file.toString(), Files.size(file), TimeUnit.NANOSECONDS.toMillis(elapsed), Instant.now());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(Path path) {
+        return "'" + path.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,34 @@
+package dev.sagar.insurance.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "snapshot")
+@ConditionalOnProperty(prefix = "insurance.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotEndpoint {
+
+    private final DatabaseSnapshotService snapshotService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("file", snapshotService.getProperties().file().toAbsolutePath().toString());
+        status.put("lastLoad", snapshotService.getLastLoad().orElse(null));
+        status.put("lastSave", snapshotService.getLastSave().orElse(null));
+        return status;
+    }
+
+    @WriteOperation
+    public SnapshotResult save() {
+        return snapshotService.save();
+    }
+}
@@ -0,0 +1,23 @@
+package dev.sagar.insurance.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "insurance.snapshot")
+public record SnapshotProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("data/insurance-db.sql.gz")
+        Path file,
+
+        @DefaultValue("true")
+        boolean loadOnStartup,
+
+        @DefaultValue("true")
+        boolean saveOnShutdown
+) {
+}
@@ -0,0 +1,12 @@
+package dev.sagar.insurance.snapshot;
+
+import java.time.Instant;
+
+public record SnapshotResult(
+        String operation,
+        String file,
+        long sizeBytes,
+        long durationMillis,
+        Instant completedAt
+) {
+}
@@ -0,0 +1,54 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.client.ClientService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// A client's policies, premiums and claims as one document, written to the response while it is read
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/clients/{clientId}")
+public class ClientStatementController {
+
+    private final ClientService clientService;
+    private final StatementGenerator statementGenerator;
+
+    // JSON unless the Accept header names text/csv
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(@PathVariable Long clientId,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean csv = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> !type.isWildcardSubtype() && StatementFormat.CSV.mediaType().isCompatibleWith(type));
+        return statement(clientId, csv ? StatementFormat.CSV : StatementFormat.JSON);
+    }
+
+    @GetMapping("/statement.json")
+    public ResponseEntity<StreamingResponseBody> getJsonStatement(@PathVariable Long clientId) {
+        return statement(clientId, StatementFormat.JSON);
+    }
+
+    @GetMapping("/statement.csv")
+    public ResponseEntity<StreamingResponseBody> getCsvStatement(@PathVariable Long clientId) {
+        return statement(clientId, StatementFormat.CSV);
+    }
+
+    private ResponseEntity<StreamingResponseBody> statement(Long clientId, StatementFormat format) {
+        // Resolved before streaming starts, so an unknown client is still a 404
+        ClientDTO client = clientService.getClientById(clientId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.mediaType());
+        headers.setContentDisposition(ContentDisposition.inline().filename("statement-" + clientId + "." + format.extension()).build());
+        return new ResponseEntity<>(out -> statementGenerator.write(client, format, out), headers, HttpStatus.OK);
+    }
+}
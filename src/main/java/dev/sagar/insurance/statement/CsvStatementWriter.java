@@ -0,0 +1,73 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+// One row per client, policy, claim and total, told apart by the first column. Columns that do not apply to a record
+// are left empty; the totals row puts its sums in the amount columns and its counts in the id columns.
+class CsvStatementWriter implements StatementWriter {
+
+    static final String HEADER = "record,client_id,client_name,policy_id,policy_number,policy_type,coverage_amount,premium,"
+            + "start_date,end_date,claim_id,claim_number,claim_date,claim_status,claimed_amount,reserved_amount,paid_amount";
+
+    private final Writer out;
+    private long clientId;
+
+    CsvStatementWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void client(ClientDTO client) throws IOException {
+        clientId = client.id();
+        out.write(HEADER);
+        out.write("\r\n");
+        row("client", client.id(), client.name(), null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public void policy(PolicyDTO policy) throws IOException {
+        row("policy", clientId, null, policy.id(), policy.policyNumber(), policy.type(), policy.coverageAmount(), policy.premium(),
+                policy.startDate(), policy.endDate(), null, null, null, null, null, null, null);
+    }
+
+    @Override
+    public void claim(ClaimDTO claim) throws IOException {
+        row("claim", clientId, null, claim.policyId(), null, null, null, null, null, null, claim.id(), claim.claimNumber(),
+                claim.claimDate(), claim.status(), claim.claimedAmount(), claim.reservedAmount(), claim.paidAmount());
+    }
+
+    @Override
+    public void totals(StatementTotals totals) throws IOException {
+        row("totals", clientId, null, totals.policies(), null, null, totals.coverageAmount(), totals.premium(), null, null,
+                totals.claims(), null, null, null, totals.claimedAmount(), totals.reservedAmount(), totals.paidAmount());
+        out.flush();
+    }
+
+    private void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] instanceof BigDecimal amount) {
+                out.write(amount.toPlainString());
+            } else if (values[i] != null) {
+                out.write(escape(values[i].toString()));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
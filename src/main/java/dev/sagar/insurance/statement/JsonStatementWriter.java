@@ -0,0 +1,63 @@
+package dev.sagar.insurance.statement;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+
+import java.io.IOException;
+
+// {"client": {...}, "policies": [{..., "claims": [...]}, ...], "totals": {...}}, written as it is produced
+class JsonStatementWriter implements StatementWriter {
+
+    private final JsonGenerator generator;
+    private boolean policyOpen;
+
+    JsonStatementWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public void client(ClientDTO client) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("client", client);
+        generator.writeArrayFieldStart("policies");
+    }
+
+    @Override
+    public void policy(PolicyDTO policy) throws IOException {
+        closePolicy();
+        generator.writeStartObject();
+        generator.writeObjectField("id", policy.id());
+        generator.writeObjectField("policyNumber", policy.policyNumber());
+        generator.writeObjectField("type", policy.type());
+        generator.writeObjectField("coverageAmount", policy.coverageAmount());
+        generator.writeObjectField("premium", policy.premium());
+        generator.writeObjectField("startDate", policy.startDate());
+        generator.writeObjectField("endDate", policy.endDate());
+        generator.writeArrayFieldStart("claims");
+        policyOpen = true;
+    }
+
+    @Override
+    public void claim(ClaimDTO claim) throws IOException {
+        generator.writeObject(claim);
+    }
+
+    @Override
+    public void totals(StatementTotals totals) throws IOException {
+        closePolicy();
+        generator.writeEndArray();
+        generator.writeObjectField("totals", totals);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void closePolicy() throws IOException {
+        if (policyOpen) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            policyOpen = false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes every client's statement to <directory>/<run timestamp>/client-<id>.<format>. Clients are read a page at a
+// time and handed to a fixed pool, with at most two statements queued per thread, so a run over millions of clients
+// holds no more than a page of them. A statement that fails is logged and counted; the run carries on.
+@Slf4j
+@Component
+public class StatementBatch {
+
+    private static final DateTimeFormatter RUN_DIRECTORY = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final StatementGenerator statementGenerator;
+    private final ShardRouter shardRouter;
+    private final StatementProperties properties;
+    private volatile StatementBatchResult lastRun;
+
+    public StatementBatch(StatementGenerator statementGenerator, ShardRouter shardRouter, StatementProperties properties) {
+        this.statementGenerator = statementGenerator;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    public synchronized StatementBatchResult generateAll(StatementFormat format) throws IOException {
+        Instant startedAt = Instant.now();
+        long started = System.nanoTime();
+        Path directory = properties.directory().toAbsolutePath().resolve(RUN_DIRECTORY.format(startedAt));
+        Files.createDirectories(directory);
+
+        int threads = properties.effectiveThreads();
+        Semaphore queued = new Semaphore(threads * 2);
+        AtomicLong statements = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int shard : shardRouter.shards()) {
+                long afterId = 0;
+                for (List<ClientDTO> page = statementGenerator.clients(shard, afterId); !page.isEmpty();
+                     page = statementGenerator.clients(shard, afterId)) {
+                    for (ClientDTO client : page) {
+                        queued.acquire();
+                        executor.execute(() -> {
+                            try {
+                                bytes.addAndGet(write(directory, client, format));
+                                statements.incrementAndGet();
+                            } catch (IOException | RuntimeException e) {
+                                failures.incrementAndGet();
+                                log.warn("Statement for client {} failed: {}", client.id(), e.getMessage());
+                            } finally {
+                                queued.release();
+                            }
+                        });
+                    }
+                    afterId = page.getLast().id();
+                }
+            }
+            // Every permit back means every statement is written
+            queued.acquire(threads * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Statement batch was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        StatementBatchResult result = new StatementBatchResult(startedAt, directory.toString(), format, statements.get(),
+                failures.get(), bytes.get(), Duration.ofNanos(System.nanoTime() - started));
+        log.info("Wrote {} statements ({} bytes, {} failed) to {} in {} ms", result.statements(), result.bytes(),
+                result.failures(), directory, result.duration().toMillis());
+        lastRun = result;
+        return result;
+    }
+
+    public Optional<StatementBatchResult> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    // Written under a temporary name and renamed, so the directory only ever holds complete statements
+    private long write(Path directory, ClientDTO client, StatementFormat format) throws IOException {
+        Path target = directory.resolve("client-" + client.id() + "." + format.extension());
+        Path part = directory.resolve(target.getFileName() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+                statementGenerator.write(client, format, out);
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.sagar.insurance.statement;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// POST /actuator/clientstatements {"format": "csv"} writes every client's statement; JSON when no format is given
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "clientstatements")
+public class StatementBatchEndpoint {
+
+    private final StatementBatch statementBatch;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("lastRun", statementBatch.getLastRun().orElse(null));
+        return status;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> generate(@Nullable String format) throws IOException {
+        StatementFormat parsed = parse(format);
+        if (parsed == null) {
+            return new WebEndpointResponse<>(Map.of("message", "Unknown statement format: " + format), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(statementBatch.generateAll(parsed));
+    }
+
+    private static StatementFormat parse(String format) {
+        if (format == null) {
+            return StatementFormat.JSON;
+        }
+        return Arrays.stream(StatementFormat.values()).filter(value -> value.extension().equalsIgnoreCase(format)).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.insurance.statement;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record StatementBatchResult(
+        Instant startedAt,
+        String directory,
+        StatementFormat format,
+        long statements,
+        long failures,
+        long bytes,
+        Duration duration
+) {
+}
@@ -0,0 +1,182 @@
+package dev.sagar.insurance.statement;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+import dev.sagar.insurance.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Writes a client's statement from keyset pages of its policies and, per page of policies, of their claims, so memory
+// stays at one page of each however large the portfolio is. Every page is its own short read on the client's shard:
+// a slow reader never holds a connection, at the price of a statement not being a single snapshot.
+@Component
+public class StatementGenerator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Map<StatementFormat, Timer> timers = new EnumMap<>(StatementFormat.class);
+
+    public StatementGenerator(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ObjectMapper objectMapper,
+                              StatementProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.pageSize = properties.pageSize();
+        for (StatementFormat format : StatementFormat.values()) {
+            timers.put(format, Timer.builder("insurance.statements.generated").tag("format", format.extension()).register(meterRegistry));
+        }
+    }
+
+    // Clients in id order after afterId, for callers that walk every client
+    public List<ClientDTO> clients(int shard, long afterId) {
+        return shardRouter.readOnShard(shard,
+                () -> jdbcTemplate.query(StatementQueries.CLIENTS, StatementQueries.CLIENT_ROW, afterId, pageSize));
+    }
+
+    // Leaves the stream open; the caller owns it
+    public StatementTotals write(ClientDTO client, StatementFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        StatementTotals totals;
+        if (format == StatementFormat.JSON) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                totals = write(client, new JsonStatementWriter(generator));
+            }
+        } else {
+            totals = write(client, new CsvStatementWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))));
+        }
+        timers.get(format).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return totals;
+    }
+
+    StatementTotals write(ClientDTO client, StatementWriter writer) throws IOException {
+        Totals totals = new Totals();
+        writer.client(client);
+        long afterPolicyId = 0;
+        while (true) {
+            long cursor = afterPolicyId;
+            List<PolicyDTO> policies = onClientShard(client.id(),
+                    () -> jdbcTemplate.query(StatementQueries.POLICIES, StatementQueries.POLICY_ROW, client.id(), cursor, pageSize));
+            if (policies.isEmpty()) {
+                break;
+            }
+            ClaimPages claims = new ClaimPages(client.id(), policies);
+            for (PolicyDTO policy : policies) {
+                writer.policy(policy);
+                totals.add(policy);
+                for (ClaimDTO claim = claims.nextOf(policy.id()); claim != null; claim = claims.nextOf(policy.id())) {
+                    writer.claim(claim);
+                    totals.add(claim);
+                }
+            }
+            if (policies.size() < pageSize) {
+                break;
+            }
+            afterPolicyId = policies.getLast().id();
+        }
+        StatementTotals result = totals.toRecord();
+        writer.totals(result);
+        return result;
+    }
+
+    // Looked up per page, so a statement follows its client if the client's bucket moves to another shard meanwhile
+    private <T> T onClientShard(Long clientId, Supplier<T> query) {
+        return shardRouter.readOnShard(shardRouter.shardOf(clientId), query);
+    }
+
+    // Claims of one page of policies, fetched a page at a time in (policy_id, id) order as the policies are written
+    private final class ClaimPages {
+
+        private final Long clientId;
+        private final String sql;
+        private final Object[] arguments;
+        private List<ClaimDTO> page = List.of();
+        private int position;
+        private boolean exhausted;
+
+        ClaimPages(Long clientId, List<PolicyDTO> policies) {
+            this.clientId = clientId;
+            this.sql = StatementQueries.claims(policies.size());
+            List<Object> arguments = new ArrayList<>(policies.size() + 4);
+            policies.forEach(policy -> arguments.add(policy.id()));
+            arguments.addAll(List.of(0L, 0L, 0L, pageSize));
+            this.arguments = arguments.toArray();
+        }
+
+        // The next claim if it belongs to policyId; claims are ordered by policy, so anything else belongs to a later one
+        ClaimDTO nextOf(Long policyId) {
+            if (position == page.size() && !exhausted) {
+                fetch();
+            }
+            if (position == page.size() || !page.get(position).policyId().equals(policyId)) {
+                return null;
+            }
+            return page.get(position++);
+        }
+
+        private void fetch() {
+            if (!page.isEmpty()) {
+                ClaimDTO last = page.getLast();
+                int cursor = arguments.length - 4;
+                arguments[cursor] = last.policyId();
+                arguments[cursor + 1] = last.policyId();
+                arguments[cursor + 2] = last.id();
+            }
+            page = onClientShard(clientId, () -> jdbcTemplate.query(sql, StatementQueries.CLAIM_ROW, arguments));
+            position = 0;
+            exhausted = page.size() < pageSize;
+        }
+    }
+
+    private static final class Totals {
+
+        private long policies;
+        private BigDecimal coverageAmount = BigDecimal.ZERO;
+        private BigDecimal premium = BigDecimal.ZERO;
+        private long claims;
+        private BigDecimal claimedAmount = BigDecimal.ZERO;
+        private BigDecimal reservedAmount = BigDecimal.ZERO;
+        private BigDecimal paidAmount = BigDecimal.ZERO;
+
+        void add(PolicyDTO policy) {
+            policies++;
+            coverageAmount = plus(coverageAmount, policy.coverageAmount());
+            premium = plus(premium, policy.premium());
+        }
+
+        void add(ClaimDTO claim) {
+            claims++;
+            claimedAmount = plus(claimedAmount, claim.claimedAmount());
+            reservedAmount = plus(reservedAmount, claim.reservedAmount());
+            paidAmount = plus(paidAmount, claim.paidAmount());
+        }
+
+        StatementTotals toRecord() {
+            return new StatementTotals(policies, coverageAmount, premium, claims, claimedAmount, reservedAmount, paidAmount);
+        }
+
+        private static BigDecimal plus(BigDecimal total, BigDecimal amount) {
+            return amount == null ? total : total.add(amount);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.sagar.insurance.statement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "insurance.statements")
+public record StatementProperties(
+
+        // Policies or claims read per query; a statement holds one page of each, whatever the portfolio size
+        @DefaultValue("500")
+        int pageSize,
+
+        // Batch runs write to a new timestamped directory under this one
+        @DefaultValue("data/statements")
+        Path directory,
+
+        // Statements written at once by a batch run; 0 means one per processor
+        @DefaultValue("0")
+        int threads
+) {
+
+    public int effectiveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,63 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimStatus;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+// Keyset pages over the client primary key and the idx_policy_client_id and idx_claim_policy_id indexes. Rows map straight to the API records.
+final class StatementQueries {
+
+    static final String CLIENTS =
+            "SELECT id, name, date_of_birth, address, contact_information FROM client WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Ordered by the whole index key: with ORDER BY id alone H2 sorts every remaining policy of the client for each page
+    static final String POLICIES =
+            "SELECT id, policy_number, type, coverage_amount, premium, start_date, end_date, client_id FROM policy "
+                    + "WHERE client_id = ? AND id > ? ORDER BY client_id, id LIMIT ?";
+
+    static final RowMapper<ClientDTO> CLIENT_ROW = (resultSet, rowNum) -> new ClientDTO(
+            resultSet.getLong("id"),
+            resultSet.getString("name"),
+            resultSet.getObject("date_of_birth", LocalDate.class),
+            resultSet.getString("address"),
+            resultSet.getString("contact_information")
+    );
+
+    static final RowMapper<PolicyDTO> POLICY_ROW = (resultSet, rowNum) -> new PolicyDTO(
+            resultSet.getLong("id"),
+            resultSet.getString("policy_number"),
+            resultSet.getString("type"),
+            resultSet.getBigDecimal("coverage_amount"),
+            resultSet.getBigDecimal("premium"),
+            resultSet.getObject("start_date", LocalDate.class),
+            resultSet.getObject("end_date", LocalDate.class),
+            resultSet.getLong("client_id")
+    );
+
+    static final RowMapper<ClaimDTO> CLAIM_ROW = (resultSet, rowNum) -> new ClaimDTO(
+            resultSet.getLong("id"),
+            resultSet.getString("claim_number"),
+            resultSet.getString("description"),
+            resultSet.getObject("claim_date", LocalDate.class),
+            resultSet.getString("status") == null ? null : ClaimStatus.valueOf(resultSet.getString("status")),
+            resultSet.getBigDecimal("claimed_amount"),
+            resultSet.getBigDecimal("reserved_amount"),
+            resultSet.getBigDecimal("paid_amount"),
+            resultSet.getLong("policy_id")
+    );
+
+    // Claims of a page of policies, in (policy_id, id) order, after the (policy_id, id) cursor
+    static String claims(int policies) {
+        return "SELECT id, claim_number, description, claim_date, status, claimed_amount, reserved_amount, paid_amount, policy_id "
+                + "FROM claim WHERE policy_id IN (" + String.join(",", Collections.nCopies(policies, "?")) + ") "
+                + "AND (policy_id > ? OR (policy_id = ? AND id > ?)) ORDER BY policy_id, id LIMIT ?";
+    }
+
+    private StatementQueries() {
+    }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.insurance.statement;
+
+import java.math.BigDecimal;
+
+// Sums over the whole statement, accumulated while it is written
+public record StatementTotals(
+        long policies,
+        BigDecimal coverageAmount,
+        BigDecimal premium,
+        long claims,
+        BigDecimal claimedAmount,
+        BigDecimal reservedAmount,
+        BigDecimal paidAmount
+) {
+}
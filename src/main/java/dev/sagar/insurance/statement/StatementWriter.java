@@ -0,0 +1,20 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.policy.PolicyDTO;
+
+import java.io.IOException;
+
+// Receives a statement in order: the client, then each policy followed by its claims, then the totals. Nothing is
+// kept between calls beyond what the format needs to close its structure.
+interface StatementWriter {
+
+    void client(ClientDTO client) throws IOException;
+
+    void policy(PolicyDTO policy) throws IOException;
+
+    void claim(ClaimDTO claim) throws IOException;
+
+    void totals(StatementTotals totals) throws IOException;
+}
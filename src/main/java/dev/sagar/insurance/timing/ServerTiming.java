@@ -0,0 +1,104 @@
+package dev.sagar.insurance.timing;
+
+import java.util.Locale;
+
+// Request-scoped collector bound to the handling thread. Durations are inclusive, so the service phase
+// also contains the mapper and repository time it triggered; nested calls within one phase count once.
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] durations = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private final int[] depths = new int[PHASES.length];
+    private long bindingStartNanos = -1;
+    private long serializationStartNanos = -1;
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    // Rebinds a request's timing on the thread that handles its async dispatch
+    static void resume(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // Returns 0 for nested calls so only the outermost one is recorded
+    public long enter(TimingPhase phase) {
+        return depths[phase.ordinal()]++ == 0 ? System.nanoTime() : 0;
+    }
+
+    public void exit(TimingPhase phase, long startNanos) {
+        depths[phase.ordinal()]--;
+        if (startNanos != 0) {
+            record(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public void record(TimingPhase phase, long nanos) {
+        durations[phase.ordinal()] += nanos;
+        counts[phase.ordinal()]++;
+    }
+
+    void markHandlerStart() {
+        bindingStartNanos = System.nanoTime();
+    }
+
+    void markControllerStart() {
+        if (bindingStartNanos > 0 && counts[TimingPhase.BINDING.ordinal()] == 0) {
+            record(TimingPhase.BINDING, System.nanoTime() - bindingStartNanos);
+        }
+    }
+
+    void markSerializationStart() {
+        serializationStartNanos = System.nanoTime();
+    }
+
+    void finish() {
+        long now = System.nanoTime();
+        if (serializationStartNanos > 0) {
+            record(TimingPhase.SERIALIZATION, now - serializationStartNanos);
+        }
+        record(TimingPhase.TOTAL, now - startNanos);
+    }
+
+    public long getDurationNanos(TimingPhase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    public int getCount(TimingPhase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        for (TimingPhase phase : PHASES) {
+            if (counts[phase.ordinal()] == 0) {
+                continue;
+            }
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            header.append(phase.getMetricName())
+                    .append(";dur=").append(String.format(Locale.ROOT, "%.3f", durations[phase.ordinal()] / 1_000_000.0))
+                    .append(";desc=\"").append(phase.getDescription());
+            if (counts[phase.ordinal()] > 1) {
+                header.append(" x").append(counts[phase.ordinal()]);
+            }
+            header.append('"');
+        }
+        return header.toString();
+    }
+}
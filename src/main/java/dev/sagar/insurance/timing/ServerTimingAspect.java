@@ -0,0 +1,49 @@
+package dev.sagar.insurance.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "insurance.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.markControllerStart();
+        }
+        return time(joinPoint, timing, TimingPhase.CONTROLLER);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.current(), TimingPhase.SERVICE);
+    }
+
+    @Around("within(dev.sagar.insurance..*Mapper)")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.current(), TimingPhase.MAPPER);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.current(), TimingPhase.REPOSITORY);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, ServerTiming timing, TimingPhase phase) throws Throwable {
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        long start = timing.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(phase, start);
+        }
+    }
+}
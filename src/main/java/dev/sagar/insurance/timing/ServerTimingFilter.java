@@ -0,0 +1,84 @@
+package dev.sagar.insurance.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "insurance.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String TIMED_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timed";
+
+    private final ServerTimingProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Async handlers write after the first dispatch returns; the dispatch that completes them copies the body
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Timed timed = isAsyncDispatch(request) ? (Timed) request.getAttribute(TIMED_ATTRIBUTE) : null;
+        if (timed == null) {
+            if (isAsyncDispatch(request) || !isTimed(request)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // The header has to precede the body, so timed responses are buffered until serialization is measured
+            timed = new Timed(ServerTiming.start(), new ContentCachingResponseWrapper(response));
+        } else {
+            ServerTiming.resume(timed.timing());
+        }
+
+        try {
+            filterChain.doFilter(request, timed.wrapper());
+        } finally {
+            ServerTiming.clear();
+            if (request.isAsyncStarted()) {
+                request.setAttribute(TIMED_ATTRIBUTE, timed);
+            } else {
+                request.removeAttribute(TIMED_ATTRIBUTE);
+                timed.timing().finish();
+                timed.wrapper().setHeader(SERVER_TIMING_HEADER, timed.timing().toHeaderValue());
+                timed.wrapper().copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isTimed(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        if (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return false;
+        }
+        String path = request.getRequestURI();
+        if (properties.excludedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return false;
+        }
+        String toggle = request.getHeader(properties.requestHeader());
+        if (toggle != null) {
+            return "true".equalsIgnoreCase(toggle) || "1".equals(toggle);
+        }
+        return properties.sampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.sampleRate();
+    }
+
+    private record Timed(ServerTiming timing, ContentCachingResponseWrapper wrapper) {
+    }
+}
@@ -0,0 +1,27 @@
+package dev.sagar.insurance.timing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "insurance.server-timing")
+public record ServerTimingProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        // Fraction of requests timed without being asked to, between 0.0 and 1.0
+        @DefaultValue("0.0")
+        double sampleRate,
+
+        // Requests sending this header with value "true" or "1" are always timed
+        @DefaultValue("X-Server-Timing")
+        String requestHeader,
+
+        // Ant-style paths never timed, because timing buffers the whole response body, streams included
+        @DefaultValue({"/api/claims/*/attachments/**", "/api/clients/*/statement*", "/api/reactive/**",
+                "/api/claims/stream"})
+        List<String> excludedPaths
+) {
+}
@@ -0,0 +1,29 @@
+package dev.sagar.insurance.timing;
+
+public enum TimingPhase {
+
+    BINDING("binding", "Request binding and validation"),
+    CONTROLLER("controller", "Controller"),
+    SERVICE("service", "Service"),
+    MAPPER("mapper", "Mapper"),
+    REPOSITORY("repository", "Repository"),
+    JDBC("jdbc", "JDBC statements"),
+    SERIALIZATION("serialization", "Response serialization"),
+    TOTAL("total", "Total");
+
+    private final String metricName;
+    private final String description;
+
+    TimingPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.sagar.insurance.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Defers work until the surrounding transaction commits, so in-memory state and listeners never see a write that is
+// later rolled back. Outside a transaction the action runs right away. All actions of one transaction share a single
+// synchronization and run in the order they were staged.
+public final class AfterCommit {
+
+    private static final Object PENDING_KEY = new Object();
+
+    private AfterCommit() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Runnable> actions = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, actions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Indexed so an action may stage another one while the list runs
+                    for (int i = 0; i < actions.size(); i++) {
+                        actions.get(i).run();
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = actions;
+        }
+        pending.add(action);
+    }
+}
@@ -0,0 +1,84 @@
+package dev.sagar.insurance.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionLimiters limiters;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AdmissionProperties properties = new AdmissionProperties(true, Duration.ofSeconds(2), 1.5, 0.2,
+                Map.of(LimitGroup.HEAVY, new AdmissionProperties.GroupLimits(1, 1, 1)));
+        limiters = new AdmissionLimiters(properties, meterRegistry);
+        filter = new AdmissionControlFilter(limiters, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void doFilter_shouldRejectWithRetryAfterWhenGroupIsFull() throws Exception {
+        assertTrue(limiters.get(LimitGroup.HEAVY).tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/policies"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"error\":\"Service Unavailable\""));
+        assertEquals(1.0, meterRegistry.get("insurance.admission.rejected").tag("group", "heavy").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldReleasePermitAfterRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/policies"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiters.get(LimitGroup.HEAVY).getInflight());
+    }
+
+    @Test
+    void doFilter_shouldLimitWritesThatAskForEventStream() throws Exception {
+        GradientLimiter writes = limiters.get(LimitGroup.WRITE);
+        for (int i = writes.getLimit(); i > 0; i--) {
+            assertTrue(writes.tryAcquire());
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/claims");
+        request.addHeader("Accept", "text/event-stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void doFilter_shouldReleaseStreamingPermitOnceAsyncStarts() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reactive/claims");
+        request.setAsyncSupported(true);
+        GradientLimiter limiter = limiters.get(LimitGroup.HEAVY);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, limiter.getInflight());
+        // The slot is free for the next request while the stream is still open
+        assertTrue(limiter.tryAcquire());
+    }
+}
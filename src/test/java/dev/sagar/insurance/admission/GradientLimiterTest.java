@@ -0,0 +1,71 @@
+package dev.sagar.insurance.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimiterTest {
+
+    @Test
+    void tryAcquire_shouldRejectOnceLimitIsReached() {
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+
+        limiter.release(1_000_000);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_shouldShrinkLimitWhenLatencyRises() {
+        GradientLimiter limiter = new GradientLimiter(20, 2, 100, 1.5, 0.5);
+        saturate(limiter, 200, 1_000_000);
+        int baseline = limiter.getLimit();
+
+        saturate(limiter, 200, 20_000_000);
+
+        assertTrue(limiter.getLimit() < baseline, "limit should drop below " + baseline + " but was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void release_shouldGrowLimitWhileLatencyIsStable() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 1.5, 0.5);
+
+        saturate(limiter, 300, 1_000_000);
+
+        assertTrue(limiter.getLimit() > 10);
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    void release_shouldNotGrowLimitWhenApplicationLimited() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 1.5, 0.5);
+
+        for (int i = 0; i < 300; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    // Fills the limiter to its current limit before each release, as a saturated server would
+    private void saturate(GradientLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire()) {
+                // fill up to the current limit
+            }
+            limiter.release(rttNanos);
+        }
+        while (limiter.getInflight() > 0) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.sagar.insurance.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LimitGroupTest {
+
+    @Test
+    void classify_shouldSeparateReadsWritesAndHeavyRequests() {
+        assertEquals(LimitGroup.READ, LimitGroup.classify(new MockHttpServletRequest("GET", "/api/claims/42")));
+        assertEquals(LimitGroup.HEAVY, LimitGroup.classify(new MockHttpServletRequest("GET", "/api/claims")));
+        assertEquals(LimitGroup.WRITE, LimitGroup.classify(new MockHttpServletRequest("POST", "/api/claims")));
+        assertEquals(LimitGroup.WRITE, LimitGroup.classify(new MockHttpServletRequest("DELETE", "/api/claims/42")));
+    }
+
+    @Test
+    void classify_shouldExemptOnlyTheEventStreamAndNonApiPaths() {
+        assertNull(LimitGroup.classify(new MockHttpServletRequest("GET", "/api/claims/stream")));
+        assertNull(LimitGroup.classify(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertEquals(LimitGroup.WRITE, LimitGroup.classify(new MockHttpServletRequest("POST", "/api/claims/stream")));
+    }
+
+    @Test
+    void classify_shouldIgnoreEventStreamAcceptHeader() {
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/claims");
+        write.addHeader("Accept", "text/event-stream");
+        MockHttpServletRequest list = new MockHttpServletRequest("GET", "/api/claims");
+        list.addHeader("Accept", "text/event-stream");
+
+        assertEquals(LimitGroup.WRITE, LimitGroup.classify(write));
+        assertEquals(LimitGroup.HEAVY, LimitGroup.classify(list));
+    }
+}
@@ -0,0 +1,91 @@
+package dev.sagar.insurance.analytics;
+
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PortfolioAnalytics analytics;
+
+    @InjectMocks
+    private AnalyticsController analyticsController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(analyticsController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void aggregatePolicies_shouldPassGroupByAndFilters() throws Exception {
+        AnalyticsResult result = new AnalyticsResult(LocalDate.of(2024, 6, 1), Instant.parse("2024-06-01T12:00:00Z"), 10, 4,
+                List.of(new AnalyticsResult.Group(Map.of("type", "AUTO"), 4, new BigDecimal("40000.00"),
+                        new BigDecimal("2000.00"), new BigDecimal("10000.00"), new BigDecimal("500.00"))), 120);
+        when(analytics.query(any(AnalyticsQuery.class))).thenReturn(Optional.of(result));
+
+        mockMvc.perform(get("/api/analytics/policies")
+                        .param("groupBy", "type")
+                        .param("ageBand", "25-34,35-44")
+                        .param("activeOn", "2024-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(4))
+                .andExpect(jsonPath("$.groups[0].key.type").value("AUTO"))
+                .andExpect(jsonPath("$.groups[0].totalPremium").value(2000.00));
+
+        ArgumentCaptor<AnalyticsQuery> query = ArgumentCaptor.forClass(AnalyticsQuery.class);
+        verify(analytics).query(query.capture());
+        assertEquals(List.of(Dimension.TYPE), query.getValue().groupBy());
+        assertEquals(Map.of(Dimension.AGE_BAND, Set.of("25-34", "35-44")), query.getValue().filters());
+        assertEquals(LocalDate.of(2024, 6, 1), query.getValue().activeOn());
+    }
+
+    @Test
+    void aggregatePolicies_shouldRejectUnknownDimension() throws Exception {
+        mockMvc.perform(get("/api/analytics/policies").param("groupBy", "colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown dimension 'colour'; allowed: [type, term, ageBand, startYear]"));
+
+        verifyNoInteractions(analytics);
+    }
+
+    @Test
+    void aggregatePolicies_shouldAnswerServiceUnavailableBeforeFirstSnapshot() throws Exception {
+        when(analytics.query(any(AnalyticsQuery.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/analytics/policies"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+}
@@ -0,0 +1,76 @@
+package dev.sagar.insurance.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main PortfolioAnalyticsBenchmark"
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PortfolioAnalyticsBenchmark {
+
+    private static final List<String> TYPES = List.of("AUTO", "HOME", "LIFE", "HEALTH", "TRAVEL");
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 1);
+
+    @Param({"3000000"})
+    private int policies;
+
+    private PolicySnapshot snapshot;
+    private AnalyticsQuery byType;
+    private AnalyticsQuery byTypeAndAgeBand;
+    private AnalyticsQuery filteredByTerm;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        PolicySnapshot.Builder builder = PolicySnapshot.builder(AS_OF);
+        for (int i = 0; i < policies; i++) {
+            LocalDate start = AS_OF.minusDays(random.nextInt(5 * 365));
+            builder.add(TYPES.get(random.nextInt(TYPES.size())), BigDecimal.valueOf(random.nextInt(1, 500) * 1000L),
+                    BigDecimal.valueOf(random.nextInt(10_000, 500_000), 2), start, start.plusMonths(random.nextInt(1, 37)),
+                    AS_OF.minusDays(random.nextInt(18 * 365, 90 * 365)));
+        }
+        snapshot = builder.build(Instant.now(), Duration.ZERO);
+        byType = new AnalyticsQuery(List.of(Dimension.TYPE), Map.of(), null);
+        byTypeAndAgeBand = new AnalyticsQuery(List.of(Dimension.TYPE, Dimension.AGE_BAND), Map.of(), AS_OF);
+        filteredByTerm = new AnalyticsQuery(List.of(Dimension.START_YEAR, Dimension.TERM),
+                Map.of(Dimension.TYPE, Set.of("AUTO", "HOME")), null);
+    }
+
+    @Benchmark
+    public AnalyticsResult groupByType() {
+        return PortfolioAnalytics.query(snapshot, byType, 65536);
+    }
+
+    @Benchmark
+    public AnalyticsResult groupByTypeAndAgeBandActive() {
+        return PortfolioAnalytics.query(snapshot, byTypeAndAgeBand, 65536);
+    }
+
+    @Benchmark
+    public AnalyticsResult filteredGroupByStartYearAndTerm() {
+        return PortfolioAnalytics.query(snapshot, filteredByTerm, 65536);
+    }
+}
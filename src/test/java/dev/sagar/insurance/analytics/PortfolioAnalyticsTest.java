@@ -0,0 +1,121 @@
+package dev.sagar.insurance.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioAnalyticsTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private PortfolioAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, date_of_birth DATE)");
+        jdbcTemplate.execute("CREATE TABLE policy (id BIGINT PRIMARY KEY, type VARCHAR(20), coverage_amount NUMERIC(38, 2),"
+                + " premium NUMERIC(38, 2), start_date DATE, end_date DATE, client_id BIGINT)");
+        // Client 1 is 30 on the snapshot date, client 2 turns 65 on it
+        jdbcTemplate.update("INSERT INTO client VALUES (1, DATE '1994-01-15'), (2, DATE '1959-06-01')");
+        jdbcTemplate.update("INSERT INTO policy VALUES"
+                + " (1, 'AUTO', 10000.00, 500.50, DATE '2024-01-01', DATE '2025-01-01', 1),"
+                + " (2, 'AUTO', 20000.00, 700.25, DATE '2023-01-01', DATE '2023-07-01', 2),"
+                + " (3, 'HOME', 300000.00, 1200.00, DATE '2022-03-01', DATE '2025-03-01', 2),"
+                + " (4, 'LIFE', 500000.00, 3000.00, DATE '2024-05-01', DATE '2025-05-01', 1)");
+
+        PolicySnapshotLoader loader = new PolicySnapshotLoader(List.of(dataSource), 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        // Chunks of one row exercise the merge of partial totals
+        analytics = new PortfolioAnalytics(loader, 1);
+    }
+
+    @Test
+    void query_shouldAnswerEmptyUntilFirstRefresh() {
+        assertTrue(analytics.query(new AnalyticsQuery(List.of(), Map.of(), null)).isEmpty());
+    }
+
+    @Test
+    void refresh_shouldEncodePoliciesIntoColumns() {
+        PolicySnapshot snapshot = analytics.refresh();
+
+        assertEquals(4, snapshot.size());
+        assertEquals(LocalDate.of(2024, 6, 1), snapshot.asOf());
+        assertEquals(List.of("AUTO", "HOME", "LIFE"), snapshot.labels(Dimension.TYPE));
+        assertEquals(List.of("2022", "2023", "2024"), snapshot.labels(Dimension.START_YEAR));
+        assertEquals(50050, snapshot.premium()[0]);
+    }
+
+    @Test
+    void query_shouldTotalWholePortfolioWithoutGroupBy() {
+        analytics.refresh();
+
+        AnalyticsResult result = analytics.query(new AnalyticsQuery(List.of(), Map.of(), null)).orElseThrow();
+
+        assertEquals(4, result.matched());
+        assertEquals(1, result.groups().size());
+        AnalyticsResult.Group total = result.groups().get(0);
+        assertEquals(Map.of(), total.key());
+        assertEquals(new BigDecimal("830000.00"), total.totalCoverage());
+        assertEquals(new BigDecimal("5400.75"), total.totalPremium());
+        assertEquals(new BigDecimal("1350.19"), total.averagePremium());
+    }
+
+    @Test
+    void query_shouldGroupByTypeAndAgeBand() {
+        analytics.refresh();
+
+        AnalyticsResult result = analytics.query(new AnalyticsQuery(List.of(Dimension.TYPE, Dimension.AGE_BAND), Map.of(), null))
+                .orElseThrow();
+
+        assertEquals(List.of(
+                Map.of("type", "AUTO", "ageBand", "25-34"),
+                Map.of("type", "AUTO", "ageBand", "65+"),
+                Map.of("type", "HOME", "ageBand", "65+"),
+                Map.of("type", "LIFE", "ageBand", "25-34")), result.groups().stream().map(AnalyticsResult.Group::key).toList());
+        assertEquals(new BigDecimal("700.25"), result.groups().get(1).totalPremium());
+    }
+
+    @Test
+    void query_shouldApplyFiltersAndActiveOn() {
+        analytics.refresh();
+
+        AnalyticsResult byTerm = analytics.query(new AnalyticsQuery(List.of(Dimension.TERM),
+                Map.of(Dimension.TYPE, Set.of("AUTO", "HOME")), null)).orElseThrow();
+        AnalyticsResult active = analytics.query(new AnalyticsQuery(List.of(Dimension.TYPE), Map.of(),
+                LocalDate.of(2024, 6, 1))).orElseThrow();
+
+        assertEquals(List.of(Map.of("term", "0-6m"), Map.of("term", "7-12m"), Map.of("term", "25m+")),
+                byTerm.groups().stream().map(AnalyticsResult.Group::key).toList());
+        assertEquals(3, active.matched());
+        assertEquals(List.of("AUTO", "HOME", "LIFE"), active.groups().stream().map(group -> group.key().get("type")).toList());
+    }
+
+    @Test
+    void query_shouldMatchNothingForUnseenTypeButRejectUnknownBand() {
+        analytics.refresh();
+
+        AnalyticsResult result = analytics.query(new AnalyticsQuery(List.of(), Map.of(Dimension.TYPE, Set.of("BOAT")), null))
+                .orElseThrow();
+
+        assertEquals(0, result.matched());
+        assertTrue(result.groups().isEmpty());
+        assertThrows(InvalidAnalyticsQueryException.class, () -> analytics.query(
+                new AnalyticsQuery(List.of(), Map.of(Dimension.AGE_BAND, Set.of("20-30")), null)));
+    }
+}
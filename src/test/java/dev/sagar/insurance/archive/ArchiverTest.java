@@ -0,0 +1,100 @@
+package dev.sagar.insurance.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ArchiverTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private Archiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:archiver;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        String policyColumns = "id BIGINT PRIMARY KEY, policy_number VARCHAR(20), type VARCHAR(20), coverage_amount NUMERIC(38, 2),"
+                + " premium NUMERIC(38, 2), start_date DATE, end_date DATE, client_id BIGINT,"
+                + " created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE";
+        String claimColumns = "id BIGINT PRIMARY KEY, claim_number VARCHAR(20), description VARCHAR(255), claim_date DATE,"
+                + " status VARCHAR(20), claimed_amount NUMERIC(38, 2), reserved_amount NUMERIC(38, 2), paid_amount NUMERIC(38, 2),"
+                + " policy_id BIGINT, created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE";
+        jdbcTemplate.execute("CREATE TABLE policy (" + policyColumns + ")");
+        jdbcTemplate.execute("CREATE TABLE claim (" + claimColumns + ", FOREIGN KEY (policy_id) REFERENCES policy (id))");
+        jdbcTemplate.execute("CREATE TABLE policy_archive (" + policyColumns + ", archived_at TIMESTAMP(6) WITH TIME ZONE)");
+        jdbcTemplate.execute("CREATE TABLE claim_archive (" + claimColumns + ", archived_at TIMESTAMP(6) WITH TIME ZONE)");
+
+        // Policy 1 expired two years ago, policy 2 expired last month, policy 3 is still running
+        insertPolicy(1, "2022-05-01");
+        insertPolicy(2, "2024-05-01");
+        insertPolicy(3, "2025-05-01");
+        // Claims 1-3 are old and final, 4 is old but still open, 5 is final but touched recently
+        insertClaim(1, 1, "CLOSED", "2022-06-01T00:00:00Z");
+        insertClaim(2, 1, "REJECTED", "2022-07-01T00:00:00Z");
+        insertClaim(3, 2, "CLOSED", "2023-01-01T00:00:00Z");
+        insertClaim(4, 3, "OPEN", "2022-01-01T00:00:00Z");
+        insertClaim(5, 3, "CLOSED", "2024-05-30T00:00:00Z");
+
+        ArchiveProperties properties = new ArchiveProperties(true, List.of("CLOSED", "REJECTED"), Duration.ofDays(365),
+                Duration.ofDays(365), 2, Duration.ofHours(1));
+        archiver = new Archiver(List.of(dataSource), properties, null, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void archive_shouldMoveEligibleRowsInBatches() {
+        ArchiveResult result = archiver.archive();
+
+        assertEquals(3, result.archivedClaims());
+        assertEquals(1, result.archivedPolicies());
+        assertEquals(3, result.batches());
+        assertEquals(List.of(4L, 5L), jdbcTemplate.queryForList("SELECT id FROM claim ORDER BY id", Long.class));
+        assertEquals(List.of(1L, 2L, 3L), jdbcTemplate.queryForList("SELECT id FROM claim_archive ORDER BY id", Long.class));
+        assertEquals(List.of(1L), jdbcTemplate.queryForList("SELECT id FROM policy_archive", Long.class));
+        assertEquals("REJECTED", jdbcTemplate.queryForObject("SELECT status FROM claim_archive WHERE id = 2", String.class));
+    }
+
+    @Test
+    void archive_shouldKeepPoliciesThatStillHaveHotClaims() {
+        jdbcTemplate.update("UPDATE policy SET end_date = DATE '2020-01-01' WHERE id = 3");
+
+        archiver.archive();
+
+        assertEquals(List.of(2L, 3L), jdbcTemplate.queryForList("SELECT id FROM policy ORDER BY id", Long.class));
+    }
+
+    @Test
+    void archive_shouldFindNothingLeftOnTheNextRun() {
+        archiver.archive();
+
+        ArchiveResult second = archiver.archive();
+
+        assertEquals(0, second.archivedClaims() + second.archivedPolicies());
+        assertEquals(Map.of("claim", 2L, "claim_archive", 3L, "policy", 2L, "policy_archive", 1L), archiver.tableSizes());
+        assertEquals(second, archiver.getLastRun().orElseThrow());
+    }
+
+    private void insertPolicy(long id, String endDate) {
+        jdbcTemplate.update("INSERT INTO policy (id, policy_number, type, start_date, end_date, client_id, created_at, updated_at)"
+                + " VALUES (?, ?, 'AUTO', DATE '2020-01-01', CAST(? AS DATE), 1, TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00Z',"
+                + " TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00Z')", id, "POL" + id, endDate);
+    }
+
+    private void insertClaim(long id, long policyId, String status, String updatedAt) {
+        jdbcTemplate.update("INSERT INTO claim (id, claim_number, description, claim_date, status, policy_id, created_at, updated_at)"
+                + " VALUES (?, ?, 'Hail damage', DATE '2021-01-01', ?, ?, CAST(? AS TIMESTAMP WITH TIME ZONE), CAST(? AS TIMESTAMP WITH TIME ZONE))",
+                id, "CLM" + id, status, policyId, updatedAt, updatedAt);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.sagar.insurance.attachment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttachmentStoreTest {
+
+    @TempDir
+    private Path root;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AttachmentStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new AttachmentStore(root, 1_000, 16, 100, meterRegistry);
+    }
+
+    @Test
+    void store_shouldAddressContentBySha256() throws Exception {
+        byte[] content = bytes(300);
+
+        AttachmentStore.StoredContent stored = store.store(new ByteArrayInputStream(content), null);
+
+        assertEquals(sha256(content), stored.sha256());
+        assertEquals(300, stored.size());
+        Path path = root.resolve(stored.sha256().substring(0, 2)).resolve(stored.sha256().substring(2, 4)).resolve(stored.sha256());
+        assertArrayEquals(content, Files.readAllBytes(path));
+        assertEquals(300.0, meterRegistry.get("insurance.attachments.bytes").tag("direction", "upload").counter().count());
+        assertEquals(1, meterRegistry.get("insurance.attachments.throughput").tag("direction", "upload").summary().count());
+    }
+
+    @Test
+    void store_shouldKeepOneCopyOfIdenticalUploads() throws Exception {
+        byte[] content = bytes(50);
+
+        AttachmentStore.StoredContent first = store.store(new ByteArrayInputStream(content), null);
+        AttachmentStore.StoredContent second = store.store(new ByteArrayInputStream(content), sha256(content).toUpperCase());
+
+        assertEquals(first, second);
+        assertEquals(1, files());
+    }
+
+    @Test
+    void store_shouldRejectChecksumMismatchWithoutKeepingTheFile() {
+        byte[] content = bytes(50);
+
+        assertThrows(ChecksumMismatchException.class, () -> store.store(new ByteArrayInputStream(content), sha256(bytes(51))));
+        assertEquals(0, files());
+    }
+
+    @Test
+    void store_shouldStopReadingPastMaxSize() {
+        assertThrows(AttachmentTooLargeException.class, () -> store.store(new ByteArrayInputStream(bytes(1_001)), null));
+        assertEquals(0, files());
+    }
+
+    @Test
+    void transfer_shouldCopyTheRequestedRange() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        String sha256 = store.store(new ByteArrayInputStream(content), null).sha256();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        store.transfer(sha256, 3, 4, Channels.newChannel(out));
+
+        assertEquals("3456", out.toString(StandardCharsets.US_ASCII));
+        assertEquals(4.0, meterRegistry.get("insurance.attachments.bytes").tag("direction", "download").counter().count());
+        // Below large-file-threshold, so not part of the throughput distribution
+        assertEquals(0, meterRegistry.get("insurance.attachments.throughput").tag("direction", "download").summary().count());
+    }
+
+    @Test
+    void digest_shouldDetectStoredBytesThatChanged() throws Exception {
+        byte[] content = bytes(200);
+        String sha256 = store.store(new ByteArrayInputStream(content), null).sha256();
+        assertEquals(sha256, store.digest(sha256));
+
+        Files.write(store.path(sha256), bytes(10));
+
+        assertEquals(sha256(bytes(10)), store.digest(sha256));
+    }
+
+    @Test
+    void path_shouldRejectAnythingButAHexDigest() {
+        assertThrows(IllegalArgumentException.class, () -> store.path("../../etc/passwd"));
+    }
+
+    private long files() {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,47 @@
+package dev.sagar.insurance.attachment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTest {
+
+    @Test
+    void parse_shouldReadClosedOpenAndSuffixRanges() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1_000));
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-", 1_000));
+        assertEquals(new ByteRange(800, 999), ByteRange.parse("bytes=-200", 1_000));
+    }
+
+    @Test
+    void parse_shouldClampRangesToTheRepresentation() {
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-5000", 1_000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1_000));
+    }
+
+    @Test
+    void parse_shouldServeWholeContentForMissingMultipleOrUnknownRanges() {
+        assertNull(ByteRange.parse(null, 1_000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1_000));
+        assertNull(ByteRange.parse("items=0-1", 1_000));
+        assertNull(ByteRange.parse("bytes=-", 1_000));
+        assertNull(ByteRange.parse("bytes=9-3", 1_000));
+    }
+
+    @Test
+    void parse_shouldRejectRangesOutsideTheRepresentation() {
+        assertThrows(ByteRange.NotSatisfiableException.class, () -> ByteRange.parse("bytes=1000-", 1_000));
+        assertThrows(ByteRange.NotSatisfiableException.class, () -> ByteRange.parse("bytes=-0", 1_000));
+        assertThrows(ByteRange.NotSatisfiableException.class, () -> ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void contentRange_shouldUseInclusiveEnd() {
+        ByteRange range = new ByteRange(10, 19);
+
+        assertEquals(10, range.length());
+        assertEquals("bytes 10-19/100", range.contentRange(100));
+    }
+}
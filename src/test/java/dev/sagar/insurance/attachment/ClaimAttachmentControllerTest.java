@@ -0,0 +1,212 @@
+package dev.sagar.insurance.attachment;
+
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimAttachmentControllerTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path root;
+
+    @Mock
+    private ClaimAttachmentService attachmentService;
+
+    private MockMvc mockMvc;
+    private AttachmentDTO attachment;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AttachmentStore store = new AttachmentStore(root, 1_000, 16, 100, new SimpleMeterRegistry());
+        String sha256 = store.store(new ByteArrayInputStream(CONTENT), null).sha256();
+        attachment = new AttachmentDTO(3L, 7L, "photo.jpg", "image/jpeg", CONTENT.length, sha256, Instant.parse("2024-05-01T12:00:00Z"));
+        AttachmentProperties properties = new AttachmentProperties(root, DataSize.ofBytes(1_000), DataSize.ofBytes(16),
+                DataSize.ofBytes(100), true);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ClaimAttachmentController(attachmentService, store, properties))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void upload_shouldStreamRawBodyWithDigest() throws Exception {
+        String digest = "sha-256=:" + Base64.getEncoder().encodeToString(HexFormat.of().parseHex(attachment.sha256())) + ":";
+        when(attachmentService.upload(eq(7L), eq("photo.jpg"), eq("image/jpeg"), any(InputStream.class), eq(attachment.sha256())))
+                .thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/7/attachments")
+                        .param("fileName", "photo.jpg")
+                        .header("Content-Digest", digest)
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .content(CONTENT))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3))
+                .andExpect(jsonPath("$.sha256").value(attachment.sha256()));
+    }
+
+    @Test
+    void upload_shouldAcceptMultipartFilePart() throws Exception {
+        when(attachmentService.upload(eq(7L), eq("photo.jpg"), eq("image/jpeg"), any(InputStream.class), isNull()))
+                .thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/claims/7/attachments")
+                        .part(new MockPart("file", "photo.jpg", CONTENT, MediaType.IMAGE_JPEG)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fileName").value("photo.jpg"));
+    }
+
+    @Test
+    void upload_shouldReturnUnprocessableEntityOnChecksumMismatch() throws Exception {
+        when(attachmentService.upload(eq(7L), isNull(), eq("application/pdf"), any(InputStream.class), isNull()))
+                .thenThrow(new ChecksumMismatchException("Attachment SHA-256 is abc, not def"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/7/attachments")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content(CONTENT))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Attachment SHA-256 is abc, not def"));
+    }
+
+    @Test
+    void upload_shouldReturnPayloadTooLarge() throws Exception {
+        when(attachmentService.upload(eq(7L), isNull(), eq("application/pdf"), any(InputStream.class), isNull()))
+                .thenThrow(new AttachmentTooLargeException("Attachment exceeds the limit of 1000 bytes"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/7/attachments")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content(CONTENT))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void upload_shouldRefuseFormBodies() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/7/attachments")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .content("a=b"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void getAttachments_shouldListClaimAttachments() throws Exception {
+        when(attachmentService.getAttachments(7L)).thenReturn(List.of(attachment));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fileName").value("photo.jpg"))
+                .andExpect(jsonPath("$[0].size").value(10));
+    }
+
+    @Test
+    void download_shouldSendWholeContent() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + attachment.sha256() + "\""))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void download_shouldSendRequestedRange() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void download_shouldIgnoreRangeWhenIfRangeIsStale() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content")
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void download_shouldRejectUnsatisfiableRange() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content").header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void download_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + attachment.sha256() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void download_shouldHandOffToSendfileWhenContainerSupportsIt() throws Exception {
+        when(attachmentService.getAttachment(7L, 3L)).thenReturn(attachment);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/3/content")
+                        .requestAttr(ClaimAttachmentController.SENDFILE_SUPPORT, Boolean.TRUE)
+                        .header(HttpHeaders.RANGE, "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 6))
+                .andExpect(content().bytes(new byte[0]))
+                .andExpect(result -> {
+                    assertEquals(4L, result.getRequest().getAttribute(ClaimAttachmentController.SENDFILE_START));
+                    assertEquals(10L, result.getRequest().getAttribute(ClaimAttachmentController.SENDFILE_END));
+                });
+    }
+
+    @Test
+    void download_shouldReturnNotFoundForUnknownAttachment() throws Exception {
+        when(attachmentService.getAttachment(7L, 4L)).thenThrow(new ResourceNotFoundException("Attachment not found with id: 4 on claim 7"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/7/attachments/4/content"))
+                .andExpect(status().isNotFound());
+        verify(attachmentService).getAttachment(7L, 4L);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.sagar.insurance.attachment;
+
+import dev.sagar.insurance.claim.ClaimService;
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimAttachmentServiceTest {
+
+    @TempDir
+    private Path root;
+
+    @Mock
+    private ClaimAttachmentRepository attachmentRepository;
+
+    @Mock
+    private ClaimService claimService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AttachmentStore store;
+    private ClaimAttachmentService attachmentService;
+
+    @BeforeEach
+    void setUp() {
+        store = new AttachmentStore(root, 1_000, 16, 100, new SimpleMeterRegistry());
+        attachmentService = new ClaimAttachmentService(attachmentRepository, claimService, store, ShardRouter.unsharded(),
+                transactionManager);
+    }
+
+    @Test
+    void upload_shouldStoreContentAndRecordItsDigest() throws Exception {
+        when(attachmentRepository.saveAndFlush(any(ClaimAttachment.class))).thenAnswer(invocation -> {
+            ClaimAttachment attachment = invocation.getArgument(0);
+            attachment.setCreatedAt(Instant.parse("2024-05-01T12:00:00Z"));
+            return attachment;
+        });
+
+        AttachmentDTO attachment = attachmentService.upload(7L, "notes.txt", null, content("hello"), null);
+
+        assertEquals(7L, attachment.claimId());
+        assertEquals("notes.txt", attachment.fileName());
+        assertEquals("application/octet-stream", attachment.contentType());
+        assertEquals(5, attachment.size());
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", attachment.sha256());
+        assertTrue(Files.exists(store.path(attachment.sha256())));
+    }
+
+    @Test
+    void upload_shouldNotReadContentForUnknownClaim() throws Exception {
+        when(claimService.getClaimById(99L)).thenThrow(new ResourceNotFoundException("Claim not found with id: 99"));
+        InputStream content = mock(InputStream.class);
+
+        assertThrows(ResourceNotFoundException.class, () -> attachmentService.upload(99L, "notes.txt", null, content, null));
+        verifyNoInteractions(content);
+        verify(attachmentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void verify_shouldReportMissingContentAsInvalid() throws Exception {
+        ClaimAttachment attachment = new ClaimAttachment();
+        attachment.setId(3L);
+        attachment.setClaimId(7L);
+        attachment.setSha256("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        when(attachmentRepository.findByIdAndClaimId(3L, 7L)).thenReturn(Optional.of(attachment));
+
+        AttachmentVerification verification = attachmentService.verify(7L, 3L);
+
+        assertFalse(verification.valid());
+        assertNull(verification.actualSha256());
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package dev.sagar.insurance.changes;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Instant UNTIL = NOW.minusSeconds(2);
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    private ChangeFeed changeFeed;
+    private final List<ChangeToken> upsertQueries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeedProperties properties = new ChangeFeedProperties(3, 10, Duration.ofSeconds(2));
+        changeFeed = new ChangeFeed(tombstoneRepository, ShardRouter.unsharded(), properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void read_shouldMergeUpsertsAndDeletesInChangeOrder() {
+        when(tombstoneRepository.findDeletedSince(eq("Claim"), eq(Instant.EPOCH), eq(0L), eq(UNTIL), any(Limit.class)))
+                .thenReturn(List.of(tombstone(5L, at(2))));
+
+        ChangePage<String> page = changeFeed.read(Claim.class, null, null,
+                query(Change.upsert(3L, at(1), "three"), Change.upsert(1L, at(3), "one")));
+
+        assertEquals(List.of(ChangeType.UPSERT, ChangeType.DELETE, ChangeType.UPSERT), page.changes().stream().map(Change::type).toList());
+        assertEquals(List.of(3L, 5L, 1L), page.changes().stream().map(Change::id).toList());
+        assertFalse(page.hasMore());
+        assertEquals(new ChangeToken(at(3), 1L), ChangeToken.decode(page.nextToken()));
+        assertEquals(List.of(ChangeToken.START), upsertQueries);
+    }
+
+    @Test
+    void read_shouldStopAtPageSizeAndResumeFromLastChange() {
+        when(tombstoneRepository.findDeletedSince(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        ChangePage<String> page = changeFeed.read(Claim.class, null, 2, query(
+                Change.upsert(1L, at(1), "a"), Change.upsert(2L, at(1), "b"), Change.upsert(3L, at(2), "c")));
+
+        assertEquals(2, page.changes().size());
+        assertTrue(page.hasMore());
+        assertEquals(new ChangeToken(at(1), 2L), ChangeToken.decode(page.nextToken()));
+    }
+
+    @Test
+    void read_shouldKeepTokenWhenNothingChanged() {
+        when(tombstoneRepository.findDeletedSince(any(), any(), any(), any(), any())).thenReturn(List.of());
+        String since = new ChangeToken(at(9), 7L).encode();
+
+        ChangePage<String> page = changeFeed.read(Claim.class, since, null, query());
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(since, page.nextToken());
+        assertEquals(List.of(new ChangeToken(at(9), 7L)), upsertQueries);
+    }
+
+    @SafeVarargs
+    private ChangeFeed.UpsertQuery<String> query(Change<String>... changes) {
+        return (after, until, limit) -> {
+            upsertQueries.add(after);
+            assertEquals(UNTIL, until);
+            return List.of(changes).subList(0, Math.min(changes.length, limit.max()));
+        };
+    }
+
+    private static Instant at(int second) {
+        return Instant.parse("2024-06-01T11:00:00Z").plusSeconds(second);
+    }
+
+    private static Tombstone tombstone(Long entityId, Instant deletedAt) {
+        Tombstone tombstone = new Tombstone();
+        tombstone.setEntityType("Claim");
+        tombstone.setEntityId(entityId);
+        tombstone.setDeletedAt(deletedAt);
+        return tombstone;
+    }
+}
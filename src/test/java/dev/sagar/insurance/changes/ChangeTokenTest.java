@@ -0,0 +1,31 @@
+package dev.sagar.insurance.changes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeTokenTest {
+
+    @Test
+    void encode_shouldRoundTripThroughDecode() {
+        ChangeToken token = new ChangeToken(Instant.parse("2024-03-01T10:15:30.123456Z"), 42);
+
+        assertEquals(token, ChangeToken.decode(token.encode()));
+    }
+
+    @Test
+    void decode_shouldStartFromTheBeginningWithoutToken() {
+        assertEquals(ChangeToken.START, ChangeToken.decode(null));
+        assertEquals(ChangeToken.START, ChangeToken.decode(""));
+    }
+
+    @Test
+    void decode_shouldRejectForeignTokens() {
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.decode("not a token"));
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.decode("bm8tY29tbWE"));
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.decode("eWVzdGVyZGF5LDE"));
+    }
+}
@@ -0,0 +1,138 @@
+package dev.sagar.insurance.claim;
+
+import dev.sagar.insurance.claim.ClaimBulkTransitionResult.Result;
+import dev.sagar.insurance.coalescing.RequestCoalescer;
+import dev.sagar.insurance.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimBulkTransitionerTest {
+
+    @Mock
+    private ClaimRepository claimRepository;
+
+    @Mock
+    private ClaimStatusPublisher claimStatusPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<RequestCoalescer> requestCoalescer;
+
+    private ClaimBulkTransitioner transitioner;
+
+    @BeforeEach
+    void setUp() {
+        transitioner = new ClaimBulkTransitioner(claimRepository, claimStatusPublisher, ShardRouter.unsharded(),
+                transactionManager, new ClaimBulkProperties(2), requestCoalescer);
+    }
+
+    @Test
+    void transition_shouldUpdateEachChunkPerSourceStatus() {
+        when(claimRepository.lockStatusViews(List.of(1L, 2L))).thenReturn(List.of(view(1L, ClaimStatus.APPROVED), view(2L, ClaimStatus.PAID)));
+        when(claimRepository.lockStatusViews(List.of(3L, 4L))).thenReturn(List.of(view(3L, ClaimStatus.APPROVED), view(4L, ClaimStatus.APPROVED)));
+
+        ClaimBulkTransitionResult result = transitioner.transition(
+                new ClaimBulkTransitionDTO(List.of(1L, 2L, 3L, 4L, 3L), null, null, ClaimStatus.CLOSED));
+
+        assertEquals(4, result.transitioned());
+        assertEquals(2, result.chunks());
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.outcomes().stream().map(ClaimBulkTransitionResult.Outcome::claimId).toList());
+        verify(claimRepository).transitionAll(eq(List.of(1L)), eq(ClaimStatus.APPROVED), eq(ClaimStatus.CLOSED), any());
+        verify(claimRepository).transitionAll(eq(List.of(2L)), eq(ClaimStatus.PAID), eq(ClaimStatus.CLOSED), any());
+        verify(claimRepository).transitionAll(eq(List.of(3L, 4L)), eq(ClaimStatus.APPROVED), eq(ClaimStatus.CLOSED), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void transition_shouldReportPerClaimOutcomes() {
+        when(claimRepository.lockStatusViews(List.of(1L, 2L))).thenReturn(List.of(view(1L, ClaimStatus.OPEN), view(2L, ClaimStatus.UNDER_REVIEW)));
+        when(claimRepository.lockStatusViews(List.of(3L, 4L))).thenReturn(List.of(view(3L, ClaimStatus.CLOSED)));
+
+        ClaimBulkTransitionResult result = transitioner.transition(
+                new ClaimBulkTransitionDTO(List.of(1L, 2L, 3L, 4L), null, null, ClaimStatus.UNDER_REVIEW));
+
+        assertEquals(List.of(Result.TRANSITIONED, Result.UNCHANGED, Result.CONFLICT, Result.NOT_FOUND),
+                result.outcomes().stream().map(ClaimBulkTransitionResult.Outcome::result).toList());
+        assertEquals("Claim 3 cannot move from CLOSED to UNDER_REVIEW", result.outcomes().get(2).message());
+        assertNull(result.outcomes().get(3).status());
+        verify(claimRepository).transitionAll(eq(List.of(1L)), eq(ClaimStatus.OPEN), eq(ClaimStatus.UNDER_REVIEW), any());
+        verify(claimRepository, never()).transitionAll(eq(List.of(3L, 4L)), any(), any(), any());
+    }
+
+    @Test
+    void transition_shouldTreatClaimsOutsideTheExpectedStatusAsConflicts() {
+        when(claimRepository.lockStatusViews(List.of(1L, 2L))).thenReturn(List.of(view(1L, ClaimStatus.APPROVED), view(2L, ClaimStatus.UNDER_REVIEW)));
+
+        ClaimBulkTransitionResult result = transitioner.transition(
+                new ClaimBulkTransitionDTO(List.of(1L, 2L), null, ClaimStatus.UNDER_REVIEW, ClaimStatus.APPROVED));
+
+        assertEquals(List.of(Result.CONFLICT, Result.TRANSITIONED), result.outcomes().stream().map(ClaimBulkTransitionResult.Outcome::result).toList());
+        assertEquals("Claim 1 is APPROVED, not UNDER_REVIEW", result.outcomes().getFirst().message());
+        verify(claimRepository).transitionAll(eq(List.of(2L)), eq(ClaimStatus.UNDER_REVIEW), eq(ClaimStatus.APPROVED), any());
+    }
+
+    @Test
+    void transition_shouldWalkFilterMatchesInKeysetPages() {
+        LocalDate before = LocalDate.of(2024, 1, 1);
+        when(claimRepository.findIdsMatching(0L, ClaimStatus.PAID, null, before, Limit.of(2))).thenReturn(List.of(5L, 9L));
+        when(claimRepository.findIdsMatching(9L, ClaimStatus.PAID, null, before, Limit.of(2))).thenReturn(List.of(12L));
+        when(claimRepository.findIdsMatching(12L, ClaimStatus.PAID, null, before, Limit.of(2))).thenReturn(List.of());
+        when(claimRepository.lockStatusViews(List.of(5L, 9L))).thenReturn(List.of(view(5L, ClaimStatus.PAID), view(9L, ClaimStatus.PAID)));
+        // Closed by someone else after the filter matched it
+        when(claimRepository.lockStatusViews(List.of(12L))).thenReturn(List.of(view(12L, ClaimStatus.CLOSED)));
+
+        ClaimBulkTransitionResult result = transitioner.transition(new ClaimBulkTransitionDTO(
+                null, new ClaimBulkTransitionDTO.Filter(ClaimStatus.PAID, null, before), null, ClaimStatus.CLOSED));
+
+        assertEquals(2, result.transitioned());
+        assertEquals(1, result.conflicts());
+        assertEquals(2, result.chunks());
+        assertFalse(result.truncated());
+        verify(claimRepository).transitionAll(eq(List.of(5L, 9L)), eq(ClaimStatus.PAID), eq(ClaimStatus.CLOSED), any());
+        verify(claimRepository, never()).transitionAll(eq(List.of(12L)), any(), any(), any());
+    }
+
+    @Test
+    void transition_shouldPublishEventsAfterTheChunkCommits() {
+        when(claimStatusPublisher.getSubscriberCount()).thenReturn(1);
+        when(claimRepository.lockStatusViews(List.of(1L))).thenReturn(List.of(view(1L, ClaimStatus.APPROVED)));
+
+        transitioner.transition(new ClaimBulkTransitionDTO(List.of(1L), null, null, ClaimStatus.PAID));
+
+        InOrder order = inOrder(claimRepository, transactionManager, claimStatusPublisher);
+        order.verify(claimRepository).transitionAll(anyCollection(), eq(ClaimStatus.APPROVED), eq(ClaimStatus.PAID), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(claimStatusPublisher).publish(argThat(event ->
+                event.claimId().equals(1L) && event.previousStatus() == ClaimStatus.APPROVED && event.status() == ClaimStatus.PAID));
+    }
+
+    private static ClaimStatusView view(Long id, ClaimStatus status) {
+        return new ClaimStatusView(id, 100L, "CLM" + id, status);
+    }
+}
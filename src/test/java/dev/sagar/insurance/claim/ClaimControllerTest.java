@@ -1,7 +1,11 @@
 package dev.sagar.insurance.claim;
 
+import dev.sagar.insurance.changes.Change;
+import dev.sagar.insurance.changes.ChangePage;
 import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import dev.sagar.insurance.exception.ConflictException;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.InvalidFieldsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,21 +13,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +46,15 @@ class ClaimControllerTest {
     @Mock
     private ClaimService claimService;
 
+    @Mock
+    private ClaimStatusPublisher claimStatusPublisher;
+
+    @Mock
+    private ClaimBulkTransitioner claimBulkTransitioner;
+
+    @Mock
+    private ObjectProvider<ClaimGroupCommitter> claimGroupCommitter;
+
     @InjectMocks
     private ClaimController claimController;
 
@@ -42,8 +63,8 @@ class ClaimControllerTest {
 
     @BeforeEach
     void setUp() {
-        claimDTO1 = new ClaimDTO(1L, "CLM123", "Description 1", LocalDate.of(2023, 1, 1), "OPEN", 101L);
-        claimDTO2 = new ClaimDTO(2L, "CLM456", "Description 2", LocalDate.of(2023, 5, 1), "CLOSED", 102L);
+        claimDTO1 = new ClaimDTO(1L, "CLM123", "Description 1", LocalDate.of(2023, 1, 1), ClaimStatus.OPEN, new BigDecimal("1500.00"), new BigDecimal("1200.00"), BigDecimal.ZERO, 101L);
+        claimDTO2 = new ClaimDTO(2L, "CLM456", "Description 2", LocalDate.of(2023, 5, 1), ClaimStatus.CLOSED, new BigDecimal("800.00"), BigDecimal.ZERO, new BigDecimal("750.00"), 102L);
         mockMvc = MockMvcBuilders
                 .standaloneSetup(claimController)
                 .setControllerAdvice(new GlobalExceptionHandler())
@@ -102,6 +123,78 @@ class ClaimControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void getAllClaims_withFields_shouldReturnOnlySelectedFields() throws Exception {
+        when(claimService.getAllClaims("claimNumber,status")).thenReturn(List.of(Map.of("claimNumber", "CLM123", "status", "OPEN")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims")
+                        .param("fields", "claimNumber,status")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].claimNumber").value("CLM123"))
+                .andExpect(jsonPath("$[0].status").value("OPEN"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    void getClaimById_withUnknownField_shouldReturnBadRequest() throws Exception {
+        when(claimService.getClaimById(1L, "id,amount")).thenThrow(new InvalidFieldsException("Unknown claim field(s) [amount]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/1")
+                        .param("fields", "id,amount")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown claim field(s) [amount]"))
+                .andDo(print());
+    }
+
+    @Test
+    void getClaimChanges_shouldReturnPageWithResumeToken() throws Exception {
+        Instant changedAt = Instant.parse("2024-01-02T03:04:05Z");
+        ChangePage<ClaimDTO> page = new ChangePage<>(List.of(Change.upsert(1L, changedAt, claimDTO1), Change.delete(2L, changedAt)), "next", false);
+        when(claimService.getClaimChanges("token", 100)).thenReturn(page);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/changes")
+                        .param("since", "token")
+                        .param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("UPSERT"))
+                .andExpect(jsonPath("$.changes[0].data.claimNumber").value("CLM123"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETE"))
+                .andExpect(jsonPath("$.changes[1].data").doesNotExist())
+                .andExpect(jsonPath("$.nextToken").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andDo(print());
+    }
+
+    @Test
+    void streamClaimStatus_shouldSubscribeWithFilters() throws Exception {
+        when(claimStatusPublisher.subscribe(1L, null, ClaimStatus.CLOSED)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/stream")
+                        .param("claimId", "1")
+                        .param("status", "CLOSED")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andDo(print());
+
+        verify(claimStatusPublisher).subscribe(1L, null, ClaimStatus.CLOSED);
+    }
+
+    @Test
+    void streamClaimStatus_shouldRejectUnknownStatus() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/claims/stream")
+                        .param("status", "PAYED")
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'PAYED' for parameter status"))
+                .andDo(print());
+
+        verify(claimStatusPublisher, never()).subscribe(any(), any(), any());
+    }
+
     @Test
     void createClaim_shouldReturnCreatedClaim() throws Exception {
         when(claimService.createClaim(any(ClaimDTO.class))).thenReturn(claimDTO1);
@@ -128,6 +221,23 @@ class ClaimControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void createClaim_shouldGoThroughGroupCommitWhenEnabled() throws Exception {
+        ClaimGroupCommitter groupCommitter = Mockito.mock(ClaimGroupCommitter.class);
+        when(claimGroupCommitter.getIfAvailable()).thenReturn(groupCommitter);
+        when(groupCommitter.createClaim(any(ClaimDTO.class))).thenReturn(claimDTO1);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"claimNumber": "CLM123", "description": "Description 1", "claimDate": "2023-01-01", "policyId": 101}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(claimService, Mockito.never()).createClaim(any(ClaimDTO.class));
+    }
+
     @Test
     void createClaim_shouldReturnBadRequestWhenMissingArguments() throws Exception {
         String incompleteClaimJson = """
@@ -213,6 +323,91 @@ class ClaimControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void transitionClaim_shouldReturnTransition() throws Exception {
+        when(claimService.transitionClaim(1L, new ClaimTransitionDTO(ClaimStatus.APPROVED, ClaimStatus.PAID)))
+                .thenReturn(new ClaimTransitionResult(1L, ClaimStatus.APPROVED, ClaimStatus.PAID, Instant.parse("2024-06-01T12:00:00Z")));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"from": "APPROVED", "to": "PAID"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("APPROVED"))
+                .andExpect(jsonPath("$.to").value("PAID"));
+    }
+
+    @Test
+    void transitionClaim_shouldReturnConflictWhenRaceIsLost() throws Exception {
+        when(claimService.transitionClaim(1L, new ClaimTransitionDTO(ClaimStatus.APPROVED, ClaimStatus.PAID)))
+                .thenThrow(new ConflictException("Claim 1 is CLOSED, not APPROVED"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"from": "APPROVED", "to": "PAID"}
+                                """))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Claim 1 is CLOSED, not APPROVED"));
+    }
+
+    @Test
+    void transitionClaim_shouldReturnBadRequestForUnknownStatus() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"to": "SETTLED"}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void transitionClaims_shouldReturnOutcomes() throws Exception {
+        ClaimBulkTransitionDTO transition = new ClaimBulkTransitionDTO(List.of(1L, 2L), null, null, ClaimStatus.CLOSED);
+        when(claimBulkTransitioner.transition(transition)).thenReturn(new ClaimBulkTransitionResult(
+                ClaimStatus.CLOSED, Instant.parse("2024-06-01T12:00:00Z"), 1, 0, 1, 0, 1, false, List.of(
+                new ClaimBulkTransitionResult.Outcome(1L, ClaimBulkTransitionResult.Result.TRANSITIONED, ClaimStatus.PAID, null),
+                new ClaimBulkTransitionResult.Outcome(2L, ClaimBulkTransitionResult.Result.CONFLICT, ClaimStatus.UNDER_REVIEW,
+                        "Claim 2 cannot move from UNDER_REVIEW to CLOSED"))));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1, 2], "to": "CLOSED"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitioned").value(1))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andExpect(jsonPath("$.outcomes[0].result").value("TRANSITIONED"))
+                .andExpect(jsonPath("$.outcomes[0].message").doesNotExist())
+                .andExpect(jsonPath("$.outcomes[1].message").value("Claim 2 cannot move from UNDER_REVIEW to CLOSED"));
+    }
+
+    @Test
+    void transitionClaims_shouldRejectIdsTogetherWithFilter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1], "filter": {"status": "PAID"}, "to": "CLOSED"}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(claimBulkTransitioner, Mockito.never()).transition(any());
+    }
+
+    @Test
+    void transitionClaims_shouldRejectEmptyFilter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/claims/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filter": {}, "to": "CLOSED"}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(claimBulkTransitioner, Mockito.never()).transition(any());
+    }
+
     @Test
     void deleteClaim_shouldReturnNoContent() throws Exception {
         Mockito.doNothing().when(claimService).deleteClaim(1L);
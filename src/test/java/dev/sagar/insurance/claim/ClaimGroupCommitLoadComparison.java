@@ -0,0 +1,129 @@
+package dev.sagar.insurance.claim;
+
+import dev.sagar.insurance.Application;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Throughput and latency of POST /api/claims at rising concurrency, once with a commit per request and once with group
+// commit. Not a unit test: it boots the application twice against a file-backed H2 database, so commits reach the disk,
+// and fires claims from virtual threads.
+//
+//   mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+//       -Dexec.args="-cp %classpath dev.sagar.insurance.claim.ClaimGroupCommitLoadComparison <claimsPerLevel> <maxDelay>"
+public class ClaimGroupCommitLoadComparison {
+
+    private static final int CLIENTS = 1_000;
+    private static final int[] CONCURRENCY = {1, 4, 16, 64, 256};
+
+    public static void main(String[] args) throws Exception {
+        int claimsPerLevel = args.length > 0 ? Integer.parseInt(args[0]) : 4_000;
+        String maxDelay = args.length > 1 ? args[1] : "2ms";
+
+        System.out.printf("%-14s %6s %6s %6s %9s %9s %9s %9s%n", "mode", "conc", "ok", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (boolean groupCommit : new boolean[]{false, true}) {
+            Path directory = Files.createTempDirectory("group-commit");
+            ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                    "--server.port=0",
+                    "--spring.profiles.active=datagen",
+                    "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("insurance") + ";DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--insurance.datagen.clients=" + CLIENTS,
+                    "--insurance.claims.group-commit.enabled=" + groupCommit,
+                    "--insurance.claims.group-commit.max-delay=" + maxDelay,
+                    "--insurance.admission.enabled=false",
+                    "--insurance.rate-limit.enabled=false",
+                    "--insurance.idempotency.enabled=false",
+                    "--insurance.jdbc.monitoring.enabled=false",
+                    "--insurance.server-timing.enabled=false",
+                    "--logging.level.root=WARN");
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                URI uri = URI.create("http://localhost:" + port + "/api/claims");
+                long policies = CLIENTS * 2L;
+
+                // Warm-up so both paths are compiled before measuring
+                run(httpClient, uri, policies, 16, 2_000);
+                String mode = groupCommit ? "group commit" : "per request";
+                for (int concurrency : CONCURRENCY) {
+                    print(mode, concurrency, run(httpClient, uri, policies, concurrency, claimsPerLevel));
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static Result run(HttpClient httpClient, URI uri, long policies, int concurrency, int claims) throws Exception {
+        AtomicLong remaining = new AtomicLong(claims);
+        AtomicLong errors = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < concurrency; client++) {
+                futures.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long policyId = ThreadLocalRandom.current().nextLong(1, policies + 1);
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofMinutes(1))
+                                .POST(HttpRequest.BodyPublishers.ofString("""
+                                        {"claimNumber":"FNOL-%d","description":"First notice of loss","claimDate":"2024-05-01",\
+                                        "claimedAmount":1200.00,"policyId":%d}""".formatted(System.nanoTime(), policyId)))
+                                .build();
+                        long requestStarted = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 201) {
+                            latencies.add(System.nanoTime() - requestStarted);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return new Result(sorted.size(), errors.get(), sorted.size() / (elapsed / 1e9), percentile(sorted, 0.50),
+                percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)) / 1e6;
+    }
+
+    private static void print(String mode, int concurrency, Result result) {
+        System.out.printf("%-14s %6d %6d %6d %9.1f %9.2f %9.2f %9.2f%n", mode, concurrency, result.requests(), result.errors(),
+                result.throughput(), result.p50Millis(), result.p99Millis(), result.maxMillis());
+    }
+
+    private record Result(int requests, long errors, double throughput, double p50Millis, double p99Millis, double maxMillis) {
+    }
+}
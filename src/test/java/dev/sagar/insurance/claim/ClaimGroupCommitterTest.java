@@ -0,0 +1,241 @@
+package dev.sagar.insurance.claim;
+
+import dev.sagar.insurance.exception.ConflictException;
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.policy.Policy;
+import dev.sagar.insurance.policy.PolicyRepository;
+import dev.sagar.insurance.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimGroupCommitterTest {
+
+    @Mock
+    private ClaimRepository claimRepository;
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @Mock
+    private ClaimService claimService;
+
+    @Mock
+    private ClaimStatusPublisher claimStatusPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ids = new AtomicLong();
+    private ClaimGroupCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(policyRepository.findAllById(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .filter(id -> id < 100)
+                .map(ClaimGroupCommitterTest::policy)
+                .toList());
+        lenient().when(claimRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Claim> claims = invocation.getArgument(0);
+            claims.forEach(claim -> claim.setId(ids.incrementAndGet()));
+            return claims;
+        });
+        committer = committer(Duration.ofSeconds(5), 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.stop();
+    }
+
+    @Test
+    void createClaim_shouldWriteConcurrentClaimsInOneTransaction() throws Exception {
+        committer.start();
+
+        List<CompletableFuture<ClaimDTO>> created = List.of(
+                CompletableFuture.supplyAsync(() -> committer.createClaim(claim("CLM1", 1L))),
+                CompletableFuture.supplyAsync(() -> committer.createClaim(claim("CLM2", 2L))),
+                CompletableFuture.supplyAsync(() -> committer.createClaim(claim("CLM3", 1L))));
+
+        List<String> numbers = created.stream().map(CompletableFuture::join).map(ClaimDTO::claimNumber).sorted().toList();
+        assertEquals(List.of("CLM1", "CLM2", "CLM3"), numbers);
+        verify(claimRepository).saveAll(argThat(claims -> ((List<?>) claims).size() == 3));
+        verify(policyRepository).findAllById(argThat(policyIds -> ((List<?>) policyIds).size() == 2));
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(3.0, meterRegistry.get("insurance.claims.group-commit.batch-size").summary().totalAmount());
+    }
+
+    @Test
+    void createClaim_shouldNotWaitForFullBatchLongerThanMaxDelay() {
+        committer = committer(Duration.ofMillis(2), 100);
+        committer.start();
+
+        ClaimDTO created = CompletableFuture.supplyAsync(() -> committer.createClaim(claim("CLM1", 1L))).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertEquals(1L, created.id());
+        assertEquals(1L, created.policyId());
+    }
+
+    @Test
+    void write_shouldFailOnlyClaimsWithUnknownPolicy() {
+        ClaimGroupCommitter.PendingClaim known = new ClaimGroupCommitter.PendingClaim(claim("CLM1", 1L));
+        ClaimGroupCommitter.PendingClaim unknown = new ClaimGroupCommitter.PendingClaim(claim("CLM2", 404L));
+
+        committer.write(List.of(known, unknown));
+
+        assertEquals("CLM1", known.result().join().claimNumber());
+        ResourceNotFoundException failure = assertThrows(ResourceNotFoundException.class, () -> unwrap(unknown));
+        assertEquals("Policy not found with ID: 404", failure.getMessage());
+        verify(claimRepository).saveAll(argThat(claims -> ((List<?>) claims).size() == 1));
+    }
+
+    @Test
+    void write_shouldRetryClaimsOneByOneWhenBatchFails() {
+        when(claimRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate claim number"));
+        ClaimDTO good = claim("CLM1", 1L);
+        ClaimDTO bad = claim("CLM2", 2L);
+        when(claimService.createClaim(good)).thenReturn(withId(good, 7L));
+        when(claimService.createClaim(bad)).thenThrow(new DataIntegrityViolationException("duplicate claim number"));
+        ClaimGroupCommitter.PendingClaim first = new ClaimGroupCommitter.PendingClaim(good);
+        ClaimGroupCommitter.PendingClaim second = new ClaimGroupCommitter.PendingClaim(bad);
+
+        committer.write(List.of(first, second));
+
+        assertEquals(7L, first.result().join().id());
+        assertThrows(DataIntegrityViolationException.class, () -> unwrap(second));
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("insurance.claims.group-commit.fallbacks").tag("reason", "batch-failed").counter().count());
+    }
+
+    @Test
+    void createClaim_shouldRejectStatusOtherThanOpenBeforeQueueing() {
+        committer.start();
+        ClaimDTO claim = claim("CLM1", 1L);
+        ClaimDTO paid = new ClaimDTO(null, claim.claimNumber(), claim.description(), claim.claimDate(), ClaimStatus.PAID,
+                claim.claimedAmount(), null, null, claim.policyId());
+
+        assertThrows(ConflictException.class, () -> committer.createClaim(paid));
+        verify(claimRepository, never()).saveAll(anyList());
+        verify(claimService, never()).createClaim(any());
+    }
+
+    @Test
+    void createClaim_shouldTakePerRequestPathWhenNotRunning() {
+        ClaimDTO claim = claim("CLM1", 1L);
+        when(claimService.createClaim(claim)).thenReturn(withId(claim, 3L));
+
+        assertEquals(3L, committer.createClaim(claim).id());
+        verify(claimRepository, never()).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("insurance.claims.group-commit.fallbacks").tag("reason", "stopped").counter().count());
+        assertEquals(0.0, meterRegistry.get("insurance.claims.group-commit.fallbacks").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void createClaim_shouldWriteQueuedClaimItselfWhenWriterIsStuck() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(claimRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<Claim> claims = invocation.getArgument(0);
+            claims.forEach(claim -> claim.setId(ids.incrementAndGet()));
+            return claims;
+        });
+        ClaimDTO queued = claim("CLM2", 1L);
+        when(claimService.createClaim(queued)).thenReturn(withId(queued, 9L));
+        committer = committer(Duration.ZERO, 1, Duration.ofMillis(100));
+        committer.start();
+
+        CompletableFuture<ClaimDTO> stuck = CompletableFuture.supplyAsync(() -> committer.createClaim(claim("CLM1", 1L)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // Queued behind the stuck batch: taken back after max-wait
+        assertEquals(9L, committer.createClaim(queued).id());
+        assertFalse(stuck.isDone());
+        // Already taken by the writer: waits for it instead of being written twice
+        release.countDown();
+        assertEquals("CLM1", stuck.get(5, TimeUnit.SECONDS).claimNumber());
+        verify(claimRepository, times(1)).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("insurance.claims.group-commit.fallbacks").tag("reason", "wait-timeout").counter().count());
+    }
+
+    @Test
+    void createClaim_shouldKeepWriterAliveAfterError() {
+        when(claimRepository.saveAll(anyList())).thenThrow(new LinkageError("broken")).thenAnswer(invocation -> {
+            List<Claim> claims = invocation.getArgument(0);
+            claims.forEach(claim -> claim.setId(ids.incrementAndGet()));
+            return claims;
+        });
+        committer = committer(Duration.ZERO, 1);
+        committer.start();
+
+        assertThrows(LinkageError.class, () -> committer.createClaim(claim("CLM1", 1L)));
+
+        assertEquals("CLM2", committer.createClaim(claim("CLM2", 1L)).claimNumber());
+        verify(claimService, never()).createClaim(any());
+    }
+
+    private ClaimGroupCommitter committer(Duration maxDelay, int maxBatchSize) {
+        return committer(maxDelay, maxBatchSize, Duration.ofSeconds(5));
+    }
+
+    private ClaimGroupCommitter committer(Duration maxDelay, int maxBatchSize, Duration maxWait) {
+        return new ClaimGroupCommitter(claimRepository, policyRepository, new ClaimMapper(policyRepository), claimService,
+                claimStatusPublisher, ShardRouter.unsharded(), transactionManager,
+                new ClaimGroupCommitProperties(true, maxBatchSize, maxDelay, 100, maxWait), meterRegistry);
+    }
+
+    private static ClaimDTO unwrap(ClaimGroupCommitter.PendingClaim pending) {
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private static Policy policy(Long id) {
+        Policy policy = new Policy();
+        policy.setId(id);
+        return policy;
+    }
+
+    private static ClaimDTO claim(String number, Long policyId) {
+        return new ClaimDTO(null, number, "Hail damage", LocalDate.of(2024, 5, 1), null, new BigDecimal("1200.00"), null, null, policyId);
+    }
+
+    private static ClaimDTO withId(ClaimDTO claim, Long id) {
+        return new ClaimDTO(id, claim.claimNumber(), claim.description(), claim.claimDate(), ClaimStatus.OPEN, claim.claimedAmount(),
+                BigDecimal.ZERO, BigDecimal.ZERO, claim.policyId());
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Optional;
 
@@ -40,10 +41,11 @@ class ClaimMapperTest {
         claim.setClaimNumber("CLAIM123");
         claim.setDescription("Car accident claim");
         claim.setClaimDate(LocalDate.of(2023, 8, 1));
-        claim.setStatus("Pending");
+        claim.setStatus(ClaimStatus.UNDER_REVIEW);
+        claim.setClaimedAmount(new BigDecimal("1500.00"));
         claim.setPolicy(policy);
 
-        claimDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), "Pending", 1L);
+        claimDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.UNDER_REVIEW, new BigDecimal("1500.00"), new BigDecimal("1200.00"), BigDecimal.ZERO, 1L);
     }
 
     @Test
@@ -55,6 +57,7 @@ class ClaimMapperTest {
         assertEquals(claim.getDescription(), dto.description());
         assertEquals(claim.getClaimDate(), dto.claimDate());
         assertEquals(claim.getStatus(), dto.status());
+        assertEquals(claim.getClaimedAmount(), dto.claimedAmount());
         assertEquals(claim.getPolicy().getId(), dto.policyId());
     }
 
@@ -69,9 +72,22 @@ class ClaimMapperTest {
         assertEquals(claimDTO.description(), entity.getDescription());
         assertEquals(claimDTO.claimDate(), entity.getClaimDate());
         assertEquals(claimDTO.status(), entity.getStatus());
+        assertEquals(claimDTO.claimedAmount(), entity.getClaimedAmount());
         assertEquals(claimDTO.policyId(), entity.getPolicy().getId());
     }
 
+    @Test
+    void toEntity_shouldDefaultMissingAmountsToZero() {
+        when(policyRepository.findById(1L)).thenReturn(Optional.of(policy));
+        ClaimDTO withoutAmounts = new ClaimDTO(null, "CLAIM124", "Windshield", LocalDate.of(2023, 8, 2), ClaimStatus.OPEN, null, null, null, 1L);
+
+        Claim entity = claimMapper.toEntity(withoutAmounts);
+
+        assertEquals(BigDecimal.ZERO, entity.getClaimedAmount());
+        assertEquals(BigDecimal.ZERO, entity.getReservedAmount());
+        assertEquals(BigDecimal.ZERO, entity.getPaidAmount());
+    }
+
     @Test
     void toEntity_shouldThrowExceptionWhenPolicyNotFound() {
         when(policyRepository.findById(claimDTO.policyId())).thenReturn(Optional.empty());
@@ -1,19 +1,39 @@
 package dev.sagar.insurance.claim;
 
+import dev.sagar.insurance.coalescing.RequestCoalescer;
+import dev.sagar.insurance.exception.ConflictException;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.FieldProjector;
+import dev.sagar.insurance.projection.InvalidFieldsException;
+import dev.sagar.insurance.sharding.ShardRouter;
+import dev.sagar.insurance.transaction.Synchronizations;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static dev.sagar.insurance.transaction.Synchronizations.rollback;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,14 +44,30 @@ class ClaimServiceTest {
     @Mock
     private ClaimRepository claimRepository;
 
+    @Mock
+    private ArchivedClaimRepository archivedClaimRepository;
+
     @Mock
     private ClaimMapper claimMapper;
 
+    @Mock
+    private ClaimStatusPublisher claimStatusPublisher;
+
+    @Mock
+    private FieldProjector fieldProjector;
+
+    @Mock
+    private ObjectProvider<RequestCoalescer> requestCoalescer;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.unsharded();
+
     @InjectMocks
     private ClaimService claimService;
 
     private Claim claim;
     private ClaimDTO claimDTO;
+    private ClaimDTO openClaimDTO;
 
     @BeforeEach
     void setUp() {
@@ -40,14 +76,20 @@ class ClaimServiceTest {
         claim.setClaimNumber("CLAIM123");
         claim.setDescription("Car accident claim");
         claim.setClaimDate(LocalDate.of(2023, 8, 1));
-        claim.setStatus("Pending");
+        claim.setStatus(ClaimStatus.UNDER_REVIEW);
+
+        claimDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.UNDER_REVIEW, new BigDecimal("1500.00"), new BigDecimal("1200.00"), BigDecimal.ZERO, 1L);
+        openClaimDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.OPEN, new BigDecimal("1500.00"), new BigDecimal("1200.00"), BigDecimal.ZERO, 1L);
+    }
 
-        claimDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), "Pending", 1L);
+    @AfterEach
+    void tearDown() {
+        Synchronizations.clear();
     }
 
     @Test
     void getAllClaims_shouldReturnListOfClaimDTOs() {
-        when(claimRepository.findAll()).thenReturn(List.of(claim));
+        when(claimRepository.findAll(Sort.by("id"))).thenReturn(List.of(claim));
         when(claimMapper.toDto(claim)).thenReturn(claimDTO);
 
         List<ClaimDTO> result = claimService.getAllClaims();
@@ -56,6 +98,30 @@ class ClaimServiceTest {
         assertEquals(claimDTO, result.get(0));
     }
 
+    @Test
+    void getAllClaims_withFields_shouldProjectAndDropUnrequestedId() {
+        Map<String, Object> row = new LinkedHashMap<>(Map.of("id", 1L, "status", "Pending"));
+        when(fieldProjector.findAll(any(), argThat(fields -> fields.equals(List.of("status"))))).thenReturn(List.of(row));
+
+        List<Map<String, Object>> result = claimService.getAllClaims("status");
+
+        assertEquals(List.of(Map.of("status", "Pending")), result);
+        verify(claimRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    void getClaimById_withUnknownField_shouldThrowBeforeQuerying() {
+        assertThrows(InvalidFieldsException.class, () -> claimService.getClaimById(1L, "status,amount"));
+        verify(fieldProjector, never()).findById(any(), any(), any());
+    }
+
+    @Test
+    void getClaimById_withFields_shouldThrowWhenNotFound() {
+        when(fieldProjector.findById(any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> claimService.getClaimById(1L, "status"));
+    }
+
     @Test
     void getClaimById_shouldReturnClaimDTOWhenFound() {
         when(claimRepository.findById(1L)).thenReturn(Optional.of(claim));
@@ -73,15 +139,61 @@ class ClaimServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> claimService.getClaimById(1L));
     }
 
+    @Test
+    void getClaimsById_shouldLoadHotClaimsAndLookUpOnlyTheRestInArchive() {
+        ArchivedClaim archived = new ArchivedClaim();
+        archived.setId(2L);
+        ClaimDTO archivedDTO = new ClaimDTO(2L, "CLAIM2", "Archived claim", LocalDate.of(2020, 1, 1), ClaimStatus.CLOSED, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1L);
+        when(claimRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(claim));
+        when(claimMapper.toDto(claim)).thenReturn(claimDTO);
+        when(archivedClaimRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(archived));
+        when(claimMapper.toDto(archived)).thenReturn(archivedDTO);
+
+        Map<Long, ClaimDTO> result = claimService.getClaimsById(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(Map.of(1L, claimDTO, 2L, archivedDTO), result);
+    }
+
+    @Test
+    void getClaimById_shouldFallBackToArchive() {
+        ArchivedClaim archived = new ArchivedClaim();
+        when(claimRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedClaimRepository.findById(1L)).thenReturn(Optional.of(archived));
+        when(claimMapper.toDto(archived)).thenReturn(claimDTO);
+
+        assertEquals(claimDTO, claimService.getClaimById(1L));
+    }
+
     @Test
     void createClaim_shouldReturnCreatedClaimDTO() {
-        when(claimMapper.toEntity(claimDTO)).thenReturn(claim);
+        when(claimMapper.toEntity(openClaimDTO)).thenReturn(claim);
         when(claimRepository.save(claim)).thenReturn(claim);
-        when(claimMapper.toDto(claim)).thenReturn(claimDTO);
+        when(claimMapper.toDto(claim)).thenReturn(openClaimDTO);
 
-        ClaimDTO result = claimService.createClaim(claimDTO);
+        ClaimDTO result = claimService.createClaim(openClaimDTO);
 
-        assertEquals(claimDTO, result);
+        assertEquals(openClaimDTO, result);
+        verify(claimStatusPublisher).publish(argThat(event -> event.previousStatus() == null && event.status() == ClaimStatus.OPEN));
+    }
+
+    @Test
+    void createClaim_shouldRejectStatusOtherThanOpen() {
+        ConflictException exception = assertThrows(ConflictException.class, () -> claimService.createClaim(claimDTO));
+
+        assertEquals("New claims must start OPEN, not UNDER_REVIEW", exception.getMessage());
+        verify(claimRepository, never()).save(any());
+    }
+
+    @Test
+    void updateClaim_shouldTreatMissingStatusAsOpen() {
+        ClaimDTO paidDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.PAID, new BigDecimal("1500.00"), new BigDecimal("1500.00"), new BigDecimal("1500.00"), 1L);
+        claim.setStatus(null);
+        when(claimRepository.findById(1L)).thenReturn(Optional.of(claim));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> claimService.updateClaim(1L, paidDTO));
+
+        assertEquals("Claim 1 cannot move from OPEN to PAID", exception.getMessage());
+        verify(claimRepository, never()).save(any());
     }
 
     @Test
@@ -93,6 +205,124 @@ class ClaimServiceTest {
         ClaimDTO result = claimService.updateClaim(1L, claimDTO);
 
         assertEquals(claimDTO, result);
+        verify(claimStatusPublisher, never()).publish(any());
+    }
+
+    @Test
+    void updateClaim_shouldPublishEventWhenStatusChanges() {
+        ClaimDTO approvedDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.APPROVED, new BigDecimal("1500.00"), new BigDecimal("1500.00"), BigDecimal.ZERO, 1L);
+        when(claimRepository.findById(1L)).thenReturn(Optional.of(claim));
+        when(claimRepository.save(claim)).thenReturn(claim);
+        when(claimMapper.toDto(claim)).thenReturn(approvedDTO);
+
+        claimService.updateClaim(1L, approvedDTO);
+
+        verify(claimStatusPublisher).publish(argThat(event ->
+                event.previousStatus() == ClaimStatus.UNDER_REVIEW && event.status() == ClaimStatus.APPROVED && event.claimId() == 1L));
+    }
+
+    @Test
+    void createClaim_shouldPublishOnlyAfterCommit() {
+        when(claimMapper.toEntity(openClaimDTO)).thenReturn(claim);
+        when(claimRepository.save(claim)).thenReturn(claim);
+        when(claimMapper.toDto(claim)).thenReturn(openClaimDTO);
+
+        begin();
+        claimService.createClaim(openClaimDTO);
+        verify(claimStatusPublisher, never()).publish(any());
+        commit();
+
+        verify(claimStatusPublisher).publish(argThat(event -> event.claimId() == 1L && event.status() == ClaimStatus.OPEN));
+    }
+
+    @Test
+    void updateClaim_shouldNotPublishWhenTransactionRollsBack() {
+        ClaimDTO approvedDTO = new ClaimDTO(1L, "CLAIM123", "Car accident claim", LocalDate.of(2023, 8, 1), ClaimStatus.APPROVED, new BigDecimal("1500.00"), new BigDecimal("1500.00"), BigDecimal.ZERO, 1L);
+        when(claimRepository.findById(1L)).thenReturn(Optional.of(claim));
+        when(claimRepository.save(claim)).thenReturn(claim);
+        when(claimMapper.toDto(claim)).thenReturn(approvedDTO);
+
+        begin();
+        claimService.updateClaim(1L, approvedDTO);
+        rollback();
+
+        verify(claimStatusPublisher, never()).publish(any());
+    }
+
+    @Test
+    void updateClaim_shouldRejectIllegalTransition() {
+        claim.setStatus(ClaimStatus.CLOSED);
+        when(claimRepository.findById(1L)).thenReturn(Optional.of(claim));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> claimService.updateClaim(1L, claimDTO));
+
+        assertEquals("Claim 1 cannot move from CLOSED to UNDER_REVIEW", exception.getMessage());
+        verify(claimRepository, never()).save(any());
+    }
+
+    @Test
+    void transitionClaim_shouldUpdateConditionallyWithoutReadingWhenFromIsGiven() {
+        when(claimRepository.transition(eq(1L), eq(ClaimStatus.UNDER_REVIEW), eq(ClaimStatus.APPROVED), any())).thenReturn(1);
+
+        ClaimTransitionResult result = claimService.transitionClaim(1L, new ClaimTransitionDTO(ClaimStatus.UNDER_REVIEW, ClaimStatus.APPROVED));
+
+        assertEquals(ClaimStatus.APPROVED, result.to());
+        verify(claimRepository, never()).findStatusViewById(any());
+        verify(claimStatusPublisher, never()).publish(any());
+    }
+
+    @Test
+    void transitionClaim_shouldReadCurrentStatusAndPublishWhenSubscribed() {
+        when(claimRepository.findStatusViewById(1L)).thenReturn(Optional.of(new ClaimStatusView(1L, 7L, "CLAIM123", ClaimStatus.OPEN)));
+        when(claimRepository.transition(eq(1L), eq(ClaimStatus.OPEN), eq(ClaimStatus.UNDER_REVIEW), any())).thenReturn(1);
+        when(claimStatusPublisher.getSubscriberCount()).thenReturn(1);
+
+        claimService.transitionClaim(1L, new ClaimTransitionDTO(null, ClaimStatus.UNDER_REVIEW));
+
+        verify(claimStatusPublisher).publish(argThat(event -> event.policyId() == 7L
+                && event.previousStatus() == ClaimStatus.OPEN && event.status() == ClaimStatus.UNDER_REVIEW));
+    }
+
+    @Test
+    void transitionClaim_shouldNotPublishWhenTransactionRollsBack() {
+        when(claimRepository.findStatusViewById(1L)).thenReturn(Optional.of(new ClaimStatusView(1L, 7L, "CLAIM123", ClaimStatus.OPEN)));
+        when(claimRepository.transition(eq(1L), eq(ClaimStatus.OPEN), eq(ClaimStatus.UNDER_REVIEW), any())).thenReturn(1);
+        when(claimStatusPublisher.getSubscriberCount()).thenReturn(1);
+
+        begin();
+        claimService.transitionClaim(1L, new ClaimTransitionDTO(null, ClaimStatus.UNDER_REVIEW));
+        verify(claimStatusPublisher, never()).publish(any());
+        rollback();
+
+        verify(claimStatusPublisher, never()).publish(any());
+    }
+
+    @Test
+    void transitionClaim_shouldReportLostRace() {
+        when(claimRepository.transition(eq(1L), eq(ClaimStatus.UNDER_REVIEW), eq(ClaimStatus.APPROVED), any())).thenReturn(0);
+        when(claimRepository.findStatusViewById(1L)).thenReturn(Optional.of(new ClaimStatusView(1L, 7L, "CLAIM123", ClaimStatus.REJECTED)));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> claimService.transitionClaim(1L, new ClaimTransitionDTO(ClaimStatus.UNDER_REVIEW, ClaimStatus.APPROVED)));
+
+        assertEquals("Claim 1 is REJECTED, not UNDER_REVIEW", exception.getMessage());
+    }
+
+    @Test
+    void transitionClaim_shouldRejectIllegalTransitionBeforeWriting() {
+        assertThrows(ConflictException.class,
+                () -> claimService.transitionClaim(1L, new ClaimTransitionDTO(ClaimStatus.CLOSED, ClaimStatus.OPEN)));
+
+        verify(claimRepository, never()).transition(any(), any(), any(), any());
+    }
+
+    @Test
+    void transitionClaim_shouldThrowNotFoundForMissingClaim() {
+        when(claimRepository.transition(eq(9L), any(), any(), any())).thenReturn(0);
+        when(claimRepository.findStatusViewById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> claimService.transitionClaim(9L, new ClaimTransitionDTO(ClaimStatus.OPEN, ClaimStatus.CLOSED)));
     }
 
     @Test
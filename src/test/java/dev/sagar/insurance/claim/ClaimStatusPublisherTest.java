@@ -0,0 +1,80 @@
+package dev.sagar.insurance.claim;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimStatusPublisherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClaimStatusPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new ClaimStatusPublisher(new ClaimStreamProperties(2, Duration.ofMinutes(1), Duration.ofMinutes(1)), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldRegisterSubscriber() {
+        SseEmitter emitter = publisher.subscribe(1L, null, null);
+
+        assertNotNull(emitter);
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void publish_shouldSkipSubscribersWhoseFilterDoesNotMatch() {
+        ClaimStatusSubscription subscription = new ClaimStatusSubscription(2L, null, null, new SseEmitter(), 1);
+        publisher.register(subscription);
+
+        publisher.publish(event(1L, 10L, ClaimStatus.OPEN));
+        publisher.publish(event(1L, 10L, ClaimStatus.CLOSED));
+
+        assertFalse(subscription.isClosed());
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void subscription_shouldMatchOnClaimPolicyAndStatus() {
+        ClaimStatusSubscription subscription = new ClaimStatusSubscription(1L, 10L, ClaimStatus.CLOSED, new SseEmitter(), 4);
+
+        assertTrue(subscription.matches(event(1L, 10L, ClaimStatus.CLOSED)));
+        assertFalse(subscription.matches(event(2L, 10L, ClaimStatus.CLOSED)));
+        assertFalse(subscription.matches(event(1L, 11L, ClaimStatus.CLOSED)));
+        assertFalse(subscription.matches(event(1L, 10L, ClaimStatus.OPEN)));
+    }
+
+    @Test
+    void publish_shouldEvictSubscriberWhenBufferIsFull() {
+        ClaimStatusSubscription subscription = new ClaimStatusSubscription(null, null, null, new SseEmitter(), 2);
+        publisher.register(subscription);
+
+        for (int i = 0; i < 3; i++) {
+            publisher.publish(event(1L, 10L, ClaimStatus.OPEN));
+        }
+
+        assertTrue(subscription.isClosed());
+        assertEquals(0, publisher.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("insurance.claims.stream.evictions").counter().count());
+    }
+
+    private ClaimStatusEvent event(Long claimId, Long policyId, ClaimStatus status) {
+        return new ClaimStatusEvent(claimId, policyId, "CLM" + claimId, null, status, Instant.now());
+    }
+}
@@ -0,0 +1,29 @@
+package dev.sagar.insurance.claim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimStatusTest {
+
+    @Test
+    void canTransitionTo_shouldFollowLifecycle() {
+        assertTrue(ClaimStatus.OPEN.canTransitionTo(ClaimStatus.UNDER_REVIEW));
+        assertTrue(ClaimStatus.UNDER_REVIEW.canTransitionTo(ClaimStatus.APPROVED));
+        assertTrue(ClaimStatus.APPROVED.canTransitionTo(ClaimStatus.PAID));
+        assertTrue(ClaimStatus.REJECTED.canTransitionTo(ClaimStatus.UNDER_REVIEW));
+        assertFalse(ClaimStatus.OPEN.canTransitionTo(ClaimStatus.PAID));
+        assertFalse(ClaimStatus.PAID.canTransitionTo(ClaimStatus.OPEN));
+        assertFalse(ClaimStatus.OPEN.canTransitionTo(ClaimStatus.OPEN));
+    }
+
+    @Test
+    void next_shouldBeEmptyForClosed() {
+        assertEquals(Set.of(), ClaimStatus.CLOSED.next());
+        assertEquals(Set.of(ClaimStatus.CLOSED), ClaimStatus.PAID.next());
+    }
+}
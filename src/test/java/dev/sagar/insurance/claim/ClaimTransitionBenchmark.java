@@ -0,0 +1,143 @@
+package dev.sagar.insurance.claim;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Many adjusters moving the same claims back and forth between OPEN and UNDER_REVIEW. compareAndSet is the
+// conditional UPDATE behind POST /api/claims/{id}/status: one statement, losers learn the current status from the
+// conflict. lockingReadModifyWrite reads the row FOR UPDATE and writes it in a transaction, so writers queue on the
+// row lock instead.
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main ClaimTransitionBenchmark"
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ClaimTransitionBenchmark {
+
+    private static final String COMPARE_AND_SET = "UPDATE claim SET status = ? WHERE id = ? AND status = ?";
+
+    // How many claims the threads fight over
+    @Param({"1", "16", "1024"})
+    private int claims;
+
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:transitions;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(16);
+        dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, status VARCHAR(20))");
+            statement.execute("INSERT INTO claim SELECT x, 'OPEN' FROM SYSTEM_RANGE(1, " + claims + ")");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Adjuster {
+
+        public long transitions;
+        public long conflicts;
+
+        // The status this adjuster last saw for each claim
+        ClaimStatus[] seen;
+
+        @Setup(Level.Iteration)
+        public void setUp(ClaimTransitionBenchmark benchmark) {
+            if (seen == null) {
+                seen = new ClaimStatus[benchmark.claims];
+                Arrays.fill(seen, ClaimStatus.OPEN);
+            }
+            transitions = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public void compareAndSet(Adjuster adjuster) throws SQLException {
+        int claim = ThreadLocalRandom.current().nextInt(claims);
+        ClaimStatus from = adjuster.seen[claim];
+        ClaimStatus to = toggle(from);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COMPARE_AND_SET)) {
+            statement.setString(1, to.name());
+            statement.setLong(2, claim + 1);
+            statement.setString(3, from.name());
+            if (statement.executeUpdate() == 1) {
+                adjuster.transitions++;
+                adjuster.seen[claim] = to;
+            } else {
+                // The 409 tells the caller the current status, which with two states is the other one
+                adjuster.conflicts++;
+                adjuster.seen[claim] = to;
+            }
+        }
+    }
+
+    @Benchmark
+    public void lockingReadModifyWrite(Adjuster adjuster) throws SQLException {
+        int claim = ThreadLocalRandom.current().nextInt(claims);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement select = connection.prepareStatement("SELECT status FROM claim WHERE id = ? FOR UPDATE");
+                 PreparedStatement update = connection.prepareStatement("UPDATE claim SET status = ? WHERE id = ?")) {
+                select.setLong(1, claim + 1);
+                ClaimStatus current;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    current = ClaimStatus.valueOf(resultSet.getString(1));
+                }
+                update.setString(1, toggle(current).name());
+                update.setLong(2, claim + 1);
+                update.executeUpdate();
+                connection.commit();
+                adjuster.transitions++;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static ClaimStatus toggle(ClaimStatus status) {
+        return status == ClaimStatus.OPEN ? ClaimStatus.UNDER_REVIEW : ClaimStatus.OPEN;
+    }
+}
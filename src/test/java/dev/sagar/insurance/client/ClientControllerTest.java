@@ -1,7 +1,9 @@
 package dev.sagar.insurance.client;
 
+import dev.sagar.insurance.clientsearch.ClientMatch;
 import dev.sagar.insurance.exception.GlobalExceptionHandler;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.InvalidFieldsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,11 +20,13 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -87,6 +91,32 @@ class ClientControllerTest {
                 .andExpect(jsonPath("$.name").value("John Doe"))
                 .andExpect(jsonPath("$.address").value("123 Main St"))
                 .andExpect(jsonPath("$.contactInformation").value("9876543210"))
+                .andExpect(header().doesNotExist("X-Possible-Duplicates"))
+                .andDo(print());
+    }
+
+    @Test
+    void createClient_shouldListPossibleDuplicatesInHeader() throws Exception {
+        List<ClientMatch> duplicates = List.of(
+                new ClientMatch(7L, "Jon Doe", LocalDate.of(1990, 1, 1), 0.97),
+                new ClientMatch(9L, "John Doe", LocalDate.of(1990, 3, 1), 0.9));
+        when(clientService.createClient(any(ClientDTO.class))).thenReturn(new CreatedClient(clientDTO1, duplicates));
+
+        String clientJson = """
+                {
+                    "name": "John Doe",
+                    "dateOfBirth": "1990-01-01",
+                    "address": "123 Main St",
+                    "contactInformation": "9876543210"
+                }
+                """;
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(clientJson))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("X-Possible-Duplicates", "7,9"))
+                .andExpect(jsonPath("$.id").value(1L))
                 .andDo(print());
     }
 
@@ -101,9 +131,34 @@ class ClientControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void getClientById_withFields_shouldReturnOnlySelectedFields() throws Exception {
+        when(clientService.getClientById(1L, "name")).thenReturn(Map.of("name", "John Doe"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/clients/1")
+                        .param("fields", "name")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    void getAllClients_withUnknownField_shouldReturnBadRequest() throws Exception {
+        when(clientService.getAllClients("secret")).thenThrow(new InvalidFieldsException("Unknown client field(s) [secret]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/clients")
+                        .param("fields", "secret")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown client field(s) [secret]"))
+                .andDo(print());
+    }
+
     @Test
     void createClient_shouldReturnCreatedClient() throws Exception {
-        when(clientService.createClient(any(ClientDTO.class))).thenReturn(clientDTO1);
+        when(clientService.createClient(any(ClientDTO.class))).thenReturn(new CreatedClient(clientDTO1, List.of()));
 
         String clientJson = """
                 {
@@ -1,12 +1,18 @@
 package dev.sagar.insurance.client;
 
+import dev.sagar.insurance.clientsearch.ClientMatch;
+import dev.sagar.insurance.clientsearch.ClientSearchIndex;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,6 +20,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +34,12 @@ class ClientServiceTest {
     @Mock
     private ClientMapper clientMapper;
 
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.unsharded();
+
+    @Mock
+    private ObjectProvider<ClientSearchIndex> clientSearchIndex;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -47,7 +60,7 @@ class ClientServiceTest {
 
     @Test
     void getAllClients_shouldReturnListOfClientDTOs() {
-        when(clientRepository.findAll()).thenReturn(List.of(client));
+        when(clientRepository.findAll(Sort.by("id"))).thenReturn(List.of(client));
         when(clientMapper.toDto(client)).thenReturn(clientDTO);
 
         List<ClientDTO> result = clientService.getAllClients();
@@ -79,9 +92,28 @@ class ClientServiceTest {
         when(clientRepository.save(client)).thenReturn(client);
         when(clientMapper.toDto(client)).thenReturn(clientDTO);
 
-        ClientDTO result = clientService.createClient(clientDTO);
+        CreatedClient result = clientService.createClient(clientDTO);
 
-        assertEquals(clientDTO, result);
+        assertEquals(clientDTO, result.client());
+        assertEquals(List.of(), result.possibleDuplicates());
+    }
+
+    @Test
+    void createClient_shouldReportPossibleDuplicates() {
+        ClientSearchIndex index = mock(ClientSearchIndex.class);
+        ClientMatch existing = new ClientMatch(7L, "Jon Doe", LocalDate.of(1990, 1, 1), 0.97);
+        when(clientSearchIndex.getIfAvailable()).thenReturn(index);
+        when(index.findDuplicates("John Doe", LocalDate.of(1990, 1, 1), 5)).thenReturn(Optional.of(List.of(existing)));
+        when(clientMapper.toEntity(clientDTO)).thenReturn(client);
+        when(clientRepository.save(client)).thenReturn(client);
+        when(clientMapper.toDto(client)).thenReturn(clientDTO);
+
+        CreatedClient result = clientService.createClient(clientDTO);
+
+        // Reported, not rejected
+        assertEquals(clientDTO, result.client());
+        assertEquals(List.of(existing), result.possibleDuplicates());
+        verify(clientRepository).save(client);
     }
 
     @Test
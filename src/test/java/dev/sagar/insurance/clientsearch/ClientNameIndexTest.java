@@ -0,0 +1,126 @@
+package dev.sagar.insurance.clientsearch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientNameIndexTest {
+
+    private static final LocalDate BORN = LocalDate.of(1980, 4, 2);
+
+    @Test
+    void prefix_shouldMatchAnyNameTokenIgnoringCaseAndAccents() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "John Smith", BORN);
+        index.put(2L, "Anna Smithers", BORN);
+        index.put(3L, "José O'Neil", BORN);
+        index.put(4L, "Mary Jones", BORN);
+
+        // Ordered by the matched part of the name: "smith" before "smithers"
+        assertEquals(List.of(1L, 2L), ids(index.prefix("SMI", 10)));
+        assertEquals(List.of(3L), ids(index.prefix("jose on", 10)));
+        assertEquals(List.of(3L), ids(index.prefix("oneil", 10)));
+        assertEquals(List.of(1L), ids(index.prefix("John Sm", 10)));
+        assertEquals(List.of(), ids(index.prefix("  ", 10)));
+    }
+
+    @Test
+    void prefix_shouldMatchQueryTokensInAnyOrder() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "John Smith", BORN);
+        index.put(2L, "Johanna Smithers", BORN);
+        index.put(3L, "John Miller", BORN);
+
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(index.prefix("smi jo", 10))));
+        assertEquals(List.of(1L), ids(index.prefix("smith john", 10)));
+    }
+
+    @Test
+    void prefix_shouldStopAtLimitAndReportEachClientOnce() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "Anna Annabel", BORN);
+        index.put(2L, "Annie Hall", BORN);
+        index.put(3L, "Ann Lee", BORN);
+
+        assertEquals(List.of(3L, 1L), ids(index.prefix("ann", 2)));
+        assertEquals(3, index.prefix("ann", 10).size());
+    }
+
+    @Test
+    void putAndRemove_shouldReplaceEarlierVersions() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "John Smith", BORN);
+        index.put(1L, "John Smythe", BORN);
+        index.put(2L, "Mary Smith", BORN);
+        index.remove(2L);
+
+        assertEquals(List.of(), ids(index.prefix("smith", 10)));
+        assertEquals(List.of(1L), ids(index.prefix("smy", 10)));
+        assertEquals(1, index.size());
+        assertEquals(2, index.deletedClients());
+    }
+
+    @Test
+    void duplicates_shouldFindMisspelledAndReorderedNames() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "Katherine Johnson", BORN);
+        index.put(2L, "Catherine Jonson", BORN);
+        index.put(3L, "Johnson Katherine", BORN);
+        index.put(4L, "Katherine Johnson", BORN.plusDays(1));
+        index.put(5L, "Kevin Johnson", BORN);
+        index.put(6L, "Katherine Johnson", BORN.plusYears(1));
+
+        List<ClientMatch> matches = index.duplicates("Katherine Johnson", BORN, 0.9, 10);
+
+        // Same birth date first, then the same year; a different first name or birth year is not a duplicate
+        assertEquals(List.of(1L, 3L, 2L, 4L), ids(matches));
+        assertEquals(1.0, matches.get(0).score());
+        assertTrue(matches.get(2).score() > 0.9);
+        assertEquals(0.9, matches.get(3).score());
+    }
+
+    @Test
+    void duplicates_shouldNeedABirthDateAndSkipRemovedClients() {
+        ClientNameIndex index = new ClientNameIndex();
+        index.put(1L, "John Smith", BORN);
+        index.put(2L, "Jon Smith", BORN);
+        index.remove(2L);
+
+        assertEquals(List.of(1L), ids(index.duplicates("John Smith", BORN, 0.9, 10)));
+        assertEquals(List.of(), index.duplicates("John Smith", null, 0.9, 10));
+    }
+
+    @Test
+    void mergeAndCompaction_shouldKeepLookupsCorrect() {
+        ClientNameIndex index = new ClientNameIndex();
+        // Enough entries for several merges of the deltas into the sorted arrays
+        for (long id = 0; id < 20_000; id++) {
+            index.put(id, "Client" + id + " Surname" + id % 97, BORN.plusDays(id % 365));
+        }
+        for (long id = 0; id < 20_000; id += 2) {
+            index.remove(id);
+        }
+        assertTrue(index.needsCompaction());
+        index.compact();
+        index.put(20_001L, "Client1 Newcomer", BORN);
+
+        assertEquals(10_001, index.size());
+        assertEquals(0, index.deletedClients());
+        // The exact token sequence first, then names such as "Client195 Surname1" that match token by token
+        assertEquals(1L, index.prefix("client1 surname1", 10).get(0).id());
+        assertEquals(List.of(20_001L), ids(index.prefix("newcomer", 10)));
+        assertTrue(ids(index.prefix("client2", 50)).stream().allMatch(id -> id % 2 == 1));
+        ClientMatch best = index.duplicates("Client9999 Surname8", BORN.plusDays(9999 % 365), 0.9, 10).get(0);
+        assertEquals(9999L, best.id());
+        assertEquals("Client9999 Surname8", best.name());
+    }
+
+    private static List<Long> ids(List<ClientMatch> matches) {
+        return matches.stream().map(ClientMatch::id).toList();
+    }
+}
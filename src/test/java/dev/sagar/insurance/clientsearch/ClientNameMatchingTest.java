@@ -0,0 +1,36 @@
+package dev.sagar.insurance.clientsearch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientNameMatchingTest {
+
+    @Test
+    void normalize_shouldDropAccentsApostrophesAndPunctuation() {
+        assertEquals("jose oneil smith", NameNormalizer.normalize("  José O'Neil-Smith. "));
+        assertEquals("", NameNormalizer.normalize(null));
+        assertArrayEquals(new String[0], NameNormalizer.tokens(""));
+    }
+
+    @Test
+    void phoneticCode_shouldGroupSoundAlikeNames() {
+        assertEquals(PhoneticCode.of("catherine"), PhoneticCode.of("katherine"));
+        assertEquals(PhoneticCode.of("johnson"), PhoneticCode.of("jonson"));
+        assertEquals(PhoneticCode.of("smith"), PhoneticCode.of("smyth"));
+        assertNotEquals(PhoneticCode.of("smith"), PhoneticCode.of("jones"));
+        assertTrue(PhoneticCode.of("zzzzzz") < 1 << PhoneticCode.BITS);
+    }
+
+    @Test
+    void similarity_shouldIgnoreTokenOrderAndExtraTokens() {
+        assertEquals(1.0, NameSimilarity.of(new String[]{"john", "smith"}, new String[]{"smith", "john"}));
+        assertEquals(1.0, NameSimilarity.of(new String[]{"john", "smith"}, new String[]{"john", "a", "smith"}));
+        assertTrue(NameSimilarity.of(new String[]{"jon", "smith"}, new String[]{"john", "smith"}) > 0.9);
+        assertTrue(NameSimilarity.of(new String[]{"jane", "smith"}, new String[]{"john", "smith"}) < 0.9);
+        assertEquals(0.0, NameSimilarity.jaroWinkler("abc", "xyz"));
+    }
+}
@@ -0,0 +1,109 @@
+package dev.sagar.insurance.clientsearch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Names are a common first name plus a surname built from random syllables, born over 80 years. linearDuplicates is
+// the alternative without blocking keys: scoring the candidate against every client born in the same year.
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main ClientSearchBenchmark"
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ClientSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Priya", "Wei"};
+    private static final String[] SYLLABLES = {
+            "son", "ber", "ka", "mi", "lo", "ten", "ra", "wick", "ford", "dal", "ni", "shaw", "ing", "ham", "vo", "ze"};
+    private static final int WRITES = 2000;
+    private static final LocalDate EPOCH = LocalDate.of(1940, 1, 1);
+
+    @Param({"1000000"})
+    private int clients;
+
+    private ClientNameIndex index;
+    private String[][] tokens;
+    private LocalDate[] birthDates;
+    private String probeName;
+    private LocalDate probeBirthDate;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ClientNameIndex();
+        tokens = new String[clients + WRITES][];
+        birthDates = new LocalDate[clients + WRITES];
+        index.bulkLoad(() -> {
+            for (int i = 0; i < clients; i++) {
+                index.put(i + 1, client(random, i), birthDates[i]);
+            }
+        });
+        // A misspelling of an existing client
+        String existing = String.join(" ", tokens[clients / 2]);
+        probeName = existing.substring(0, existing.length() - 1) + "e";
+        probeBirthDate = birthDates[clients / 2];
+        // Written after the load, as through the API, so lookups also scan a full delta
+        for (int i = clients; i < clients + WRITES; i++) {
+            index.put(i + 1, client(random, i), birthDates[i]);
+        }
+    }
+
+    // Also fills in tokens and birthDates at i
+    private String client(Random random, int i) {
+        StringBuilder surname = new StringBuilder();
+        for (int syllables = 2 + random.nextInt(2); syllables > 0; syllables--) {
+            surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        surname.setCharAt(0, Character.toUpperCase(surname.charAt(0)));
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surname;
+        birthDates[i] = EPOCH.plusDays(random.nextInt(80 * 365));
+        tokens[i] = NameNormalizer.tokens(NameNormalizer.normalize(name));
+        return name;
+    }
+
+    @Benchmark
+    public List<ClientMatch> prefix() {
+        return index.prefix("kaber", 20);
+    }
+
+    @Benchmark
+    public List<ClientMatch> tokenPrefixes() {
+        return index.prefix("jo kaber", 20);
+    }
+
+    @Benchmark
+    public List<ClientMatch> duplicates() {
+        return index.duplicates(probeName, probeBirthDate, 0.9, 5);
+    }
+
+    @Benchmark
+    public List<Integer> linearDuplicates() {
+        String[] probe = NameNormalizer.tokens(NameNormalizer.normalize(probeName));
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < tokens.length; i++) {
+            if (birthDates[i].getYear() == probeBirthDate.getYear() && NameSimilarity.of(probe, tokens[i]) >= 0.875) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+}
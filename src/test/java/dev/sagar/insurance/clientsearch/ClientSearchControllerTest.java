@@ -0,0 +1,92 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ClientSearchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ClientSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ClientSearchController controller = new ClientSearchController(index,
+                new ClientSearchProperties(true, Duration.ofHours(1), 10_000, 0.9, 50));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void searchClients_shouldReturnPrefixMatches() throws Exception {
+        when(index.findByPrefix("smi", 20))
+                .thenReturn(Optional.of(List.of(new ClientMatch(1L, "John Smith", LocalDate.of(1980, 4, 2), null))));
+
+        mockMvc.perform(get("/api/clients/search").param("q", "smi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("John Smith"))
+                .andExpect(jsonPath("$[0].score").doesNotExist());
+    }
+
+    @Test
+    void searchClients_shouldReturnScoredDuplicates() throws Exception {
+        when(index.findDuplicates("Jon Smith", LocalDate.of(1980, 4, 2), 5))
+                .thenReturn(Optional.of(List.of(new ClientMatch(1L, "John Smith", LocalDate.of(1980, 4, 2), 0.97))));
+
+        mockMvc.perform(get("/api/clients/search")
+                        .param("name", "Jon Smith")
+                        .param("dateOfBirth", "1980-04-02")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].score").value(0.97));
+    }
+
+    @Test
+    void searchClients_shouldReturnServiceUnavailableBeforeFirstBuild() throws Exception {
+        when(index.findByPrefix(anyString(), anyInt())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/clients/search").param("q", "smi"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void searchClients_shouldRejectMixedOrIncompleteCriteria() throws Exception {
+        mockMvc.perform(get("/api/clients/search").param("name", "Jon Smith"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search by q, or by name and dateOfBirth"));
+        mockMvc.perform(get("/api/clients/search").param("q", "smi").param("name", "Jon Smith").param("dateOfBirth", "1980-04-02"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/clients/search").param("q", "smi").param("limit", "51"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("limit must be between 1 and 50"));
+
+        verifyNoInteractions(index);
+    }
+}
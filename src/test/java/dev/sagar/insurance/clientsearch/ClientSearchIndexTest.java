@@ -0,0 +1,94 @@
+package dev.sagar.insurance.clientsearch;
+
+import dev.sagar.insurance.transaction.Synchronizations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static dev.sagar.insurance.transaction.Synchronizations.rollback;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientSearchIndexTest {
+
+    private static final LocalDate BORN = LocalDate.of(1980, 4, 2);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        Synchronizations.clear();
+    }
+
+    @Test
+    void lookups_shouldBeEmptyUntilFirstRebuild() {
+        ClientSearchIndex index = new ClientSearchIndex(loader(), 0.9, meterRegistry);
+
+        assertTrue(index.findByPrefix("smi", 10).isEmpty());
+        assertTrue(index.findDuplicates("John Smith", BORN, 10).isEmpty());
+        index.rebuild();
+
+        assertEquals(List.of(1L), ids(index.findByPrefix("smi", 10).orElseThrow()));
+        assertEquals(List.of(1L), ids(index.findDuplicates("Jon Smith", BORN, 10).orElseThrow()));
+        assertEquals(1L, meterRegistry.get("insurance.client-search.queries").tag("type", "prefix").timer().count());
+        assertEquals(1L, meterRegistry.get("insurance.client-search.queries").tag("type", "duplicates").timer().count());
+    }
+
+    @Test
+    void changes_shouldApplyOnlyAfterCommit() {
+        ClientSearchIndex index = new ClientSearchIndex(loader(), 0.9, meterRegistry);
+        index.rebuild();
+
+        begin();
+        index.clientIndexed(2L, "Mary Jones", BORN);
+        assertEquals(List.of(), ids(index.findByPrefix("jones", 10).orElseThrow()));
+        commit();
+        assertEquals(List.of(2L), ids(index.findByPrefix("jones", 10).orElseThrow()));
+
+        begin();
+        index.clientRemoved(2L);
+        rollback();
+        assertEquals(List.of(2L), ids(index.findByPrefix("jones", 10).orElseThrow()));
+    }
+
+    @Test
+    void rebuild_shouldReplayChangesCommittedDuringTheScan() {
+        ClientSearchIndex[] holder = new ClientSearchIndex[1];
+        ClientSearchIndex index = new ClientSearchIndex(new ClientSearchLoader(List.of(), 0) {
+            @Override
+            public void load(ClientConsumer consumer) {
+                consumer.accept(1L, "John Smith", BORN);
+                consumer.accept(2L, "Mary Jones", BORN);
+                // Committed while the scan is running, after it has read both rows
+                holder[0].clientIndexed(1L, "John Smythe", BORN);
+                holder[0].clientRemoved(2L);
+            }
+        }, 0.9, meterRegistry);
+        holder[0] = index;
+
+        ClientSearchRebuild result = index.rebuild();
+
+        assertEquals(2, result.replayed());
+        assertEquals(1, result.clients());
+        assertEquals(List.of(1L), ids(index.findByPrefix("smythe", 10).orElseThrow()));
+        assertEquals(List.of(), ids(index.findByPrefix("jones", 10).orElseThrow()));
+    }
+
+    private static ClientSearchLoader loader() {
+        return new ClientSearchLoader(List.of(), 0) {
+            @Override
+            public void load(ClientConsumer consumer) {
+                consumer.accept(1L, "John Smith", BORN);
+            }
+        };
+    }
+
+    private static List<Long> ids(List<ClientMatch> matches) {
+        return matches.stream().map(ClientMatch::id).toList();
+    }
+}
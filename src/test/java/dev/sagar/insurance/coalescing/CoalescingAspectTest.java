@@ -0,0 +1,111 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.routing.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoalescingAspectTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(TimeUnit.SECONDS.toNanos(5), System::nanoTime);
+    private final PolicyReader reader = new PolicyReader();
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesTracker.unbind();
+        reader.release.countDown();
+    }
+
+    @Test
+    void coalesce_shouldShareLoadBetweenConcurrentCallers() throws Exception {
+        PolicyReader proxy = proxy(tracker);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> proxy.getPolicyById(1L));
+        awaitInFlight();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> proxy.getPolicyById(1L));
+        Thread.sleep(50);
+        reader.release.countDown();
+
+        assertEquals("policy 1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("policy 1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, reader.loads.get());
+    }
+
+    @Test
+    void coalesce_shouldLoadAloneInsideCallersTransaction() throws Exception {
+        PolicyReader proxy = proxy(tracker);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> proxy.getPolicyById(1L));
+        awaitInFlight();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            reader.release.countDown();
+            assertEquals("policy 1", proxy.getPolicyById(1L));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(2, reader.loads.get());
+    }
+
+    @Test
+    void coalesce_shouldLoadAloneForClientPinnedToPrimary() throws Exception {
+        PolicyReader proxy = proxy(tracker);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> proxy.getPolicyById(1L));
+        awaitInFlight();
+
+        tracker.recordWrite("client-a");
+        ReadYourWritesTracker.bind("client-a");
+        reader.release.countDown();
+        assertEquals("policy 1", proxy.getPolicyById(1L));
+
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(2, reader.loads.get());
+    }
+
+    private PolicyReader proxy(ReadYourWritesTracker readYourWrites) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("readYourWritesTracker", readYourWrites);
+        ObjectProvider<ReadYourWritesTracker> provider = beans.getBeanProvider(ReadYourWritesTracker.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(reader);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CoalescingAspect(coalescer, provider));
+        return factory.getProxy();
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, coalescer.inFlight());
+    }
+
+    static class PolicyReader {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+
+        @Coalesced(Coalesced.POLICY)
+        public String getPolicyById(Long id) {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "policy " + id;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.sagar.insurance.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=RequestCoalescerBenchmark
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RequestCoalescerBenchmark {
+
+    private static final int POLICIES = 1_000_000;
+    // Stands in for the database round trip
+    private static final long LOAD_TOKENS = 2_000;
+
+    private RequestCoalescer coalescer;
+
+    @Setup
+    public void setUp() {
+        coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long direct() {
+        return load(ThreadLocalRandom.current().nextLong(POLICIES));
+    }
+
+    // Every thread reads its own policy, so nothing coalesces: the bookkeeping is pure overhead
+    @Benchmark
+    public long uncontended() throws Throwable {
+        long id = ThreadLocalRandom.current().nextLong(POLICIES);
+        return coalescer.load(Coalesced.POLICY, id, () -> load(id));
+    }
+
+    // Every thread reads the same policy
+    @Benchmark
+    public long hotKey() throws Throwable {
+        return coalescer.load(Coalesced.POLICY, 1L, () -> load(1L));
+    }
+
+    private static long load(long id) {
+        Blackhole.consumeCPU(LOAD_TOKENS);
+        return id;
+    }
+}
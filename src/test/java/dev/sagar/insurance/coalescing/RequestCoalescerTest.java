@@ -0,0 +1,191 @@
+package dev.sagar.insurance.coalescing;
+
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.transaction.Synchronizations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_shouldShareOneInFlightLoadBetweenConcurrentCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Object policy = new Object();
+
+        CompletableFuture<Object> leader = load("policy", 1L, () -> {
+            loads.incrementAndGet();
+            release.await();
+            return policy;
+        });
+        awaitInFlight(1);
+        List<CompletableFuture<Object>> joiners = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            joiners.add(load("policy", 1L, () -> {
+                loads.incrementAndGet();
+                return new Object();
+            }));
+        }
+        awaitCount("joined", 5);
+        release.countDown();
+
+        assertSame(policy, leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<Object> joiner : joiners) {
+            assertSame(policy, joiner.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, coalescer.inFlight());
+        assertEquals(5.0 / 6, meterRegistry.get("insurance.coalescing.ratio").tag("entity", "policy").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void load_shouldHandEveryCallerTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = load("claim", 7L, () -> {
+            release.await();
+            throw new ResourceNotFoundException("Claim not found with id: 7");
+        });
+        awaitInFlight(1);
+        CompletableFuture<Object> joiner = load("claim", 7L, Object::new);
+        awaitCount("joined", 1);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException joinerFailure = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceNotFoundException.class, leaderFailure.getCause());
+        assertSame(leaderFailure.getCause(), joinerFailure.getCause());
+    }
+
+    @Test
+    void load_shouldKeepKeysApartByEntityAndId() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> policy = load("policy", 1L, () -> {
+            release.await();
+            return "policy 1";
+        });
+        awaitInFlight(1);
+
+        assertEquals("claim 1", coalescer.load("claim", 1L, () -> "claim 1"));
+        assertEquals("policy 2", coalescer.load("policy", 2L, () -> "policy 2"));
+        release.countDown();
+        assertEquals("policy 1", policy.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("insurance.coalescing.requests").tag("outcome", "joined").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void load_shouldNotCacheFinishedLoads() throws Throwable {
+        AtomicInteger loads = new AtomicInteger();
+
+        coalescer.load("client", 3L, loads::incrementAndGet);
+        coalescer.load("client", 3L, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void load_shouldNotJoinLoadStartedBeforeCommittedWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> stale = load("policy", 1L, () -> {
+            release.await();
+            return "before";
+        });
+        awaitInFlight(1);
+
+        coalescer.invalidate("policy", 1L);
+        CompletableFuture<Object> fresh = load("policy", 1L, () -> "after");
+
+        assertEquals("after", fresh.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("before", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void invalidate_shouldWaitForTransactionToCommit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> inFlight = load("claim", 9L, () -> {
+            release.await();
+            return "before";
+        });
+        awaitInFlight(1);
+
+        begin();
+        try {
+            coalescer.invalidate("claim", 9L);
+            // Not committed yet: a concurrent reader may still share the running load
+            CompletableFuture<Object> concurrent = load("claim", 9L, () -> "unexpected");
+            awaitCount("joined", 1);
+
+            commit();
+            CompletableFuture<Object> afterCommit = load("claim", 9L, () -> "after");
+
+            assertEquals("after", afterCommit.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertEquals("before", concurrent.get(5, TimeUnit.SECONDS));
+            assertEquals("before", inFlight.get(5, TimeUnit.SECONDS));
+        } finally {
+            Synchronizations.clear();
+        }
+    }
+
+    private CompletableFuture<Object> load(String entity, long id, RequestCoalescer.Loader<Object> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return coalescer.load(entity, id, loader);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    private void awaitInFlight(int flights) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.inFlight() < flights && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(flights, coalescer.inFlight());
+    }
+
+    private void awaitCount(String outcome, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, count(outcome));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.find("insurance.coalescing.requests").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+}
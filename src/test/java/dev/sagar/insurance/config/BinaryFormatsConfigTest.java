@@ -0,0 +1,111 @@
+package dev.sagar.insurance.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import dev.sagar.insurance.policy.PolicyController;
+import dev.sagar.insurance.policy.PolicyDTO;
+import dev.sagar.insurance.policy.PolicyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryFormatsConfigTest {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private MockMvc mockMvc;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    @Mock
+    private PolicyService policyService;
+
+    @InjectMocks
+    private PolicyController policyController;
+
+    private PolicyDTO policyDTO;
+
+    @BeforeEach
+    void setUp() {
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+        MappingJackson2CborHttpMessageConverter cbor = config.cborHttpMessageConverter(builder());
+        MappingJackson2SmileHttpMessageConverter smile = config.smileHttpMessageConverter(builder());
+        cborMapper = cbor.getObjectMapper();
+        smileMapper = smile.getObjectMapper();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(policyController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(builder().build()), cbor, smile)
+                .build();
+        policyDTO = new PolicyDTO(1L, "POL12345", "AUTO", new BigDecimal("25000.50"), new BigDecimal("499.99"),
+                LocalDate.of(2023, 1, 1), LocalDate.of(2024, 1, 1), 7L);
+    }
+
+    // Boot's builder writes dates as ISO strings
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void getAllPolicies_shouldEncodeCborWhenAccepted() throws Exception {
+        when(policyService.getAllPolicies()).thenReturn(List.of(policyDTO));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/policies").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn();
+
+        PolicyDTO[] decoded = cborMapper.readValue(result.getResponse().getContentAsByteArray(), PolicyDTO[].class);
+        assertEquals(List.of(policyDTO), List.of(decoded));
+        assertEquals("2023-01-01", cborMapper.readTree(result.getResponse().getContentAsByteArray()).get(0).get("startDate").asText());
+    }
+
+    @Test
+    void createPolicy_shouldDecodeAndEncodeSmile() throws Exception {
+        when(policyService.createPolicy(any(PolicyDTO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/policies")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(policyDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        assertEquals(policyDTO, smileMapper.readValue(result.getResponse().getContentAsByteArray(), PolicyDTO.class));
+    }
+
+    @Test
+    void getAllPolicies_shouldStillDefaultToJson() throws Exception {
+        when(policyService.getAllPolicies()).thenReturn(List.of(policyDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/policies"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,108 @@
+package dev.sagar.insurance.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimStatus;
+import dev.sagar.insurance.policy.PolicyDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main SerializationFormatBenchmark"
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SerializationFormatBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"claims", "policies"})
+    private String payload;
+
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private List<?> list;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Same settings the application's converters use
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(factory)
+                .build();
+        Random random = new Random(42);
+        if (payload.equals("claims")) {
+            list = claims(random);
+            reader = mapper.readerFor(ClaimDTO[].class);
+        } else {
+            list = policies(random);
+            reader = mapper.readerFor(PolicyDTO[].class);
+        }
+        encoded = mapper.writeValueAsBytes(list);
+        System.out.printf("%n%s %s: %d bytes for %d elements%n", format, payload, encoded.length, ELEMENTS);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    private static List<ClaimDTO> claims(Random random) {
+        List<ClaimDTO> claims = new ArrayList<>(ELEMENTS);
+        for (long i = 1; i <= ELEMENTS; i++) {
+            claims.add(new ClaimDTO(i, "CLM" + i, "Water damage to the basement after a burst pipe, reported by the tenant " + i,
+                    LocalDate.of(2023, 1, 1).plusDays(random.nextInt(600)), random.nextBoolean() ? ClaimStatus.OPEN : ClaimStatus.CLOSED,
+                    BigDecimal.valueOf(random.nextInt(100, 50_000)), BigDecimal.ZERO, BigDecimal.ZERO, i / 2 + 1));
+        }
+        return claims;
+    }
+
+    private static List<PolicyDTO> policies(Random random) {
+        List<PolicyDTO> policies = new ArrayList<>(ELEMENTS);
+        for (long i = 1; i <= ELEMENTS; i++) {
+            LocalDate start = LocalDate.of(2022, 1, 1).plusDays(random.nextInt(700));
+            policies.add(new PolicyDTO(i, "POL" + i, random.nextBoolean() ? "AUTO" : "HOME",
+                    BigDecimal.valueOf(1_000_000 + random.nextInt(49_000_000), 2),
+                    BigDecimal.valueOf(10_000 + random.nextInt(300_000), 2), start, start.plusYears(1), i / 3 + 1));
+        }
+        return policies;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.sagar.insurance.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 30);
+
+    @Test
+    void generate_shouldInsertRowsWithValidReferences() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(createDatabase("datagen-refs"));
+
+        DataGenerationResult result = generator(jdbcTemplate.getDataSource(), 42, 4).generate();
+
+        assertEquals(500, result.clients());
+        assertEquals(result.clients(), count(jdbcTemplate, "client"));
+        assertEquals(result.policies(), count(jdbcTemplate, "policy"));
+        assertEquals(result.claims(), count(jdbcTemplate, "claim"));
+        assertTrue(result.policies() >= result.clients());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM claim c JOIN policy p ON p.id = c.policy_id WHERE c.claim_date < p.start_date", Long.class));
+    }
+
+    @Test
+    void generate_shouldBeReproducibleRegardlessOfThreadCount() {
+        JdbcTemplate first = new JdbcTemplate(createDatabase("datagen-first"));
+        JdbcTemplate second = new JdbcTemplate(createDatabase("datagen-second"));
+
+        generator(first.getDataSource(), 7, 1).generate();
+        generator(second.getDataSource(), 7, 8).generate();
+
+        assertEquals(fingerprint(first), fingerprint(second));
+    }
+
+    @Test
+    void generate_shouldContinueIdentityAfterGeneratedRows() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(createDatabase("datagen-identity"));
+        generator(jdbcTemplate.getDataSource(), 42, 2).generate();
+
+        jdbcTemplate.update("INSERT INTO client (name) VALUES ('New Client')");
+
+        assertEquals(501L, jdbcTemplate.queryForObject("SELECT MAX(id) FROM client", Long.class));
+    }
+
+    private SyntheticDataGenerator generator(DataSource dataSource, long seed, int threads) {
+        DataGeneratorProperties properties = new DataGeneratorProperties(500, 2.0, 1.5, seed, 64, 50, threads, false, AS_OF);
+        return new SyntheticDataGenerator(dataSource, properties);
+    }
+
+    private List<Map<String, Object>> fingerprint(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("""
+                SELECT p.type, COUNT(DISTINCT p.id) AS policies, SUM(p.coverage_amount) AS coverage, COUNT(c.id) AS claims,
+                       SUM(DATEDIFF('DAY', DATE '2000-01-01', c.claim_date)) AS claim_days, SUM(c.paid_amount) AS paid
+                FROM policy p LEFT JOIN claim c ON c.policy_id = p.id
+                GROUP BY p.type ORDER BY p.type
+                """);
+    }
+
+    private long count(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private DataSource createDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("""
+                CREATE TABLE client (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(255),
+                    date_of_birth DATE, address VARCHAR(255), contact_information VARCHAR(255),
+                    created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE policy (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, policy_number VARCHAR(255),
+                    type VARCHAR(255), coverage_amount NUMERIC(38, 2), premium NUMERIC(38, 2), start_date DATE, end_date DATE,
+                    client_id BIGINT REFERENCES client (id), created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE)
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE claim (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, claim_number VARCHAR(255),
+                    description VARCHAR(255), claim_date DATE, status VARCHAR(255), claimed_amount NUMERIC(38, 2),
+                    reserved_amount NUMERIC(38, 2), paid_amount NUMERIC(38, 2), policy_id BIGINT REFERENCES policy (id),
+                    created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE)
+                """);
+        return dataSource;
+    }
+}
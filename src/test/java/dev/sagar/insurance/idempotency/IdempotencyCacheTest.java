@@ -0,0 +1,160 @@
+package dev.sagar.insurance.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyCacheTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void begin_shouldReplayStoredResponseForSameBody() {
+        IdempotencyCache cache = cache(null);
+        IdempotencyCache.Attempt attempt = execute(cache.begin("k1", "body-a", WAIT));
+        IdempotentResponse response = cache.response("body-a", 201, Map.of(), "{}".getBytes());
+        cache.complete(attempt, response);
+
+        assertSame(response, ((IdempotencyCache.Replay) cache.begin("k1", "body-a", WAIT)).response());
+        assertInstanceOf(IdempotencyCache.Mismatch.class, cache.begin("k1", "body-b", WAIT));
+        assertInstanceOf(IdempotencyCache.Execute.class, cache.begin("k2", "body-a", WAIT));
+        assertEquals(1.0, meterRegistry.get("insurance.idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void begin_shouldMakeConcurrentRetryWaitForFirstAttempt() throws Exception {
+        IdempotencyCache cache = cache(null);
+        IdempotencyCache.Attempt attempt = execute(cache.begin("k1", "body-a", WAIT));
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<IdempotencyCache.Decision> retry = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return cache.begin("k1", "body-a", WAIT);
+        });
+        waiting.await();
+        // A retry with another body is answered at once, without waiting
+        assertInstanceOf(IdempotencyCache.Mismatch.class, cache.begin("k1", "body-b", WAIT));
+        Thread.sleep(50);
+        assertFalse(retry.isDone());
+
+        IdempotentResponse response = cache.response("body-a", 201, Map.of(), new byte[0]);
+        cache.complete(attempt, response);
+
+        assertSame(response, ((IdempotencyCache.Replay) retry.get(5, TimeUnit.SECONDS)).response());
+    }
+
+    @Test
+    void begin_shouldLetWaitingRetryRunWhenFirstAttemptLeavesNothingToReplay() throws Exception {
+        IdempotencyCache cache = cache(null);
+        IdempotencyCache.Attempt attempt = execute(cache.begin("k1", "body-a", WAIT));
+        CompletableFuture<IdempotencyCache.Decision> retry = CompletableFuture.supplyAsync(() -> cache.begin("k1", "body-a", WAIT));
+        Thread.sleep(50);
+
+        // For example a 500
+        cache.complete(attempt, null);
+
+        assertInstanceOf(IdempotencyCache.Execute.class, retry.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void begin_shouldGiveUpWaitingAfterTimeout() {
+        IdempotencyCache cache = cache(null);
+        execute(cache.begin("k1", "body-a", WAIT));
+
+        assertInstanceOf(IdempotencyCache.InProgress.class, cache.begin("k1", "body-a", Duration.ofMillis(20)));
+    }
+
+    @Test
+    void begin_shouldForgetResponsesAfterTtl() {
+        IdempotencyCache cache = cache(null);
+        cache.complete(execute(cache.begin("k1", "body-a", WAIT)), cache.response("body-a", 201, Map.of(), new byte[0]));
+
+        clock.advance(Duration.ofHours(23));
+        assertInstanceOf(IdempotencyCache.Replay.class, cache.begin("k1", "body-a", WAIT));
+        clock.advance(Duration.ofHours(1));
+        assertInstanceOf(IdempotencyCache.Execute.class, cache.begin("k1", "body-b", WAIT));
+    }
+
+    @Test
+    void begin_shouldFallBackToPersistentStore() {
+        InMemoryIdempotencyStore persistent = new InMemoryIdempotencyStore(100);
+        IdempotencyCache before = cache(persistent);
+        before.complete(execute(before.begin("k1", "body-a", WAIT)), before.response("body-a", 201, Map.of(), new byte[0]));
+
+        // A fresh cache, as after a restart
+        IdempotencyCache after = cache(persistent);
+
+        assertInstanceOf(IdempotencyCache.Replay.class, after.begin("k1", "body-a", WAIT));
+    }
+
+    @Test
+    void inMemoryStore_shouldEvictOldestBeyondMaxEntriesAndPurgeExpired() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2);
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        store.save("k1", response(now.plusSeconds(10)));
+        store.save("k2", response(now.plusSeconds(20)));
+        store.save("k3", response(now.plusSeconds(30)));
+
+        assertTrue(store.find("k1", now).isEmpty());
+        assertEquals(2, store.size());
+        assertEquals(1, store.purgeExpired(now.plusSeconds(25)));
+        assertEquals(Optional.empty(), store.find("k2", now));
+        assertTrue(store.find("k3", now).isPresent());
+    }
+
+    private IdempotencyCache cache(IdempotencyStore persistent) {
+        return new IdempotencyCache(new InMemoryIdempotencyStore(100), persistent, Duration.ofHours(24), clock, meterRegistry);
+    }
+
+    private static IdempotencyCache.Attempt execute(IdempotencyCache.Decision decision) {
+        return assertInstanceOf(IdempotencyCache.Execute.class, decision).attempt();
+    }
+
+    private static IdempotentResponse response(Instant expiresAt) {
+        return new IdempotentResponse("fingerprint", 201, Map.of("Location", List.of("/api/clients/1")), new byte[0], expiresAt);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package dev.sagar.insurance.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private int status = 201;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties(true, "Idempotency-Key", "X-API-Key",
+                List.of("/api/clients"), Duration.ofHours(24), 100, 1024, Duration.ofSeconds(1), IdempotencyProperties.Store.MEMORY);
+        IdempotencyCache cache = new IdempotencyCache(new InMemoryIdempotencyStore(100), null, properties.ttl(),
+                Clock.systemUTC(), new SimpleMeterRegistry());
+        filter = new IdempotencyFilter(cache, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void doFilter_shouldReplayFirstResponseWithoutRunningRequestAgain() throws Exception {
+        MockHttpServletResponse first = post("partner-a", "k1", "{\"name\":\"John\"}");
+        MockHttpServletResponse retry = post("partner-a", "k1", "{\"name\":\"John\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("created 1 from {\"name\":\"John\"}", retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("/api/clients/1", retry.getHeader("Location"));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        // Set in front of the filter, so fresh on every response rather than replayed
+        assertEquals(List.of("2"), retry.getHeaders("RateLimit-Remaining"));
+    }
+
+    @Test
+    void doFilter_shouldScopeKeysPerClient() throws Exception {
+        post("partner-a", "k1", "{}");
+        post("partner-b", "k1", "{}");
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldRejectKeyReusedWithDifferentBody() throws Exception {
+        post("partner-a", "k1", "{\"name\":\"John\"}");
+        MockHttpServletResponse reused = post("partner-a", "k1", "{\"name\":\"Jane\"}");
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldRunRequestAgainAfterServerError() throws Exception {
+        status = 500;
+        post("partner-a", "k1", "{}");
+        status = 201;
+        MockHttpServletResponse retry = post("partner-a", "k1", "{}");
+
+        assertEquals(201, retry.getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldIgnoreRequestsWithoutKeyOrOutsideConfiguredPaths() throws Exception {
+        post("partner-a", null, "{}");
+        post("partner-a", null, "{}");
+        MockHttpServletRequest update = new MockHttpServletRequest("PUT", "/api/clients/1");
+        update.addHeader("Idempotency-Key", "k1");
+        filter.doFilter(update, new MockHttpServletResponse(), new MockFilterChain(new CreatingServlet()));
+        filter.doFilter(update, new MockHttpServletResponse(), new MockFilterChain(new CreatingServlet()));
+
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldRejectOverlongKey() throws Exception {
+        MockHttpServletResponse response = post("partner-a", "k".repeat(256), "{}");
+
+        assertEquals(400, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldRejectDeclaredBodyOverLimitWithoutReadingIt() throws Exception {
+        MockHttpServletResponse response = post("partner-a", "k1", "x".repeat(1025));
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldRejectChunkedBodyOverLimit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/clients");
+        request.addHeader("Idempotency-Key", "k1");
+        request.setContent("x".repeat(1025).getBytes());
+        HttpServletRequest chunked = new HttpServletRequestWrapper(request) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(chunked, response, new MockFilterChain(new CreatingServlet()));
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void doFilter_shouldAcceptBodyAtLimit() throws Exception {
+        MockHttpServletResponse response = post("partner-a", "k1", "x".repeat(1024));
+
+        assertEquals(201, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    private MockHttpServletResponse post(String client, String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/clients");
+        request.addHeader("X-API-Key", client);
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader("RateLimit-Remaining", "2");
+        filter.doFilter(request, response, new MockFilterChain(new CreatingServlet()));
+        return response;
+    }
+
+    private class CreatingServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            int id = executions.incrementAndGet();
+            String body = new String(request.getInputStream().readAllBytes());
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.setHeader("Location", "/api/clients/" + id);
+            response.getWriter().write("created " + id + " from " + body);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.sagar.insurance.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcIdempotencyStoreTest {
+
+    // save compares with the wall clock when a key is taken
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private DriverManagerDataSource dataSource;
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:idempotency-test;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("DROP TABLE IF EXISTS idempotency_record");
+        store = new JdbcIdempotencyStore(dataSource);
+    }
+
+    @Test
+    void save_shouldRoundTripResponseAndKeepFirstOne() {
+        Map<String, List<String>> headers = Map.of("Content-Type", List.of("application/json"),
+                "X-Possible-Duplicates", List.of("7,9"));
+        store.save("partner ip /api/clients k1", new IdempotentResponse("abc", 201, headers, "{\"id\":1}".getBytes(), NOW.plusSeconds(60)));
+        store.save("partner ip /api/clients k1", new IdempotentResponse("def", 400, Map.of(), new byte[0], NOW.plusSeconds(60)));
+
+        IdempotentResponse found = store.find("partner ip /api/clients k1", NOW).orElseThrow();
+        assertEquals("abc", found.fingerprint());
+        assertEquals(201, found.status());
+        assertEquals(headers, found.headers());
+        assertArrayEquals("{\"id\":1}".getBytes(), found.body());
+        assertEquals(NOW.plusSeconds(60), found.expiresAt());
+    }
+
+    @Test
+    void findAndPurge_shouldIgnoreExpiredRecords() {
+        store.save("k1", new IdempotentResponse("abc", 201, Map.of(), new byte[0], NOW.plusSeconds(10)));
+        store.save("k2", new IdempotentResponse("abc", 201, Map.of(), new byte[0], NOW.plusSeconds(30)));
+
+        assertTrue(store.find("k1", NOW.plusSeconds(10)).isEmpty());
+        assertEquals(1, store.purgeExpired(NOW.plusSeconds(20)));
+        assertTrue(store.find("k2", NOW.plusSeconds(20)).isPresent());
+    }
+
+    @Test
+    void save_shouldReplaceExpiredRecord() {
+        store.save("k1", new IdempotentResponse("old", 201, Map.of(), new byte[0], NOW.minusSeconds(1)));
+        store.save("k1", new IdempotentResponse("new", 201, Map.of(), new byte[0], NOW.plusSeconds(60)));
+
+        assertEquals("new", store.find("k1", NOW).orElseThrow().fingerprint());
+    }
+}
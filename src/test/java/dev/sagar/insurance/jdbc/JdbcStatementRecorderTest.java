@@ -0,0 +1,72 @@
+package dev.sagar.insurance.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcStatementRecorderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcStatementRecorder recorder;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new JdbcStatementRecorder(new JdbcMonitoringProperties(true, Duration.ofSeconds(1), 4, 10), meterRegistry);
+        DataSource dataSource = MonitoringProxies.dataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:recorder-test;DB_CLOSE_DELAY=-1", "sa", ""), recorder);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, status VARCHAR(20))");
+    }
+
+    @Test
+    void preparedStatements_shouldBeGroupedByShape() {
+        jdbcTemplate.update("INSERT INTO claim (id, status) VALUES (?, ?)", 1L, "OPEN");
+        jdbcTemplate.update("INSERT INTO claim (id, status) VALUES (?, ?)", 2L, "CLOSED");
+
+        StatementSummary insert = find("INSERT INTO claim (id, status) VALUES (?...)");
+
+        assertEquals(2, insert.executions());
+        assertEquals(2, meterRegistry.get("insurance.jdbc.statements").tag("operation", "insert").timer().count());
+    }
+
+    @Test
+    void batches_shouldBeRecordedAsOneExecution() {
+        jdbcTemplate.batchUpdate("INSERT INTO claim (id, status) VALUES (?, ?)", List.of(
+                new Object[]{1L, "OPEN"}, new Object[]{2L, "OPEN"}, new Object[]{3L, "OPEN"}));
+
+        assertEquals(1, find("INSERT INTO claim (id, status) VALUES (?...)").executions());
+    }
+
+    @Test
+    void shapesBeyondLimit_shouldBeFoldedIntoOther() {
+        jdbcTemplate.queryForList("SELECT id FROM claim");
+        jdbcTemplate.queryForList("SELECT status FROM claim");
+        jdbcTemplate.queryForList("SELECT id, status FROM claim");
+
+        // The schema setup already used two of the four shapes
+        List<StatementSummary> top = recorder.top("count");
+
+        assertEquals(5, top.size());
+        assertTrue(top.stream().anyMatch(summary -> summary.id().equals(JdbcStatementRecorder.OTHER_SHAPE)));
+        assertTrue(top.stream().noneMatch(summary -> summary.shape().equals("SELECT id, status FROM claim")));
+    }
+
+    private StatementSummary find(String shape) {
+        return recorder.top("count").stream()
+                .filter(summary -> summary.shape().equals(shape))
+                .findFirst()
+                .orElseThrow();
+    }
+}
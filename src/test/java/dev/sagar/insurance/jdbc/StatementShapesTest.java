@@ -0,0 +1,27 @@
+package dev.sagar.insurance.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementShapesTest {
+
+    @Test
+    void normalize_shouldReplaceLiteralsAndCollapseWhitespace() {
+        String shape = StatementShapes.normalize("SELECT *\n  FROM claim WHERE status = 'O''PEN' AND id > 42 AND c1_0.id=?");
+
+        assertEquals("SELECT * FROM claim WHERE status = ? AND id > ? AND c1_0.id=?", shape);
+    }
+
+    @Test
+    void normalize_shouldCollapseInListsOfAnyLength() {
+        assertEquals(StatementShapes.normalize("select * from claim where id in (?, ?)"),
+                StatementShapes.normalize("select * from claim where id in (?,?,?,?)"));
+    }
+
+    @Test
+    void operation_shouldReturnLowerCaseVerb() {
+        assertEquals("select", StatementShapes.operation("SELECT 1"));
+        assertEquals("update", StatementShapes.operation("update claim set status=?"));
+    }
+}
@@ -0,0 +1,63 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class LossRatioControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private LossRatioEngine engine;
+
+    @InjectMocks
+    private LossRatioController lossRatioController;
+
+    private LossRatio autoLossRatio;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(lossRatioController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        autoLossRatio = new LossRatio("AUTO", 2, 3, new BigDecimal("2000.00"), new BigDecimal("1500.00"),
+                new BigDecimal("200.00"), new BigDecimal("900.00"), new BigDecimal("0.4500"), new BigDecimal("0.5500"));
+    }
+
+    @Test
+    void getLossRatiosByType_shouldReturnAllTypes() throws Exception {
+        when(engine.byType()).thenReturn(List.of(autoLossRatio));
+
+        mockMvc.perform(get("/api/loss-ratios/types"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value("AUTO"))
+                .andExpect(jsonPath("$[0].paidLossRatio").value(0.45))
+                .andExpect(jsonPath("$[0].incurredLossRatio").value(0.55));
+    }
+
+    @Test
+    void getPolicyLossRatio_shouldReturnNotFoundForUnknownPolicy() throws Exception {
+        when(engine.forPolicy(7L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/loss-ratios/policies/7"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No loss ratio for policy with id: 7"));
+    }
+}
@@ -0,0 +1,143 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.transaction.Synchronizations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.List;
+
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static dev.sagar.insurance.transaction.Synchronizations.rollback;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LossRatioEngineTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LossRatioEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:lossratio;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        for (String suffix : List.of("", "_archive")) {
+            jdbcTemplate.execute("CREATE TABLE policy" + suffix + " (id BIGINT PRIMARY KEY, client_id BIGINT, type VARCHAR(20), premium NUMERIC(38, 2))");
+            jdbcTemplate.execute("CREATE TABLE claim" + suffix + " (id BIGINT PRIMARY KEY, policy_id BIGINT, claimed_amount NUMERIC(38, 2),"
+                    + " reserved_amount NUMERIC(38, 2), paid_amount NUMERIC(38, 2))");
+        }
+        engine = new LossRatioEngine(new LedgerScanner(List.of(dataSource)), true, Clock.systemUTC());
+    }
+
+    @AfterEach
+    void tearDown() {
+        Synchronizations.clear();
+    }
+
+    @Test
+    void changes_shouldRollUpIntoPolicyClientTypeAndPortfolio() {
+        engine.policyChanged(null, new PolicyTerms(1L, 10L, "AUTO", 100_000));
+        engine.policyChanged(null, new PolicyTerms(2L, 10L, "HOME", 300_000));
+        engine.claimChanged(null, new ClaimAmounts(1L, 50_000, 40_000, 0));
+        engine.claimChanged(new ClaimAmounts(1L, 50_000, 40_000, 0), new ClaimAmounts(1L, 50_000, 0, 45_000));
+        engine.claimChanged(null, new ClaimAmounts(2L, 20_000, 0, 15_000));
+
+        LossRatio policy = engine.forPolicy(1L).orElseThrow();
+        assertEquals(new BigDecimal("450.00"), policy.paid());
+        assertEquals(new BigDecimal("0.4500"), policy.paidLossRatio());
+        LossRatio client = engine.forClient(10L).orElseThrow();
+        assertEquals(2, client.policies());
+        assertEquals(2, client.claims());
+        assertEquals(new BigDecimal("0.1500"), client.paidLossRatio());
+        assertEquals(new BigDecimal("0.0500"), engine.forType("HOME").orElseThrow().paidLossRatio());
+        assertEquals(new BigDecimal("4000.00"), engine.forPortfolio().premium());
+    }
+
+    @Test
+    void policyChange_shouldMoveAccumulatedClaimsToNewTypeAndClient() {
+        engine.policyChanged(null, new PolicyTerms(1L, 10L, "AUTO", 100_000));
+        engine.claimChanged(null, new ClaimAmounts(1L, 50_000, 10_000, 30_000));
+
+        engine.policyChanged(new PolicyTerms(1L, 10L, "AUTO", 100_000), new PolicyTerms(1L, 11L, "HOME", 200_000));
+
+        assertTrue(engine.forType("AUTO").isEmpty());
+        assertTrue(engine.forClient(10L).isEmpty());
+        LossRatio home = engine.forType("HOME").orElseThrow();
+        assertEquals(new BigDecimal("2000.00"), home.premium());
+        assertEquals(new BigDecimal("0.2000"), home.incurredLossRatio());
+        assertEquals(1, engine.forClient(11L).orElseThrow().claims());
+    }
+
+    @Test
+    void policyRemove_shouldDropItsClaimsWhateverTheCascadeOrder() {
+        engine.policyChanged(null, new PolicyTerms(1L, 10L, "AUTO", 100_000));
+        engine.claimChanged(null, new ClaimAmounts(1L, 50_000, 0, 30_000));
+        engine.claimChanged(null, new ClaimAmounts(1L, 10_000, 0, 5_000));
+
+        engine.claimChanged(new ClaimAmounts(1L, 50_000, 0, 30_000), null);
+        engine.policyChanged(new PolicyTerms(1L, 10L, "AUTO", 100_000), null);
+        engine.claimChanged(new ClaimAmounts(1L, 10_000, 0, 5_000), null);
+
+        assertTrue(engine.forPolicy(1L).isEmpty());
+        assertTrue(engine.byType().isEmpty());
+        assertEquals(0, engine.forPortfolio().claims());
+        assertNull(engine.forPortfolio().paidLossRatio());
+    }
+
+    @Test
+    void changes_shouldApplyOnlyAfterCommit() {
+        begin();
+        engine.policyChanged(null, new PolicyTerms(1L, 10L, "AUTO", 100_000));
+        assertTrue(engine.forPolicy(1L).isEmpty());
+        commit();
+        assertEquals(1, engine.forPortfolio().policies());
+
+        begin();
+        engine.claimChanged(null, new ClaimAmounts(1L, 50_000, 0, 30_000));
+        rollback();
+        assertEquals(0, engine.forPortfolio().claims());
+    }
+
+    @Test
+    void reconcile_shouldFillEmptyAccumulatorsFromHotAndArchiveTables() {
+        jdbcTemplate.update("INSERT INTO policy VALUES (1, 10, 'AUTO', 1000.00)");
+        jdbcTemplate.update("INSERT INTO policy_archive VALUES (2, 10, 'AUTO', 500.00)");
+        jdbcTemplate.update("INSERT INTO claim VALUES (1, 1, 800.00, 0, 600.00)");
+        jdbcTemplate.update("INSERT INTO claim_archive VALUES (2, 2, 300.00, 0, 300.00)");
+
+        ReconciliationResult result = engine.reconcile();
+
+        assertEquals(2, result.policies());
+        assertEquals(2, result.mismatchedPolicies());
+        assertTrue(result.repaired());
+        assertEquals(new BigDecimal("0.6000"), engine.forType("AUTO").orElseThrow().paidLossRatio());
+        assertTrue(engine.reconcile().consistent());
+    }
+
+    @Test
+    void reconcile_shouldReportDriftAgainstFullScan() {
+        jdbcTemplate.update("INSERT INTO policy VALUES (1, 10, 'AUTO', 1000.00)");
+        jdbcTemplate.update("INSERT INTO claim VALUES (1, 1, 800.00, 0, 600.00)");
+        engine.reconcile();
+        // A payment written behind the engine's back
+        jdbcTemplate.update("UPDATE claim SET paid_amount = 700.00");
+
+        ReconciliationResult result = engine.reconcile();
+
+        assertFalse(result.consistent());
+        assertEquals(1, result.mismatchedPolicies());
+        assertEquals(1, result.mismatchedClients());
+        assertEquals(1, result.mismatchedTypes());
+        assertEquals("policy 1: expected premium=100000,claims=1,paid=70000,reserved=0, was premium=100000,claims=1,paid=60000,reserved=0",
+                result.samples().get(0));
+        assertEquals(new BigDecimal("700.00"), engine.forPolicy(1L).orElseThrow().paid());
+    }
+}
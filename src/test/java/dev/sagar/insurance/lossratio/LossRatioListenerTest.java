@@ -0,0 +1,87 @@
+package dev.sagar.insurance.lossratio;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.client.Client;
+import dev.sagar.insurance.policy.Policy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class LossRatioListenerTest {
+
+    @Mock
+    private ObjectProvider<LossRatioEngine> engineProvider;
+
+    @Mock
+    private LossRatioEngine engine;
+
+    private LossRatioListener listener;
+    private Policy policy;
+    private Claim claim;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<LossRatioEngine>>getArgument(0).accept(engine);
+            return null;
+        }).when(engineProvider).ifAvailable(any());
+        listener = new LossRatioListener(engineProvider);
+
+        Client client = new Client();
+        client.setId(10L);
+        policy = new Policy();
+        policy.setId(1L);
+        policy.setClient(client);
+        policy.setType("AUTO");
+        policy.setPremium(new BigDecimal("1000.00"));
+        claim = new Claim();
+        claim.setId(5L);
+        claim.setPolicy(policy);
+        claim.setClaimedAmount(new BigDecimal("800.00"));
+        claim.setReservedAmount(new BigDecimal("600.00"));
+        claim.setPaidAmount(BigDecimal.ZERO);
+    }
+
+    @Test
+    void recordWritten_shouldSendInsertThenUpdateDelta() {
+        listener.recordWritten(claim);
+        claim.setReservedAmount(BigDecimal.ZERO);
+        claim.setPaidAmount(new BigDecimal("650.00"));
+        listener.recordWritten(claim);
+
+        verify(engine).claimChanged(null, new ClaimAmounts(1L, 80_000, 60_000, 0));
+        verify(engine).claimChanged(new ClaimAmounts(1L, 80_000, 60_000, 0), new ClaimAmounts(1L, 80_000, 0, 65_000));
+    }
+
+    @Test
+    void recordWritten_shouldSkipUpdatesThatLeaveTermsUnchanged() {
+        listener.recordLoaded(policy);
+        policy.setPolicyNumber("POL99999");
+
+        listener.recordWritten(policy);
+
+        verifyNoInteractions(engineProvider);
+    }
+
+    @Test
+    void recordRemoved_shouldSubtractStateAsLoaded() {
+        listener.recordLoaded(policy);
+        policy.setPremium(new BigDecimal("1200.00"));
+
+        listener.recordRemoved(policy);
+
+        verify(engine).policyChanged(new PolicyTerms(1L, 10L, "AUTO", 100_000), null);
+    }
+}
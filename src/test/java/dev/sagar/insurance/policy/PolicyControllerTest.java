@@ -2,6 +2,7 @@ package dev.sagar.insurance.policy;
 
 import dev.sagar.insurance.exception.GlobalExceptionHandler;
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.projection.InvalidFieldsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +20,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -104,6 +106,31 @@ class PolicyControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void getPolicyById_withFields_shouldReturnOnlySelectedFields() throws Exception {
+        when(policyService.getPolicyById(1L, "policyNumber")).thenReturn(Map.of("policyNumber", "POL12345"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/policies/1")
+                        .param("fields", "policyNumber")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.policyNumber").value("POL12345"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    void getAllPolicies_withUnknownField_shouldReturnBadRequest() throws Exception {
+        when(policyService.getAllPolicies("secret")).thenThrow(new InvalidFieldsException("Unknown policy field(s) [secret]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/policies")
+                        .param("fields", "secret")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown policy field(s) [secret]"))
+                .andDo(print());
+    }
+
     @Test
     void createPolicy_shouldReturnCreatedPolicy() throws Exception {
         when(policyService.createPolicy(any(PolicyDTO.class))).thenReturn(policyDTO1);
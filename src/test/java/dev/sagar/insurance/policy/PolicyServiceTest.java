@@ -1,12 +1,15 @@
 package dev.sagar.insurance.policy;
 
 import dev.sagar.insurance.exception.ResourceNotFoundException;
+import dev.sagar.insurance.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -25,9 +28,15 @@ class PolicyServiceTest {
     @Mock
     private PolicyRepository policyRepository;
 
+    @Mock
+    private ArchivedPolicyRepository archivedPolicyRepository;
+
     @Mock
     private PolicyMapper policyMapper;
 
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.unsharded();
+
     @InjectMocks
     private PolicyService policyService;
 
@@ -51,7 +60,7 @@ class PolicyServiceTest {
 
     @Test
     void getAllPolicies_shouldReturnListOfPolicyDTOs() {
-        when(policyRepository.findAll()).thenReturn(List.of(policy));
+        when(policyRepository.findAll(Sort.by("id"))).thenReturn(List.of(policy));
         when(policyMapper.toDto(policy)).thenReturn(policyDTO);
 
         List<PolicyDTO> result = policyService.getAllPolicies();
@@ -77,6 +86,16 @@ class PolicyServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> policyService.getPolicyById(1L));
     }
 
+    @Test
+    void getPolicyById_shouldFallBackToArchive() {
+        ArchivedPolicy archived = new ArchivedPolicy();
+        when(policyRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedPolicyRepository.findById(1L)).thenReturn(Optional.of(archived));
+        when(policyMapper.toDto(archived)).thenReturn(policyDTO);
+
+        assertEquals(policyDTO, policyService.getPolicyById(1L));
+    }
+
     @Test
     void createPolicy_shouldReturnCreatedPolicyDTO() {
         when(policyMapper.toEntity(policyDTO)).thenReturn(policy);
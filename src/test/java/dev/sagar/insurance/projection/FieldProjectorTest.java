@@ -0,0 +1,68 @@
+package dev.sagar.insurance.projection;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.claim.ClaimDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FieldProjectorTest {
+
+    private static final FieldSet FIELDS = FieldSet.of("claim", ClaimDTO.class, Claim.class, Map.of("policyId", "policy.id"));
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Tuple> query;
+
+    @InjectMocks
+    private FieldProjector fieldProjector;
+
+    @Test
+    void findAll_shouldSelectOnlyRequestedColumnsPlusId() {
+        Tuple tuple = tuple(7L, "CLM7", 3L);
+        when(entityManager.createQuery("select e.id, e.claimNumber, e.policy.id from Claim e order by e.id", Tuple.class)).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(tuple));
+
+        List<Map<String, Object>> rows = fieldProjector.findAll(FIELDS, List.of("claimNumber", "policyId"));
+
+        assertEquals(List.of(Map.of("id", 7L, "claimNumber", "CLM7", "policyId", 3L)), rows);
+        assertEquals(Map.of("claimNumber", "CLM7", "policyId", 3L), FieldProjector.strip(rows.get(0), List.of("claimNumber", "policyId")));
+    }
+
+    @Test
+    void findById_shouldKeepIdOnlyWhenRequested() {
+        Tuple first = tuple(7L, "OPEN");
+        Tuple second = tuple(7L, "OPEN");
+        when(entityManager.createQuery("select e.id, e.status from Claim e where e.id = :id", Tuple.class)).thenReturn(query);
+        when(query.setParameter("id", 7L)).thenReturn(query);
+        when(query.getResultStream()).thenReturn(Stream.of(first)).thenReturn(Stream.of(second));
+
+        assertEquals(Optional.of(Map.of("status", "OPEN")), fieldProjector.findById(FIELDS, List.of("status"), 7L));
+        assertEquals(Optional.of(Map.of("id", 7L, "status", "OPEN")), fieldProjector.findById(FIELDS, List.of("status", "id"), 7L));
+    }
+
+    private static Tuple tuple(Object... values) {
+        Tuple tuple = mock(Tuple.class);
+        for (int i = 0; i < values.length; i++) {
+            when(tuple.get(i)).thenReturn(values[i]);
+        }
+        return tuple;
+    }
+}
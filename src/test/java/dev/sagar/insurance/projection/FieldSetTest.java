@@ -0,0 +1,43 @@
+package dev.sagar.insurance.projection;
+
+import dev.sagar.insurance.claim.Claim;
+import dev.sagar.insurance.claim.ClaimDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldSetTest {
+
+    private final FieldSet fieldSet = FieldSet.of("claim", ClaimDTO.class, Claim.class, Map.of("policyId", "policy.id"));
+
+    @Test
+    void of_shouldExposeDtoFieldsInDeclarationOrder() {
+        assertEquals(List.of("id", "claimNumber", "description", "claimDate", "status", "claimedAmount", "reservedAmount", "paidAmount",
+                "policyId"), fieldSet.names());
+        assertEquals("Claim", fieldSet.entity());
+        assertEquals("policy.id", fieldSet.path("policyId"));
+        assertEquals("status", fieldSet.path("status"));
+    }
+
+    @Test
+    void parse_shouldTrimAndDropDuplicates() {
+        assertEquals(List.of("claimNumber", "id", "status"), fieldSet.parse(" claimNumber,id,,status,id "));
+    }
+
+    @Test
+    void parse_shouldRejectUnknownFields() {
+        InvalidFieldsException ex = assertThrows(InvalidFieldsException.class, () -> fieldSet.parse("id,amount,policy"));
+
+        assertTrue(ex.getMessage().startsWith("Unknown claim field(s) [amount, policy]"), ex.getMessage());
+    }
+
+    @Test
+    void parse_shouldRejectEmptySelection() {
+        assertThrows(InvalidFieldsException.class, () -> fieldSet.parse(" , "));
+    }
+}
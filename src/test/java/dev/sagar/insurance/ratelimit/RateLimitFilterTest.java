@@ -0,0 +1,99 @@
+package dev.sagar.insurance.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.sagar.insurance.admission.LimitGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", 100, Duration.ofMinutes(1),
+                Duration.ofSeconds(30), Map.of(LimitGroup.WRITE, new RateLimitProperties.Quota(2, 0.1)),
+                Map.of("partner-b", Map.of(LimitGroup.WRITE, new RateLimitProperties.Quota(5, 0.1))));
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(properties, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(rateLimiter, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void doFilter_shouldSetRateLimitHeaders() throws Exception {
+        MockHttpServletResponse response = post("partner-a");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("2", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void doFilter_shouldRejectTenantOverQuotaWithoutAffectingOthers() throws Exception {
+        post("partner-a");
+        post("partner-a");
+
+        MockHttpServletResponse rejected = post("partner-a");
+        MockHttpServletResponse other = post("partner-b");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("10", rejected.getHeader("Retry-After"));
+        assertEquals(200, other.getStatus());
+        assertEquals("5", other.getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    void doFilter_shouldShareOverflowBucketOnceTenantMapIsFull() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", 1, Duration.ofMinutes(1),
+                Duration.ofSeconds(30), Map.of(LimitGroup.WRITE, new RateLimitProperties.Quota(1, 0.1)), Map.of());
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(properties, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(rateLimiter, properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        assertEquals(200, post("partner-a").getStatus());
+        assertEquals(200, post("rotating-key-1").getStatus());
+        assertEquals(429, post("rotating-key-2").getStatus());
+        assertEquals(1, rateLimiter.trackedTenants());
+    }
+
+    @Test
+    void evictIdleTenants_shouldDropBucketsPastIdleTimeout() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(30), Map.of(), Map.of());
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(properties, new SimpleMeterRegistry());
+        rateLimiter.bucket("partner-a", LimitGroup.READ, 0);
+
+        rateLimiter.evictIdleTenants(500_000_000L);
+        assertEquals(1, rateLimiter.trackedTenants());
+
+        rateLimiter.evictIdleTenants(2_000_000_000L);
+        assertEquals(0, rateLimiter.trackedTenants());
+    }
+
+    @Test
+    void doFilter_shouldIgnoreNonApiRequests() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertNull(response.getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    private MockHttpServletResponse post(String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/claims");
+        request.addHeader("X-API-Key", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.sagar.insurance.ratelimit;
+
+import dev.sagar.insurance.admission.LimitGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=TokenBucketBenchmark
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TokenBucketBenchmark {
+
+    private static final int TENANTS = 10_000;
+
+    private TokenBucket sharedBucket;
+    private TenantRateLimiter rateLimiter;
+    private String[] tenants;
+
+    @Setup
+    public void setUp() {
+        // Effectively unlimited so every call takes the successful CAS path
+        sharedBucket = new TokenBucket(Long.MAX_VALUE / 2_000_000_000L, 1e9, System.nanoTime());
+        RateLimitProperties properties = new RateLimitProperties(true, "X-API-Key", TENANTS * 2, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), Map.of(LimitGroup.WRITE, new RateLimitProperties.Quota(1_000_000, 1e9)),
+                Map.of());
+        rateLimiter = new TenantRateLimiter(properties, new SimpleMeterRegistry());
+        tenants = new String[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            tenants[i] = "tenant-" + i;
+            rateLimiter.bucket(tenants[i], LimitGroup.WRITE, System.nanoTime());
+        }
+    }
+
+    // Every thread hammers the same bucket: worst-case CAS contention
+    @Benchmark
+    public long singleTenantContended() {
+        return sharedBucket.tryConsume(System.nanoTime());
+    }
+
+    // Tenant lookup in the bounded map plus the consume, spread across many tenants
+    @Benchmark
+    public long manyTenantsLookupAndConsume() {
+        String tenant = tenants[ThreadLocalRandom.current().nextInt(TENANTS)];
+        long now = System.nanoTime();
+        return rateLimiter.bucket(tenant, LimitGroup.WRITE, now).tryConsume(now);
+    }
+}
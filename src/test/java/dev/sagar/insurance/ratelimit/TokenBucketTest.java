@@ -0,0 +1,76 @@
+package dev.sagar.insurance.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryConsume_shouldAllowBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(2, bucket.tryConsume(0));
+        assertEquals(1, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(-1, bucket.tryConsume(0));
+    }
+
+    @Test
+    void tryConsume_shouldRefillAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(-1, bucket.tryConsume(SECOND / 4));
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertEquals(1, bucket.tryConsume(3 * SECOND));
+    }
+
+    @Test
+    void nanosUntilNextToken_shouldReportWaitWhenEmpty() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        bucket.tryConsume(0);
+
+        assertEquals(SECOND, bucket.nanosUntilNextToken(0));
+        assertEquals(SECOND, bucket.nanosUntilFull(0));
+        assertEquals(0, bucket.nanosUntilNextToken(2 * SECOND));
+    }
+
+    @Test
+    void tryConsume_shouldNeverOverGrantUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, System.nanoTime());
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryConsume(System.nanoTime()) >= 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, granted.get());
+    }
+}
@@ -0,0 +1,68 @@
+package dev.sagar.insurance.reactive;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeysetStreamReaderTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private KeysetStreamReader reader;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:keyset-test;DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                queries.incrementAndGet();
+                return super.query(sql, rowMapper, args);
+            }
+        };
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, claim_number VARCHAR(20), description VARCHAR(255), "
+                + "claim_date DATE, status VARCHAR(20), claimed_amount NUMERIC(38, 2), reserved_amount NUMERIC(38, 2), "
+                + "paid_amount NUMERIC(38, 2), policy_id BIGINT)");
+        for (int id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO claim VALUES (?, ?, 'Water damage', DATE '2024-01-01', 'OPEN', 1500.00, 1200.00, 0, 7)", id * 10, "CLM" + id);
+        }
+
+        reader = new KeysetStreamReader(jdbcTemplate, ShardRouter.unsharded(), new ReactiveReadProperties(2, 1), Schedulers.immediate());
+        queries.set(0);
+    }
+
+    @Test
+    void stream_shouldEmitAllRowsInIdOrderAcrossPages() {
+        List<Long> ids = reader.stream(ReadQueries.CLAIMS, 0, 0).map(ClaimDTO::id).collectList().block();
+
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L), ids);
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    void stream_shouldResumeAfterIdAndHonourLimit() {
+        List<Long> ids = reader.stream(ReadQueries.CLAIMS, 20, 2).map(ClaimDTO::id).collectList().block();
+
+        assertEquals(List.of(30L, 40L), ids);
+    }
+
+    @Test
+    void stream_shouldOnlyReadPagesThatAreDemanded() {
+        StepVerifier.create(reader.stream(ReadQueries.CLAIMS, 0, 0), 1)
+                .expectNextMatches(claim -> claim.id() == 10L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, queries.get());
+    }
+}
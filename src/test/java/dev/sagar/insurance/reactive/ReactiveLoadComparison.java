@@ -0,0 +1,152 @@
+package dev.sagar.insurance.reactive;
+
+import dev.sagar.insurance.Application;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Load comparison between the servlet list endpoint and the reactive NDJSON stream of the same rows. Not a unit test:
+// it boots the application with the datagen profile and fires concurrent requests from virtual threads.
+//
+//   mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+//       -Dexec.args="-cp %classpath dev.sagar.insurance.reactive.ReactiveLoadComparison <clients> <concurrency> <requestsPerClient>"
+public class ReactiveLoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int requestsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.profiles.active=datagen",
+                "--insurance.datagen.clients=" + clients,
+                "--insurance.admission.enabled=false",
+                "--insurance.rate-limit.enabled=false",
+                "--insurance.jdbc.monitoring.enabled=false",
+                "--server.tomcat.mbeanregistry.enabled=true",
+                "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            String base = "http://localhost:" + port;
+
+            // Warm-up so both paths are compiled before measuring
+            MeterRegistry warmUp = new SimpleMeterRegistry();
+            run(httpClient, warmUp, base + "/api/claims", "application/json", 8, 2);
+            run(httpClient, warmUp, base + "/api/reactive/claims", "application/x-ndjson", 8, 2);
+
+            System.out.printf("%-26s %6s %6s %8s %9s %9s %9s %9s %9s %9s %9s%n", "endpoint", "ok", "errors", "req/s",
+                    "p50 ms", "p99 ms", "max ms", "busy req", "jdbc conn", "threads", "heap MB");
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            print("GET /api/claims", run(httpClient, meterRegistry, base + "/api/claims", "application/json", concurrency, requestsPerClient));
+            print("GET /api/reactive/claims", run(httpClient, meterRegistry, base + "/api/reactive/claims", "application/x-ndjson", concurrency, requestsPerClient));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result run(HttpClient httpClient, MeterRegistry meterRegistry, String url, String accept, int concurrency, int requestsPerClient) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        LongAccumulator peakHeap = new LongAccumulator(Math::max, memory.getHeapMemoryUsage().getUsed());
+        LongAccumulator peakBusyThreads = new LongAccumulator(Math::max, 0);
+        LongAccumulator peakConnections = new LongAccumulator(Math::max, 0);
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulate(memory.getHeapMemoryUsage().getUsed());
+                peakBusyThreads.accumulate(gauge(meterRegistry, "tomcat.threads.busy"));
+                peakConnections.accumulate(gauge(meterRegistry, "hikaricp.connections.active"));
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Accept", accept).timeout(Duration.ofMinutes(5)).build();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < concurrency; client++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long requestStarted = System.nanoTime();
+                        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            bytes.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+                        }
+                        if (response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - requestStarted);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        sampler.interrupt();
+
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return new Result(sorted.size(), errors.get(), sorted.size() / (elapsed / 1e9), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                percentile(sorted, 1.0), peakBusyThreads.get(), peakConnections.get(), threads.getPeakThreadCount(),
+                peakHeap.get() / (1024 * 1024), bytes.get());
+    }
+
+    private static long gauge(MeterRegistry meterRegistry, String name) {
+        Gauge gauge = meterRegistry.find(name).gauge();
+        return gauge == null ? 0 : (long) gauge.value();
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)) / 1e6;
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-26s %6d %6d %8.1f %9.1f %9.1f %9.1f %9d %9d %9d %9d%n", name, result.requests(), result.errors(),
+                result.throughput(), result.p50Millis(), result.p99Millis(), result.maxMillis(), result.peakBusyRequestThreads(),
+                result.peakActiveConnections(), result.peakThreads(), result.peakHeapMegabytes());
+    }
+
+    private record Result(int requests, long errors, double throughput, double p50Millis, double p99Millis, double maxMillis,
+                          long peakBusyRequestThreads, long peakActiveConnections, int peakThreads, long peakHeapMegabytes,
+                          long bytes) {
+    }
+}
@@ -0,0 +1,85 @@
+package dev.sagar.insurance.reactive;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimStatus;
+import dev.sagar.insurance.timing.ServerTimingFilter;
+import dev.sagar.insurance.timing.ServerTimingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReadControllerTest {
+
+    @Mock
+    private KeysetStreamReader reader;
+
+    @InjectMocks
+    private ReactiveReadController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void streamClaims_shouldWriteNewlineDelimitedJson() throws Exception {
+        when(reader.stream(ReadQueries.CLAIMS, 5, 0)).thenReturn(Flux.just(
+                new ClaimDTO(6L, "CLM6", "Hail", LocalDate.of(2024, 1, 1), ClaimStatus.OPEN, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1L),
+                new ClaimDTO(7L, "CLM7", "Theft", LocalDate.of(2024, 1, 2), ClaimStatus.PAID, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1L)));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/claims").param("afterId", "5").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern("(?s)\\{\"id\":6,.*}\\n\\{\"id\":7,.*}\\n")));
+    }
+
+    @Test
+    void streamClaims_shouldKeepBodyWhenServerTimingIsRequested() throws Exception {
+        // Without the default exclusion; the rows arrive after the first dispatch has returned
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new ServerTimingFilter(new ServerTimingProperties(true, 0.0, "X-Server-Timing", List.of())))
+                .build();
+        when(reader.stream(ReadQueries.CLAIMS, 0, 0)).thenReturn(Flux.just(
+                new ClaimDTO(6L, "CLM6", "Hail", LocalDate.of(2024, 1, 1), ClaimStatus.OPEN, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1L))
+                .delayElements(Duration.ofMillis(50)));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/claims").header("X-Server-Timing", "true").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER, containsString("total;dur=")))
+                .andExpect(content().string(matchesPattern("(?s)\\{\"id\":6,.*}\\n")));
+    }
+}
@@ -0,0 +1,71 @@
+package dev.sagar.insurance.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class H2ReplicationStandInTest {
+
+    private final Instant now = Instant.parse("2024-06-01T12:00:00Z");
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagTracker lagTracker;
+    private H2ReplicationStandIn replication;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primaryDataSource = new DriverManagerDataSource("jdbc:h2:mem:replication-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource("jdbc:h2:mem:replication-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+
+        primary.execute("CREATE TABLE policy (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, policy_number VARCHAR(20))");
+        primary.execute("CREATE TABLE claim (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, status VARCHAR(20), "
+                + "policy_id BIGINT REFERENCES policy (id))");
+        primary.update("INSERT INTO policy (policy_number) VALUES ('POL-1'), ('POL-2')");
+        primary.update("INSERT INTO claim (status, policy_id) VALUES ('OPEN', 1), ('PAID', 2)");
+
+        Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        lagTracker = new ReplicaLagTracker(clock);
+        replication = new H2ReplicationStandIn(primaryDataSource, replicaDataSource, lagTracker, clock);
+    }
+
+    @Test
+    void replicateOnce_shouldCopySchemaAndRows() throws Exception {
+        replication.replicateOnce();
+
+        assertEquals(2, replica.queryForObject("SELECT COUNT(*) FROM policy", Integer.class));
+        assertEquals("PAID", replica.queryForObject("SELECT status FROM claim WHERE policy_id = 2", String.class));
+        assertEquals(Duration.ZERO, lagTracker.lag());
+    }
+
+    @Test
+    void replicateOnce_shouldApplyUpdatesAndDeletes() throws Exception {
+        replication.replicateOnce();
+        primary.update("UPDATE claim SET status = 'APPROVED' WHERE id = 1");
+        primary.update("DELETE FROM claim WHERE id = 2");
+
+        replication.replicateOnce();
+
+        assertEquals(1, replica.queryForObject("SELECT COUNT(*) FROM claim", Integer.class));
+        assertEquals("APPROVED", replica.queryForObject("SELECT status FROM claim WHERE id = 1", String.class));
+    }
+
+    @Test
+    void lag_shouldBeUnknownBeforeFirstReplication() {
+        assertTrue(lagTracker.lag().compareTo(Duration.ofDays(1)) > 0);
+        assertTrue(Double.isNaN(lagTracker.lagSeconds()));
+    }
+}
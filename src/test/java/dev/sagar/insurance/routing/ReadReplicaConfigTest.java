@@ -0,0 +1,23 @@
+package dev.sagar.insurance.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadReplicaConfigTest {
+
+    @Test
+    void readYourWritesTracker_shouldRejectStickyWindowShorterThanMaxLag() {
+        RoutingProperties properties = new RoutingProperties(true, null, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                "X-API-Key", null);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ReadReplicaConfig().readYourWritesTracker(properties, new SimpleMeterRegistry()));
+
+        assertEquals("insurance.routing.sticky-window must be at least insurance.routing.max-lag", exception.getMessage());
+    }
+}
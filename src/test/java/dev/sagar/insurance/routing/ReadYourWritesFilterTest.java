@@ -0,0 +1,56 @@
+package dev.sagar.insurance.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5).toNanos(), nanoTime::get);
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(tracker, "X-Client-Id");
+
+    @Test
+    void doFilter_shouldMarkWritingClientBeforeTheResponseCommits() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/claims");
+        request.addHeader("X-Client-Id", "client-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean stickyWhenCommitted = new AtomicBoolean();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.flushBuffer();
+            stickyWhenCommitted.set(tracker.isSticky("client-1"));
+        });
+
+        assertTrue(stickyWhenCommitted.get());
+        assertTrue(tracker.isSticky("client-1"));
+    }
+
+    @Test
+    void doFilter_shouldRestartWindowWhenWriteFinishes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/claims/1");
+        request.addHeader("X-Client-Id", "client-1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> nanoTime.addAndGet(Duration.ofSeconds(4).toNanos()));
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        assertTrue(tracker.isSticky("client-1"));
+    }
+
+    @Test
+    void doFilter_shouldNotMarkClientOnReads() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/claims/1");
+        request.addHeader("X-Client-Id", "client-1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertFalse(tracker.isSticky("client-1"));
+    }
+}
@@ -0,0 +1,112 @@
+package dev.sagar.insurance.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaAwareDataSourceTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Instant now = Instant.parse("2024-06-01T12:00:00Z");
+
+    private ReplicaLagTracker lagTracker;
+    private ReadYourWritesTracker readYourWrites;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = database("routing-primary", "primary");
+        DriverManagerDataSource replica = database("routing-replica", "replica");
+
+        lagTracker = new ReplicaLagTracker(Clock.fixed(now, ZoneOffset.UTC));
+        readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(5).toNanos(), nanoTime::get);
+        ReplicaAwareDataSource readOnlyDataSource = new ReplicaAwareDataSource(primary, replica, lagTracker, readYourWrites,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesTracker.unbind();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplicaWhenCaughtUp() {
+        lagTracker.caughtUp(now.minusSeconds(1));
+
+        assertEquals("replica", readOnly.execute(status -> origin()));
+        assertEquals("primary", readWrite.execute(status -> origin()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimaryWhileReplicaLags() {
+        assertEquals("primary", readOnly.execute(status -> origin()));
+
+        lagTracker.caughtUp(now.minusSeconds(30));
+        assertEquals("primary", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldStayOnPrimaryAfterClientWrite() {
+        lagTracker.caughtUp(now);
+        readYourWrites.recordWrite("partner-a");
+
+        ReadYourWritesTracker.bind("partner-a");
+        assertEquals("primary", readOnly.execute(status -> origin()));
+
+        ReadYourWritesTracker.bind("partner-b");
+        assertEquals("replica", readOnly.execute(status -> origin()));
+
+        nanoTime.addAndGet(Duration.ofSeconds(6).toNanos());
+        ReadYourWritesTracker.bind("partner-a");
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void evictExpired_shouldForgetClientsOutsideWindow() {
+        readYourWrites.recordWrite("partner-a");
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        readYourWrites.recordWrite("partner-b");
+
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+        readYourWrites.evictExpired();
+
+        assertEquals(1, readYourWrites.trackedClients());
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name, String origin) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP ALL OBJECTS");
+        template.execute("CREATE TABLE origin (name VARCHAR(20))");
+        template.update("INSERT INTO origin VALUES (?)", origin);
+        return dataSource;
+    }
+}
@@ -0,0 +1,111 @@
+package dev.sagar.insurance.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Descriptions are a claim template followed by free-text adjuster notes drawn from a Zipf-distributed vocabulary, so
+// there are both very common and very rare terms. linearScan is the alternative without an index: matching the
+// phrase against every description.
+// Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main ClaimSearchBenchmark"
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ClaimSearchBenchmark {
+
+    private static final String[] TEMPLATES = {
+            "Rear-end collision at intersection", "Windshield cracked by road debris", "Vehicle stolen from parking lot",
+            "Water damage in basement after pipe burst", "Roof damaged by fallen tree during storm",
+            "Kitchen fire damaged cabinets and ceiling", "Water damage basement flooding after heavy rain",
+            "Emergency room visit for fractured wrist", "Lost luggage on connecting flight", "Trip cancelled due to illness"};
+
+    @Param({"1000000"})
+    private int claims;
+
+    private InvertedIndex index;
+    private String[] descriptions;
+    private SearchQuery commonTerm;
+    private SearchQuery phrase;
+    private SearchQuery rareTerms;
+    private SearchQuery booleanQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "note" + Integer.toString(i, 36);
+        }
+        double[] cumulative = new double[vocabulary.length];
+        double sum = 0;
+        for (int i = 0; i < vocabulary.length; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        index = new InvertedIndex();
+        descriptions = new String[claims];
+        for (int i = 0; i < claims; i++) {
+            StringBuilder description = new StringBuilder(TEMPLATES[random.nextInt(TEMPLATES.length)]);
+            for (int words = random.nextInt(13); words > 0; words--) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                description.append(' ').append(vocabulary[rank < 0 ? -rank - 1 : rank]);
+            }
+            descriptions[i] = description.toString();
+            index.put(i + 1, descriptions[i]);
+        }
+        commonTerm = SearchQueryParser.parse("damage");
+        phrase = SearchQueryParser.parse("\"water damage basement\"");
+        rareTerms = SearchQueryParser.parse("note1a2 note3f");
+        booleanQuery = SearchQueryParser.parse("(fire OR flooding) -kitchen note5");
+    }
+
+    @Benchmark
+    public SearchPage commonTerm() {
+        return index.search(commonTerm, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage phrase() {
+        return index.search(phrase, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage rareTerms() {
+        return index.search(rareTerms, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage booleanQuery() {
+        return index.search(booleanQuery, 0, 20);
+    }
+
+    @Benchmark
+    public List<Integer> linearScan() {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < descriptions.length; i++) {
+            if (descriptions[i].toLowerCase(Locale.ROOT).contains("water damage basement")) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,96 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.claim.ClaimDTO;
+import dev.sagar.insurance.claim.ClaimService;
+import dev.sagar.insurance.claim.ClaimStatus;
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimSearchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ClaimSearchIndex index;
+
+    @Mock
+    private ClaimService claimService;
+
+    @BeforeEach
+    void setUp() {
+        ClaimSearchController controller = new ClaimSearchController(index, claimService,
+                new SearchProperties(true, Duration.ofHours(1), 10_000, 50));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void searchClaims_shouldReturnRankedClaimsForRequestedPage() throws Exception {
+        when(index.search("\"water damage\" basement", 20, 10))
+                .thenReturn(Optional.of(new SearchPage(23, List.of(new SearchHit(7L, 3.5), new SearchHit(8L, 1.25)))));
+        // Claim 8 was deleted after the search ran
+        when(claimService.getClaimsById(List.of(7L, 8L))).thenReturn(Map.of(7L, claim(7L)));
+
+        mockMvc.perform(get("/api/claims/search")
+                        .param("q", "\"water damage\" basement")
+                        .param("page", "2")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(23))
+                .andExpect(jsonPath("$.page").value(2))
+                .andExpect(jsonPath("$.hits.length()").value(1))
+                .andExpect(jsonPath("$.hits[0].score").value(3.5))
+                .andExpect(jsonPath("$.hits[0].claim.claimNumber").value("CLM7"));
+    }
+
+    @Test
+    void searchClaims_shouldReturnServiceUnavailableBeforeFirstBuild() throws Exception {
+        when(index.search(anyString(), anyInt(), anyInt())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/claims/search").param("q", "fire"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void searchClaims_shouldRejectInvalidQueriesAndPages() throws Exception {
+        when(index.search("-roof", 0, 20)).thenThrow(new InvalidSearchQueryException("A query cannot only exclude terms"));
+
+        mockMvc.perform(get("/api/claims/search").param("q", "-roof"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A query cannot only exclude terms"));
+        mockMvc.perform(get("/api/claims/search").param("q", "fire").param("size", "51"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(claimService);
+    }
+
+    private static ClaimDTO claim(Long id) {
+        return new ClaimDTO(id, "CLM" + id, "Water damage in basement", LocalDate.of(2024, 2, 1), ClaimStatus.OPEN,
+                new BigDecimal("1000.00"), BigDecimal.ZERO, BigDecimal.ZERO, 1L);
+    }
+}
@@ -0,0 +1,90 @@
+package dev.sagar.insurance.search;
+
+import dev.sagar.insurance.transaction.Synchronizations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static dev.sagar.insurance.transaction.Synchronizations.rollback;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimSearchIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        Synchronizations.clear();
+    }
+
+    @Test
+    void search_shouldBeEmptyUntilFirstRebuild() {
+        ClaimSearchIndex index = new ClaimSearchIndex(loader(Map.of(1L, "Water damage")), meterRegistry);
+
+        assertTrue(index.search("water", 0, 10).isEmpty());
+        index.rebuild();
+
+        assertEquals(List.of(1L), ids(index, "water"));
+        assertEquals(1L, meterRegistry.get("insurance.search.queries").timer().count());
+    }
+
+    @Test
+    void changes_shouldApplyOnlyAfterCommit() {
+        ClaimSearchIndex index = new ClaimSearchIndex(loader(Map.of()), meterRegistry);
+        index.rebuild();
+
+        begin();
+        index.claimIndexed(1L, "Vehicle stolen from parking lot");
+        assertEquals(List.of(), ids(index, "stolen"));
+        commit();
+        assertEquals(List.of(1L), ids(index, "stolen"));
+
+        begin();
+        index.claimRemoved(1L);
+        rollback();
+        assertEquals(List.of(1L), ids(index, "stolen"));
+    }
+
+    @Test
+    void rebuild_shouldReplayChangesCommittedDuringTheScan() {
+        ClaimSearchIndex[] holder = new ClaimSearchIndex[1];
+        ClaimSearchIndex index = new ClaimSearchIndex(new ClaimSearchLoader(List.of(), 0) {
+            @Override
+            public void load(BiConsumer<Long, String> consumer) {
+                consumer.accept(1L, "Roof damaged by storm");
+                consumer.accept(2L, "Hail damage to roof");
+                // Committed while the scan is running, after it has read both rows
+                holder[0].claimIndexed(1L, "Kitchen fire");
+                holder[0].claimIndexed(3L, "Roof leak");
+                holder[0].claimRemoved(2L);
+            }
+        }, meterRegistry);
+        holder[0] = index;
+
+        RebuildResult result = index.rebuild();
+
+        assertEquals(3, result.replayed());
+        assertEquals(List.of(3L), ids(index, "roof"));
+        assertEquals(List.of(1L), ids(index, "kitchen"));
+    }
+
+    private static ClaimSearchLoader loader(Map<Long, String> descriptions) {
+        return new ClaimSearchLoader(List.of(), 0) {
+            @Override
+            public void load(BiConsumer<Long, String> consumer) {
+                descriptions.forEach(consumer);
+            }
+        };
+    }
+
+    private static List<Long> ids(ClaimSearchIndex index, String query) {
+        return index.search(query, 0, 10).orElseThrow().hits().stream().map(SearchHit::claimId).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package dev.sagar.insurance.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1, "Water damage in basement after pipe burst");
+        index.put(2, "Basement flooded, water everywhere; damage to the water heater");
+        index.put(3, "Kitchen fire damaged cabinets and ceiling");
+        index.put(4, "Roof damaged by fallen tree during storm");
+        index.put(5, "Water heater leaked");
+    }
+
+    @Test
+    void search_shouldRequireEveryTermAndRankByBm25() {
+        // Claim 2 mentions water twice, but BM25 weighs that against it being the longer description
+        assertEquals(List.of(1L, 2L), ids("water damage basement"));
+        assertEquals(2, search("water damage basement").total());
+    }
+
+    @Test
+    void search_shouldMatchPhrasesOnlyAtConsecutivePositions() {
+        assertEquals(List.of(1L), ids("\"water damage\""));
+        assertEquals(List.of(5L, 2L), ids("\"water heater\""));
+        assertEquals(List.of(), ids("\"damage water\""));
+    }
+
+    @Test
+    void search_shouldCombineOrAndNot() {
+        assertEquals(List.of(3L, 4L), ids("fire OR storm"));
+        // pipe occurs in one description, so it outweighs the commoner water
+        assertEquals(List.of(1L, 5L), ids("water -basement OR pipe"));
+        assertEquals(List.of(3L, 4L), ids("damaged NOT (water OR heater)"));
+    }
+
+    @Test
+    void search_shouldPageThroughHitsInRankOrder() {
+        List<Long> all = ids("water OR damage OR damaged");
+        assertEquals(5, all.size());
+
+        SearchPage second = index.search(SearchQueryParser.parse("water OR damage OR damaged"), 2, 2);
+        assertEquals(5, second.total());
+        assertEquals(all.subList(2, 4), second.hits().stream().map(SearchHit::claimId).toList());
+        assertTrue(index.search(SearchQueryParser.parse("water"), 10, 2).hits().isEmpty());
+    }
+
+    @Test
+    void put_shouldReplacePreviousDescriptionAndSkipUnchangedOnes() {
+        assertFalse(index.put(3, "Kitchen fire damaged cabinets and ceiling"));
+        assertTrue(index.put(3, "Hail dented the car roof"));
+
+        assertEquals(List.of(), ids("kitchen"));
+        assertEquals(List.of(3L, 4L), ids("roof"));
+        assertEquals(5, index.size());
+        assertEquals(1, index.deletedDocuments());
+    }
+
+    @Test
+    void remove_shouldHideClaimFromResults() {
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+
+        assertEquals(List.of(2L), ids("basement"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void compact_shouldKeepResultsAndDropDeletedDocuments() {
+        for (long id = 10; id < 3000; id++) {
+            index.put(id, "Vehicle stolen from parking lot number " + id);
+        }
+        for (long id = 10; id < 2500; id++) {
+            index.remove(id);
+        }
+        index.put(4, "Roof damaged by hail");
+        Set<Long> before = Set.copyOf(ids("water OR roof OR \"parking lot\"", 1000));
+        assertTrue(index.needsCompaction());
+
+        index.compact();
+
+        assertEquals(0, index.deletedDocuments());
+        assertEquals(505, index.size());
+        // Scores shift once deleted documents stop counting towards idf, the matches stay the same
+        assertEquals(before, Set.copyOf(ids("water OR roof OR \"parking lot\"", 1000)));
+        assertEquals(List.of(2999L), ids("2999"));
+    }
+
+    private SearchPage search(String query) {
+        return index.search(SearchQueryParser.parse(query), 0, 10);
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, 10);
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return index.search(SearchQueryParser.parse(query), 0, limit).hits().stream().map(SearchHit::claimId).toList();
+    }
+}
@@ -0,0 +1,48 @@
+package dev.sagar.insurance.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchQueryParserTest {
+
+    @Test
+    void parse_shouldTreatAdjacentClausesAsAnd() {
+        assertEquals(new SearchQuery.And(List.of(term("water"), term("damage")), List.of()), SearchQueryParser.parse("Water AND damage"));
+        assertEquals(new SearchQuery.And(List.of(term("water"), term("damage")), List.of()), SearchQueryParser.parse("water damage"));
+    }
+
+    @Test
+    void parse_shouldBindAndTighterThanOr() {
+        assertEquals(new SearchQuery.Or(List.of(
+                        new SearchQuery.And(List.of(term("fire")), List.of(term("kitchen"))),
+                        new SearchQuery.And(List.of(term("flood"), new SearchQuery.Phrase(List.of("water", "heater"))), List.of()))),
+                SearchQueryParser.parse("fire -kitchen OR flood \"Water heater\""));
+    }
+
+    @Test
+    void parse_shouldTokenizeTermsLikeDescriptions() {
+        assertEquals(new SearchQuery.Phrase(List.of("water", "damage")), SearchQueryParser.parse("water-damage"));
+        // Lower-case operators are ordinary terms
+        assertEquals(new SearchQuery.Or(List.of(term("fire"), new SearchQuery.And(List.of(term("or"), term("flood")), List.of()))),
+                SearchQueryParser.parse("fire OR or flood"));
+    }
+
+    @Test
+    void parse_shouldRejectMalformedQueries() {
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse(" "));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("-roof"));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("\"water damage"));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("(fire OR flood"));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("fire OR"));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("fire)"));
+        assertThrows(InvalidSearchQueryException.class, () -> SearchQueryParser.parse("\"--\""));
+    }
+
+    private static SearchQuery term(String term) {
+        return new SearchQuery.Term(term);
+    }
+}
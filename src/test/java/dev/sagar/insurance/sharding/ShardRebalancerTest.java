@@ -0,0 +1,103 @@
+package dev.sagar.insurance.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRebalancerTest {
+
+    private static final int BUCKETS = 16;
+
+    private final List<DriverManagerDataSource> shards = new ArrayList<>();
+    private ShardDirectory directory;
+    private ShardIdAllocator idAllocator;
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        shards.clear();
+        for (int i = 0; i < 3; i++) {
+            DriverManagerDataSource shard = new DriverManagerDataSource("jdbc:h2:mem:rebalance-shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate template = new JdbcTemplate(shard);
+            template.execute("DROP ALL OBJECTS");
+            template.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            template.execute("CREATE TABLE policy (id BIGINT PRIMARY KEY, client_id BIGINT REFERENCES client (id))");
+            template.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, policy_id BIGINT REFERENCES policy (id))");
+            template.execute("CREATE TABLE claim_attachment (id BIGINT PRIMARY KEY, claim_id BIGINT)");
+            template.execute("CREATE TABLE policy_archive (id BIGINT PRIMARY KEY, client_id BIGINT)");
+            template.execute("CREATE TABLE claim_archive (id BIGINT PRIMARY KEY, policy_id BIGINT)");
+            shards.add(shard);
+        }
+        // Two shards in service, the third one configured but empty
+        directory = new ShardDirectory(shards.getFirst(), shards.size(), BUCKETS, 2);
+        idAllocator = new ShardIdAllocator(shards.getFirst(), BUCKETS, 10);
+        rebalancer = new ShardRebalancer(shards, directory, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void addShard_shouldMoveBucketsWithWholeAggregates() {
+        List<Long> clientIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            long clientId = idAllocator.newClientId();
+            long policyId = idAllocator.newChildId(ShardedEntity.POLICY, clientId);
+            long claimId = idAllocator.newChildId(ShardedEntity.CLAIM, policyId);
+            JdbcTemplate shard = new JdbcTemplate(shards.get(directory.shardOfId(clientId)));
+            shard.update("INSERT INTO client (id, name) VALUES (?, ?)", clientId, "Client " + i);
+            shard.update("INSERT INTO policy (id, client_id) VALUES (?, ?)", policyId, clientId);
+            shard.update("INSERT INTO claim (id, policy_id) VALUES (?, ?)", claimId, policyId);
+            shard.update("INSERT INTO claim_attachment (id, claim_id) VALUES (?, ?)", idAllocator.newChildId(ShardedEntity.CLAIM_ATTACHMENT, claimId), claimId);
+            shard.update("INSERT INTO claim_archive (id, policy_id) VALUES (?, ?)", idAllocator.newChildId(ShardedEntity.CLAIM, policyId), policyId);
+            clientIds.add(clientId);
+        }
+
+        RebalanceResult result = rebalancer.addShard(2);
+
+        assertEquals(BUCKETS / 3, result.movedBuckets());
+        assertEquals(BUCKETS / 3, directory.bucketsPerShard().get(2));
+        assertTrue(result.movedRows() > 0);
+        for (long clientId : clientIds) {
+            JdbcTemplate owner = new JdbcTemplate(shards.get(directory.shardOfId(clientId)));
+            assertEquals(1, owner.queryForObject(
+                    "SELECT COUNT(*) FROM client c JOIN policy p ON p.client_id = c.id JOIN claim cl ON cl.policy_id = p.id WHERE c.id = ?",
+                    Integer.class, clientId));
+            assertEquals(1, owner.queryForObject(
+                    "SELECT COUNT(*) FROM claim_attachment a JOIN claim cl ON cl.id = a.claim_id JOIN policy p ON p.id = cl.policy_id WHERE p.client_id = ?",
+                    Integer.class, clientId));
+            assertEquals(1, owner.queryForObject(
+                    "SELECT COUNT(*) FROM claim_archive a JOIN policy p ON p.id = a.policy_id WHERE p.client_id = ?", Integer.class, clientId));
+        }
+        assertEquals(150, totalRows("client") + totalRows("policy") + totalRows("claim"));
+        assertEquals(50, totalRows("claim_attachment"));
+        assertEquals(50, totalRows("claim_archive"));
+    }
+
+    @Test
+    void addShard_shouldPersistDirectory() {
+        rebalancer.addShard(2);
+
+        ShardDirectory reloaded = new ShardDirectory(shards.getFirst(), shards.size(), BUCKETS, 2);
+
+        assertEquals(directory.bucketsPerShard(), reloaded.bucketsPerShard());
+    }
+
+    @Test
+    void addShard_shouldRejectShardInService() {
+        assertThrows(IllegalArgumentException.class, () -> rebalancer.addShard(1));
+        assertThrows(IllegalArgumentException.class, () -> rebalancer.addShard(3));
+    }
+
+    private int totalRows(String table) {
+        return shards.stream()
+                .mapToInt(shard -> new JdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM " + table, Integer.class))
+                .sum();
+    }
+}
@@ -0,0 +1,142 @@
+package dev.sagar.insurance.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardRouterTest {
+
+    private static final int BUCKETS = 8;
+
+    private final List<DriverManagerDataSource> shards = new ArrayList<>();
+    private ShardDirectory directory;
+    private ShardIdAllocator idAllocator;
+    private ShardRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        shards.clear();
+        for (int i = 0; i < 3; i++) {
+            DriverManagerDataSource shard = new DriverManagerDataSource("jdbc:h2:mem:router-shard-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate template = new JdbcTemplate(shard);
+            template.execute("DROP ALL OBJECTS");
+            template.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            shards.add(shard);
+        }
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        directory = new ShardDirectory(shards.getFirst(), shards.size(), BUCKETS, shards.size());
+        idAllocator = new ShardIdAllocator(shards.getFirst(), BUCKETS, 10);
+        router = new ShardRouter(directory, idAllocator, transactionManager, Duration.ofSeconds(5));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void newChildId_shouldShareBucketWithParent() {
+        long clientId = idAllocator.newClientId();
+        long policyId = idAllocator.newChildId(ShardedEntity.POLICY, clientId);
+
+        assertEquals(ShardIds.bucketOf(clientId, BUCKETS), ShardIds.bucketOf(policyId, BUCKETS));
+        assertEquals(directory.shardOfId(clientId), directory.shardOfId(policyId));
+    }
+
+    @Test
+    void routeWrite_shouldStoreRowOnOwningShard() {
+        long id = createClient("John Doe");
+
+        int owner = directory.shardOfId(id);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Integer rows = new JdbcTemplate(shards.get(shard)).queryForObject("SELECT COUNT(*) FROM client", Integer.class);
+            assertEquals(shard == owner ? 1 : 0, rows);
+        }
+        assertEquals("John Doe", transaction.execute(status -> {
+            router.routeRead(id);
+            return jdbcTemplate.queryForObject("SELECT name FROM client WHERE id = ?", String.class, id);
+        }));
+    }
+
+    @Test
+    void gather_shouldMergeShardsInOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(createClient("Client " + i));
+        }
+
+        List<Long> gathered = router.gather(() -> jdbcTemplate.queryForList("SELECT id FROM client ORDER BY id", Long.class),
+                Comparator.naturalOrder());
+        List<Long> firstFive = router.gather(() -> jdbcTemplate.queryForList("SELECT id FROM client ORDER BY id LIMIT 5", Long.class),
+                Comparator.naturalOrder(), 5);
+
+        assertEquals(ids.stream().sorted().toList(), gathered);
+        assertEquals(ids.stream().sorted().limit(5).toList(), firstFive);
+    }
+
+    @Test
+    void merge_shouldDropDuplicatesAcrossShards() {
+        List<Integer> merged = ShardRouter.merge(List.of(List.of(1, 4, 7), List.of(2, 4, 8), List.of()), Comparator.naturalOrder(), 10);
+
+        assertEquals(List.of(1, 2, 4, 7, 8), merged);
+    }
+
+    @Test
+    void routeWrite_shouldRejectWritesToMovingBucket() {
+        long id = idAllocator.newClientId();
+        int bucket = ShardIds.bucketOf(id, BUCKETS);
+
+        directory.beginMove(bucket, Duration.ofSeconds(1));
+        assertThrows(ShardUnavailableException.class, () -> transaction.executeWithoutResult(status -> router.routeWrite(id)));
+        directory.endMove(bucket);
+
+        transaction.executeWithoutResult(status -> router.routeWrite(id));
+    }
+
+    @Test
+    void routeRead_shouldRejectSecondShardInOneTransaction() {
+        long first = idAllocator.newClientId();
+        long second = first;
+        while (directory.shardOfId(second) == directory.shardOfId(first)) {
+            second = idAllocator.newClientId();
+        }
+        long other = second;
+
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            router.routeRead(first);
+            router.routeRead(other);
+        }));
+    }
+
+    @Test
+    void unsharded_shouldPassThrough() {
+        ShardRouter unsharded = ShardRouter.unsharded();
+
+        assertNull(unsharded.newClientId());
+        unsharded.routeWrite(42L);
+        assertEquals(List.of(3, 1), unsharded.gather(() -> List.of(3, 1), Comparator.naturalOrder()));
+    }
+
+    private long createClient(String name) {
+        long id = idAllocator.newClientId();
+        transaction.executeWithoutResult(status -> {
+            router.routeWrite(id);
+            jdbcTemplate.update("INSERT INTO client (id, name) VALUES (?, ?)", id, name);
+        });
+        return id;
+    }
+}
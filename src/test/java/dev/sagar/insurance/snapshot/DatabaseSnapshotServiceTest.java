@@ -0,0 +1,63 @@
+package dev.sagar.insurance.snapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseSnapshotServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private DatabaseSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:snapshot-test;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE client (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.update("INSERT INTO client (name) VALUES ('John Doe'), ('Jane Doe')");
+
+        SnapshotProperties properties = new SnapshotProperties(true, tempDir.resolve("snapshots/db.sql.gz"), true, true);
+        snapshotService = new DatabaseSnapshotService(jdbcTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void save_shouldWriteCompressedSnapshot() {
+        SnapshotResult result = snapshotService.save();
+
+        assertTrue(Files.isRegularFile(tempDir.resolve("snapshots/db.sql.gz")));
+        assertTrue(result.sizeBytes() > 0);
+        assertEquals(Optional.of(result), snapshotService.getLastSave());
+    }
+
+    @Test
+    void load_shouldRestoreRowsAndIdentity() {
+        snapshotService.save();
+        jdbcTemplate.execute("DROP TABLE client");
+
+        Optional<SnapshotResult> result = snapshotService.load();
+
+        assertTrue(result.isPresent());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client", Integer.class));
+        jdbcTemplate.update("INSERT INTO client (name) VALUES ('New Client')");
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT MAX(id) FROM client", Long.class));
+    }
+
+    @Test
+    void load_shouldSkipWhenSnapshotIsMissing() {
+        assertTrue(snapshotService.load().isEmpty());
+        assertTrue(snapshotService.getLastLoad().isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package dev.sagar.insurance.statement;
+
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.client.ClientService;
+import dev.sagar.insurance.exception.GlobalExceptionHandler;
+import dev.sagar.insurance.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ClientStatementControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ClientService clientService;
+
+    @Mock
+    private StatementGenerator statementGenerator;
+
+    @InjectMocks
+    private ClientStatementController controller;
+
+    private final ClientDTO client = new ClientDTO(1L, "John Doe", LocalDate.of(1980, 1, 1), "1 Main St", "5551234567");
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getStatement_shouldStreamJsonByDefault() throws Exception {
+        when(clientService.getClientById(1L)).thenReturn(client);
+        writes(StatementFormat.JSON, "{\"client\":{}}");
+
+        MvcResult result = mockMvc.perform(get("/api/clients/1/statement"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"statement-1.json\""))
+                .andExpect(content().string("{\"client\":{}}"));
+    }
+
+    @Test
+    void getStatement_shouldStreamCsvWhenAccepted() throws Exception {
+        when(clientService.getClientById(1L)).thenReturn(client);
+        writes(StatementFormat.CSV, "record\r\n");
+
+        MvcResult result = mockMvc.perform(get("/api/clients/1/statement").header(HttpHeaders.ACCEPT, "text/csv, */*;q=0.5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(StatementFormat.CSV.mediaType()))
+                .andExpect(content().string("record\r\n"));
+    }
+
+    @Test
+    void getCsvStatement_shouldIgnoreAcceptHeader() throws Exception {
+        when(clientService.getClientById(1L)).thenReturn(client);
+        writes(StatementFormat.CSV, "record\r\n");
+
+        MvcResult result = mockMvc.perform(get("/api/clients/1/statement.csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"statement-1.csv\""));
+    }
+
+    @Test
+    void getStatement_shouldReturnNotFoundBeforeStreaming() throws Exception {
+        when(clientService.getClientById(99L)).thenThrow(new ResourceNotFoundException("Client not found with id: 99"));
+
+        mockMvc.perform(get("/api/clients/99/statement"))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(statementGenerator);
+    }
+
+    private void writes(StatementFormat format, String body) throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(body.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(statementGenerator).write(eq(client), eq(format), any(OutputStream.class));
+    }
+}
@@ -0,0 +1,73 @@
+package dev.sagar.insurance.statement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.sagar.insurance.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementBatchTest {
+
+    private static final int CLIENTS = 25;
+
+    @TempDir
+    private Path directory;
+
+    private StatementBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:statement-batch;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, name VARCHAR(50), date_of_birth DATE, address VARCHAR(255), "
+                + "contact_information VARCHAR(15))");
+        jdbcTemplate.execute("CREATE TABLE policy (id BIGINT PRIMARY KEY, policy_number VARCHAR(20), type VARCHAR(20), "
+                + "coverage_amount DECIMAL(19, 2), premium DECIMAL(19, 2), start_date DATE, end_date DATE, client_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, claim_number VARCHAR(20), description VARCHAR(255), "
+                + "claim_date DATE, status VARCHAR(20), claimed_amount DECIMAL(19, 2), reserved_amount DECIMAL(19, 2), "
+                + "paid_amount DECIMAL(19, 2), policy_id BIGINT)");
+        for (int id = 1; id <= CLIENTS; id++) {
+            jdbcTemplate.update("INSERT INTO client (id, name) VALUES (?, ?)", id, "Client " + id);
+            jdbcTemplate.update("INSERT INTO policy (id, policy_number, premium, client_id) VALUES (?, ?, 100.00, ?)", id, "POL" + id, id);
+        }
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        StatementProperties properties = new StatementProperties(4, directory, 3);
+        StatementGenerator generator = new StatementGenerator(jdbcTemplate, ShardRouter.unsharded(), objectMapper, properties,
+                new SimpleMeterRegistry());
+        batch = new StatementBatch(generator, ShardRouter.unsharded(), properties);
+    }
+
+    @Test
+    void generateAll_shouldWriteOneCompleteStatementPerClient() throws Exception {
+        StatementBatchResult result = batch.generateAll(StatementFormat.CSV);
+
+        assertEquals(CLIENTS, result.statements());
+        assertEquals(0, result.failures());
+        Path run = Path.of(result.directory());
+        assertTrue(run.startsWith(directory));
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(run)) {
+            files = listing.sorted().toList();
+        }
+        assertEquals(CLIENTS, files.size());
+        assertTrue(files.stream().allMatch(file -> file.getFileName().toString().matches("client-\\d+\\.csv")));
+        assertEquals(result.bytes(), files.stream().mapToLong(file -> file.toFile().length()).sum());
+        List<String> rows = Files.readAllLines(run.resolve("client-7.csv"));
+        assertEquals("client,7,Client 7,,,,,,,,,,,,,,", rows.get(1));
+        assertEquals("totals,7,,1,,,0,100.00,,,0,,,,0,0,0", rows.getLast());
+        assertEquals(result, batch.getLastRun().orElseThrow());
+    }
+}
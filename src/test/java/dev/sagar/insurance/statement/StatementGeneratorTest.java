@@ -0,0 +1,149 @@
+package dev.sagar.insurance.statement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.sagar.insurance.client.ClientDTO;
+import dev.sagar.insurance.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementGeneratorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private StatementGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, name VARCHAR(50), date_of_birth DATE, address VARCHAR(255), "
+                + "contact_information VARCHAR(15))");
+        jdbcTemplate.execute("CREATE TABLE policy (id BIGINT PRIMARY KEY, policy_number VARCHAR(20), type VARCHAR(20), "
+                + "coverage_amount DECIMAL(19, 2), premium DECIMAL(19, 2), start_date DATE, end_date DATE, client_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE claim (id BIGINT PRIMARY KEY, claim_number VARCHAR(20), description VARCHAR(255), "
+                + "claim_date DATE, status VARCHAR(20), claimed_amount DECIMAL(19, 2), reserved_amount DECIMAL(19, 2), "
+                + "paid_amount DECIMAL(19, 2), policy_id BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_policy_client_id ON policy (client_id, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_claim_policy_id ON claim (policy_id, id)");
+
+        client(1, "Doe, John");
+        client(2, "Jane Roe");
+        // Client 1: four policies, more than a page, and five claims, more than a page, the last policy without any
+        policy(10, 1, "1000.00");
+        policy(11, 1, "200.00");
+        policy(12, 1, "300.00");
+        policy(13, 1, "400.00");
+        policy(20, 2, "999.00");
+        claim(100, 10, "50.00");
+        claim(101, 10, "60.00");
+        claim(102, 10, "70.00");
+        claim(103, 11, "80.00");
+        claim(104, 12, "90.00");
+        claim(200, 20, "5.00");
+
+        generator = new StatementGenerator(jdbcTemplate, ShardRouter.unsharded(), OBJECT_MAPPER,
+                new StatementProperties(2, Path.of("unused"), 1), meterRegistry);
+    }
+
+    @Test
+    void write_shouldNestEachPolicysClaimsAcrossPages() throws Exception {
+        JsonNode statement = OBJECT_MAPPER.readTree(write(1, StatementFormat.JSON));
+
+        assertEquals("Doe, John", statement.at("/client/name").asText());
+        JsonNode policies = statement.get("policies");
+        assertEquals(List.of(10L, 11L, 12L, 13L), ids(policies));
+        assertEquals(List.of(100L, 101L, 102L), ids(policies.get(0).get("claims")));
+        assertEquals(List.of(103L), ids(policies.get(1).get("claims")));
+        assertEquals(List.of(104L), ids(policies.get(2).get("claims")));
+        assertEquals(List.of(), ids(policies.get(3).get("claims")));
+        assertEquals("2024-01-01", policies.get(0).get("startDate").asText());
+        assertEquals(4, statement.at("/totals/policies").asLong());
+        assertEquals(1900.0, statement.at("/totals/premium").doubleValue());
+        assertEquals(5, statement.at("/totals/claims").asLong());
+        assertEquals(350.0, statement.at("/totals/claimedAmount").doubleValue());
+        assertEquals(1, meterRegistry.get("insurance.statements.generated").tag("format", "json").timer().count());
+    }
+
+    @Test
+    void write_shouldWriteCsvRecordsInStatementOrder() throws Exception {
+        List<String> rows = write(1, StatementFormat.CSV).lines().toList();
+
+        assertEquals(CsvStatementWriter.HEADER, rows.getFirst());
+        assertEquals("client,1,\"Doe, John\",,,,,,,,,,,,,,", rows.get(1));
+        assertEquals("policy,1,,10,POL10,AUTO,10000.00,1000.00,2024-01-01,2025-01-01,,,,,,,", rows.get(2));
+        assertEquals("claim,1,,10,,,,,,,100,CLM100,2024-02-01,OPEN,50.00,0.00,0.00", rows.get(3));
+        assertEquals(List.of("client", "policy", "claim", "claim", "claim", "policy", "claim", "policy", "claim", "policy", "totals"),
+                rows.stream().skip(1).map(row -> row.substring(0, row.indexOf(','))).toList());
+        assertEquals("totals,1,,4,,,40000.00,1900.00,,,5,,,,350.00,0.00,0.00", rows.getLast());
+    }
+
+    @Test
+    void write_shouldCloseEmptyPortfolio() throws Exception {
+        jdbcTemplate.update("INSERT INTO client (id, name) VALUES (3, 'New Client')");
+
+        JsonNode statement = OBJECT_MAPPER.readTree(write(3, StatementFormat.JSON));
+
+        assertEquals(0, statement.get("policies").size());
+        assertEquals(0, statement.at("/totals/policies").asLong());
+        assertEquals(0.0, statement.at("/totals/premium").doubleValue());
+    }
+
+    @Test
+    void clients_shouldPageInIdOrder() {
+        assertEquals(List.of(1L, 2L), generator.clients(0, 0).stream().map(ClientDTO::id).toList());
+        assertEquals(List.of(2L), generator.clients(0, 1).stream().map(ClientDTO::id).toList());
+    }
+
+    @Test
+    void escape_shouldQuoteSeparatorsQuotesAndLineBreaks() {
+        assertEquals("plain", CsvStatementWriter.escape("plain"));
+        assertEquals("\"a,b\"", CsvStatementWriter.escape("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", CsvStatementWriter.escape("say \"hi\""));
+        assertEquals("\"two\nlines\"", CsvStatementWriter.escape("two\nlines"));
+    }
+
+    private String write(long clientId, StatementFormat format) throws Exception {
+        ClientDTO client = jdbcTemplate.queryForObject("SELECT id, name, date_of_birth, address, contact_information FROM client WHERE id = ?",
+                StatementQueries.CLIENT_ROW, clientId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.write(client, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> ids(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false).map(node -> node.get("id").asLong()).toList();
+    }
+
+    private void client(long id, String name) {
+        jdbcTemplate.update("INSERT INTO client VALUES (?, ?, ?, ?, ?)", id, name, LocalDate.of(1980, 1, 1), "1 Main St", "5551234567");
+    }
+
+    private void policy(long id, long clientId, String premium) {
+        jdbcTemplate.update("INSERT INTO policy VALUES (?, ?, 'AUTO', 10000.00, ?, ?, ?, ?)", id, "POL" + id, new BigDecimal(premium),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), clientId);
+    }
+
+    private void claim(long id, long policyId, String claimed) {
+        jdbcTemplate.update("INSERT INTO claim VALUES (?, ?, 'Hail damage', ?, 'OPEN', ?, 0.00, 0.00, ?)", id, "CLM" + id,
+                LocalDate.of(2024, 2, 1), new BigDecimal(claimed), policyId);
+    }
+}
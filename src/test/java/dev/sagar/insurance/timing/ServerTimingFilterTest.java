@@ -0,0 +1,83 @@
+package dev.sagar.insurance.timing;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(new ServerTimingProperties(true, 0.0, "X-Server-Timing",
+            List.of("/api/claims/*/attachments/**")));
+
+    @Test
+    void doFilter_shouldAddHeaderWhenRequested() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/policies/1");
+        request.addHeader("X-Server-Timing", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res)
+                    throws IOException {
+                ServerTiming.current().record(TimingPhase.SERVICE, 1_000_000);
+                res.getWriter().write("{}");
+            }
+        }));
+
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("service;dur=1.000"));
+        assertEquals("{}", response.getContentAsString());
+        assertNull(ServerTiming.current());
+    }
+
+    @Test
+    void doFilter_shouldSkipTimingWhenNotSampled() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/policies/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+        assertEquals(request, chain.getRequest());
+        assertEquals(response, chain.getResponse());
+    }
+
+    @Test
+    void doFilter_shouldNotTimeEventStreams() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/claims/stream");
+        request.addHeader("X-Server-Timing", "1");
+        request.addHeader("Accept", "text/event-stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    void doFilter_shouldNotTimeExcludedPaths() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/claims/7/attachments/3/content");
+        request.addHeader("X-Server-Timing", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+        assertEquals(response, chain.getResponse());
+    }
+}
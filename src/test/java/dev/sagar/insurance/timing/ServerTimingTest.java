@@ -0,0 +1,64 @@
+package dev.sagar.insurance.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.clear();
+    }
+
+    @Test
+    void start_shouldBindTimingToCurrentThread() {
+        ServerTiming timing = ServerTiming.start();
+
+        assertSame(timing, ServerTiming.current());
+
+        ServerTiming.clear();
+        assertNull(ServerTiming.current());
+    }
+
+    @Test
+    void enter_shouldOnlyRecordOutermostCallOfAPhase() {
+        ServerTiming timing = ServerTiming.start();
+
+        long outer = timing.enter(TimingPhase.SERVICE);
+        long inner = timing.enter(TimingPhase.SERVICE);
+        timing.exit(TimingPhase.SERVICE, inner);
+        timing.exit(TimingPhase.SERVICE, outer);
+
+        assertEquals(0, inner);
+        assertEquals(1, timing.getCount(TimingPhase.SERVICE));
+    }
+
+    @Test
+    void toHeaderValue_shouldListRecordedPhasesInMilliseconds() {
+        ServerTiming timing = ServerTiming.start();
+        timing.record(TimingPhase.REPOSITORY, 1_500_000);
+        timing.record(TimingPhase.REPOSITORY, 500_000);
+        timing.record(TimingPhase.MAPPER, 250_000);
+
+        assertEquals("mapper;dur=0.250;desc=\"Mapper\", repository;dur=2.000;desc=\"Repository x2\"", timing.toHeaderValue());
+    }
+
+    @Test
+    void finish_shouldRecordTotalAndSerialization() {
+        ServerTiming timing = ServerTiming.start();
+        timing.markSerializationStart();
+
+        timing.finish();
+
+        String header = timing.toHeaderValue();
+        assertTrue(header.contains("serialization;dur="));
+        assertTrue(header.contains("total;dur="));
+        assertFalse(header.contains("controller"));
+    }
+}
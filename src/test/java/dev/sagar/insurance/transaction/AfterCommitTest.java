@@ -0,0 +1,57 @@
+package dev.sagar.insurance.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.sagar.insurance.transaction.Synchronizations.begin;
+import static dev.sagar.insurance.transaction.Synchronizations.commit;
+import static dev.sagar.insurance.transaction.Synchronizations.rollback;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AfterCommitTest {
+
+    private final List<String> ran = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        Synchronizations.clear();
+    }
+
+    @Test
+    void run_shouldRunImmediatelyOutsideTransaction() {
+        AfterCommit.run(() -> ran.add("a"));
+
+        assertEquals(List.of("a"), ran);
+    }
+
+    @Test
+    void run_shouldRunInOrderAfterCommit() {
+        begin();
+        AfterCommit.run(() -> ran.add("a"));
+        AfterCommit.run(() -> {
+            ran.add("b");
+            AfterCommit.run(() -> ran.add("c"));
+        });
+        assertEquals(List.of(), ran);
+
+        commit();
+
+        assertEquals(List.of("a", "b", "c"), ran);
+    }
+
+    @Test
+    void run_shouldDropActionsOnRollback() {
+        begin();
+        AfterCommit.run(() -> ran.add("a"));
+        rollback();
+
+        begin();
+        AfterCommit.run(() -> ran.add("b"));
+        commit();
+
+        assertEquals(List.of("b"), ran);
+    }
+}